@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Builds the benchmark jar, runs every benchmark (or those matching $1) with the GC
+# profiler, and compares the results with the stored baseline.
+#
+#   ./run-benchmarks.sh                  run everything, compare with results/baseline.csv
+#   ./run-benchmarks.sh NumberGame       run only benchmarks matching a regex
+#   ./run-benchmarks.sh --save-baseline  run everything and store it as the new baseline
+#
+# Extra JMH options can be passed in JMH_OPTS, e.g. JMH_OPTS="-f 1 -wi 2 -i 3".
+set -euo pipefail
+cd "$(dirname "$0")"
+
+SAVE_BASELINE=false
+FILTER=".*"
+for arg in "$@"; do
+    case "$arg" in
+        --save-baseline) SAVE_BASELINE=true ;;
+        *) FILTER="$arg" ;;
+    esac
+done
+
+mkdir -p results
+mvn -B -q package
+java -jar target/benchmarks.jar "$FILTER" -prof gc -rf csv -rff results/latest.csv ${JMH_OPTS:-}
+
+if [ "$SAVE_BASELINE" = true ]; then
+    cp results/latest.csv results/baseline.csv
+    echo "Saved results/baseline.csv"
+elif [ -f results/baseline.csv ]; then
+    java -cp target/benchmarks.jar ca.bcit.comp2522.termProject.benchmarks.BenchmarkComparison \
+        results/baseline.csv results/latest.csv "${THRESHOLD_PERCENT:-5}"
+else
+    echo "No results/baseline.csv yet; run with --save-baseline on the reference commit first."
+fi
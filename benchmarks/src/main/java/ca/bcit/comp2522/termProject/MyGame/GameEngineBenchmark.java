@@ -0,0 +1,74 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks generating and checking Escape the Room passcode sequences per level.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class GameEngineBenchmark
+{
+    @Param({"1", "5", "10"})
+    public int level;
+
+    private GameEngine engine;
+    private String     correctInput;
+
+    /**
+     * Advances an engine to the benchmarked level and prepares a correct answer.
+     */
+    @Setup
+    public void setUp()
+    {
+        engine = new GameEngine();
+
+        while(engine.getLevel() < level)
+        {
+            engine.incrementLevel();
+        }
+        engine.generateSequence();
+        correctInput = engine.getSequenceText();
+    }
+
+    /**
+     * Generates a new sequence for the level.
+     *
+     * @return the length of the generated sequence
+     */
+    @Benchmark
+    public int generateSequence()
+    {
+        engine.generateSequence();
+        return engine.getSequenceLength();
+    }
+
+    /**
+     * Checks a correct answer against the last generated sequence.
+     *
+     * @return true if the answer matches
+     */
+    @Benchmark
+    public boolean validateInput()
+    {
+        return engine.validateInput(correctInput);
+    }
+}
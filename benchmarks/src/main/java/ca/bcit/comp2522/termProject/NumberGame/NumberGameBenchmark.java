@@ -0,0 +1,101 @@
+package ca.bcit.comp2522.termProject.NumberGame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the Number Game placement rules on grids filled to different levels.
+ * The board is set up directly, without the JavaFX game around it.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class NumberGameBenchmark
+{
+    private static final long SEED           = 2522L;
+    private static final int  VALUE_SPACING  = 50;
+    private static final int  CURRENT_NUMBER = 487;
+
+    @Param({"0", "5", "10", "15", "19"})
+    public int filledCells;
+
+    private NumberBoard board;
+    private int         emptyRow;
+    private int         emptyCol;
+
+    /**
+     * Fills randomly chosen cells with ascending values, in grid order, and picks an
+     * empty cell to test placements in.
+     */
+    @Setup
+    public void setUp()
+    {
+        final List<Integer> cells;
+        final List<Integer> filled;
+
+        board = new NumberBoard();
+        cells = new ArrayList<>();
+
+        for(int cell = 0; cell < NumberBoard.ROWS * NumberBoard.COLS; cell++)
+        {
+            cells.add(cell);
+        }
+        Collections.shuffle(cells, new Random(SEED));
+
+        filled = new ArrayList<>(cells.subList(0, filledCells));
+        Collections.sort(filled);
+
+        for(int rank = 0; rank < filled.size(); rank++)
+        {
+            final int cell;
+            cell = filled.get(rank);
+            board.setValue(cell / NumberBoard.COLS, cell % NumberBoard.COLS, (rank + 1) * VALUE_SPACING);
+        }
+
+        emptyRow = cells.get(filledCells) / NumberBoard.COLS;
+        emptyCol = cells.get(filledCells) % NumberBoard.COLS;
+        board.setCurrentNumber(CURRENT_NUMBER);
+    }
+
+    /**
+     * Checks one placement of the current number in an empty cell.
+     *
+     * @return true if the placement keeps the grid ascending
+     */
+    @Benchmark
+    public boolean isValidPlacement()
+    {
+        return board.isValidPlacement(emptyRow, emptyCol);
+    }
+
+    /**
+     * Checks if the current number fits anywhere on the grid.
+     *
+     * @return true if any empty cell accepts it
+     */
+    @Benchmark
+    public boolean hasValidMoves()
+    {
+        return board.hasValidMoves();
+    }
+}
@@ -0,0 +1,93 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks reading the legacy score file at different history sizes.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ScoreFileBenchmark
+{
+    private static final int GAMES_PER_SESSION = 3;
+    private static final int NUM_QUESTIONS     = 10;
+
+    @Param({"10", "1000", "100000"})
+    public int historySize;
+
+    private Path scoreFile;
+
+    /**
+     * Writes a score file holding the requested number of sessions.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        final LocalDateTime start;
+        start = LocalDateTime.of(2024, 1, 1, 12, 0);
+        scoreFile = Files.createTempFile("scores", ".txt");
+
+        try(final Writer writer = Files.newBufferedWriter(scoreFile))
+        {
+            for(int i = 0; i < historySize; i++)
+            {
+                final int firstAttempt;
+                firstAttempt = i % (NUM_QUESTIONS * GAMES_PER_SESSION);
+
+                writer.write(new Score(start.plusMinutes(i), GAMES_PER_SESSION, firstAttempt,
+                        NUM_QUESTIONS * GAMES_PER_SESSION - firstAttempt, 0).toString());
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Deletes the score file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(scoreFile);
+    }
+
+    /**
+     * Reads and parses every score in the file.
+     *
+     * @return the scores read
+     */
+    @Benchmark
+    public List<Score> readScoresFromFile()
+    {
+        return Score.readScoresFromFile(scoreFile.toString());
+    }
+}
@@ -0,0 +1,73 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks loading the World from the country files and looking countries up by name.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class WorldBenchmark
+{
+    @Param("../src/resources")
+    public String resources;
+
+    private World    world;
+    private String[] names;
+    private int      next;
+
+    /**
+     * Loads the World once and collects every country name to look up.
+     */
+    @Setup
+    public void setUp()
+    {
+        world = new World(Path.of(resources));
+        names = world.getCountries().stream()
+                .map(Country::getName)
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Reads and parses every country file.
+     *
+     * @return the loaded World
+     */
+    @Benchmark
+    public World construct()
+    {
+        return new World(Path.of(resources));
+    }
+
+    /**
+     * Looks up each country in turn, in its original capitalisation.
+     *
+     * @return the country found
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Country getCountryByName()
+    {
+        next = next + 1 == names.length ? 0 : next + 1;
+        return world.getCountryByName(names[next]);
+    }
+}
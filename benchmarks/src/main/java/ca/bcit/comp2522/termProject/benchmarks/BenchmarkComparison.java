@@ -0,0 +1,270 @@
+package ca.bcit.comp2522.termProject.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with "-rf csv" and reports the change in every
+ * benchmark, including the secondary "-prof gc" metrics such as allocation per operation.
+ *
+ * A change counts as a regression when it is worse by more than the threshold and by more
+ * than the two results' combined error. Throughput is better when higher; times and
+ * allocation are better when lower.
+ *
+ * Usage: BenchmarkComparison baseline.csv current.csv [thresholdPercent]
+ * Exits with status 1 if any benchmark regressed.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class BenchmarkComparison
+{
+    private static final double DEFAULT_THRESHOLD_PERCENT = 5.0;
+    private static final double PERCENT                   = 100.0;
+    private static final String THROUGHPUT_MODE           = "thrpt";
+    private static final String PARAM_PREFIX              = "Param: ";
+    private static final String COLUMN_BENCHMARK          = "Benchmark";
+    private static final String COLUMN_MODE               = "Mode";
+    private static final String COLUMN_SCORE              = "Score";
+    private static final String COLUMN_ERROR              = "Score Error (99.9%)";
+    private static final String COLUMN_UNIT               = "Unit";
+    private static final int    REGRESSION_EXIT_STATUS    = 1;
+    private static final int    MIN_ARGS                  = 2;
+    private static final int    THRESHOLD_ARG_INDEX       = 2;
+    private static final String ROW_FORMAT                = "%-70s %14s %14s %9s  %s%n";
+
+    private BenchmarkComparison()
+    {
+    }
+
+    /*
+     * One row of a JMH CSV result.
+     */
+    private record Result(String mode, double score, double error, String unit)
+    {
+    }
+
+    /**
+     * Compares two result files. See the class description for the arguments.
+     *
+     * @param args the baseline file, the current file and an optional threshold
+     * @throws IOException if a file cannot be read
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        if(args.length < MIN_ARGS)
+        {
+            System.err.println("Usage: BenchmarkComparison baseline.csv current.csv [thresholdPercent]");
+            System.exit(REGRESSION_EXIT_STATUS);
+            return;
+        }
+
+        final Map<String, Result> baseline;
+        final Map<String, Result> current;
+        final double threshold;
+        int regressions;
+
+        baseline = read(Path.of(args[0]));
+        current = read(Path.of(args[1]));
+        threshold = args.length > THRESHOLD_ARG_INDEX ?
+                Double.parseDouble(args[THRESHOLD_ARG_INDEX]) : DEFAULT_THRESHOLD_PERCENT;
+        regressions = 0;
+
+        System.out.printf(ROW_FORMAT, "Benchmark", "Baseline", "Current", "Change", "");
+
+        for(final Map.Entry<String, Result> entry : current.entrySet())
+        {
+            final Result now;
+            final Result before;
+
+            now = entry.getValue();
+            before = baseline.get(entry.getKey());
+
+            if(before == null)
+            {
+                System.out.printf(ROW_FORMAT, entry.getKey(), "-", format(now), "-", "new");
+                continue;
+            }
+
+            final double change;
+            final boolean higherIsBetter;
+            final double worsening;
+            final String verdict;
+
+            change = before.score() == 0.0 ? 0.0 :
+                    (now.score() - before.score()) / before.score() * PERCENT;
+            higherIsBetter = now.mode().equals(THROUGHPUT_MODE) && !now.unit().contains("/op");
+            worsening = higherIsBetter ? -change : change;
+
+            if(worsening > threshold &&
+                    Math.abs(now.score() - before.score()) > before.error() + now.error())
+            {
+                verdict = "REGRESSION";
+                regressions++;
+            }
+            else if(-worsening > threshold &&
+                    Math.abs(now.score() - before.score()) > before.error() + now.error())
+            {
+                verdict = "improved";
+            }
+            else
+            {
+                verdict = "";
+            }
+
+            System.out.printf(ROW_FORMAT, entry.getKey(), format(before), format(now),
+                    String.format("%+.1f%%", change), verdict);
+        }
+
+        for(final String key : baseline.keySet())
+        {
+            if(!current.containsKey(key))
+            {
+                System.out.printf(ROW_FORMAT, key, format(baseline.get(key)), "-", "-", "removed");
+            }
+        }
+
+        System.out.printf("%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        if(regressions > 0)
+        {
+            System.exit(REGRESSION_EXIT_STATUS);
+        }
+    }
+
+    /*
+     * Formats a score with its unit.
+     */
+    private static String format(final Result result)
+    {
+        return String.format("%.3f %s", result.score(), result.unit());
+    }
+
+    /*
+     * Reads a JMH CSV file into results keyed by benchmark name and parameters.
+     */
+    private static Map<String, Result> read(final Path file) throws IOException
+    {
+        final List<String> lines;
+        final List<String> header;
+        final Map<String, Result> results;
+
+        lines = Files.readAllLines(file);
+        results = new LinkedHashMap<>();
+
+        if(lines.isEmpty())
+        {
+            return results;
+        }
+
+        header = parseLine(lines.get(0));
+
+        for(int i = 1; i < lines.size(); i++)
+        {
+            if(lines.get(i).isBlank())
+            {
+                continue;
+            }
+
+            final List<String> fields;
+            final StringBuilder key;
+
+            fields = parseLine(lines.get(i));
+            key = new StringBuilder(field(header, fields, COLUMN_BENCHMARK));
+
+            for(int column = 0; column < header.size(); column++)
+            {
+                if(header.get(column).startsWith(PARAM_PREFIX) && column < fields.size() &&
+                        !fields.get(column).isEmpty())
+                {
+                    key.append(' ').append(header.get(column).substring(PARAM_PREFIX.length()))
+                            .append('=').append(fields.get(column));
+                }
+            }
+
+            results.put(key.toString(), new Result(
+                    field(header, fields, COLUMN_MODE),
+                    parseNumber(field(header, fields, COLUMN_SCORE)),
+                    parseNumber(field(header, fields, COLUMN_ERROR)),
+                    field(header, fields, COLUMN_UNIT)));
+        }
+        return results;
+    }
+
+    /*
+     * Retrieves a named column of a row, or an empty string if it is missing.
+     */
+    private static String field(final List<String> header,
+                                final List<String> fields,
+                                final String column)
+    {
+        final int index;
+        index = header.indexOf(column);
+
+        return index >= 0 && index < fields.size() ? fields.get(index) : "";
+    }
+
+    /*
+     * Parses a number, treating JMH's "NaN" and empty fields as zero.
+     */
+    private static double parseNumber(final String text)
+    {
+        if(text.isEmpty())
+        {
+            return 0.0;
+        }
+
+        final double value;
+        value = Double.parseDouble(text);
+
+        return Double.isNaN(value) ? 0.0 : value;
+    }
+
+    /*
+     * Splits one CSV line, honouring double-quoted fields.
+     */
+    private static List<String> parseLine(final String line)
+    {
+        final List<String> fields;
+        final StringBuilder field;
+        boolean quoted;
+
+        fields = new ArrayList<>();
+        field = new StringBuilder();
+        quoted = false;
+
+        for(int i = 0; i < line.length(); i++)
+        {
+            final char c;
+            c = line.charAt(i);
+
+            if(c == '"')
+            {
+                if(quoted && i + 1 < line.length() && line.charAt(i + 1) == '"')
+                {
+                    field.append('"');
+                    i++;
+                }
+                else
+                {
+                    quoted = !quoted;
+                }
+            }
+            else if(c == ',' && !quoted)
+            {
+                fields.add(field.toString());
+                field.setLength(0);
+            }
+            else
+            {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,285 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.BackgroundImage;
+import javafx.scene.layout.BackgroundPosition;
+import javafx.scene.layout.BackgroundRepeat;
+import javafx.scene.layout.BackgroundSize;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads the images and stylesheets the desktop games share, once per run.
+ *
+ * Images are decoded in the background, at the size they are shown at rather than at
+ * full resolution, and cached by name and size, so a scene shown again, or a game
+ * restarted or opened from the launcher after its images were preloaded, never decodes
+ * them twice. A scene can show as soon as it is built: backgrounds show a plain
+ * placeholder until their image has been decoded. Stylesheets are preloaded into JavaFX's
+ * own style cache, which every scene shares. A resource missing from the classpath
+ * is logged once and shown as nothing, so a game shows without it rather than failing.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 2.0
+ */
+public final class Assets
+{
+    private static final String             SOURCE            = "Assets";
+    private static final String             PLACEHOLDER_COLOR = "#1A1030";
+    private static final double             LOADED            = 1.0;
+    private static final Background         PLACEHOLDER       = new Background(
+            new BackgroundFill(Color.web(PLACEHOLDER_COLOR), CornerRadii.EMPTY, Insets.EMPTY));
+    private static final BackgroundSize     COVER             = new BackgroundSize(
+            BackgroundSize.AUTO, BackgroundSize.AUTO, false, false, false, true);
+    private static final Timer              DECODE_TIMER      = Metrics.timer("assets.image_decode");
+    private static final Timer              STYLE_TIMER       = Metrics.timer("assets.stylesheet_load");
+    private static final Counter            CACHE_HITS        = Metrics.counter("assets.cache_hits");
+    private static final Map<String, Image> IMAGES            = new ConcurrentHashMap<>();
+    private static final Map<String, URL>   RESOURCES         = new ConcurrentHashMap<>();
+    private static final Set<String>        MISSING           = ConcurrentHashMap.newKeySet();
+
+    private Assets()
+    {
+    }
+
+    /**
+     * Gets an image from the classpath, scaled to fit the size it is shown at without
+     * changing its aspect ratio. The first call for a name and size starts decoding it in
+     * the background and returns at once; an ImageView shows nothing until it has been
+     * decoded.
+     *
+     * @param name   the resource name, such as "/wand.png"
+     * @param width  the width the image is shown at
+     * @param height the height the image is shown at
+     * @return the image, or null if there is no such resource
+     */
+    public static Image image(final String name,
+                              final double width,
+                              final double height)
+    {
+        final String key;
+        final Image cached;
+        final URL url;
+
+        key = name + '@' + width + 'x' + height;
+        cached = IMAGES.get(key);
+        if(cached != null)
+        {
+            CACHE_HITS.increment();
+            return cached;
+        }
+
+        url = resource(name);
+        if(url == null)
+        {
+            return null;
+        }
+
+        return IMAGES.computeIfAbsent(key, ignored -> decode(name, url, width, height));
+    }
+
+    /**
+     * Runs an action on the JavaFX application thread once an image has been decoded,
+     * at once if it already has. The action never runs for an image that failed to decode.
+     *
+     * @param image  the image
+     * @param action the action
+     */
+    public static void whenLoaded(final Image image,
+                                  final Runnable action)
+    {
+        afterDecode(image, () -> {
+            if(!image.isError())
+            {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Fills a region with an image, scaled to cover the region without distorting it as
+     * the stylesheets' "cover" size did, and shows a placeholder until the image has been
+     * decoded. Call on the JavaFX application thread.
+     *
+     * @param region the region
+     * @param name   the resource name, such as "/img.jpeg"
+     * @param width  the width the region is shown at
+     * @param height the height the region is shown at
+     */
+    public static void setBackground(final Region region,
+                                     final String name,
+                                     final double width,
+                                     final double height)
+    {
+        final Image image;
+        image = image(name, width, height);
+
+        region.setBackground(PLACEHOLDER);
+        if(image != null)
+        {
+            whenLoaded(image, () -> region.setBackground(new Background(new BackgroundImage(image,
+                    BackgroundRepeat.NO_REPEAT, BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER,
+                    COVER))));
+        }
+    }
+
+    /**
+     * Gets the URL a scene loads a stylesheet from.
+     *
+     * @param name the resource name, such as "/styles.css"
+     * @return the URL, or null if there is no such resource
+     */
+    public static String stylesheet(final String name)
+    {
+        final URL url;
+        url = resource(name);
+
+        return url == null ? null : url.toExternalForm();
+    }
+
+    /**
+     * Loads a stylesheet into the style cache every scene shares, by applying it to a
+     * throwaway scene that is never shown, so a scene using it later finds it already
+     * parsed. Call on the JavaFX application thread, after the application has started.
+     *
+     * @param name the resource name, such as "/styles.css"
+     */
+    public static void preloadStylesheet(final String name)
+    {
+        final String url;
+        final Scene scene;
+        final long start;
+
+        url = stylesheet(name);
+        if(url == null)
+        {
+            return;
+        }
+
+        start = STYLE_TIMER.start();
+        try
+        {
+            scene = new Scene(new Pane());
+            scene.getStylesheets().add(url);
+            scene.getRoot().applyCss();
+        }
+        finally
+        {
+            STYLE_TIMER.stop(start);
+        }
+    }
+
+    /*
+     * Starts decoding an image in the background at the size it is shown at, timing the
+     * decode and logging it if it fails.
+     */
+    private static Image decode(final String name,
+                                final URL url,
+                                final double width,
+                                final double height)
+    {
+        final Image image;
+        final long start;
+
+        start = DECODE_TIMER.start();
+        image = new Image(url.toExternalForm(), width, height, true, true, true); // Keeps the aspect ratio
+        afterDecode(image, () -> {
+            DECODE_TIMER.stop(start);
+            if(image.isError())
+            {
+                EventLog.warn(SOURCE, "asset.undecodable", name,
+                        image.getException() == null ? null : image.getException().getMessage());
+            }
+        });
+        return image;
+    }
+
+    /*
+     * Runs an action on the JavaFX application thread once an image has been decoded or
+     * has failed to, at once if it already has. Image progress only changes on that thread.
+     */
+    private static void afterDecode(final Image image,
+                                    final Runnable action)
+    {
+        final ChangeListener<Object> listener;
+
+        if(!Platform.isFxApplicationThread())
+        {
+            Platform.runLater(() -> afterDecode(image, action));
+            return;
+        }
+
+        if(isDecoded(image))
+        {
+            action.run();
+            return;
+        }
+
+        listener = new ChangeListener<Object>()
+        {
+            @Override
+            public void changed(final ObservableValue<?> property,
+                                final Object previous,
+                                final Object current)
+            {
+                if(isDecoded(image))
+                {
+                    image.progressProperty().removeListener(this);
+                    image.errorProperty().removeListener(this);
+                    action.run();
+                }
+            }
+        };
+        image.progressProperty().addListener(listener);
+        image.errorProperty().addListener(listener);
+    }
+
+    /*
+     * Checks if an image has finished loading, successfully or not.
+     */
+    private static boolean isDecoded(final Image image)
+    {
+        return image.isError() || image.getProgress() >= LOADED;
+    }
+
+    /*
+     * Finds a resource on the classpath, logging it the first time it is missing.
+     */
+    private static URL resource(final String name)
+    {
+        final URL cached;
+        final URL url;
+
+        cached = RESOURCES.get(name);
+        if(cached != null)
+        {
+            return cached;
+        }
+
+        url = Assets.class.getResource(name);
+        if(url == null)
+        {
+            if(MISSING.add(name))
+            {
+                EventLog.warn(SOURCE, "asset.missing", name, null);
+            }
+            return null;
+        }
+
+        RESOURCES.put(name, url);
+        return url;
+    }
+}
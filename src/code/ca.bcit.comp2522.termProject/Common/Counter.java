@@ -0,0 +1,53 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count of events, striped across threads so that concurrent increments do not
+ * contend on a single value. Obtain counters from {@link Metrics#counter(String)}.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class Counter implements CounterMBean
+{
+    private final LongAdder count;
+
+    /*
+     * Constructs an empty Counter.
+     */
+    Counter()
+    {
+        this.count = new LongAdder();
+    }
+
+    /**
+     * Adds one to the count.
+     */
+    public void increment()
+    {
+        count.increment();
+    }
+
+    /**
+     * Adds the specified amount to the count.
+     *
+     * @param amount the amount to add
+     */
+    public void add(final long amount)
+    {
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "count=" + getCount();
+    }
+}
@@ -0,0 +1,17 @@
+package ca.bcit.comp2522.termProject.Common;
+
+/**
+ * The JMX view of a {@link Counter}.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public interface CounterMBean
+{
+    /**
+     * Retrieves the current count.
+     *
+     * @return the sum of every increment so far
+     */
+    long getCount();
+}
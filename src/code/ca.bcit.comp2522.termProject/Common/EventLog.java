@@ -0,0 +1,508 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes diagnostic events from all three games to a rolling log file without
+ * blocking the game threads.
+ *
+ * Producers claim a slot in a preallocated ring buffer and store references to the
+ * values they already hold, so logging an event never allocates or touches the
+ * file system. A number, such as a port or a seed, is stored in a primitive slot of its
+ * own, either as the subject or as a value beside it, so it is never boxed and callers
+ * never build a string to combine it with the subject. A background daemon thread
+ * drains the buffer in batches and writes one JSON object per line to logs/events.log,
+ * rolling the file over once it grows too large. If the buffer is full the event is dropped and counted, and the count
+ * is written to the log once space is available again.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.1
+ */
+public final class EventLog
+{
+    /**
+     * The severity of an event.
+     */
+    public enum Level
+    {
+        INFO,
+        WARN,
+        ERROR
+    }
+
+    private static final int             CAPACITY          = 8192;
+    private static final int             MASK              = CAPACITY - 1;
+    private static final int             BATCH_SIZE        = 256;
+    private static final long            UNPUBLISHED       = -1L;
+    private static final long            IDLE_PARK_NANOS   = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long            MAX_FILE_BYTES    = 10L * 1024 * 1024;
+    private static final int             MAX_ROLLED_FILES  = 5;
+    private static final Path            LOG_DIRECTORY     = Path.of("logs");
+    private static final String          LOG_NAME          = "events";
+    private static final String          LOG_EXTENSION     = ".log";
+    private static final String          DROPPED_EVENT     = "eventlog.dropped";
+    private static final String          SOURCE            = "EventLog";
+    private static final char[]          HEX_DIGITS        = "0123456789abcdef".toCharArray();
+    private static final byte            NO_NUMBER         = 0;
+    private static final byte            NUMBER_SUBJECT    = 1;
+    private static final byte            NUMBER_VALUE      = 2;
+    private static final long            UNUSED_NUMBER     = 0L;
+
+    // The ring buffer; slot i holds the event with sequence number s when published[i] == s
+    private static final long[]          TIMESTAMPS        = new long[CAPACITY];
+    private static final long[]          THREAD_IDS        = new long[CAPACITY];
+    private static final Level[]         LEVELS            = new Level[CAPACITY];
+    private static final String[]        SOURCES           = new String[CAPACITY];
+    private static final String[]        EVENTS            = new String[CAPACITY];
+    private static final Object[]        SUBJECTS          = new Object[CAPACITY];
+    private static final long[]          NUMBERS           = new long[CAPACITY];
+    private static final byte[]          NUMBER_KINDS      = new byte[CAPACITY];
+    private static final String[]        DETAILS           = new String[CAPACITY];
+    private static final AtomicLongArray PUBLISHED         = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong      CLAIMED           = new AtomicLong();
+    private static final LongAdder       DROPPED           = new LongAdder();
+    private static final Object          DRAIN_LOCK        = new Object();
+    private static volatile long         consumed;
+    private static long                  droppedReported;
+    private static Writer                writer;
+    private static long                  fileBytes;
+
+    static
+    {
+        for(int i = 0; i < CAPACITY; i++)
+        {
+            PUBLISHED.set(i, UNPUBLISHED);
+        }
+
+        final Thread consumer;
+        consumer = new Thread(EventLog::consume, "event-log");
+        consumer.setDaemon(true);
+        consumer.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::flush, "event-log-flush"));
+    }
+
+    private EventLog()
+    {
+    }
+
+    /**
+     * Logs an informational event.
+     *
+     * @param source  the class reporting the event
+     * @param event   a short, stable name for the kind of event, such as "world.file_unreadable"
+     * @param subject what the event is about, such as a file path; formatted only when written
+     */
+    public static void info(final String source,
+                            final String event,
+                            final Object subject)
+    {
+        log(Level.INFO, source, event, subject, null);
+    }
+
+    /**
+     * Logs an informational event about a number, such as a port.
+     *
+     * @param source  the class reporting the event
+     * @param event   a short, stable name for the kind of event
+     * @param subject the number the event is about
+     */
+    public static void info(final String source,
+                            final String event,
+                            final long subject)
+    {
+        publish(Level.INFO, source, event, null, NUMBER_SUBJECT, subject, null);
+    }
+
+    /**
+     * Logs a warning, typically for bad input that was skipped.
+     *
+     * @param source  the class reporting the event
+     * @param event   a short, stable name for the kind of event
+     * @param subject what the event is about; formatted only when written
+     * @param detail  further detail, such as an exception message, or null
+     */
+    public static void warn(final String source,
+                            final String event,
+                            final Object subject,
+                            final String detail)
+    {
+        log(Level.WARN, source, event, subject, detail);
+    }
+
+    /**
+     * Logs a warning about a number, such as a count.
+     *
+     * @param source  the class reporting the event
+     * @param event   a short, stable name for the kind of event
+     * @param subject the number the event is about
+     * @param detail  further detail, or null
+     */
+    public static void warn(final String source,
+                            final String event,
+                            final long subject,
+                            final String detail)
+    {
+        publish(Level.WARN, source, event, null, NUMBER_SUBJECT, subject, detail);
+    }
+
+    /**
+     * Logs a warning about a subject and a number that locates it, such as a file and a
+     * line number or a game and its seed.
+     *
+     * @param source  the class reporting the event
+     * @param event   a short, stable name for the kind of event
+     * @param subject what the event is about; formatted only when written
+     * @param value   the number written beside the subject
+     * @param detail  further detail, or null
+     */
+    public static void warn(final String source,
+                            final String event,
+                            final Object subject,
+                            final long value,
+                            final String detail)
+    {
+        publish(Level.WARN, source, event, subject, NUMBER_VALUE, value, detail);
+    }
+
+    /**
+     * Logs an error, typically a failed I/O operation.
+     *
+     * @param source  the class reporting the event
+     * @param event   a short, stable name for the kind of event
+     * @param subject what the event is about; formatted only when written
+     * @param detail  further detail, such as an exception message, or null
+     */
+    public static void error(final String source,
+                             final String event,
+                             final Object subject,
+                             final String detail)
+    {
+        log(Level.ERROR, source, event, subject, detail);
+    }
+
+    /**
+     * Logs an error about a number, such as a port.
+     *
+     * @param source  the class reporting the event
+     * @param event   a short, stable name for the kind of event
+     * @param subject the number the event is about
+     * @param detail  further detail, or null
+     */
+    public static void error(final String source,
+                             final String event,
+                             final long subject,
+                             final String detail)
+    {
+        publish(Level.ERROR, source, event, null, NUMBER_SUBJECT, subject, detail);
+    }
+
+    /**
+     * Logs an event. Returns immediately; the event is written by the background thread,
+     * or dropped and counted if the buffer is full.
+     *
+     * @param level   the severity of the event
+     * @param source  the class reporting the event
+     * @param event   a short, stable name for the kind of event
+     * @param subject what the event is about, or null; formatted only when written
+     * @param detail  further detail, or null
+     */
+    public static void log(final Level level,
+                           final String source,
+                           final String event,
+                           final Object subject,
+                           final String detail)
+    {
+        publish(level, source, event, subject, NO_NUMBER, UNUSED_NUMBER, detail);
+    }
+
+    /**
+     * Retrieves the number of events dropped because the buffer was full.
+     *
+     * @return the number of dropped events
+     */
+    public static long getDroppedCount()
+    {
+        return DROPPED.sum();
+    }
+
+    /**
+     * Writes every event published so far and flushes the log file.
+     */
+    public static void flush()
+    {
+        synchronized(DRAIN_LOCK)
+        {
+            while(drain() > 0)
+            {
+                // Keep draining until the buffer is empty
+            }
+        }
+    }
+
+    /*
+     * Claims a slot and publishes an event into it, or drops and counts the event if the
+     * buffer is full. The number is only written if its kind says where it goes.
+     */
+    private static void publish(final Level level,
+                                final String source,
+                                final String event,
+                                final Object subject,
+                                final byte numberKind,
+                                final long number,
+                                final String detail)
+    {
+        long sequence;
+
+        do
+        {
+            sequence = CLAIMED.get();
+
+            if(sequence - consumed >= CAPACITY)
+            {
+                DROPPED.increment();
+                return;
+            }
+        }
+        while(!CLAIMED.compareAndSet(sequence, sequence + 1));
+
+        final int slot;
+        slot = (int) (sequence & MASK);
+
+        TIMESTAMPS[slot]   = System.currentTimeMillis();
+        THREAD_IDS[slot]   = Thread.currentThread().threadId();
+        LEVELS[slot]       = level;
+        SOURCES[slot]      = source;
+        EVENTS[slot]       = event;
+        SUBJECTS[slot]     = subject;
+        NUMBER_KINDS[slot] = numberKind;
+        NUMBERS[slot]      = number;
+        DETAILS[slot]      = detail;
+        PUBLISHED.set(slot, sequence); // Publishes the fields above to the consumer
+    }
+
+    /*
+     * Runs on the background thread, draining batches and parking while idle.
+     */
+    private static void consume()
+    {
+        while(true)
+        {
+            final int written;
+
+            synchronized(DRAIN_LOCK)
+            {
+                written = drain();
+            }
+
+            if(written == 0)
+            {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /*
+     * Writes up to one batch of published events and flushes the file.
+     * Returns the number of events written. Callers must hold DRAIN_LOCK.
+     */
+    private static int drain()
+    {
+        final StringBuilder batch;
+        long next;
+        int count;
+
+        batch = new StringBuilder();
+        next = consumed;
+        count = 0;
+
+        while(count < BATCH_SIZE && PUBLISHED.get((int) (next & MASK)) == next)
+        {
+            final int slot;
+            slot = (int) (next & MASK);
+
+            appendEvent(batch, TIMESTAMPS[slot], THREAD_IDS[slot], LEVELS[slot], SOURCES[slot],
+                    EVENTS[slot], SUBJECTS[slot], NUMBER_KINDS[slot], NUMBERS[slot], DETAILS[slot]);
+
+            SUBJECTS[slot] = null; // Do not keep subjects reachable
+            DETAILS[slot]  = null;
+            next++;
+            count++;
+        }
+        consumed = next; // Frees the slots for producers
+
+        final long dropped;
+        dropped = DROPPED.sum();
+
+        if(dropped > droppedReported)
+        {
+            appendEvent(batch, System.currentTimeMillis(), Thread.currentThread().threadId(),
+                    Level.WARN, SOURCE, DROPPED_EVENT, null, NUMBER_SUBJECT, dropped - droppedReported, null);
+            droppedReported = dropped;
+        }
+
+        if(!batch.isEmpty())
+        {
+            write(batch);
+        }
+        return count;
+    }
+
+    /*
+     * Formats one event as a JSON line. A number is written as a JSON number, in place of
+     * the subject or as a value after it.
+     */
+    private static void appendEvent(final StringBuilder out,
+                                    final long timestamp,
+                                    final long threadId,
+                                    final Level level,
+                                    final String source,
+                                    final String event,
+                                    final Object subject,
+                                    final byte numberKind,
+                                    final long number,
+                                    final String detail)
+    {
+        out.append("{\"time\":\"").append(Instant.ofEpochMilli(timestamp))
+                .append("\",\"level\":\"").append(level)
+                .append("\",\"thread\":").append(threadId);
+        appendField(out, "source", source);
+        appendField(out, "event", event);
+        if(numberKind == NUMBER_SUBJECT)
+        {
+            out.append(",\"subject\":").append(number);
+        }
+        else
+        {
+            appendField(out, "subject", subject == null ? null : String.valueOf(subject));
+        }
+        if(numberKind == NUMBER_VALUE)
+        {
+            out.append(",\"value\":").append(number);
+        }
+        appendField(out, "detail", detail);
+        out.append('}').append('\n');
+    }
+
+    /*
+     * Appends a string field, escaped for JSON, unless the value is null.
+     */
+    private static void appendField(final StringBuilder out,
+                                    final String name,
+                                    final String value)
+    {
+        if(value == null)
+        {
+            return;
+        }
+
+        out.append(",\"").append(name).append("\":\"");
+        for(int i = 0; i < value.length(); i++)
+        {
+            final char c;
+            c = value.charAt(i);
+
+            switch(c)
+            {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if(c < ' ')
+                    {
+                        out.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                    }
+                    else
+                    {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    /*
+     * Appends a batch to the log file, rolling it over first if it is full.
+     * The log cannot report its own failures, so those go to standard error.
+     */
+    private static void write(final CharSequence batch)
+    {
+        try
+        {
+            if(writer == null || fileBytes >= MAX_FILE_BYTES)
+            {
+                openLogFile();
+            }
+
+            writer.append(batch);
+            writer.flush();
+            fileBytes += batch.length();
+        }
+        catch(final IOException e)
+        {
+            System.err.println("Error writing event log: " + e.getMessage());
+            writer = null;
+        }
+    }
+
+    /*
+     * Opens the current log file, rolling the existing one over if it is full.
+     */
+    private static void openLogFile() throws IOException
+    {
+        final Path current;
+        current = LOG_DIRECTORY.resolve(LOG_NAME + LOG_EXTENSION);
+
+        if(writer != null)
+        {
+            writer.close();
+            writer = null;
+        }
+
+        Files.createDirectories(LOG_DIRECTORY);
+
+        if(Files.exists(current) && Files.size(current) >= MAX_FILE_BYTES)
+        {
+            // events.4.log -> events.5.log, ..., events.log -> events.1.log
+            for(int i = MAX_ROLLED_FILES - 1; i >= 0; i--)
+            {
+                final Path from;
+                from = i == 0 ? current : LOG_DIRECTORY.resolve(LOG_NAME + "." + i + LOG_EXTENSION);
+
+                if(Files.exists(from))
+                {
+                    Files.move(from, LOG_DIRECTORY.resolve(LOG_NAME + "." + (i + 1) + LOG_EXTENSION),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+
+        writer = Files.newBufferedWriter(current, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(current);
+    }
+}
@@ -0,0 +1,173 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hosts any number of games of any of the three types, each played to the end by its
+ * GamePlayer on a shared executor: a fixed pool of platform threads, or a virtual thread
+ * per game.
+ *
+ * Every game gets its seed from the host, derived from one root seed and the order the
+ * games were submitted in, so a host with a fixed root seed plays the same games every
+ * run. Steps are timed per game in the shared Metrics, and finished games are counted and,
+ * if the host persists results, recorded in GameStatistics alongside the games played on
+ * the desktop.
+ *
+ * The host knows no game itself, only the HeadlessGame and GamePlayer interfaces the games
+ * implement, so Common depends on none of the game packages. Launcher.HostRunner plays
+ * games of all three types on a host.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.1
+ */
+public class GameHost implements AutoCloseable
+{
+    private static final int     MAX_STEPS       = 1_000_000;
+    private static final int     VIRTUAL_THREADS = 0;
+    private static final String  SOURCE          = "GameHost";
+    private static final Counter GAMES_FINISHED  = Metrics.counter("host.games.finished");
+    private static final Counter GAMES_ABANDONED = Metrics.counter("host.games.abandoned");
+
+    private final ExecutorService executor;
+    private final LongSupplier    clock;
+    private final long            rootSeed;
+    private final boolean         persistResults;
+    private final AtomicLong      gamesSubmitted;
+
+    /**
+     * Constructs a GameHost.
+     *
+     * @param executor       the executor games are played on; the host shuts it down when closed
+     * @param clock          the time games are played at, in milliseconds
+     * @param rootSeed       the seed every game's seed is derived from
+     * @param persistResults true to record every finished game in GameStatistics
+     */
+    public GameHost(final ExecutorService executor,
+                    final LongSupplier clock,
+                    final long rootSeed,
+                    final boolean persistResults)
+    {
+        this.executor       = executor;
+        this.clock          = clock;
+        this.rootSeed       = rootSeed;
+        this.persistResults = persistResults;
+        this.gamesSubmitted = new AtomicLong();
+    }
+
+    /**
+     * Creates a host on the system clock with a new root seed.
+     *
+     * @param threads        the number of platform threads, or 0 for a virtual thread per game
+     * @param persistResults true to record every finished game in GameStatistics
+     * @return the host
+     */
+    public static GameHost withThreads(final int threads,
+                                       final boolean persistResults)
+    {
+        return withThreads(threads, Seeds.newSeed(), persistResults);
+    }
+
+    /**
+     * Creates a host on the system clock with the specified root seed, so the same games
+     * are played every run.
+     *
+     * @param threads        the number of platform threads, or 0 for a virtual thread per game
+     * @param rootSeed       the seed every game's seed is derived from
+     * @param persistResults true to record every finished game in GameStatistics
+     * @return the host
+     */
+    public static GameHost withThreads(final int threads,
+                                       final long rootSeed,
+                                       final boolean persistResults)
+    {
+        return new GameHost(newExecutor(threads), System::currentTimeMillis, rootSeed, persistResults);
+    }
+
+    /**
+     * Submits a game to be played to the end with the host's next seed.
+     *
+     * @param game   the game, used by no other thread until the game is over
+     * @param player the source of the game's inputs
+     * @return the result, once the game is over
+     */
+    public Future<GameResult> submit(final HeadlessGame game,
+                                     final GamePlayer player)
+    {
+        final long seed;
+        seed = Seeds.derive(rootSeed, gamesSubmitted.getAndIncrement());
+
+        return executor.submit(() -> play(game, player, seed));
+    }
+
+    /**
+     * Plays a game to the end on the calling thread. A game that is not over after a
+     * million steps is abandoned and its result so far returned.
+     *
+     * @param game   the game
+     * @param player the source of the game's inputs
+     * @param seed   the seed the game is played from
+     * @return the result
+     */
+    public GameResult play(final HeadlessGame game,
+                           final GamePlayer player,
+                           final long seed)
+    {
+        final Timer stepTimer;
+        final GameResult result;
+
+        stepTimer = Metrics.timer("host." + game.getName().toLowerCase() + ".step");
+
+        try(game)
+        {
+            game.init(seed, clock.getAsLong());
+
+            for(int steps = 0; !game.isOver(); steps++)
+            {
+                final String input;
+                final long start;
+
+                if(steps == MAX_STEPS)
+                {
+                    GAMES_ABANDONED.increment();
+                    EventLog.warn(SOURCE, "host.game_abandoned", game.getName(), seed, null);
+                    return game.result();
+                }
+
+                input = player.nextInput(game, game.prompt());
+                start = stepTimer.start();
+                game.step(input, clock.getAsLong());
+                stepTimer.stop(start);
+            }
+            result = game.result();
+        }
+
+        GAMES_FINISHED.increment();
+        if(persistResults)
+        {
+            GameStatistics.getDefault().record(game.getStatistic(), result.getScore());
+        }
+        return result;
+    }
+
+    /**
+     * Stops accepting games and waits for the games already submitted to finish.
+     */
+    @Override
+    public void close()
+    {
+        executor.close();
+    }
+
+    /*
+     * Creates a pool of platform threads, or a virtual thread per task for 0 threads.
+     */
+    private static ExecutorService newExecutor(final int threads)
+    {
+        return threads == VIRTUAL_THREADS ? Executors.newVirtualThreadPerTaskExecutor() :
+                Executors.newFixedThreadPool(threads);
+    }
+}
@@ -0,0 +1,21 @@
+package ca.bcit.comp2522.termProject.Common;
+
+/**
+ * Supplies the inputs of a game hosted by a GameHost, such as a bot or a remote player.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface GamePlayer
+{
+    /**
+     * Chooses the next input for a game.
+     *
+     * @param game   the game, which is not over
+     * @param prompt what the game is asking
+     * @return the input
+     */
+    String nextInput(final HeadlessGame game,
+                     final String prompt);
+}
@@ -0,0 +1,101 @@
+package ca.bcit.comp2522.termProject.Common;
+
+/**
+ * The result of one game played through the HeadlessGame interface.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class GameResult
+{
+    private final String  name;
+    private final long    seed;
+    private final long    score;
+    private final boolean won;
+    private final int     steps;
+
+    /**
+     * Constructs a GameResult.
+     *
+     * @param name  the name of the game
+     * @param seed  the seed the game was played from
+     * @param score the score, in the game's own unit
+     * @param won   true if the player won the game
+     * @param steps the number of inputs the game took
+     */
+    public GameResult(final String name,
+                      final long seed,
+                      final long score,
+                      final boolean won,
+                      final int steps)
+    {
+        this.name  = name;
+        this.seed  = seed;
+        this.score = score;
+        this.won   = won;
+        this.steps = steps;
+    }
+
+    /**
+     * Gets the name of the game.
+     *
+     * @return the name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Gets the seed the game was played from.
+     *
+     * @return the seed
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Gets the score: points for the Word Game, placements for the Number Game and levels
+     * passed for Escape the Room.
+     *
+     * @return the score
+     */
+    public long getScore()
+    {
+        return score;
+    }
+
+    /**
+     * Checks if the player won the game.
+     *
+     * @return true if the game was won
+     */
+    public boolean isWon()
+    {
+        return won;
+    }
+
+    /**
+     * Gets the number of inputs the game took.
+     *
+     * @return the step count
+     */
+    public int getSteps()
+    {
+        return steps;
+    }
+
+    /**
+     * Formats the result on one line.
+     *
+     * @return the result
+     */
+    @Override
+    public String toString()
+    {
+        return name + " seed " + seed + ": score " + score + (won ? ", won" : ", lost") + " in " + steps +
+                " steps";
+    }
+}
@@ -0,0 +1,253 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps one persistent histogram per game result metric, shared by all three games.
+ * Every completed game records its result here, and percentile reports read the
+ * histogram buckets instead of the full game history.
+ *
+ * Recording only updates the histogram in memory and marks its metric for saving.
+ * A background daemon thread writes each marked histogram, so a game thread never
+ * waits on the file system or a lock, and a burst of games on one metric is saved
+ * in a handful of writes. The remaining histograms are written when the JVM exits.
+ *
+ * The games record to the default statistics in the stats directory; load tests and
+ * other synthetic games get statistics of their own, so they never mix into it.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 2.0
+ */
+public final class GameStatistics
+{
+    /** Points scored in one Word Game. */
+    public static final String WORD_GAME_SCORE        = "wordgame.score";
+
+    /** Successful placements in one Number Game. */
+    public static final String NUMBER_GAME_PLACEMENTS = "numbergame.placements";
+
+    /** Levels passed in one game of Escape the Room. */
+    public static final String ESCAPE_ROOM_SCORE      = "escaperoom.score";
+
+    private static final Path                    DEFAULT_DIRECTORY   = Path.of("stats");
+    private static final String                  HISTOGRAM_EXTENSION = ".hist";
+    private static final String                  TEMP_EXTENSION      = ".tmp";
+    private static final double                  P50                 = 50.0;
+    private static final double                  P90                 = 90.0;
+    private static final double                  P99                 = 99.0;
+    private static final String                  SOURCE              = "GameStatistics";
+    private static final BlockingQueue<Runnable> SAVE_QUEUE          = new LinkedBlockingQueue<>();
+    private static final ReentrantLock           SAVE_LOCK           = new ReentrantLock();
+    private static final GameStatistics          DEFAULT             = new GameStatistics(DEFAULT_DIRECTORY);
+
+    private final Path                      directory;
+    private final Map<String, LogHistogram> histograms;
+    private final Set<String>               unsaved;
+
+    static
+    {
+        final Thread writer;
+        writer = new Thread(GameStatistics::writeQueued, "game-statistics");
+        writer.setDaemon(true);
+        writer.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(GameStatistics::flushQueued, "game-statistics-flush"));
+    }
+
+    /**
+     * Constructs GameStatistics that store their histograms in the specified directory.
+     *
+     * @param directory the directory; it is created by the first save
+     */
+    public GameStatistics(final Path directory)
+    {
+        this.directory  = directory;
+        this.histograms = new ConcurrentHashMap<>();
+        this.unsaved    = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Gets the statistics every game records to by default, in the stats directory.
+     *
+     * @return the default statistics
+     */
+    public static GameStatistics getDefault()
+    {
+        return DEFAULT;
+    }
+
+    /**
+     * Records the result of a completed game. Returns at once; the updated histogram is
+     * saved by the background thread.
+     *
+     * @param metric the metric name, such as {@link #WORD_GAME_SCORE}
+     * @param value  the result of the game
+     */
+    public void record(final String metric,
+                       final long value)
+    {
+        histogram(metric).record(value);
+
+        if(unsaved.add(metric))
+        {
+            SAVE_QUEUE.add(() -> save(metric)); // Not queued yet, or saved since it was
+        }
+    }
+
+    /**
+     * Saves every histogram with results not yet saved, waiting for the writes.
+     */
+    public void flush()
+    {
+        for(final String metric : unsaved)
+        {
+            save(metric);
+        }
+
+        SAVE_LOCK.lock(); // Waits for a save the background thread had already started
+        SAVE_LOCK.unlock();
+    }
+
+    /**
+     * Retrieves the histogram for the specified metric, loading it on first use.
+     *
+     * @param metric the metric name
+     * @return the histogram for the metric
+     */
+    public LogHistogram histogram(final String metric)
+    {
+        return histograms.computeIfAbsent(metric, this::load);
+    }
+
+    /**
+     * Formats the p50/p90/p99 of the specified metric.
+     *
+     * @param metric the metric name
+     * @return the formatted percentiles
+     */
+    public String report(final String metric)
+    {
+        final LogHistogram histogram;
+        histogram = histogram(metric);
+
+        return String.format("p50: %d, p90: %d, p99: %d (%d games)",
+                histogram.getValueAtPercentile(P50),
+                histogram.getValueAtPercentile(P90),
+                histogram.getValueAtPercentile(P99),
+                histogram.getTotalCount());
+    }
+
+    /**
+     * Gets the directory the histograms are stored in.
+     *
+     * @return the directory
+     */
+    public Path getDirectory()
+    {
+        return directory;
+    }
+
+    /*
+     * Loads the persisted histogram for a metric, or creates an empty one.
+     */
+    private LogHistogram load(final String metric)
+    {
+        final Path path;
+        path = directory.resolve(metric + HISTOGRAM_EXTENSION);
+
+        if(Files.exists(path))
+        {
+            try
+            {
+                return LogHistogram.decode(Files.readAllBytes(path));
+            }
+            catch(final IOException e)
+            {
+                EventLog.error(SOURCE, "statistics.read_failed", path, e.getMessage());
+            }
+        }
+        return new LogHistogram();
+    }
+
+    /*
+     * Writes a metric's histogram atomically if it has results not yet saved. Saves are
+     * serialized so the file always holds the latest complete encoding; the lock is a
+     * ReentrantLock rather than a monitor so a virtual thread flushing never pins its carrier.
+     */
+    private void save(final String metric)
+    {
+        SAVE_LOCK.lock();
+        try
+        {
+            if(!unsaved.remove(metric))
+            {
+                return; // Already saved by flush or the background thread
+            }
+
+            final Path path;
+            final Path tempPath;
+
+            path = directory.resolve(metric + HISTOGRAM_EXTENSION);
+            tempPath = directory.resolve(metric + TEMP_EXTENSION);
+
+            try
+            {
+                Files.createDirectories(directory);
+                Files.write(tempPath, histogram(metric).encode()); // Later results are saved next time
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch(final IOException e)
+            {
+                EventLog.error(SOURCE, "statistics.write_failed", path, e.getMessage());
+            }
+        }
+        finally
+        {
+            SAVE_LOCK.unlock();
+        }
+    }
+
+    /*
+     * Runs on the background thread, making each save queued by record.
+     */
+    private static void writeQueued()
+    {
+        try
+        {
+            while(true)
+            {
+                SAVE_QUEUE.take().run();
+            }
+        }
+        catch(final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Makes every queued save on the calling thread, at shutdown.
+     */
+    private static void flushQueued()
+    {
+        Runnable save;
+
+        while((save = SAVE_QUEUE.poll()) != null)
+        {
+            save.run();
+        }
+
+        SAVE_LOCK.lock(); // Waits for a save the background thread had already started
+        SAVE_LOCK.unlock();
+    }
+}
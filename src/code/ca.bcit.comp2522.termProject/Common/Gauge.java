@@ -0,0 +1,35 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A value sampled on demand, such as the number of active sessions.
+ * Register gauges with {@link Metrics#gauge(String, LongSupplier)}.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class Gauge implements GaugeMBean
+{
+    private final LongSupplier supplier;
+
+    /*
+     * Constructs a Gauge reading the specified supplier.
+     */
+    Gauge(final LongSupplier supplier)
+    {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public long getValue()
+    {
+        return supplier.getAsLong();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "value=" + getValue();
+    }
+}
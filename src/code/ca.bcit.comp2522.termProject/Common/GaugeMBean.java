@@ -0,0 +1,17 @@
+package ca.bcit.comp2522.termProject.Common;
+
+/**
+ * The JMX view of a {@link Gauge}.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public interface GaugeMBean
+{
+    /**
+     * Samples the current value.
+     *
+     * @return the value at the time of the call
+     */
+    long getValue();
+}
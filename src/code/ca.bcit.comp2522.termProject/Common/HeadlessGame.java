@@ -0,0 +1,86 @@
+package ca.bcit.comp2522.termProject.Common;
+
+/**
+ * One game of any of the three games, played without a user interface by feeding it text
+ * inputs one step at a time.
+ *
+ * A game is started from a seed with init, shows the player a prompt, and moves on with
+ * every step until it is over; its result can then be read. Every method takes the current
+ * time in milliseconds for games with time limits, so a host may drive games from the
+ * system clock or from a virtual one. A game object can be reused for any number of
+ * games, one after another, but belongs to one thread at a time.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public interface HeadlessGame extends AutoCloseable
+{
+    /**
+     * Gets which game this is.
+     *
+     * @return one of the ReplayLog game types
+     */
+    int getGameType();
+
+    /**
+     * Gets the name of the game, for reports.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Gets the GameStatistics metric a finished game's score is recorded under.
+     *
+     * @return the metric name
+     */
+    String getStatistic();
+
+    /**
+     * Starts a new game, abandoning any game in progress.
+     *
+     * @param seed the seed the game is played from
+     * @param now  the current time in milliseconds
+     */
+    void init(final long seed,
+              final long now);
+
+    /**
+     * Gets what the game is asking the player, such as a question or the number to place.
+     *
+     * @return the prompt
+     */
+    String prompt();
+
+    /**
+     * Gives the game the player's next input. Input the game cannot make sense of counts
+     * as a wrong answer, never as an error.
+     *
+     * @param input the input, such as an answer or a cell
+     * @param now   the current time in milliseconds
+     */
+    void step(final String input,
+              final long now);
+
+    /**
+     * Checks if the game has ended.
+     *
+     * @return true if no more input is accepted until the next init
+     */
+    boolean isOver();
+
+    /**
+     * Gets the result of the game, so far or once it is over.
+     *
+     * @return the result
+     */
+    GameResult result();
+
+    /**
+     * Releases anything the game holds between games. Does nothing by default.
+     */
+    @Override
+    default void close()
+    {
+    }
+}
@@ -0,0 +1,315 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-memory histogram of non-negative long values with log-linear buckets,
+ * in the style of HdrHistogram. Values below 32 get an exact bucket; larger values
+ * share a bucket with at most 1/16 (about 6%) relative error. Recording is lock-free:
+ * the count and sum are striped LongAdders and the maximum is only written when it
+ * grows, so concurrent recorders mostly contend on their bucket alone. Histograms can be
+ * merged, and percentile queries walk the buckets instead of the recorded values.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class LogHistogram
+{
+    private static final int    SUB_BUCKET_BITS  = 5;
+    private static final int    SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int    HALF_SUB_BUCKETS = SUB_BUCKET_COUNT / 2;
+    private static final int    HIGHEST_BIT      = Long.SIZE - 2;
+    private static final int    BUCKET_COUNT     = SUB_BUCKET_COUNT +
+            (HIGHEST_BIT - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS;
+    private static final int    FORMAT_MAGIC     = 0x48495354;
+    private static final int    FORMAT_VERSION   = 1;
+    private static final double MAX_PERCENTILE   = 100.0;
+    private static final long   EMPTY            = 0L;
+    private final AtomicLongArray counts;
+    private final LongAdder       totalCount;
+    private final LongAdder       totalSum;
+    private final AtomicLong      maxValue;
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public LogHistogram()
+    {
+        this.counts     = new AtomicLongArray(BUCKET_COUNT);
+        this.totalCount = new LongAdder();
+        this.totalSum   = new LongAdder();
+        this.maxValue   = new AtomicLong();
+    }
+
+    /**
+     * Records a single value.
+     *
+     * @param value the value to record, must not be negative
+     */
+    public void record(final long value)
+    {
+        if(value < EMPTY)
+        {
+            throw new IllegalArgumentException("Histogram values must not be negative");
+        }
+
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalSum.add(value);
+        if(value > maxValue.get())
+        {
+            maxValue.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Adds every count of another histogram to this histogram.
+     *
+     * @param other the histogram to merge in
+     */
+    public void merge(final LogHistogram other)
+    {
+        for(int i = 0; i < BUCKET_COUNT; i++)
+        {
+            final long count;
+            count = other.counts.get(i);
+
+            if(count != EMPTY)
+            {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalSum.add(other.totalSum.sum());
+        maxValue.accumulateAndGet(other.maxValue.get(), Math::max);
+    }
+
+    /**
+     * Retrieves the number of recorded values.
+     *
+     * @return the total count
+     */
+    public long getTotalCount()
+    {
+        return totalCount.sum();
+    }
+
+    /**
+     * Retrieves the sum of the recorded values.
+     *
+     * @return the total sum
+     */
+    public long getTotalSum()
+    {
+        return totalSum.sum();
+    }
+
+    /**
+     * Retrieves the largest recorded value.
+     *
+     * @return the maximum value, or 0 if the histogram is empty
+     */
+    public long getMaxValue()
+    {
+        return maxValue.get();
+    }
+
+    /**
+     * Calculates the mean of the recorded values.
+     *
+     * @return the mean, or 0.0 if the histogram is empty
+     */
+    public double getMean()
+    {
+        final long count;
+        count = totalCount.sum();
+
+        if(count == EMPTY)
+        {
+            return EMPTY;
+        }
+        return (double) totalSum.sum() / count;
+    }
+
+    /**
+     * Finds the value at the specified percentile. The result is the highest value
+     * that shares a bucket with the value at that rank, capped at the maximum recorded.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the percentile, or 0 if the histogram is empty
+     */
+    public long getValueAtPercentile(final double percentile)
+    {
+        if(percentile < EMPTY || percentile > MAX_PERCENTILE)
+        {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+
+        final long count;
+        final long rank;
+        long cumulative;
+
+        count = totalCount.sum();
+        if(count == EMPTY)
+        {
+            return EMPTY;
+        }
+
+        rank = Math.max(1L, (long) Math.ceil(percentile / MAX_PERCENTILE * count));
+        cumulative = EMPTY;
+
+        for(int i = 0; i < BUCKET_COUNT; i++)
+        {
+            cumulative += counts.get(i);
+
+            if(cumulative >= rank)
+            {
+                return Math.min(highestEquivalentValue(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * Encodes the histogram compactly: only non-empty buckets are written, as
+     * varint-encoded index deltas and counts.
+     *
+     * @return the encoded histogram
+     */
+    public byte[] encode()
+    {
+        final ByteArrayOutputStream bytes;
+        bytes = new ByteArrayOutputStream();
+
+        try(final DataOutputStream out = new DataOutputStream(bytes))
+        {
+            int nonEmpty;
+            int previousIndex;
+
+            nonEmpty = 0;
+            for(int i = 0; i < BUCKET_COUNT; i++)
+            {
+                if(counts.get(i) != EMPTY)
+                {
+                    nonEmpty++;
+                }
+            }
+
+            out.writeInt(FORMAT_MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            Varints.writeUnsigned(out, totalSum.sum());
+            Varints.writeUnsigned(out, maxValue.get());
+            Varints.writeUnsigned(out, nonEmpty);
+
+            previousIndex = 0;
+            for(int i = 0; i < BUCKET_COUNT; i++)
+            {
+                final long count;
+                count = counts.get(i);
+
+                if(count != EMPTY)
+                {
+                    Varints.writeUnsigned(out, i - previousIndex);
+                    Varints.writeUnsigned(out, count);
+                    previousIndex = i;
+                }
+            }
+        }
+        catch(final IOException e)
+        {
+            throw new IllegalStateException("Cannot encode histogram", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a histogram produced by {@link #encode()}.
+     *
+     * @param encoded the encoded histogram
+     * @return the decoded histogram
+     * @throws IOException if the data is not a valid encoded histogram
+     */
+    public static LogHistogram decode(final byte[] encoded) throws IOException
+    {
+        final LogHistogram histogram;
+        histogram = new LogHistogram();
+
+        try(final DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded)))
+        {
+            final long nonEmpty;
+            int index;
+
+            if(in.readInt() != FORMAT_MAGIC || in.readByte() != FORMAT_VERSION)
+            {
+                throw new IOException("Unknown histogram format");
+            }
+
+            histogram.totalSum.add(Varints.readUnsigned(in));
+            histogram.maxValue.set(Varints.readUnsigned(in));
+            nonEmpty = Varints.readUnsigned(in);
+            index = 0;
+
+            for(long i = 0; i < nonEmpty; i++)
+            {
+                final long count;
+
+                index += (int) Varints.readUnsigned(in);
+                count = Varints.readUnsigned(in);
+
+                if(index < 0 || index >= BUCKET_COUNT)
+                {
+                    throw new IOException("Histogram bucket out of range: " + index);
+                }
+                histogram.counts.set(index, count);
+                histogram.totalCount.add(count);
+            }
+        }
+        return histogram;
+    }
+
+    /*
+     * Maps a value to its bucket. Values below SUB_BUCKET_COUNT map to themselves;
+     * larger values keep their top SUB_BUCKET_BITS bits.
+     */
+    private static int bucketIndex(final long value)
+    {
+        if(value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+
+        final int shift;
+        shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKETS +
+                (int) ((value >>> shift) - HALF_SUB_BUCKETS);
+    }
+
+    /*
+     * Finds the highest value that maps to the specified bucket.
+     */
+    private static long highestEquivalentValue(final int index)
+    {
+        if(index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        final int offset;
+        final int shift;
+        final long lowest;
+
+        offset = index - SUB_BUCKET_COUNT;
+        shift = offset / HALF_SUB_BUCKETS + 1;
+        lowest = (long) (offset % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS) << shift;
+
+        return lowest + (1L << shift) - 1;
+    }
+}
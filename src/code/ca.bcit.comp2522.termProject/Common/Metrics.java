@@ -0,0 +1,204 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The metrics registry shared by all three games.
+ * Counters, gauges and timers are created once per name, kept in static fields by the
+ * classes that update them, and registered as MBeans under
+ * "ca.bcit.comp2522.termProject:type=&lt;Counter|Gauge|Timer&gt;,name=&lt;name&gt;" so
+ * they can be read from JConsole or any other JMX client.
+ *
+ * Every metric is also written to logs/metrics.txt periodically, every 60 seconds
+ * unless the system property metrics.dump.seconds says otherwise (0 turns it off).
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class Metrics
+{
+    private static final String   DOMAIN               = "ca.bcit.comp2522.termProject";
+    private static final String   SOURCE               = "Metrics";
+    private static final String   DUMP_PERIOD_PROPERTY = "metrics.dump.seconds";
+    private static final long     DEFAULT_DUMP_SECONDS = 60L;
+    private static final long     NO_DUMP              = 0L;
+    private static final Path     DUMP_FILE            = Path.of("logs", "metrics.txt");
+    private static final Path     DUMP_TEMP_FILE       = Path.of("logs", "metrics.tmp");
+    private static final Map<String, Object> METRICS        = new ConcurrentSkipListMap<>();
+    private static final Map<String, Object> CREATION_LOCKS = new ConcurrentHashMap<>();
+
+    static
+    {
+        final long period;
+        period = Long.getLong(DUMP_PERIOD_PROPERTY, DEFAULT_DUMP_SECONDS);
+
+        if(period > NO_DUMP)
+        {
+            final ScheduledExecutorService dumper;
+            dumper = Executors.newSingleThreadScheduledExecutor(task ->
+            {
+                final Thread thread;
+                thread = new Thread(task, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleAtFixedRate(Metrics::writeDump, period, period, TimeUnit.SECONDS);
+        }
+    }
+
+    private Metrics()
+    {
+    }
+
+    /**
+     * Retrieves the counter with the specified name, creating it on first use.
+     *
+     * @param name the metric name, such as "world.shards_loaded"
+     * @return the counter
+     */
+    public static Counter counter(final String name)
+    {
+        return register(name, Counter.class, Counter::new);
+    }
+
+    /**
+     * Retrieves the timer with the specified name, creating it on first use.
+     *
+     * @param name the metric name, such as "world.load"
+     * @return the timer
+     */
+    public static Timer timer(final String name)
+    {
+        return register(name, Timer.class, Timer::new);
+    }
+
+    /**
+     * Registers a gauge that samples the specified supplier. If a gauge with the same
+     * name already exists it is kept and the supplier is ignored, so a gauge should be
+     * registered once, over a value shared by every instance that updates it.
+     *
+     * @param name     the metric name
+     * @param supplier the source of the gauge's value
+     * @return the gauge
+     */
+    public static Gauge gauge(final String name,
+                              final LongSupplier supplier)
+    {
+        return register(name, Gauge.class, () -> new Gauge(supplier));
+    }
+
+    /**
+     * Formats every metric, one per line, sorted by name.
+     *
+     * @return the text dump
+     */
+    public static String dump()
+    {
+        final StringBuilder text;
+        text = new StringBuilder();
+
+        text.append("# ").append(Instant.now()).append(System.lineSeparator());
+        for(final Map.Entry<String, Object> entry : METRICS.entrySet())
+        {
+            text.append(entry.getKey()).append(' ')
+                    .append(entry.getValue().getClass().getSimpleName().toLowerCase()).append(' ')
+                    .append(entry.getValue()).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    /*
+     * Looks up a metric by name, creating and registering it with JMX if it is new.
+     * Fails if the name is already used by a different kind of metric.
+     */
+    private static <T> T register(final String name,
+                                  final Class<T> type,
+                                  final Supplier<T> factory)
+    {
+        Object metric;
+        metric = METRICS.get(name);
+
+        if(metric == null)
+        {
+            synchronized(CREATION_LOCKS.computeIfAbsent(name, key -> new Object()))
+            {
+                metric = METRICS.get(name);
+
+                if(metric == null)
+                {
+                    metric = factory.get();
+                    registerMBean(name, type.getSimpleName(), metric);
+                    METRICS.put(name, metric);
+                }
+            }
+        }
+
+        if(!type.isInstance(metric))
+        {
+            throw new IllegalArgumentException("Metric " + name + " is not a " +
+                    type.getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    /*
+     * Exposes a metric through the platform MBean server. Metrics keep working if JMX
+     * registration fails; the failure is only logged.
+     */
+    private static void registerMBean(final String name,
+                                      final String type,
+                                      final Object metric)
+    {
+        try
+        {
+            final MBeanServer server;
+            final ObjectName objectName;
+
+            server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + name);
+
+            if(!server.isRegistered(objectName))
+            {
+                server.registerMBean(metric, objectName);
+            }
+        }
+        catch(final JMException e)
+        {
+            EventLog.error(SOURCE, "metrics.jmx_registration_failed", name, e.getMessage());
+        }
+    }
+
+    /*
+     * Writes the text dump atomically, so readers never see a partial file.
+     */
+    private static void writeDump()
+    {
+        try
+        {
+            Files.createDirectories(DUMP_FILE.getParent());
+            Files.writeString(DUMP_TEMP_FILE, dump());
+            Files.move(DUMP_TEMP_FILE, DUMP_FILE, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch(final IOException e)
+        {
+            EventLog.error(SOURCE, "metrics.dump_failed", DUMP_FILE, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Re-runs recorded games headlessly and checks that each one ends the way it did when it
+ * was played, which turns the games real players played into regression tests.
+ *
+ * Every recording is handed to the handler for its game type. The engine counts the
+ * recordings, events and mismatches, and keeps a histogram per game type of the time
+ * between consecutive events, which for a recorded player is how long they took to
+ * answer. No clock is involved in a replay, so a log replays as fast as the games' rules
+ * can run.
+ *
+ * The engine knows no game itself: the games' handlers are passed in, so Common depends
+ * on none of the game packages. Launcher.ReplayRunner replays a log with all three.
+ *
+ * An engine belongs to a single thread, like its handlers.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.1
+ */
+public class ReplayEngine
+{
+    private static final String SOURCE = "ReplayEngine";
+    private static final double MEDIAN = 50.0;
+    private static final double P99    = 99.0;
+
+    private final Map<Integer, ReplayHandler> handlers;
+    private final Map<Integer, LogHistogram>  eventDelays;
+    private long                              recordings;
+    private long                              events;
+    private long                              mismatches;
+    private long                              unreadable;
+
+    /**
+     * Constructs a ReplayEngine for the games of the specified handlers.
+     *
+     * @param handlers one handler per game type
+     */
+    public ReplayEngine(final ReplayHandler... handlers)
+    {
+        this.handlers    = new HashMap<>();
+        this.eventDelays = new HashMap<>();
+
+        for(final ReplayHandler handler : handlers)
+        {
+            this.handlers.put(handler.getGameType(), handler);
+            this.eventDelays.put(handler.getGameType(), new LogHistogram());
+        }
+    }
+
+    /**
+     * Replays one recording.
+     *
+     * @param recording the recording
+     * @return true if it ended with the recorded outcome; false if it did not, if it is
+     *         malformed or if no handler knows its game
+     */
+    public boolean replay(final byte[] recording)
+    {
+        final ReplayReader reader;
+        final ReplayHandler handler;
+        final boolean matched;
+
+        recordings++;
+        try
+        {
+            reader = new ReplayReader(recording);
+            handler = handlers.get(reader.getGameType());
+
+            if(handler == null)
+            {
+                unreadable++;
+                EventLog.warn(SOURCE, "replay.unknown_game", reader.getGameType(), null);
+                return false;
+            }
+
+            reader.recordDelays(eventDelays.get(reader.getGameType()));
+            matched = handler.replay(reader);
+            events += reader.getEventCount();
+        }
+        catch(final IOException | RuntimeException e)
+        {
+            unreadable++;
+            EventLog.warn(SOURCE, "replay.unreadable", recordings, e.toString());
+            return false;
+        }
+
+        if(!matched)
+        {
+            mismatches++;
+            EventLog.warn(SOURCE, "replay.mismatch", handler.getName(), reader.getSeed(), null);
+        }
+        return matched;
+    }
+
+    /**
+     * Replays every recording in a list, in order.
+     *
+     * @param recordings the recordings
+     * @return the number of recordings that did not end with their recorded outcome
+     */
+    public long replayAll(final List<byte[]> recordings)
+    {
+        final long before;
+        before = mismatches + unreadable;
+
+        for(final byte[] recording : recordings)
+        {
+            replay(recording);
+        }
+        return mismatches + unreadable - before;
+    }
+
+    /**
+     * Gets the number of recordings replayed.
+     *
+     * @return the recording count
+     */
+    public long getRecordings()
+    {
+        return recordings;
+    }
+
+    /**
+     * Gets the number of events replayed.
+     *
+     * @return the event count
+     */
+    public long getEvents()
+    {
+        return events;
+    }
+
+    /**
+     * Gets the number of replayed games that ended differently from the recording.
+     *
+     * @return the mismatch count
+     */
+    public long getMismatches()
+    {
+        return mismatches;
+    }
+
+    /**
+     * Gets the number of recordings that were malformed or of an unknown game.
+     *
+     * @return the unreadable count
+     */
+    public long getUnreadable()
+    {
+        return unreadable;
+    }
+
+    /**
+     * Gets the time between consecutive events of one game's recordings.
+     *
+     * @param gameType one of the ReplayLog game types
+     * @return the histogram in milliseconds, or null if no handler knows the game
+     */
+    public LogHistogram getEventDelays(final int gameType)
+    {
+        return eventDelays.get(gameType);
+    }
+
+    /**
+     * Formats the counts and, for each game, the median and 99th percentile time between events.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder text;
+        text = new StringBuilder();
+
+        text.append(String.format("recordings %d, events %d, mismatches %d, unreadable %d", recordings,
+                events, mismatches, unreadable));
+        for(final ReplayHandler handler : handlers.values())
+        {
+            final LogHistogram delays;
+            delays = eventDelays.get(handler.getGameType());
+
+            text.append(String.format("%n%-12s %10d events, response p50 %d ms, p99 %d ms", handler.getName(),
+                    delays.getTotalCount(), delays.getValueAtPercentile(MEDIAN),
+                    delays.getValueAtPercentile(P99)));
+        }
+        return text.toString();
+    }
+}
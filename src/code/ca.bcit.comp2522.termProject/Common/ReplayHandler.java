@@ -0,0 +1,38 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.io.IOException;
+
+/**
+ * Re-runs the recordings of one game type headlessly and checks that they end the way the
+ * recorded games did. Each game supplies one; a handler may reuse its game objects between
+ * recordings, so it belongs to a single thread.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public interface ReplayHandler
+{
+    /**
+     * Gets the type of game this handler replays.
+     *
+     * @return one of the ReplayLog game types
+     */
+    int getGameType();
+
+    /**
+     * Gets the name of the game, for reports.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Replays a recording whose header has been read, feeding every event to the game and
+     * comparing the result with the recorded outcome.
+     *
+     * @param recording the recording, positioned at its first event
+     * @return true if the replayed game ended with the recorded outcome
+     * @throws IOException if the recording is malformed
+     */
+    boolean replay(final ReplayReader recording) throws IOException;
+}
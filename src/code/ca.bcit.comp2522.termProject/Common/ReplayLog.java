@@ -0,0 +1,314 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stores the recordings of finished games, one after another in a single file, each
+ * preceded by its length as a varint.
+ *
+ * Games of all three types share the file; each recording names its own game type. A
+ * recording is appended once its game ends, so a crash loses at most the games in progress
+ * and the few still queued, and a recording cut short by a crash is skipped when the file
+ * is read back.
+ *
+ * Appending only queues the recording. A background daemon thread writes every queued
+ * recording through a stream each log keeps open, so a finished game never waits on the
+ * file system or a lock. The recordings still queued when the JVM exits are written before
+ * it stops. A task that fails is logged and the thread goes on to the next one, and no
+ * flush waits longer than five seconds, so a stuck file system never hangs the JVM's exit.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 2.2
+ */
+public final class ReplayLog
+{
+    /** The game type of WordGame recordings. */
+    public static final int WORD_GAME   = 1;
+
+    /** The game type of NumberGame recordings. */
+    public static final int NUMBER_GAME = 2;
+
+    /** The game type of Escape the Room recordings. */
+    public static final int ESCAPE_ROOM = 3;
+
+    private static final String                  SOURCE                = "ReplayLog";
+    private static final Path                    DEFAULT_LOG           = Path.of("replays", "games.replay");
+    private static final long                    FLUSH_TIMEOUT_SECONDS = 5L;
+    private static final BlockingQueue<Runnable> WRITE_QUEUE           = new LinkedBlockingQueue<>();
+    private static final ReentrantLock           WRITE_LOCK            = new ReentrantLock();
+    private static final ReplayLog               DEFAULT               = new ReplayLog(DEFAULT_LOG);
+
+    private final Path       path;
+    private final AtomicLong recordingsWritten;
+    private DataOutputStream out; // Opened by the first write, guarded by WRITE_LOCK
+
+    static
+    {
+        final Thread writer;
+        writer = new Thread(ReplayLog::writeQueued, "replay-log");
+        writer.setDaemon(true);
+        writer.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(ReplayLog::flushQueued, "replay-log-flush"));
+    }
+
+    /**
+     * Constructs a ReplayLog that stores recordings in the specified file.
+     *
+     * @param path the file; it and its directory are created by the first append
+     */
+    public ReplayLog(final Path path)
+    {
+        this.path              = path;
+        this.recordingsWritten = new AtomicLong();
+    }
+
+    /**
+     * Gets the log every game records to by default, replays/games.replay.
+     *
+     * @return the default log
+     */
+    public static ReplayLog getDefault()
+    {
+        return DEFAULT;
+    }
+
+    /**
+     * Appends a finished game's recording. Returns at once; the recording is written by the
+     * background thread. A failed write is logged and the recording is lost; it never
+     * interrupts the game.
+     *
+     * @param recording the recording, as returned by ReplayWriter.finish
+     */
+    public void append(final byte[] recording)
+    {
+        WRITE_QUEUE.add(() -> write(recording));
+    }
+
+    /**
+     * Waits until every recording queued so far, for this log and any other, is written,
+     * or five seconds have passed.
+     *
+     * @return true if every recording queued so far was written in time
+     */
+    public boolean flush()
+    {
+        return flushQueued();
+    }
+
+    /**
+     * Reads every complete recording in the log, oldest first, including those appended
+     * but not yet written unless the flush before reading times out.
+     *
+     * @return the recordings; empty if the log does not exist yet
+     * @throws IOException if the log cannot be read
+     */
+    public List<byte[]> readAll() throws IOException
+    {
+        final List<byte[]> recordings;
+        final ByteBuffer in;
+
+        recordings = new ArrayList<>();
+        flush();
+        if(Files.notExists(path))
+        {
+            return recordings;
+        }
+
+        WRITE_LOCK.lock(); // Never reads a recording half written
+        try
+        {
+            in = ByteBuffer.wrap(Files.readAllBytes(path));
+        }
+        finally
+        {
+            WRITE_LOCK.unlock();
+        }
+
+        while(in.hasRemaining())
+        {
+            final long length;
+            final byte[] recording;
+
+            try
+            {
+                length = Varints.readUnsigned(in);
+            }
+            catch(final IOException e)
+            {
+                EventLog.warn(SOURCE, "replay.truncated", path, e.getMessage());
+                break;
+            }
+
+            if(length > in.remaining())
+            {
+                EventLog.warn(SOURCE, "replay.truncated", path, "Last recording is cut short");
+                break;
+            }
+
+            recording = new byte[(int) length];
+            in.get(recording);
+            recordings.add(recording);
+        }
+        return recordings;
+    }
+
+    /**
+     * Gets the number of recordings this log has written since it was created.
+     *
+     * @return the number of recordings written
+     */
+    public long getRecordingsWritten()
+    {
+        return recordingsWritten.get();
+    }
+
+    /**
+     * Gets the file the log stores recordings in.
+     *
+     * @return the path
+     */
+    public Path getPath()
+    {
+        return path;
+    }
+
+    /*
+     * Writes one recording through the log's open stream, opening it first if needed.
+     * The write holds a ReentrantLock rather than a monitor while it runs, so readAll never
+     * sees a recording half written and a virtual thread reading never pins its carrier.
+     */
+    private void write(final byte[] recording)
+    {
+        WRITE_LOCK.lock();
+        try
+        {
+            if(out == null)
+            {
+                final Path directory;
+                directory = path.toAbsolutePath().getParent();
+
+                if(directory != null)
+                {
+                    Files.createDirectories(directory);
+                }
+                out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+            }
+
+            Varints.writeUnsigned(out, recording.length);
+            out.write(recording);
+            out.flush(); // A crash then loses no finished game already written
+            recordingsWritten.incrementAndGet();
+        }
+        catch(final IOException e)
+        {
+            EventLog.error(SOURCE, "replay.write_failed", path, e.getMessage());
+            closeQuietly(); // Reopened by the next write
+        }
+        finally
+        {
+            WRITE_LOCK.unlock();
+        }
+    }
+
+    /*
+     * Closes the log's stream after a failed write, ignoring any further failure.
+     */
+    private void closeQuietly()
+    {
+        if(out != null)
+        {
+            try
+            {
+                out.close();
+            }
+            catch(final IOException ignored)
+            {
+                // The write failure was already logged
+            }
+            out = null;
+        }
+    }
+
+    /*
+     * Runs on the background thread, making each write queued by append. A task that
+     * throws is logged and skipped, so one bad write never stops the writes behind it.
+     */
+    private static void writeQueued()
+    {
+        while(true)
+        {
+            final Runnable task;
+
+            try
+            {
+                task = WRITE_QUEUE.take();
+            }
+            catch(final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try
+            {
+                task.run();
+            }
+            catch(final RuntimeException e)
+            {
+                EventLog.error(SOURCE, "replay.task_failed", Thread.currentThread().getName(), e.toString());
+            }
+        }
+    }
+
+    /*
+     * Queues a marker behind every write queued so far and waits for the background
+     * thread to reach it. The queue is first in, first out and only the background thread
+     * writes, so once the marker runs every earlier write has finished, in order, including
+     * one already taken off the queue when the flush began. Returns false if the marker
+     * was not reached in time or the wait was interrupted.
+     */
+    private static boolean flushQueued()
+    {
+        final CompletableFuture<Void> written;
+        written = new CompletableFuture<>();
+
+        WRITE_QUEUE.add(() -> written.complete(null));
+        try
+        {
+            written.get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return true;
+        }
+        catch(final TimeoutException e)
+        {
+            EventLog.warn(SOURCE, "replay.flush_timed_out", WRITE_QUEUE.size(), "recordings still queued");
+            return false;
+        }
+        catch(final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        catch(final ExecutionException e)
+        {
+            return false; // The marker only ever completes normally
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads one recording written by a ReplayWriter, event by event, straight from its bytes.
+ *
+ * The header is read when the reader is constructed. Each call to nextEvent reads the next
+ * event's type and time, after which the handler reads the event's payload in the order it
+ * was written. Once nextEvent returns END_EVENT the outcome can be read. If a histogram is
+ * set, the time between consecutive events is recorded in it, so replaying real games
+ * also measures how long players took to respond.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class ReplayReader
+{
+    private final ByteBuffer   in;
+    private final int          gameType;
+    private final long         seed;
+    private final long         startMillis;
+    private final long[]       parameters;
+    private LogHistogram       eventDelays;
+    private long[]             outcome;
+    private long               eventTime;
+    private int                eventCount;
+
+    /**
+     * Constructs a ReplayReader and reads the recording's header.
+     *
+     * @param recording the recording
+     * @throws IOException if the recording is malformed or from an unknown format version
+     */
+    public ReplayReader(final byte[] recording) throws IOException
+    {
+        final int version;
+        final int parameterCount;
+
+        this.in = ByteBuffer.wrap(recording);
+
+        try
+        {
+            version = in.get();
+            if(version != ReplayWriter.VERSION)
+            {
+                throw new IOException("Unsupported replay version " + version);
+            }
+
+            this.gameType    = (int) Varints.readUnsigned(in);
+            this.seed        = in.getLong();
+            this.startMillis = Varints.readUnsigned(in);
+        }
+        catch(final BufferUnderflowException e)
+        {
+            throw new IOException("Replay header runs past the end of the recording", e);
+        }
+
+        parameterCount = readCount();
+        this.parameters = new long[parameterCount];
+        for(int i = 0; i < parameterCount; i++)
+        {
+            parameters[i] = Varints.readSigned(in);
+        }
+        this.eventTime = startMillis;
+    }
+
+    /**
+     * Records the time between the events read from now on in a histogram.
+     *
+     * @param eventDelays the histogram, in milliseconds, or null to stop recording
+     */
+    public void recordDelays(final LogHistogram eventDelays)
+    {
+        this.eventDelays = eventDelays;
+    }
+
+    /**
+     * Reads the next event's type and time. Its payload is read next.
+     *
+     * @return the event type, or ReplayWriter.END_EVENT once every event has been read
+     * @throws IOException if the recording is malformed
+     */
+    public int nextEvent() throws IOException
+    {
+        final int type;
+        final long delay;
+
+        if(outcome != null)
+        {
+            return ReplayWriter.END_EVENT;
+        }
+
+        type = (int) Varints.readUnsigned(in);
+        if(type == ReplayWriter.END_EVENT)
+        {
+            readOutcome();
+            return type;
+        }
+
+        delay = Varints.readUnsigned(in);
+        eventTime += delay;
+        eventCount++;
+
+        if(eventDelays != null)
+        {
+            eventDelays.record(delay);
+        }
+        return type;
+    }
+
+    /**
+     * Reads an unsigned value of the current event's payload.
+     *
+     * @return the value
+     * @throws IOException if the recording is malformed
+     */
+    public long readUnsigned() throws IOException
+    {
+        return Varints.readUnsigned(in);
+    }
+
+    /**
+     * Reads a signed value of the current event's payload.
+     *
+     * @return the value
+     * @throws IOException if the recording is malformed
+     */
+    public long readSigned() throws IOException
+    {
+        return Varints.readSigned(in);
+    }
+
+    /**
+     * Reads a string of the current event's payload.
+     *
+     * @return the string
+     * @throws IOException if the recording is malformed
+     */
+    public String readString() throws IOException
+    {
+        final int length;
+        final String text;
+
+        length = readCount();
+        text = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+
+        in.position(in.position() + length);
+        return text;
+    }
+
+    /**
+     * Gets which game was recorded.
+     *
+     * @return the game type, one of the ReplayLog game types
+     */
+    public int getGameType()
+    {
+        return gameType;
+    }
+
+    /**
+     * Gets the seed the game was played from.
+     *
+     * @return the seed
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Gets the wall-clock time the game started.
+     *
+     * @return the start time in epoch milliseconds
+     */
+    public long getStartMillis()
+    {
+        return startMillis;
+    }
+
+    /**
+     * Gets the number of game-specific parameters in the header.
+     *
+     * @return the parameter count
+     */
+    public int getParameterCount()
+    {
+        return parameters.length;
+    }
+
+    /**
+     * Gets a game-specific parameter from the header.
+     *
+     * @param index the parameter's position, from 0
+     * @return the parameter
+     */
+    public long getParameter(final int index)
+    {
+        return parameters[index];
+    }
+
+    /**
+     * Gets when the current event happened.
+     *
+     * @return the time in epoch milliseconds
+     */
+    public long getEventTime()
+    {
+        return eventTime;
+    }
+
+    /**
+     * Gets the number of events read so far.
+     *
+     * @return the event count
+     */
+    public int getEventCount()
+    {
+        return eventCount;
+    }
+
+    /**
+     * Gets the number of outcome values. Only valid once every event has been read.
+     *
+     * @return the outcome count
+     */
+    public int getOutcomeCount()
+    {
+        checkEnded();
+        return outcome.length;
+    }
+
+    /**
+     * Gets one of the recorded outcome values. Only valid once every event has been read.
+     *
+     * @param index the value's position, from 0
+     * @return the value
+     */
+    public long getOutcome(final int index)
+    {
+        checkEnded();
+        return outcome[index];
+    }
+
+    /**
+     * Checks if a replayed game ended the way the recorded one did.
+     *
+     * @param replayed the replayed game's results, in the order they were recorded
+     * @return true if every value matches
+     */
+    public boolean outcomeMatches(final long... replayed)
+    {
+        checkEnded();
+        if(replayed.length != outcome.length)
+        {
+            return false;
+        }
+
+        for(int i = 0; i < outcome.length; i++)
+        {
+            if(replayed[i] != outcome[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Reads the outcome values that follow the end marker.
+     */
+    private void readOutcome() throws IOException
+    {
+        final int count;
+        final long[] values;
+
+        count = readCount();
+        values = new long[count];
+
+        for(int i = 0; i < count; i++)
+        {
+            values[i] = Varints.readSigned(in);
+        }
+        outcome = values;
+    }
+
+    /*
+     * Reads a length and checks that it fits in what is left of the recording.
+     */
+    private int readCount() throws IOException
+    {
+        final long count;
+        count = Varints.readUnsigned(in);
+
+        if(count < 0 || count > in.remaining())
+        {
+            throw new IOException("Length " + count + " runs past the end of the recording");
+        }
+        return (int) count;
+    }
+
+    /*
+     * Fails if the outcome has not been read yet.
+     */
+    private void checkEnded()
+    {
+        if(outcome == null)
+        {
+            throw new IllegalStateException("The recording's events have not all been read");
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Records one game as a compact stream of events, to be replayed by a ReplayHandler.
+ *
+ * A recording starts with a header: the format version, the game type, the seed the game
+ * was played from, the wall-clock start time and any game-specific parameters. Each event
+ * is then written as its type, the milliseconds since the previous event and a payload
+ * the game defines, all as varints, so a typical event takes two or three bytes. The
+ * recording ends with an end marker and the outcome the replay must reproduce.
+ *
+ * A writer belongs to the thread playing its game.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class ReplayWriter
+{
+    /** The format version written at the start of every recording. */
+    public static final int VERSION   = 1;
+
+    /** The event type that ends the events; game event types must be greater. */
+    public static final int END_EVENT = 0;
+
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream      out;
+    private final int                   gameType;
+    private final long                  startMillis;
+    private long                        lastEventMillis;
+    private int                         eventCount;
+    private boolean                     finished;
+
+    /**
+     * Starts a recording.
+     *
+     * @param gameType    which game is recorded, one of the ReplayLog game types
+     * @param seed        the seed the game is played from
+     * @param startMillis the wall-clock time the game started, in epoch milliseconds
+     * @param parameters  game-specific settings the replay needs, such as a mode flag
+     */
+    public ReplayWriter(final int gameType,
+                        final long seed,
+                        final long startMillis,
+                        final long... parameters)
+    {
+        this.bytes           = new ByteArrayOutputStream();
+        this.out             = new DataOutputStream(bytes);
+        this.gameType        = gameType;
+        this.startMillis     = startMillis;
+        this.lastEventMillis = startMillis;
+
+        try
+        {
+            out.writeByte(VERSION);
+            Varints.writeUnsigned(out, gameType);
+            out.writeLong(seed); // Seeds are random, so a varint would be longer
+            Varints.writeUnsigned(out, startMillis);
+            Varints.writeUnsigned(out, parameters.length);
+
+            for(final long parameter : parameters)
+            {
+                Varints.writeSigned(out, parameter);
+            }
+        }
+        catch(final IOException e)
+        {
+            throw new UncheckedIOException(e); // Writing to memory does not fail
+        }
+    }
+
+    /**
+     * Starts an event. Its payload, if any, is written next.
+     *
+     * @param type       the game's event type, greater than END_EVENT
+     * @param timeMillis when the event happened, in epoch milliseconds; times that go
+     *                   backwards are recorded as no time passing
+     * @return this writer, for writing the payload
+     */
+    public ReplayWriter event(final int type,
+                              final long timeMillis)
+    {
+        if(type <= END_EVENT)
+        {
+            throw new IllegalArgumentException("Event types must be positive: " + type);
+        }
+
+        checkOpen();
+        writeUnsigned(type);
+        writeUnsigned(Math.max(0L, timeMillis - lastEventMillis));
+
+        lastEventMillis = Math.max(lastEventMillis, timeMillis);
+        eventCount++;
+        return this;
+    }
+
+    /**
+     * Writes an unsigned value of the current event's payload.
+     *
+     * @param value the value, at least zero
+     * @return this writer
+     */
+    public ReplayWriter writeUnsigned(final long value)
+    {
+        checkOpen();
+        try
+        {
+            Varints.writeUnsigned(out, value);
+        }
+        catch(final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a signed value of the current event's payload.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public ReplayWriter writeSigned(final long value)
+    {
+        checkOpen();
+        try
+        {
+            Varints.writeSigned(out, value);
+        }
+        catch(final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a string of the current event's payload, such as an answer the player typed.
+     * A null string is written as an empty one.
+     *
+     * @param text the text
+     * @return this writer
+     */
+    public ReplayWriter writeString(final String text)
+    {
+        final byte[] encoded;
+        encoded = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+
+        writeUnsigned(encoded.length);
+        bytes.writeBytes(encoded);
+        return this;
+    }
+
+    /**
+     * Ends the recording with the outcome the replay must reproduce.
+     *
+     * @param outcome the game's results, such as its score
+     * @return the encoded recording
+     */
+    public byte[] finish(final long... outcome)
+    {
+        checkOpen();
+        writeUnsigned(END_EVENT);
+        writeUnsigned(outcome.length);
+
+        for(final long value : outcome)
+        {
+            writeSigned(value);
+        }
+
+        finished = true;
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Gets which game is recorded.
+     *
+     * @return the game type
+     */
+    public int getGameType()
+    {
+        return gameType;
+    }
+
+    /**
+     * Gets the number of events recorded so far.
+     *
+     * @return the event count
+     */
+    public int getEventCount()
+    {
+        return eventCount;
+    }
+
+    /**
+     * Gets the wall-clock time the game started.
+     *
+     * @return the start time in epoch milliseconds
+     */
+    public long getStartMillis()
+    {
+        return startMillis;
+    }
+
+    /*
+     * Fails if the recording has already been finished.
+     */
+    private void checkOpen()
+    {
+        if(finished)
+        {
+            throw new IllegalStateException("The recording is finished");
+        }
+    }
+}
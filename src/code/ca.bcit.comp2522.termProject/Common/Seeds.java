@@ -0,0 +1,98 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Hands out seeds and random generators to all three games.
+ *
+ * Every game is played from one 64-bit seed and its own SplittableRandom, so it can be
+ * replayed exactly from the seed and games on different threads never share a generator.
+ * New seeds are drawn from a root seed and a counter, so a whole run can be made
+ * reproducible by setting the system property games.seed; otherwise the root seed is
+ * different every run. A seed can also be split into independent numbered streams, for
+ * example one per game of a session or one per simulation thread.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class Seeds
+{
+    /** The system property that fixes the root seed. */
+    public static final String SEED_PROPERTY = "games.seed";
+
+    // The SplitMix64 increment and mixing constants
+    private static final long       GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final long       MIX_1        = 0xbf58476d1ce4e5b9L;
+    private static final long       MIX_2        = 0x94d049bb133111ebL;
+    private static final int        SHIFT_1      = 30;
+    private static final int        SHIFT_2      = 27;
+    private static final int        SHIFT_3      = 31;
+    private static final long       ROOT_SEED    = rootSeed();
+    private static final AtomicLong NEXT_SEED    = new AtomicLong();
+
+    private Seeds()
+    {
+    }
+
+    /**
+     * Draws a seed for a new game. Never blocks, and never returns the same seed twice in a run.
+     *
+     * @return the seed
+     */
+    public static long newSeed()
+    {
+        return mix(ROOT_SEED + GOLDEN_GAMMA * NEXT_SEED.incrementAndGet());
+    }
+
+    /**
+     * Derives the seed of a numbered stream from a seed. Different streams of the same
+     * seed are independent, and the same stream always gives the same seed.
+     *
+     * @param seed   the parent seed
+     * @param stream the stream number, such as a game's position in its session
+     * @return the derived seed
+     */
+    public static long derive(final long seed,
+                              final long stream)
+    {
+        return mix(mix(seed) + GOLDEN_GAMMA * (stream + 1));
+    }
+
+    /**
+     * Creates a generator that always produces the same values from the same seed.
+     * The generator is not thread-safe; give each thread its own.
+     *
+     * @param seed the seed
+     * @return the generator
+     */
+    public static RandomGenerator random(final long seed)
+    {
+        return new SplittableRandom(seed);
+    }
+
+    /*
+     * Scrambles a value with the SplitMix64 finalizer.
+     */
+    private static long mix(final long value)
+    {
+        long z;
+        z = value;
+
+        z = (z ^ (z >>> SHIFT_1)) * MIX_1;
+        z = (z ^ (z >>> SHIFT_2)) * MIX_2;
+        return z ^ (z >>> SHIFT_3);
+    }
+
+    /*
+     * Reads the root seed from the system property, or picks an unpredictable one.
+     */
+    private static long rootSeed()
+    {
+        final Long configured;
+        configured = Long.getLong(SEED_PROPERTY);
+
+        return configured != null ? configured : new SplittableRandom().nextLong();
+    }
+}
@@ -0,0 +1,161 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the duration of calls in lock-free log-bucketed histograms.
+ * Each thread records into one of at most four stripes, picked from its thread id, so
+ * threads timing the same call rarely share a bucket while a timer stays around 30 KB.
+ * The count, mean and maximum are summed straight from the stripes; a percentile merges
+ * the stripes once per read.
+ * Obtain timers from {@link Metrics#timer(String)} and use them as:
+ *
+ * <pre>
+ * final long start = TIMER.start();
+ * try { ... } finally { TIMER.stop(start); }
+ * </pre>
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 2.1
+ */
+public final class Timer implements TimerMBean
+{
+    private static final long   NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final double P50             = 50.0;
+    private static final double P99             = 99.0;
+    private static final int    MAX_STRIPES     = 4;
+    private static final int    STRIPES         = Math.min(MAX_STRIPES,
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);
+    private static final long   ID_MIXER        = 0x9E3779B97F4A7C15L;
+    private final LogHistogram[] stripes;
+
+    /*
+     * Constructs an empty Timer.
+     */
+    Timer()
+    {
+        this.stripes = new LogHistogram[STRIPES];
+
+        for(int i = 0; i < STRIPES; i++)
+        {
+            stripes[i] = new LogHistogram();
+        }
+    }
+
+    /**
+     * Starts timing a call.
+     *
+     * @return the start time, to pass to {@link #stop(long)}
+     */
+    public long start()
+    {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a call that started at the specified time.
+     *
+     * @param start the value returned by {@link #start()}
+     */
+    public void stop(final long start)
+    {
+        final long elapsed;
+        elapsed = Math.max(0L, System.nanoTime() - start);
+
+        stripes[stripe()].record(elapsed);
+    }
+
+    /**
+     * Merges the stripes into one histogram of the recorded durations, in nanoseconds.
+     *
+     * @return a snapshot of the durations
+     */
+    public LogHistogram snapshot()
+    {
+        final LogHistogram merged;
+        merged = new LogHistogram();
+
+        for(final LogHistogram stripe : stripes)
+        {
+            merged.merge(stripe);
+        }
+        return merged;
+    }
+
+    @Override
+    public long getCount()
+    {
+        long count;
+        count = 0L;
+
+        for(final LogHistogram stripe : stripes)
+        {
+            count += stripe.getTotalCount();
+        }
+        return count;
+    }
+
+    @Override
+    public double getMeanMicros()
+    {
+        long count;
+        long sum;
+
+        count = 0L;
+        sum = 0L;
+
+        for(final LogHistogram stripe : stripes)
+        {
+            count += stripe.getTotalCount();
+            sum += stripe.getTotalSum();
+        }
+        return count == 0L ? 0.0 : (double) sum / count / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long getP50Micros()
+    {
+        return snapshot().getValueAtPercentile(P50) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long getP99Micros()
+    {
+        return snapshot().getValueAtPercentile(P99) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long getMaxMicros()
+    {
+        long max;
+        max = 0L;
+
+        for(final LogHistogram stripe : stripes)
+        {
+            max = Math.max(max, stripe.getMaxValue());
+        }
+        return max / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public String toString()
+    {
+        final LogHistogram merged;
+        merged = snapshot();
+
+        return String.format("count=%d mean=%.1fus p50=%dus p99=%dus max=%dus",
+                merged.getTotalCount(), merged.getMean() / NANOS_PER_MICRO,
+                merged.getValueAtPercentile(P50) / NANOS_PER_MICRO,
+                merged.getValueAtPercentile(P99) / NANOS_PER_MICRO,
+                merged.getMaxValue() / NANOS_PER_MICRO);
+    }
+
+    /*
+     * Picks the current thread's stripe by mixing its id, so consecutive ids spread out.
+     */
+    private static int stripe()
+    {
+        return (int) ((Thread.currentThread().threadId() * ID_MIXER) >>> (Long.SIZE - Integer.SIZE)) &
+                (STRIPES - 1);
+    }
+}
@@ -0,0 +1,45 @@
+package ca.bcit.comp2522.termProject.Common;
+
+/**
+ * The JMX view of a {@link Timer}. All durations are in microseconds.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public interface TimerMBean
+{
+    /**
+     * Retrieves the number of timed calls.
+     *
+     * @return the number of calls
+     */
+    long getCount();
+
+    /**
+     * Retrieves the mean duration.
+     *
+     * @return the mean duration in microseconds
+     */
+    double getMeanMicros();
+
+    /**
+     * Retrieves the median duration.
+     *
+     * @return the 50th percentile in microseconds
+     */
+    long getP50Micros();
+
+    /**
+     * Retrieves the 99th percentile duration.
+     *
+     * @return the 99th percentile in microseconds
+     */
+    long getP99Micros();
+
+    /**
+     * Retrieves the longest duration.
+     *
+     * @return the maximum in microseconds
+     */
+    long getMaxMicros();
+}
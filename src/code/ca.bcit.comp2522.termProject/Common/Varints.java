@@ -0,0 +1,159 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes variable-length integers, seven bits per byte with the high bit
+ * marking that more bytes follow. Small values take a single byte, which keeps
+ * persisted counters and event streams compact.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class Varints
+{
+    private static final int  PAYLOAD_BITS      = 7;
+    private static final int  PAYLOAD_MASK      = 0x7F;
+    private static final int  CONTINUATION_BIT  = 0x80;
+    private static final long HIGH_BITS_MASK    = ~0x7FL;
+    private static final int  MAX_VARINT_BYTES  = 10;
+
+    private Varints()
+    {
+    }
+
+    /**
+     * Writes an unsigned variable-length long.
+     *
+     * @param out   the output to write to
+     * @param value the value to write, treated as unsigned
+     * @throws IOException if the value cannot be written
+     */
+    public static void writeUnsigned(final DataOutput out,
+                                     final long value) throws IOException
+    {
+        long remaining;
+        remaining = value;
+
+        while((remaining & HIGH_BITS_MASK) != 0L)
+        {
+            out.writeByte((int) (remaining & PAYLOAD_MASK) | CONTINUATION_BIT);
+            remaining >>>= PAYLOAD_BITS;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    /**
+     * Reads an unsigned variable-length long.
+     *
+     * @param in the input to read from
+     * @return the value read
+     * @throws IOException if the input ends early or the value is malformed
+     */
+    public static long readUnsigned(final DataInput in) throws IOException
+    {
+        long value;
+        int shift;
+
+        value = 0L;
+        shift = 0;
+
+        for(int i = 0; i < MAX_VARINT_BYTES; i++)
+        {
+            final int b;
+            b = in.readUnsignedByte();
+            value |= (long) (b & PAYLOAD_MASK) << shift;
+
+            if((b & CONTINUATION_BIT) == 0)
+            {
+                return value;
+            }
+            shift += PAYLOAD_BITS;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Writes a signed variable-length long using zig-zag encoding, so that small
+     * negative values also take few bytes.
+     *
+     * @param out   the output to write to
+     * @param value the value to write
+     * @throws IOException if the value cannot be written
+     */
+    public static void writeSigned(final DataOutput out,
+                                   final long value) throws IOException
+    {
+        writeUnsigned(out, (value << 1) ^ (value >> (Long.SIZE - 1)));
+    }
+
+    /**
+     * Reads a signed variable-length long written with zig-zag encoding.
+     *
+     * @param in the input to read from
+     * @return the value read
+     * @throws IOException if the input ends early or the value is malformed
+     */
+    public static long readSigned(final DataInput in) throws IOException
+    {
+        final long encoded;
+        encoded = readUnsigned(in);
+        return (encoded >>> 1) ^ -(encoded & 1L);
+    }
+
+    /**
+     * Reads an unsigned variable-length long from a buffer, without the stream overhead
+     * of a DataInput.
+     *
+     * @param in the buffer to read from, positioned at the value
+     * @return the value read
+     * @throws IOException if the buffer ends early or the value is malformed
+     */
+    public static long readUnsigned(final ByteBuffer in) throws IOException
+    {
+        long value;
+        int shift;
+
+        value = 0L;
+        shift = 0;
+
+        try
+        {
+            for(int i = 0; i < MAX_VARINT_BYTES; i++)
+            {
+                final int b;
+                b = in.get() & 0xFF;
+                value |= (long) (b & PAYLOAD_MASK) << shift;
+
+                if((b & CONTINUATION_BIT) == 0)
+                {
+                    return value;
+                }
+                shift += PAYLOAD_BITS;
+            }
+        }
+        catch(final BufferUnderflowException e)
+        {
+            throw new IOException("Varint runs past the end of the buffer", e);
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Reads a signed variable-length long written with zig-zag encoding from a buffer.
+     *
+     * @param in the buffer to read from, positioned at the value
+     * @return the value read
+     * @throws IOException if the buffer ends early or the value is malformed
+     */
+    public static long readSigned(final ByteBuffer in) throws IOException
+    {
+        final long encoded;
+        encoded = readUnsigned(in);
+        return (encoded >>> 1) ^ -(encoded & 1L);
+    }
+}
@@ -0,0 +1,264 @@
+package ca.bcit.comp2522.termProject.Launcher;
+
+import ca.bcit.comp2522.termProject.Common.Assets;
+import ca.bcit.comp2522.termProject.Common.EventLog;
+import ca.bcit.comp2522.termProject.Common.Metrics;
+import ca.bcit.comp2522.termProject.Common.Timer;
+import ca.bcit.comp2522.termProject.MyGame.GameUI;
+import ca.bcit.comp2522.termProject.NumberGame.NumberGameApp;
+import ca.bcit.comp2522.termProject.WordGame.ConsoleSession;
+import ca.bcit.comp2522.termProject.WordGame.WordGame;
+import ca.bcit.comp2522.termProject.WordGame.World;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts JavaFX once and opens any of the three games from a menu.
+ *
+ * While the menu comes up, the games' images start decoding at the sizes they are shown
+ * at, and the Word Game's countries are loaded in parallel on a small pool of daemon
+ * threads, so a game picked from the menu finds them cached. The games' stylesheets are
+ * loaded on the application thread right after the menu's first frame. The menu itself
+ * uses no images or stylesheets and waits on none of them. Each game's scene
+ * is only built when the game is picked, in a window of its own; the Word Game plays on
+ * the console, on a thread of its own.
+ *
+ * Time to interactive is measured from the start of the JVM to the first frame laid out
+ * after the menu is shown, and is logged as a warning if it exceeds the budget, 1500 ms
+ * unless the launcher.budget.millis system property says otherwise.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class GameLauncher extends Application
+{
+    private static final String   SOURCE                = "GameLauncher";
+    private static final long     DEFAULT_BUDGET_MILLIS = 1500L;
+    private static final long     BUDGET_MILLIS         = Long.getLong("launcher.budget.millis",
+                                                                       DEFAULT_BUDGET_MILLIS);
+    private static final int      PRELOAD_THREADS       = 4;
+    private static final int      MENU_WIDTH            = 400;
+    private static final int      MENU_HEIGHT           = 300;
+    private static final int      MENU_SPACING          = 15;
+    private static final long     NOT_MEASURED          = -1L;
+    private static final String[] STYLESHEETS           = {"/styles.css", "/stylesMyGame.css"};
+    private static final Timer    SCENE_BUILD_TIMER     = Metrics.timer("launcher.scene_build");
+    private static final Timer    PRELOAD_TIMER         = Metrics.timer("launcher.preload");
+
+    private final AtomicLong          timeToInteractive = new AtomicLong(NOT_MEASURED);
+    private ExecutorService           preloader;
+    private CompletableFuture<World>  world;
+    private CompletableFuture<Void>   preloaded;
+    private Label                     statusLabel;
+    private Button                    wordGameButton;
+
+    /**
+     * Starts loading every game's assets in the background, before the menu is built.
+     */
+    @Override
+    public void init()
+    {
+        final List<CompletableFuture<?>> tasks;
+        final long start;
+
+        Metrics.gauge("launcher.time_to_interactive_ms", timeToInteractive::get);
+        preloader = Executors.newFixedThreadPool(PRELOAD_THREADS, runnable -> {
+            final Thread thread;
+            thread = new Thread(runnable, "asset-preloader");
+            thread.setDaemon(true); // Never keeps the application from exiting
+            return thread;
+        });
+
+        start = PRELOAD_TIMER.start();
+        tasks = new ArrayList<>();
+
+        world = CompletableFuture.supplyAsync(World::new, preloader);
+        tasks.add(world);
+        tasks.add(CompletableFuture.runAsync(NumberGameApp::preloadAssets, preloader));
+        tasks.add(CompletableFuture.runAsync(GameUI::preloadAssets, preloader));
+
+        preloaded = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+        preloaded.whenComplete((ignored, failure) -> {
+            PRELOAD_TIMER.stop(start);
+            if(failure != null)
+            {
+                EventLog.error(SOURCE, "launcher.preload_failed", "assets", failure.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Shows the menu and measures the time until it can be used.
+     *
+     * @param primaryStage the primary stage for this application
+     */
+    @Override
+    public void start(final Stage primaryStage)
+    {
+        final Label title;
+        final Button numberGameButton;
+        final Button escapeRoomButton;
+        final VBox menu;
+        final Scene scene;
+
+        title = new Label("Number and Word Games");
+        title.setStyle("-fx-font-size: 24px; -fx-font-weight: bold;");
+
+        numberGameButton = new Button("Magical Number Challenge");
+        numberGameButton.setOnAction(event -> openGame("NumberGame",
+                stage -> new NumberGameApp().start(stage)));
+
+        escapeRoomButton = new Button("Escape the Room");
+        escapeRoomButton.setOnAction(event -> openGame("EscapeRoom", stage -> new GameUI().start(stage)));
+
+        wordGameButton = new Button("Word Game (console)");
+        wordGameButton.setOnAction(event -> playWordGame());
+
+        statusLabel = new Label("Loading games...");
+        preloaded.whenComplete((ignored, failure) -> Platform.runLater(() ->
+                statusLabel.setText(failure == null ? "Ready" : "Some assets could not be loaded")));
+
+        menu = new VBox(MENU_SPACING, title, numberGameButton, escapeRoomButton, wordGameButton, statusLabel);
+        menu.setAlignment(Pos.CENTER);
+
+        scene = new Scene(menu, MENU_WIDTH, MENU_HEIGHT);
+        scene.addPostLayoutPulseListener(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                scene.removePostLayoutPulseListener(this);
+                interactive();
+                Platform.runLater(GameLauncher::preloadStylesheets); // After the menu's first frame
+            }
+        });
+
+        primaryStage.setTitle("Number and Word Games");
+        primaryStage.setScene(scene);
+        primaryStage.show();
+    }
+
+    /**
+     * Stops the preloading threads.
+     */
+    @Override
+    public void stop()
+    {
+        preloader.shutdownNow();
+    }
+
+    /*
+     * Loads every game's stylesheet into the shared style cache. Scenes can only be
+     * created on the JavaFX application thread once the application has started, so
+     * this runs there instead of with the rest of the preloading.
+     */
+    private static void preloadStylesheets()
+    {
+        for(final String stylesheet : STYLESHEETS)
+        {
+            Assets.preloadStylesheet(stylesheet);
+        }
+    }
+
+    /*
+     * Records the time to interactive once the menu's first frame has been laid out.
+     */
+    private void interactive()
+    {
+        final long elapsed;
+        elapsed = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        timeToInteractive.set(elapsed);
+        EventLog.info(SOURCE, "launcher.interactive", elapsed);
+        if(elapsed > BUDGET_MILLIS)
+        {
+            EventLog.warn(SOURCE, "launcher.budget_exceeded", elapsed,
+                    "budget " + BUDGET_MILLIS + " ms");
+        }
+    }
+
+    /*
+     * Builds a game's scene in a new window, timing how long it takes to show.
+     */
+    private void openGame(final String name,
+                          final GameStarter starter)
+    {
+        final Stage stage;
+        final long start;
+
+        stage = new Stage();
+        start = SCENE_BUILD_TIMER.start();
+        try
+        {
+            starter.start(stage);
+        }
+        catch(final Exception e)
+        {
+            EventLog.error(SOURCE, "launcher.game_failed", name, e.getMessage());
+            stage.close();
+        }
+        finally
+        {
+            SCENE_BUILD_TIMER.stop(start);
+        }
+    }
+
+    /*
+     * Plays the Word Game on the console once its countries are loaded, one game at a time.
+     */
+    private void playWordGame()
+    {
+        wordGameButton.setDisable(true);
+        statusLabel.setText("Word Game running on the console");
+
+        Thread.ofPlatform().name("wordgame-console").start(() -> {
+            try
+            {
+                new WordGame(world.join(), new ConsoleSession()).play();
+            }
+            catch(final RuntimeException e)
+            {
+                EventLog.error(SOURCE, "launcher.game_failed", "WordGame", e.getMessage());
+            }
+            finally
+            {
+                Platform.runLater(() -> {
+                    wordGameButton.setDisable(false);
+                    statusLabel.setText("Ready");
+                });
+            }
+        });
+    }
+
+    /*
+     * Shows a game on a stage, as Application.start does.
+     */
+    @FunctionalInterface
+    private interface GameStarter
+    {
+        void start(Stage stage) throws Exception;
+    }
+
+    /**
+     * Launches the menu.
+     *
+     * @param args unused
+     */
+    public static void main(final String[] args)
+    {
+        launch(args);
+    }
+}
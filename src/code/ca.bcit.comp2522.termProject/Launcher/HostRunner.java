@@ -0,0 +1,134 @@
+package ca.bcit.comp2522.termProject.Launcher;
+
+import ca.bcit.comp2522.termProject.Common.GameHost;
+import ca.bcit.comp2522.termProject.Common.GameResult;
+import ca.bcit.comp2522.termProject.Common.Metrics;
+import ca.bcit.comp2522.termProject.Common.Seeds;
+import ca.bcit.comp2522.termProject.MyGame.HeadlessEscapeRoom;
+import ca.bcit.comp2522.termProject.NumberGame.HeadlessNumberGame;
+import ca.bcit.comp2522.termProject.NumberGame.NumberBoard;
+import ca.bcit.comp2522.termProject.WordGame.HeadlessWordGame;
+import ca.bcit.comp2522.termProject.WordGame.World;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays the same number of games of each of the three types on a GameHost with simple
+ * bots, and prints the host's metrics and how the games did.
+ *
+ * Arguments are key=value options: games (per game type), threads (0 for a virtual
+ * thread per game), seed, persist and resources (the WordGame country files).
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class HostRunner
+{
+    private static final int    VIRTUAL_THREADS   = 0;
+    private static final long   DEFAULT_GAMES     = 10_000L;
+    private static final String DEFAULT_RESOURCES = "src/resources";
+    private static final String WORD_GAME_ANSWER  = "Canada";
+    private static final String OPTION_SEPARATOR  = "=";
+    private static final int    OPTION_PARTS      = 2;
+
+    private HostRunner()
+    {
+    }
+
+    /**
+     * Plays the games and prints how they did. See the class description for the arguments.
+     *
+     * @param args key=value options
+     * @throws InterruptedException if interrupted while waiting for the games
+     * @throws ExecutionException   if a game failed
+     */
+    public static void main(final String[] args) throws InterruptedException, ExecutionException
+    {
+        final World world;
+        final List<Future<GameResult>> results;
+        final long rootSeed;
+        final long start;
+        final long elapsed;
+        long games;
+        int threads;
+        Long seed;
+        boolean persist;
+        String resources;
+        long wins;
+
+        games = DEFAULT_GAMES;
+        threads = VIRTUAL_THREADS;
+        seed = null;
+        persist = false;
+        resources = DEFAULT_RESOURCES;
+
+        for(final String arg : args)
+        {
+            final String[] parts;
+            parts = arg.split(OPTION_SEPARATOR, OPTION_PARTS);
+
+            if(parts.length != OPTION_PARTS)
+            {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+
+            switch(parts[0])
+            {
+                case "games":
+                    games = Long.parseLong(parts[1]);
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(parts[1]);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(parts[1]);
+                    break;
+                case "persist":
+                    persist = Boolean.parseBoolean(parts[1]);
+                    break;
+                case "resources":
+                    resources = parts[1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + parts[0]);
+            }
+        }
+
+        world = new World(Path.of(resources));
+        results = new ArrayList<>();
+        rootSeed = seed == null ? Seeds.newSeed() : seed;
+        start = System.nanoTime();
+
+        try(final GameHost host = GameHost.withThreads(threads, rootSeed, persist))
+        {
+            for(long i = 0; i < games; i++)
+            {
+                final RandomGenerator random;
+                random = Seeds.random(Seeds.derive(rootSeed, -1 - i)); // Apart from the games' own seeds
+
+                // A player who clicks at random, one who never forgets a passcode and one who knows one country
+                results.add(host.submit(new HeadlessNumberGame(),
+                        (game, prompt) -> Integer.toString(random.nextInt(NumberBoard.ROWS * NumberBoard.COLS))));
+                results.add(host.submit(new HeadlessEscapeRoom(), (game, prompt) -> prompt));
+                results.add(host.submit(new HeadlessWordGame(world), (game, prompt) -> WORD_GAME_ANSWER));
+            }
+        }
+        elapsed = System.nanoTime() - start;
+
+        wins = 0;
+        for(final Future<GameResult> result : results)
+        {
+            wins += result.get().isWon() ? 1 : 0;
+        }
+
+        System.out.print(Metrics.dump());
+        System.out.printf("%d games, %d won, %.1f s, %.0f games/s%n", results.size(), wins,
+                elapsed / (double) TimeUnit.SECONDS.toNanos(1),
+                results.size() * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1L, elapsed));
+    }
+}
@@ -0,0 +1,96 @@
+package ca.bcit.comp2522.termProject.Launcher;
+
+import ca.bcit.comp2522.termProject.Common.ReplayEngine;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+import ca.bcit.comp2522.termProject.MyGame.EscapeRoomReplay;
+import ca.bcit.comp2522.termProject.NumberGame.NumberGameReplay;
+import ca.bcit.comp2522.termProject.WordGame.World;
+import ca.bcit.comp2522.termProject.WordGame.WordGameReplay;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a replay log with the handlers of all three games and prints the ReplayEngine's
+ * summary and throughput.
+ *
+ * Arguments are key=value options: file (the replay log), resources (the WordGame
+ * country files) and repeat (how many times to replay the log, to measure throughput).
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class ReplayRunner
+{
+    private static final String DEFAULT_RESOURCES = "src/resources";
+    private static final int    DEFAULT_REPEAT    = 1;
+    private static final String OPTION_SEPARATOR  = "=";
+    private static final int    OPTION_PARTS      = 2;
+
+    private ReplayRunner()
+    {
+    }
+
+    /**
+     * Replays a replay log and prints the summary. See the class description for the arguments.
+     *
+     * @param args key=value options
+     * @throws IOException if the log cannot be read
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        final ReplayEngine engine;
+        final List<byte[]> recordings;
+        final long start;
+        final long elapsed;
+        ReplayLog log;
+        String resources;
+        int repeat;
+
+        log = ReplayLog.getDefault();
+        resources = DEFAULT_RESOURCES;
+        repeat = DEFAULT_REPEAT;
+
+        for(final String arg : args)
+        {
+            final String[] parts;
+            parts = arg.split(OPTION_SEPARATOR, OPTION_PARTS);
+
+            if(parts.length != OPTION_PARTS)
+            {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+
+            switch(parts[0])
+            {
+                case "file":
+                    log = new ReplayLog(Path.of(parts[1]));
+                    break;
+                case "resources":
+                    resources = parts[1];
+                    break;
+                case "repeat":
+                    repeat = Integer.parseInt(parts[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + parts[0]);
+            }
+        }
+
+        engine = new ReplayEngine(new WordGameReplay(new World(Path.of(resources))), new NumberGameReplay(),
+                new EscapeRoomReplay());
+        recordings = log.readAll();
+
+        start = System.nanoTime();
+        for(int i = 0; i < repeat; i++)
+        {
+            engine.replayAll(recordings);
+        }
+        elapsed = System.nanoTime() - start;
+
+        System.out.println(engine);
+        System.out.printf("%.3f s, %.0f events/s%n", elapsed / (double) TimeUnit.SECONDS.toNanos(1),
+                engine.getEvents() * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1L, elapsed));
+    }
+}
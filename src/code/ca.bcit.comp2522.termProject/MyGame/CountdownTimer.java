@@ -1,24 +1,47 @@
 package ca.bcit.comp2522.termProject.MyGame;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.scene.control.ProgressBar;
-import java.util.Timer;
-import java.util.TimerTask;
+import javafx.util.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A countdown timer utility that updates a progress bar and executes a timeout action when the timer expires.
  *
+ * Every running countdown is driven by one shared AnimationTimer on the JavaFX pulse, so
+ * starting a countdown never creates a thread, the progress bar moves smoothly every frame,
+ * and any number of countdowns can run at once. A CountdownTimer can be restarted any
+ * number of times; starting it again cancels the previous countdown.
+ *
  * @author Pranjal Sharma [A01396406]
- * @version 2.0
+ * @version 3.0
  */
 public class CountdownTimer
 {
-    private static final long TIMER_INITIAL_DELAY_MS = 0L;
-    private static final long TIMER_PERIOD_MS = 1000L;
-    private static final double FULL_PROGRESS = 1.0;
-    private static final int TIME_EXPIRED = 0;
-    private Timer timer;
-    private int timeLeft;
+    private static final double FULL_PROGRESS    = 1.0;
+    private static final double NO_PROGRESS      = 0.0;
+    private static final long   NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long   NOT_RUNNING      = 0L;
+
+    // Countdowns currently running; only touched on the JavaFX application thread
+    private static final List<CountdownTimer> ACTIVE = new ArrayList<>();
+    private static final AnimationTimer       PULSE  = new AnimationTimer()
+    {
+        @Override
+        public void handle(final long now)
+        {
+            tickAll(now);
+        }
+    };
+
+    private ProgressBar progressBar;
+    private Runnable    onTimeout;
+    private long        durationNanos;
+    private long        deadlineNanos;
+    private long        secondsLeft;
 
     /**
      * Starts a countdown timer with the specified duration.
@@ -32,38 +55,173 @@ public class CountdownTimer
                                final Runnable onTimeout,
                                final int durationInSeconds)
     {
-        timeLeft = durationInSeconds;
+        startCountdown(progressBar, onTimeout, Duration.seconds(durationInSeconds));
+    }
+
+    /**
+     * Starts a countdown timer with the specified duration, which may include fractions of a second.
+     * Any countdown already running on this timer is cancelled first.
+     *
+     * @param progressBar The progress bar to visually represent the countdown.
+     * @param onTimeout   The action to execute on the JavaFX application thread when the countdown ends.
+     * @param duration    The duration of the countdown.
+     */
+    public void startCountdown(final ProgressBar progressBar,
+                               final Runnable onTimeout,
+                               final Duration duration)
+    {
+        if(!Platform.isFxApplicationThread())
+        {
+            Platform.runLater(() -> startCountdown(progressBar, onTimeout, duration));
+            return;
+        }
+
+        stopCountdown();
+
+        this.progressBar   = progressBar;
+        this.onTimeout     = onTimeout;
+        this.durationNanos = Math.max(1L, (long) (duration.toMillis() * TimeUnit.MILLISECONDS.toNanos(1)));
+        this.deadlineNanos = System.nanoTime() + durationNanos;
+        this.secondsLeft   = secondsLeft(durationNanos);
+
         progressBar.setProgress(FULL_PROGRESS); // Start at full progress
-        timer = new Timer();
-        timer.scheduleAtFixedRate(new TimerTask()
+
+        if(ACTIVE.isEmpty())
         {
-            @Override
-            public void run()
+            PULSE.start();
+        }
+        ACTIVE.add(this);
+    }
+
+    /**
+     * Stops the countdown timer if it is running. The timeout action is not run.
+     */
+    public void stopCountdown()
+    {
+        if(!Platform.isFxApplicationThread())
+        {
+            Platform.runLater(this::stopCountdown);
+            return;
+        }
+
+        if(deadlineNanos != NOT_RUNNING)
+        {
+            deadlineNanos = NOT_RUNNING;
+            ACTIVE.remove(this);
+
+            if(ACTIVE.isEmpty())
             {
-                Platform.runLater(() -> {
-                    if(timeLeft <= TIME_EXPIRED)
-                    {
-                        timer.cancel();
-                        onTimeout.run(); // Timeout action
-                    }
-                    else
-                    {
-                        timeLeft--;
-                        progressBar.setProgress(timeLeft / (double) durationInSeconds);
-                    }
-                });
+                PULSE.stop();
             }
-        }, TIMER_INITIAL_DELAY_MS, TIMER_PERIOD_MS); // Run every second
+        }
     }
 
     /**
-     * Stops the countdown timer if it is running.
+     * Checks if a countdown is running.
+     *
+     * @return true if the countdown has been started and has neither ended nor been stopped
      */
-    public void stopCountdown()
+    public boolean isRunning()
+    {
+        return deadlineNanos != NOT_RUNNING;
+    }
+
+    /**
+     * Retrieves the time left on the countdown.
+     *
+     * @return the time remaining, or zero if the countdown is not running
+     */
+    public Duration getTimeRemaining()
+    {
+        if(deadlineNanos == NOT_RUNNING)
+        {
+            return Duration.ZERO;
+        }
+        return Duration.millis(Math.max(0L, deadlineNanos - System.nanoTime()) /
+                (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /*
+     * Advances every running countdown to the current pulse.
+     */
+    private static void tickAll(final long now)
+    {
+        // Iterate over a copy: timeout actions may start or stop countdowns
+        for(final CountdownTimer countdown : ACTIVE.toArray(new CountdownTimer[0]))
+        {
+            countdown.tick(now);
+        }
+
+        if(ACTIVE.isEmpty())
+        {
+            PULSE.stop();
+        }
+    }
+
+    /*
+     * Updates the progress bar, and ends the countdown once its deadline has passed.
+     */
+    private void tick(final long now)
     {
-        if(timer != null)
+        if(deadlineNanos == NOT_RUNNING)
         {
-            timer.cancel();
+            return; // Stopped by an earlier countdown's timeout action in this pulse
         }
+
+        final long remaining;
+        final long seconds;
+
+        remaining = deadlineNanos - now;
+        seconds = secondsLeft(Math.max(0L, remaining));
+
+        if(seconds != secondsLeft || remaining <= 0)
+        {
+            recordTick(now, seconds, remaining <= 0);
+            secondsLeft = seconds;
+        }
+
+        if(remaining <= 0)
+        {
+            final Runnable action;
+            action = onTimeout;
+
+            progressBar.setProgress(NO_PROGRESS);
+            deadlineNanos = NOT_RUNNING;
+            ACTIVE.remove(this);
+            action.run(); // Timeout action
+        }
+        else
+        {
+            progressBar.setProgress(remaining / (double) durationNanos);
+        }
+    }
+
+    /*
+     * Records a Flight Recorder event each time the whole seconds left change, with the
+     * delay between the second passing and the pulse that noticed it.
+     */
+    private void recordTick(final long now,
+                            final long seconds,
+                            final boolean timedOut)
+    {
+        final TimerTickEvent event;
+        event = new TimerTickEvent();
+
+        if(event.shouldCommit())
+        {
+            event.secondsLeft     = (int) seconds;
+            event.durationSeconds = (int) secondsLeft(durationNanos);
+            event.lag             = now - (deadlineNanos - seconds * NANOS_PER_SECOND);
+            event.timedOut        = timedOut;
+            event.commit();
+        }
+    }
+
+    /*
+     * Rounds a number of nanoseconds up to whole seconds.
+     */
+    private static long secondsLeft(final long nanos)
+    {
+        return (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
     }
 }
@@ -0,0 +1,147 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import ca.bcit.comp2522.termProject.Common.ReplayHandler;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+import ca.bcit.comp2522.termProject.Common.ReplayReader;
+import ca.bcit.comp2522.termProject.Common.ReplayWriter;
+import java.io.IOException;
+
+/**
+ * Replays recorded Escape the Room games on a LevelStateMachine, at the recorded times.
+ *
+ * GameUI records the seed, whether the game was endless, and an event whenever the state
+ * machine is driven: a level starting, input being accepted, an answer with its text and a
+ * timeout. The outcome is the level reached, the score and the final state, so a change
+ * to the passcodes, the timing rules or the answer check that would change a real game is
+ * caught here.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class EscapeRoomReplay implements ReplayHandler
+{
+    /** A level started and its passcode was shown. */
+    public static final int START_LEVEL  = 1;
+
+    /** The passcode was hidden and input accepted. */
+    public static final int ACCEPT_INPUT = 2;
+
+    /** An answer was submitted; the payload is its text. */
+    public static final int SUBMIT       = 3;
+
+    /** The input time ran out. */
+    public static final int TIMEOUT      = 4;
+
+    /** The header parameter holding 1 for an endless game. */
+    public static final int ENDLESS      = 0;
+
+    private static final long ENDLESS_GAME = 1L;
+
+    private final LevelStateMachine machine;
+
+    /**
+     * Constructs an EscapeRoomReplay with the shared vocabulary and the default times,
+     * as GameUI plays.
+     */
+    public EscapeRoomReplay()
+    {
+        this.machine = new LevelStateMachine(new GameEngine());
+    }
+
+    /**
+     * Starts a recording of a game about to be played from its first level.
+     *
+     * @param engine the engine of the game, reset to its seed
+     * @param now    the current time in epoch milliseconds
+     * @return the recording
+     */
+    public static ReplayWriter record(final GameEngine engine,
+                                      final long now)
+    {
+        return new ReplayWriter(ReplayLog.ESCAPE_ROOM, engine.getSeed(), now,
+                engine.isEndless() ? ENDLESS_GAME : 0L);
+    }
+
+    /**
+     * Ends a recording with the game's outcome.
+     *
+     * @param recording the recording
+     * @param machine   the state machine of the finished game
+     * @return the encoded recording
+     */
+    public static byte[] finish(final ReplayWriter recording,
+                                final LevelStateMachine machine)
+    {
+        return recording.finish(outcome(machine));
+    }
+
+    /**
+     * Gets the type of game this handler replays.
+     *
+     * @return ReplayLog.ESCAPE_ROOM
+     */
+    @Override
+    public int getGameType()
+    {
+        return ReplayLog.ESCAPE_ROOM;
+    }
+
+    /**
+     * Gets the name of the game, for reports.
+     *
+     * @return the name
+     */
+    @Override
+    public String getName()
+    {
+        return "EscapeRoom";
+    }
+
+    /**
+     * Replays a recording and compares its level, score and final state.
+     *
+     * @param recording the recording, positioned at its first event
+     * @return true if the replayed game ended with the recorded outcome
+     * @throws IOException if the recording is malformed
+     */
+    @Override
+    public boolean replay(final ReplayReader recording) throws IOException
+    {
+        int event;
+
+        machine.reset(recording.getSeed());
+        machine.getEngine().setEndless(recording.getParameterCount() > ENDLESS &&
+                recording.getParameter(ENDLESS) == ENDLESS_GAME);
+
+        while((event = recording.nextEvent()) != ReplayWriter.END_EVENT)
+        {
+            switch(event)
+            {
+                case START_LEVEL:
+                    machine.startLevel(recording.getEventTime());
+                    break;
+                case ACCEPT_INPUT:
+                    machine.advance(machine.getInputStart());
+                    break;
+                case SUBMIT:
+                    machine.submit(recording.readString(), recording.getEventTime());
+                    break;
+                case TIMEOUT:
+                    machine.timeOut();
+                    break;
+                default:
+                    throw new IOException("Unknown Escape the Room event " + event);
+            }
+        }
+        return recording.outcomeMatches(outcome(machine));
+    }
+
+    /*
+     * Describes how a game ended: its level, score and state.
+     */
+    private static long[] outcome(final LevelStateMachine machine)
+    {
+        return new long[] {machine.getEngine().getLevel(), machine.getEngine().getScore(),
+                machine.getState().ordinal()};
+    }
+}
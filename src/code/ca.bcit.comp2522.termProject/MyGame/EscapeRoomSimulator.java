@@ -0,0 +1,268 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays Escape the Room headlessly with MemoryModelBots and reports a survival curve:
+ * the share of games that reached each level.
+ *
+ * Every game runs the same LevelStateMachine as GameUI, on a virtual clock that jumps
+ * straight from one event to the next, so millions of games take seconds and no JavaFX
+ * is needed. Games are split across platform threads, each with its own engine, state
+ * machine, curve and random stream split from one seed, so a run with the same seed and
+ * thread count always gives the same curve. This is how the display and input times are
+ * tuned without human players.
+ *
+ * Arguments are key=value options: games, threads, seed, recallError, span, readMillis,
+ * typeMillis, displayMillis, inputMillis, endless and maxLevel (for endless mode).
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class EscapeRoomSimulator
+{
+    private static final long   DEFAULT_GAMES          = 1_000_000L;
+    private static final long   DEFAULT_SEED           = 2522L;
+    private static final double DEFAULT_RECALL_ERROR   = 0.02;
+    private static final int    DEFAULT_MEMORY_SPAN    = 7;
+    private static final long   DEFAULT_READ_MILLIS    = 400L;
+    private static final long   DEFAULT_TYPE_MILLIS    = 150L;
+    private static final int    DEFAULT_ENDLESS_LEVELS = 50;
+    private static final long   START_TIME             = 0L;
+    private static final String OPTION_SEPARATOR       = "=";
+    private static final int    OPTION_PARTS           = 2;
+
+    private final MemoryModelBot bot;
+    private final long           displayMillis;
+    private final long           inputMillis;
+    private final boolean        endless;
+    private final int            maxLevel;
+
+    /**
+     * Constructs an EscapeRoomSimulator.
+     *
+     * @param bot           the player model
+     * @param displayMillis how long short passcodes are shown
+     * @param inputMillis   how long the player has to type short passcodes
+     * @param endless       true to play endless mode
+     * @param maxLevel      in endless mode, the level after which a game counts as survived
+     */
+    public EscapeRoomSimulator(final MemoryModelBot bot,
+                               final long displayMillis,
+                               final long inputMillis,
+                               final boolean endless,
+                               final int maxLevel)
+    {
+        this.bot           = bot;
+        this.displayMillis = displayMillis;
+        this.inputMillis   = inputMillis;
+        this.endless       = endless;
+        this.maxLevel      = endless ? maxLevel : new GameEngine().getTotalLevels();
+    }
+
+    /**
+     * Plays the specified number of games across several threads.
+     *
+     * @param games   the number of games
+     * @param threads the number of threads
+     * @param seed    the seed every thread's random stream is split from
+     * @return the merged survival curve
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public SurvivalCurve run(final long games,
+                             final int threads,
+                             final long seed) throws InterruptedException
+    {
+        final SplittableRandom seeds;
+        final List<Thread> workers;
+        final List<SurvivalCurve> curves;
+        final SurvivalCurve total;
+
+        seeds = new SplittableRandom(seed);
+        workers = new ArrayList<>();
+        curves = new ArrayList<>();
+        total = new SurvivalCurve(maxLevel);
+
+        for(int i = 0; i < threads; i++)
+        {
+            final long share;
+            final SplittableRandom random;
+            final SurvivalCurve curve;
+
+            share = games / threads + (i < games % threads ? 1 : 0);
+            random = seeds.split();
+            curve = new SurvivalCurve(maxLevel);
+
+            curves.add(curve);
+            workers.add(Thread.ofPlatform().name("simulator-" + i).start(() -> play(share, random, curve)));
+        }
+
+        for(final Thread worker : workers)
+        {
+            worker.join();
+        }
+        for(final SurvivalCurve curve : curves)
+        {
+            total.merge(curve);
+        }
+        return total;
+    }
+
+    /*
+     * Plays games on one thread, reusing one engine and state machine for all of them.
+     */
+    private void play(final long games,
+                      final SplittableRandom random,
+                      final SurvivalCurve curve)
+    {
+        final GameEngine engine;
+        final LevelStateMachine machine;
+
+        engine = new GameEngine();
+        engine.setEndless(endless);
+        machine = new LevelStateMachine(engine, displayMillis, inputMillis);
+
+        for(long game = 0; game < games; game++)
+        {
+            playGame(machine, random, curve);
+        }
+    }
+
+    /*
+     * Plays one game to the end on the virtual clock.
+     */
+    private void playGame(final LevelStateMachine machine,
+                          final SplittableRandom random,
+                          final SurvivalCurve curve)
+    {
+        final GameEngine engine;
+        long now;
+
+        engine = machine.getEngine();
+        machine.reset(random.nextLong()); // Passcodes come from this thread's stream too
+        now = START_TIME;
+
+        while(true)
+        {
+            final int level;
+            final boolean correct;
+            final LevelStateMachine.State state;
+
+            level = engine.getLevel();
+            machine.startLevel(now);
+            curve.recordReached(level);
+
+            correct = bot.recalls(engine, machine.getDisplayMillis(), random);
+            now = machine.getInputStart() + bot.typingMillis(engine);
+            state = machine.submit(correct, now);
+
+            if(state != LevelStateMachine.State.READY || level == maxLevel)
+            {
+                curve.recordEnd(level, state);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs a simulation and prints its survival curve. See the class description for the arguments.
+     *
+     * @param args key=value options
+     * @throws InterruptedException if interrupted while waiting for the simulation
+     */
+    public static void main(final String[] args) throws InterruptedException
+    {
+        final EscapeRoomSimulator simulator;
+        final long start;
+        final SurvivalCurve curve;
+        final long elapsed;
+        long games;
+        int threads;
+        long seed;
+        double recallError;
+        int span;
+        long readMillis;
+        long typeMillis;
+        long displayMillis;
+        long inputMillis;
+        boolean endless;
+        int maxLevel;
+
+        games = DEFAULT_GAMES;
+        threads = Runtime.getRuntime().availableProcessors();
+        seed = DEFAULT_SEED;
+        recallError = DEFAULT_RECALL_ERROR;
+        span = DEFAULT_MEMORY_SPAN;
+        readMillis = DEFAULT_READ_MILLIS;
+        typeMillis = DEFAULT_TYPE_MILLIS;
+        displayMillis = LevelStateMachine.DEFAULT_DISPLAY_MILLIS;
+        inputMillis = LevelStateMachine.DEFAULT_INPUT_MILLIS;
+        endless = false;
+        maxLevel = DEFAULT_ENDLESS_LEVELS;
+
+        for(final String arg : args)
+        {
+            final String[] parts;
+            parts = arg.split(OPTION_SEPARATOR, OPTION_PARTS);
+
+            if(parts.length != OPTION_PARTS)
+            {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+
+            switch(parts[0])
+            {
+                case "games":
+                    games = Long.parseLong(parts[1]);
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(parts[1]);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(parts[1]);
+                    break;
+                case "recallError":
+                    recallError = Double.parseDouble(parts[1]);
+                    break;
+                case "span":
+                    span = Integer.parseInt(parts[1]);
+                    break;
+                case "readMillis":
+                    readMillis = Long.parseLong(parts[1]);
+                    break;
+                case "typeMillis":
+                    typeMillis = Long.parseLong(parts[1]);
+                    break;
+                case "displayMillis":
+                    displayMillis = Long.parseLong(parts[1]);
+                    break;
+                case "inputMillis":
+                    inputMillis = Long.parseLong(parts[1]);
+                    break;
+                case "endless":
+                    endless = Boolean.parseBoolean(parts[1]);
+                    break;
+                case "maxLevel":
+                    maxLevel = Integer.parseInt(parts[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + parts[0]);
+            }
+        }
+
+        simulator = new EscapeRoomSimulator(new MemoryModelBot(recallError, span, readMillis, typeMillis),
+                displayMillis, inputMillis, endless, maxLevel);
+
+        start = System.nanoTime();
+        curve = simulator.run(games, threads, seed);
+        elapsed = System.nanoTime() - start;
+
+        System.out.println(curve);
+        System.out.printf("%d threads, %.1f s, %.0f games/s%n", threads,
+                elapsed / (double) TimeUnit.SECONDS.toNanos(1),
+                games * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1L, elapsed));
+    }
+}
@@ -1,56 +1,412 @@
 package ca.bcit.comp2522.termProject.MyGame;
 
-import java.util.List;
-import java.util.Random;
-import java.util.stream.Collectors;
+import ca.bcit.comp2522.termProject.Common.Metrics;
+import ca.bcit.comp2522.termProject.Common.Seeds;
+import ca.bcit.comp2522.termProject.Common.Timer;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
 
 /**
  * The GameEngine class handles the core logic and state of the "Escape the Room" game.
  * It manages levels, scores, and the generation of passcode sequences.
  *
+ * A sequence is stored as token ids of the engine's Vocabulary in a reused int array, and
+ * the player's input is checked by scanning it in place, so neither generating nor checking
+ * a sequence allocates. Tokens are drawn with the vocabulary's alias tables, so generating
+ * a sequence costs the same whatever the size of the vocabulary; level n draws from the
+ * vocabulary's first n difficulty tiers.
+ *
+ * Each game draws its sequences from its own seed, so a game can be replayed exactly by
+ * resetting an engine with the same seed.
+ *
+ * In endless mode there is no last level and the sequence grows with the square of the
+ * level, up to MAX_ENDLESS_LENGTH tokens. The array only grows when a longer sequence is
+ * needed, so memory stays flat once the cap is reached.
+ *
  * @author Pranjal Sharma [A01396406]
- * @version 2.0
+ * @version 3.0
  */
 public class GameEngine
 {
     private static final int TOTAL_LEVELS           = 10;
     private static final int INITIAL_LEVEL          = 1;
     private static final int INITIAL_SCORE          = 0;
-    private static final int RANDOM_INT_UPPER_BOUND = 10;
-    private static final int RANDOM_INT_LOWER_BOUND = 0;
+    private static final Timer GENERATE_TIMER       = Metrics.timer("escaperoom.generate_sequence");
+    private static final Timer VALIDATE_TIMER       = Metrics.timer("escaperoom.validate_input");
+    private static final char TOKEN_SEPARATOR       = ' ';
 
-    private final Random random = new Random();
-    private static final String[] WORDS = {
-            "key", "lock", "door", "safe", "code", "clue", "trap", "exit", "map", "note"
-    }; // Array of words for sequence generation
+    /** How many tokens past the expected length of an answer are compared. */
+    public static final int MAX_EXTRA_TOKENS        = 64;
 
-    private List<String> currentSequence;
+    /** The longest sequence endless mode generates. */
+    public static final int MAX_ENDLESS_LENGTH      = 10_000;
+
+    private final Vocabulary vocabulary;
+    private RandomGenerator random;
+    private long seed;
+
+    private int[] sequence = new int[TOTAL_LEVELS];
+    private int[] enteredTokens = new int[TOTAL_LEVELS];
+    private int sequenceLength;
+    private boolean endless;
     private int level = INITIAL_LEVEL;
     private int score = INITIAL_SCORE;
 
     /**
-     * Generates a sequence for the current level.
+     * Constructs a GameEngine using the shared vocabulary.
+     */
+    public GameEngine()
+    {
+        this(Vocabulary.getShared());
+    }
+
+    /**
+     * Constructs a GameEngine that draws its sequences from a vocabulary.
+     *
+     * @param vocabulary The vocabulary, which may be shared with other engines.
+     */
+    public GameEngine(final Vocabulary vocabulary)
+    {
+        this(vocabulary, Seeds.newSeed());
+    }
+
+    /**
+     * Constructs a GameEngine whose first game is played from a seed.
+     *
+     * @param vocabulary The vocabulary, which may be shared with other engines.
+     * @param seed       The seed of the first game.
+     */
+    public GameEngine(final Vocabulary vocabulary,
+                      final long seed)
+    {
+        this.vocabulary = vocabulary;
+        this.seed       = seed;
+        this.random     = Seeds.random(seed);
+    }
+
+    /**
+     * Generates a sequence for the current level, replacing the previous one.
      * The sequence length depends on the current level.
+     */
+    public void generateSequence()
+    {
+        final long start;
+        final SequenceGeneratedEvent event;
+        final int tier;
+
+        start = GENERATE_TIMER.start();
+        event = new SequenceGeneratedEvent();
+        event.begin();
+
+        sequenceLength = lengthForLevel(level);
+        if(sequenceLength > sequence.length)
+        {
+            sequence = new int[Math.max(sequenceLength, Math.min(sequence.length * 2, MAX_ENDLESS_LENGTH))];
+        }
+
+        tier = Math.min(level, vocabulary.getTierCount()) - 1;
+        for(int i = 0; i < sequenceLength; i++)
+        {
+            sequence[i] = vocabulary.sample(tier, random);
+        }
+
+        GENERATE_TIMER.stop(start);
+        event.end();
+        if(event.shouldCommit())
+        {
+            event.level  = level;
+            event.length = sequenceLength;
+            event.commit();
+        }
+    }
+
+    /*
+     * Computes how many tokens a level's sequence has.
+     */
+    private int lengthForLevel(final int level)
+    {
+        if(endless)
+        {
+            return (int) Math.min((long) level * level, MAX_ENDLESS_LENGTH);
+        }
+        return level;
+    }
+
+    /**
+     * Turns endless mode on or off. Takes effect from the next generated sequence.
+     *
+     * @param endless True for endless mode.
+     */
+    public void setEndless(final boolean endless)
+    {
+        this.endless = endless;
+    }
+
+    /**
+     * Checks if endless mode is on.
+     *
+     * @return True in endless mode.
+     */
+    public boolean isEndless()
+    {
+        return endless;
+    }
+
+    /**
+     * Gets the number of tokens in the current sequence.
+     *
+     * @return The sequence length.
+     */
+    public int getSequenceLength()
+    {
+        return sequenceLength;
+    }
+
+    /**
+     * Gets the token id at a position of the current sequence.
+     *
+     * @param index The position, from 0.
+     * @return The token id.
+     */
+    public int getToken(final int index)
+    {
+        if(index < 0 || index >= sequenceLength)
+        {
+            throw new IndexOutOfBoundsException("Token index " + index + " out of " + sequenceLength);
+        }
+        return sequence[index];
+    }
+
+    /**
+     * Gets the text the player types for a token.
+     *
+     * @param token The token id.
+     * @return The digit or word.
+     */
+    public String tokenText(final int token)
+    {
+        return vocabulary.getText(token);
+    }
+
+    /**
+     * Gets the vocabulary sequences are drawn from.
+     *
+     * @return The vocabulary.
+     */
+    public Vocabulary getVocabulary()
+    {
+        return vocabulary;
+    }
+
+    /**
+     * Formats the current sequence for display, with tokens separated by single spaces.
      *
-     * @return The generated sequence as a list of strings.
+     * @return The sequence text.
      */
-    public List<String> generateSequence()
+    public String getSequenceText()
     {
-        currentSequence = random.ints(level, RANDOM_INT_LOWER_BOUND, RANDOM_INT_UPPER_BOUND)
-                .mapToObj(i -> random.nextBoolean() ? String.valueOf(i) : WORDS[random.nextInt(WORDS.length)])
-                .collect(Collectors.toList());
-        return currentSequence;
+        final StringBuilder text;
+        text = new StringBuilder();
+
+        appendSequenceText(text, 0, sequenceLength);
+        return text.toString();
+    }
+
+    /**
+     * Appends part of the current sequence to a buffer, with tokens separated by single
+     * spaces, so long sequences can be displayed a piece at a time.
+     *
+     * @param out  The buffer to append to.
+     * @param from The first token position, inclusive.
+     * @param to   The last token position, exclusive.
+     */
+    public void appendSequenceText(final StringBuilder out,
+                                   final int from,
+                                   final int to)
+    {
+        if(from < 0 || to > sequenceLength || from > to)
+        {
+            throw new IndexOutOfBoundsException("Token range " + from + "-" + to + " out of " + sequenceLength);
+        }
+
+        for(int i = from; i < to; i++)
+        {
+            if(i > from)
+            {
+                out.append(TOKEN_SEPARATOR);
+            }
+            out.append(vocabulary.getText(sequence[i]));
+        }
     }
 
     /**
      * Validates the user's input against the current sequence.
+     * Tokens may be separated by any amount of whitespace, and leading and trailing
+     * whitespace is ignored; the tokens themselves must match exactly.
      *
-     * @param input The user's input sequence.
+     * @param input The text the user entered.
      * @return True if the input matches the current sequence, false otherwise.
      */
-    public boolean validateInput(final List<String> input)
+    public boolean validateInput(final CharSequence input)
     {
-        return input.equals(currentSequence);
+        final long start;
+        final boolean valid;
+
+        start = VALIDATE_TIMER.start();
+        valid = matchesSequence(input);
+        VALIDATE_TIMER.stop(start);
+
+        return valid;
+    }
+
+    /**
+     * Compares the user's input with the current sequence by token edit distance, for
+     * partial credit. Words that are not in the vocabulary count as wrong tokens. Only the
+     * expected length plus MAX_EXTRA_TOKENS tokens are compared; any after them are only
+     * counted, as extra tokens, so a pasted answer cannot make the comparison grow unbounded.
+     *
+     * @param input      The text the user entered.
+     * @param comparison Receives the distance, credit and wrong positions.
+     * @return The edit distance.
+     */
+    public int compareInput(final CharSequence input,
+                            final TokenEditDistance comparison)
+    {
+        final int length;
+        final int limit;
+        int count;
+        int dropped;
+        int position;
+
+        length = input.length();
+        limit = sequenceLength + MAX_EXTRA_TOKENS;
+        count = 0;
+        dropped = 0;
+        position = skipSeparators(input, 0);
+
+        while(position < length)
+        {
+            final int tokenEnd;
+            tokenEnd = findTokenEnd(input, position);
+
+            if(count == limit)
+            {
+                dropped++;
+            }
+            else
+            {
+                if(count == enteredTokens.length)
+                {
+                    enteredTokens = Arrays.copyOf(enteredTokens, Math.min(count * 2, limit));
+                }
+                enteredTokens[count++] = vocabulary.indexOf(input, position, tokenEnd);
+            }
+            position = skipSeparators(input, tokenEnd);
+        }
+
+        return comparison.compare(sequence, sequenceLength, enteredTokens, count, dropped);
+    }
+
+    /*
+     * Scans the input token by token, comparing each against the sequence in place.
+     */
+    private boolean matchesSequence(final CharSequence input)
+    {
+        final int length;
+        int position;
+
+        length = input.length();
+        position = skipSeparators(input, 0);
+
+        for(int i = 0; i < sequenceLength; i++)
+        {
+            final int tokenEnd;
+            tokenEnd = findTokenEnd(input, position);
+
+            if(position == length || !matchesToken(input, position, tokenEnd, vocabulary.getText(sequence[i])))
+            {
+                return false;
+            }
+            position = skipSeparators(input, tokenEnd);
+        }
+        return position == length;
+    }
+
+    /**
+     * Checks if a range of text is exactly the text of a token.
+     *
+     * @param text     The text.
+     * @param start    The first character of the range.
+     * @param end      One past the last character of the range.
+     * @param expected The token's text.
+     * @return True if the range spells the token.
+     */
+    public static boolean matchesToken(final CharSequence text,
+                                       final int start,
+                                       final int end,
+                                       final String expected)
+    {
+        if(end - start != expected.length())
+        {
+            return false;
+        }
+
+        for(int i = 0; i < expected.length(); i++)
+        {
+            if(text.charAt(start + i) != expected.charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a character separates tokens: the whitespace characters space, tab,
+     * newline, vertical tab, form feed and carriage return.
+     *
+     * @param c The character.
+     * @return True if the character is a separator.
+     */
+    public static boolean isSeparator(final char c)
+    {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Finds the first non-separator character at or after a position.
+     *
+     * @param text     The text.
+     * @param position The position to start from.
+     * @return The position of the next token, or the text length if there is none.
+     */
+    public static int skipSeparators(final CharSequence text,
+                                     final int position)
+    {
+        int i = position;
+        while(i < text.length() && isSeparator(text.charAt(i)))
+        {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Finds the end of the token starting at a position.
+     *
+     * @param text     The text.
+     * @param position The first character of the token.
+     * @return One past the last character of the token.
+     */
+    public static int findTokenEnd(final CharSequence text,
+                                   final int position)
+    {
+        int i = position;
+        while(i < text.length() && !isSeparator(text.charAt(i)))
+        {
+            i++;
+        }
+        return i;
     }
 
     /**
@@ -58,7 +414,7 @@ public class GameEngine
      */
     public void incrementLevel()
     {
-        if(level < TOTAL_LEVELS)
+        if(endless || level < TOTAL_LEVELS)
         {
             level++;
         }
@@ -105,19 +461,41 @@ public class GameEngine
     /**
      * Checks if the player has reached the last level.
      *
-     * @return True if the player is on the last level, false otherwise.
+     * @return True if the player is on the last level, false otherwise; always false in endless mode.
      */
     public boolean isLastLevel()
     {
-        return level == TOTAL_LEVELS;
+        return !endless && level == TOTAL_LEVELS;
     }
 
     /**
-     * Resets the game state to the initial level and score.
+     * Resets the game state to the initial level and score, for a new game with a new seed.
      */
     public void resetGame()
+    {
+        resetGame(Seeds.newSeed());
+    }
+
+    /**
+     * Resets the game state to the initial level and score, for a new game played from a seed.
+     *
+     * @param seed The seed of the new game.
+     */
+    public void resetGame(final long seed)
     {
         level = INITIAL_LEVEL;
         score = INITIAL_SCORE;
+        this.seed = seed;
+        this.random = Seeds.random(seed);
+    }
+
+    /**
+     * Gets the seed the current game is played from.
+     *
+     * @return The seed.
+     */
+    public long getSeed()
+    {
+        return seed;
     }
 }
@@ -1,20 +1,37 @@
 package ca.bcit.comp2522.termProject.MyGame;
 
+import ca.bcit.comp2522.termProject.Common.Assets;
+import ca.bcit.comp2522.termProject.Common.GameStatistics;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+import ca.bcit.comp2522.termProject.Common.ReplayWriter;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * The GameUI class handles the user interface for the Escape Room game.
  * It includes methods to initialize the UI, handle user interactions, and manage game flow.
  *
+ * In endless mode the sequence can run to thousands of tokens, so it is shown in a
+ * ListView of fixed-size chunks whose text is only formatted for the rows on screen,
+ * and the display and input times grow with the sequence length.
+ *
+ * The level flow itself is a LevelStateMachine on a monotonic millisecond clock, the one
+ * the countdown shown to the player runs on, so changing the system clock never ends or
+ * extends a level; this class only shows its states and runs its timers on the JavaFX
+ * application thread. Every call that
+ * drives the machine is recorded, with the typed answers, and the recording is saved to
+ * the replay log when the game ends so that EscapeRoomReplay can play it again.
+ *
  * @author Pranjal Sharma [A01396406]
  * @version 3.0
  */
@@ -24,15 +41,33 @@ public class GameUI
     private static final int    WINDOW_HEIGHT                = 600;
     private static final int    CENTRAL_BOX_SPACING          = 10;
     private static final int    STORY_LABEL_MAX_WIDTH        = 600;
-    private static final int    SEQUENCE_DISPLAY_DURATION_MS = 5000;
-    private static final int    TIMER_DURATION_SECONDS       = 15;
     private static final double FULL_PROGRESS                = 1.0;
-    private final GameEngine    gameEngine                   = new GameEngine();
-    private CountdownTimer      countdownTimer               = new CountdownTimer();
-    private Label               storyLabel, levelLabel, errorLabel, sequenceLabel;
-    private TextField           inputField;
-    private Button              startButton, submitButton, quitButton;
-    private ProgressBar         progressBar;
+    private static final int    NO_PENDING_CHANGE            = Integer.MAX_VALUE;
+    private static final int    TOKENS_PER_CHUNK             = 12;
+    private static final int    SEQUENCE_VIEW_HEIGHT         = 200;
+    private static final int    MAX_WRONG_WORDS_SHOWN        = 10;
+    private static final int    PERCENT                      = 100;
+    private static final String BACKGROUND_IMAGE             = "/background.jpeg";
+    private static final String STYLESHEET                   = "/stylesMyGame.css";
+    private static final long   NANOS_PER_MILLI              = 1_000_000L;
+    private final GameEngine              gameEngine         = new GameEngine();
+    private final CountdownTimer          countdownTimer     = new CountdownTimer();
+    private final LevelStateMachine       levelState         = new LevelStateMachine(gameEngine);
+    private final SequenceInputTracker    inputTracker       = new SequenceInputTracker(gameEngine);
+    private final TokenEditDistance       answerComparison   = new TokenEditDistance();
+    private final ObservableList<Integer> sequenceChunks     = FXCollections.observableArrayList();
+    private final StringBuilder           chunkText          = new StringBuilder();
+    private int                           pendingChangeStart = NO_PENDING_CHANGE;
+    private LevelPhaseScheduler           levelPhases;
+    private ReplayWriter                  recording;
+    private long                          wallClockOffset;
+    private Stage                         stage;
+    private Label                         storyLabel, levelLabel, errorLabel, sequenceLabel;
+    private ListView<Integer>             sequenceView;
+    private CheckBox                      endlessCheckBox;
+    private TextField                     inputField;
+    private Button                        startButton, submitButton, quitButton;
+    private ProgressBar                   progressBar;
 
     /**
      * Initializes and starts the game UI.
@@ -41,12 +76,7 @@ public class GameUI
      */
     public void start(final Stage primaryStage)
     {
-        // Background Image
-        final ImageView backgroundImage;
-        backgroundImage = new ImageView(new Image(getClass().getResource("/background.jpeg").toExternalForm()));
-        backgroundImage.setFitWidth(WINDOW_WIDTH);
-        backgroundImage.setFitHeight(WINDOW_HEIGHT);
-        backgroundImage.setPreserveRatio(false);
+        this.stage = primaryStage;
 
         // UI Components
         storyLabel = new Label("You are trapped in a mysterious room. Memorize the passcode to escape!\n" +
@@ -65,6 +95,8 @@ public class GameUI
         sequenceLabel.setMaxWidth(STORY_LABEL_MAX_WIDTH);
         sequenceLabel.setAlignment(Pos.CENTER);
 
+        sequenceView = createSequenceView();
+
         errorLabel = new Label();
         errorLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: red;");
 
@@ -73,6 +105,13 @@ public class GameUI
         inputField.setId("input-field");
         inputField.setDisable(true);
 
+        // Check the passcode as it is typed; the formatter sees where each edit starts
+        inputField.setTextFormatter(new TextFormatter<>(change -> {
+            pendingChangeStart = Math.min(pendingChangeStart, change.getRangeStart());
+            return change;
+        }));
+        inputField.textProperty().addListener((observable, oldText, newText) -> trackInput(newText));
+
         startButton = new Button("Start");
         startButton.setId("start-button");
 
@@ -83,23 +122,37 @@ public class GameUI
         quitButton = new Button("Quit");
         quitButton.setId("quit-button");
 
+        endlessCheckBox = new CheckBox("Endless mode");
+        endlessCheckBox.setId("endless-check-box");
+        endlessCheckBox.setOnAction(e -> gameEngine.setEndless(endlessCheckBox.isSelected()));
+
         progressBar = new ProgressBar(1.0);
         progressBar.setVisible(false);
 
+        levelPhases = new LevelPhaseScheduler(countdownTimer, progressBar, this::acceptInput,
+                this::handleGameOverDueToTimeout);
+
         VBox centralBox = new VBox(CENTRAL_BOX_SPACING, storyLabel, levelLabel, progressBar,
-                sequenceLabel, inputField, errorLabel, startButton, submitButton, quitButton);
+                sequenceLabel, sequenceView, inputField, errorLabel, endlessCheckBox, startButton, submitButton,
+                quitButton);
         centralBox.setId("central-box");
         centralBox.setAlignment(Pos.CENTER);
 
-        StackPane root = new StackPane(backgroundImage, centralBox);
+        StackPane root = new StackPane(centralBox);
+        Assets.setBackground(root, BACKGROUND_IMAGE, WINDOW_WIDTH, WINDOW_HEIGHT); // Shown once decoded
         Scene scene = new Scene(root, WINDOW_WIDTH, WINDOW_HEIGHT);
-        scene.getStylesheets().add(getClass().getResource("/stylesMyGame.css").toExternalForm());
+        final String stylesheet;
+        stylesheet = Assets.stylesheet(STYLESHEET);
+        if(stylesheet != null)
+        {
+            scene.getStylesheets().add(stylesheet);
+        }
 
         // Button Actions
         startButton.setOnAction(e -> startGame());
         submitButton.setOnAction(e -> handleSubmit());
         inputField.setOnAction(e -> handleSubmit());
-        quitButton.setOnAction(e -> Platform.exit());
+        quitButton.setOnAction(e -> quit());
 
         primaryStage.setScene(scene);
         primaryStage.setTitle("Escape the Room");
@@ -111,39 +164,170 @@ public class GameUI
      */
     private void startGame()
     {
+        final long now;
+        now = monotonicMillis();
+
+        if(recording == null)
+        {
+            // The first level of a new game; the recording keeps wall-clock times
+            wallClockOffset = System.currentTimeMillis() - now;
+            recording = EscapeRoomReplay.record(gameEngine, now + wallClockOffset);
+        }
+
         resetTimer(); // Ensure no active timer is running
         startButton.setDisable(true); // Disable Start button
+        endlessCheckBox.setDisable(true); // The mode is fixed until the game is reset
         levelLabel.setText("Level: " + gameEngine.getLevel());
         storyLabel.setText("Memorize the passcode!");
 
-        final List<String> sequence;
-        sequence = gameEngine.generateSequence();
-        sequenceLabel.setText(String.join(" ", sequence)); // Display the sequence
+        levelState.startLevel(now);
+        recordEvent(EscapeRoomReplay.START_LEVEL, now);
+        inputTracker.reset();
+        showSequence();
 
         inputField.setDisable(true);
         submitButton.setDisable(true);
         progressBar.setVisible(false);
 
-        new Thread(() -> {
-            try
-            {
-                Thread.sleep(SEQUENCE_DISPLAY_DURATION_MS); // Display sequence for defined duration
-                Platform.runLater(() -> {
-                    sequenceLabel.setText(""); // Clear sequence
-                    storyLabel.setText("Enter the passcode to escape:");
-                    inputField.clear();
-                    inputField.setDisable(false);
-                    submitButton.setDisable(false);
-                    progressBar.setVisible(true);
-                    countdownTimer.startCountdown(progressBar, this::handleGameOverDueToTimeout,
-                            TIMER_DURATION_SECONDS); // Start timer
-                });
-            }
-            catch(final InterruptedException e)
+        // Display the sequence for a time that grows with its length, then hide it and start the timer
+        levelPhases.startLevel(Duration.millis(levelState.getDisplayMillis()),
+                Duration.millis(levelState.getInputMillis()));
+    }
+
+    /*
+     * Creates the list that shows long sequences a chunk per row. Its items are chunk
+     * numbers, and each visible cell formats its chunk's text when it is displayed.
+     */
+    private ListView<Integer> createSequenceView()
+    {
+        final ListView<Integer> view;
+        view = new ListView<>(sequenceChunks);
+
+        view.setId("sequence-view");
+        view.setFocusTraversable(false);
+        view.setMaxWidth(STORY_LABEL_MAX_WIDTH);
+        view.setPrefHeight(SEQUENCE_VIEW_HEIGHT);
+        view.setCellFactory(list -> new ListCell<>()
+        {
+            @Override
+            protected void updateItem(final Integer chunk,
+                                      final boolean empty)
             {
-                Thread.currentThread().interrupt();
+                super.updateItem(chunk, empty);
+                setText(empty || chunk == null ? null : formatChunk(chunk));
             }
-        }).start();
+        });
+        showSequenceView(false);
+        return view;
+    }
+
+    /*
+     * Shows the current sequence, in the label when it is short and in the chunked list otherwise.
+     */
+    private void showSequence()
+    {
+        final int length;
+        length = gameEngine.getSequenceLength();
+
+        if(length <= TOKENS_PER_CHUNK)
+        {
+            sequenceLabel.setText(gameEngine.getSequenceText());
+            showSequenceView(false);
+            return;
+        }
+
+        final int chunks;
+        final List<Integer> chunkNumbers;
+
+        chunks = (length + TOKENS_PER_CHUNK - 1) / TOKENS_PER_CHUNK;
+        chunkNumbers = new ArrayList<>(chunks);
+        for(int i = 0; i < chunks; i++)
+        {
+            chunkNumbers.add(i);
+        }
+
+        sequenceLabel.setText("");
+        sequenceChunks.setAll(chunkNumbers);
+        sequenceView.scrollTo(0);
+        showSequenceView(true);
+    }
+
+    /*
+     * Hides the sequence, wherever it is shown.
+     */
+    private void hideSequence()
+    {
+        sequenceLabel.setText("");
+        sequenceChunks.clear();
+        showSequenceView(false);
+    }
+
+    /*
+     * Shows or hides the chunked sequence list, taking it out of the layout while hidden.
+     */
+    private void showSequenceView(final boolean visible)
+    {
+        sequenceView.setVisible(visible);
+        sequenceView.setManaged(visible);
+    }
+
+    /*
+     * Formats one chunk of the sequence. Runs on the JavaFX application thread only,
+     * so the buffer can be shared.
+     */
+    private String formatChunk(final int chunk)
+    {
+        final int from;
+        final int to;
+
+        from = chunk * TOKENS_PER_CHUNK;
+        to = Math.min(from + TOKENS_PER_CHUNK, gameEngine.getSequenceLength());
+
+        chunkText.setLength(0);
+        gameEngine.appendSequenceText(chunkText, from, to);
+        return chunkText.toString();
+    }
+
+    /*
+     * Hides the sequence and lets the player type it.
+     */
+    private void acceptInput()
+    {
+        levelState.advance(levelState.getInputStart()); // The display time is over, whatever the clock says
+        recordEvent(EscapeRoomReplay.ACCEPT_INPUT, monotonicMillis());
+        hideSequence(); // Clear sequence
+        storyLabel.setText("Enter the passcode to escape:");
+        inputField.clear();
+        errorLabel.setText("");
+        inputField.setDisable(false);
+        submitButton.setDisable(false);
+        progressBar.setVisible(true);
+    }
+
+    /*
+     * Feeds an edit of the input field to the tracker and shows the first wrong word, if any.
+     * Only the text from the start of the edit is checked again.
+     */
+    private void trackInput(final String text)
+    {
+        final int changeStart;
+        final int wrongToken;
+
+        // Edits the formatter did not see are checked from the beginning
+        changeStart = pendingChangeStart == NO_PENDING_CHANGE ? 0 : pendingChangeStart;
+        pendingChangeStart = NO_PENDING_CHANGE;
+
+        inputTracker.update(text == null ? "" : text, changeStart);
+        wrongToken = inputTracker.getFirstWrongToken();
+
+        if(wrongToken == SequenceInputTracker.NO_ERROR)
+        {
+            errorLabel.setText("");
+        }
+        else
+        {
+            errorLabel.setText("Word " + (wrongToken + 1) + " is wrong!");
+        }
     }
 
     /*
@@ -152,18 +336,31 @@ public class GameUI
      */
     private void handleSubmit()
     {
-        final List<String> userInput;
-        userInput = List.of(inputField.getText().trim().split("\\s+"));
+        final long now;
+        now = monotonicMillis();
 
-        if(gameEngine.validateInput(userInput))
+        if(recording != null)
         {
-            gameEngine.incrementScore();
-            storyLabel.setText("Correct! Proceeding to the next level.");
-            resetForNextLevel();
+            recording.event(EscapeRoomReplay.SUBMIT, now + wallClockOffset).writeString(inputField.getText());
         }
-        else
+
+        // The answer has already been checked keystroke by keystroke
+        switch(levelState.submit(inputTracker.isComplete(), now))
         {
-            handleGameOver("Incorrect passcode! Game Over.");
+            case READY:
+                storyLabel.setText("Correct! Proceeding to the next level.");
+                resetForNextLevel();
+                break;
+            case COMPLETED:
+                resetForNextLevel();
+                handleGameCompletion("Congratulations! You have completed all " + gameEngine.getTotalLevels() +
+                        " levels!");
+                break;
+            case FAILED_TIMEOUT:
+                handleGameOverDueToTimeout();
+                break;
+            default:
+                handleGameOver("Incorrect passcode! Game Over.");
         }
     }
 
@@ -172,9 +369,14 @@ public class GameUI
      */
     private void handleGameOver(final String message)
     {
+        final String answer;
+
+        answer = describeAnswer();
+        finishRecording();
+
         Platform.runLater(() -> {
             resetTimer();
-            showGameOverDialog(message);
+            showGameOverDialog(message, answer);
             startButton.setDisable(false); // Re-enable Start button
         });
     }
@@ -184,22 +386,66 @@ public class GameUI
      */
     private void handleGameOverDueToTimeout()
     {
+        final String answer;
+
+        recordEvent(EscapeRoomReplay.TIMEOUT, monotonicMillis());
+        levelState.timeOut();
+        answer = describeAnswer();
+        finishRecording();
+
         Platform.runLater(() -> {
             resetTimer();
-            showGameOverDialog("Time's up! You failed to escape the room.");
+            showGameOverDialog("Time's up! You failed to escape the room.", answer);
         });
     }
 
     /*
-     * Displays the game over dialog with options to restart or quit.
+     * Describes how close the typed passcode came: the partial credit and the first few
+     * words that were wrong or missing, numbered from 1.
      */
-    private void showGameOverDialog(final String message)
+    private String describeAnswer()
     {
+        final StringBuilder text;
+        final int shown;
+
+        gameEngine.compareInput(inputField.getText() == null ? "" : inputField.getText(), answerComparison);
+        text = new StringBuilder();
+        text.append("Passcode: ")
+                .append(gameEngine.getSequenceLength() - answerComparison.getWrongCount())
+                .append(" of ").append(gameEngine.getSequenceLength()).append(" words right, ")
+                .append(Math.round(answerComparison.getCredit() * PERCENT)).append("% credit");
+
+        shown = Math.min(answerComparison.getWrongCount(), MAX_WRONG_WORDS_SHOWN);
+        for(int i = 0; i < shown; i++)
+        {
+            text.append(i == 0 ? "\nWrong words: " : ", ").append(answerComparison.getWrongPosition(i) + 1);
+        }
+        if(answerComparison.getWrongCount() > shown)
+        {
+            text.append(", ...");
+        }
+        if(answerComparison.getExtraCount() > 0)
+        {
+            text.append("\nExtra words: ").append(answerComparison.getExtraCount());
+        }
+        return text.toString();
+    }
+
+    /*
+     * Displays the game over dialog, with how close the answer was, and options to restart or quit.
+     */
+    private void showGameOverDialog(final String message,
+                                    final String answer)
+    {
+        GameStatistics.getDefault().record(GameStatistics.ESCAPE_ROOM_SCORE, gameEngine.getScore());
         Platform.runLater(() -> {
             final Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
             alert.setTitle("Game Over");
             alert.setHeaderText(message);
-            alert.setContentText("Your Score: " + gameEngine.getScore() + "\nWould you like to play again?");
+            alert.setContentText(answer + "\n" +
+                    "Your Score: " + gameEngine.getScore() + "\n" +
+                    "All Players: " + GameStatistics.getDefault().report(GameStatistics.ESCAPE_ROOM_SCORE) +
+                    "\nWould you like to play again?");
             final ButtonType playAgainButton = new ButtonType("Play Again");
             final ButtonType quitButton = new ButtonType("Quit");
             alert.getButtonTypes().setAll(playAgainButton, quitButton);
@@ -211,7 +457,7 @@ public class GameUI
                 }
                 else
                 {
-                    Platform.exit();
+                    quit();
                 }
             });
         });
@@ -222,24 +468,28 @@ public class GameUI
      */
     private void resetGame()
     {
-        // Reset the game engine
-        gameEngine.resetGame();
+        // Stop the level in progress and reset the game engine
+        levelPhases.cancel();
+        levelState.reset();
+        recording = null; // A game abandoned mid-level is not saved
 
         // Reset the UI
         storyLabel.setText("You are trapped in a mysterious room. Memorize the passcode to escape!\n" +
                 "Rule: Make sure each word/digit is separated by space");
         levelLabel.setText("Click Start to Begin");
-        sequenceLabel.setText("");
+        hideSequence();
         inputField.clear();
+        errorLabel.setText("");
         inputField.setDisable(true);
         submitButton.setDisable(true);
         progressBar.setProgress(1.0);
         progressBar.setVisible(false);
         startButton.setDisable(false);
+        endlessCheckBox.setDisable(false);
     }
 
     /*
-     * Prepares the UI and game state for the next level.
+     * Prepares the UI for the next level, and starts it unless the game is complete.
      */
     private void resetForNextLevel()
     {
@@ -248,16 +498,10 @@ public class GameUI
         inputField.setDisable(true);
         submitButton.setDisable(true);
 
-        // Check if the player has completed all levels
-        if(gameEngine.isLastLevel())
+        if(levelState.getState() == LevelStateMachine.State.READY)
         {
-            handleGameCompletion("Congratulations! You have completed all " + gameEngine.getTotalLevels() +
-                    " levels!");
-            return;
+            startGame(); // Start the next level
         }
-
-        gameEngine.incrementLevel();
-        startGame(); // Start the next level
     }
 
     /*
@@ -265,8 +509,10 @@ public class GameUI
      */
     private void handleGameCompletion(final String message)
     {
+        finishRecording();
+        GameStatistics.getDefault().record(GameStatistics.ESCAPE_ROOM_SCORE, gameEngine.getScore());
         Platform.runLater(() -> {
-            countdownTimer.stopCountdown();
+            levelPhases.cancel();
             showCompletionDialog(message);
         });
     }
@@ -280,7 +526,9 @@ public class GameUI
         final Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Game Completed!");
         alert.setHeaderText(message);
-        alert.setContentText("Your Score: " + gameEngine.getScore() + "\nWould you like to play again?");
+        alert.setContentText("Your Score: " + gameEngine.getScore() + "\n" +
+                "All Players: " + GameStatistics.getDefault().report(GameStatistics.ESCAPE_ROOM_SCORE) +
+                "\nWould you like to play again?");
 
         // Add Play Again and Quit options
         final ButtonType playAgainButton = new ButtonType("Play Again");
@@ -295,20 +543,68 @@ public class GameUI
             }
             else if(response == quitButton)
             {
-                Platform.exit();
+                quit();
             }
         });
     }
 
     /*
-     * Stops any active countdown timer and creates a new instance.
+     * Records an event of the game in progress, if it is being recorded, converting its
+     * time on the level clock to wall-clock time.
      */
-    private void resetTimer()
+    private void recordEvent(final int event,
+                             final long now)
     {
-        if(countdownTimer != null)
+        if(recording != null)
         {
-            countdownTimer.stopCountdown();
+            recording.event(event, now + wallClockOffset);
         }
-        countdownTimer = new CountdownTimer();
+    }
+
+    /*
+     * Reads the clock the level flow runs on: milliseconds from System.nanoTime, like the
+     * countdown, so it never jumps when the system clock is changed.
+     */
+    private static long monotonicMillis()
+    {
+        return System.nanoTime() / NANOS_PER_MILLI;
+    }
+
+    /*
+     * Ends the recording of the game with its outcome and saves it to the replay log.
+     */
+    private void finishRecording()
+    {
+        if(recording != null)
+        {
+            ReplayLog.getDefault().append(EscapeRoomReplay.finish(recording, levelState));
+            recording = null;
+        }
+    }
+
+    /*
+     * Stops the level in progress, including its countdown. The same timer is reused for every level.
+     */
+    private void resetTimer()
+    {
+        levelPhases.cancel();
+    }
+
+    /**
+     * Starts decoding the background at the window's size, so a game started later
+     * finds it cached. Can be called from any thread once JavaFX has started.
+     */
+    public static void preloadAssets()
+    {
+        Assets.image(BACKGROUND_IMAGE, WINDOW_WIDTH, WINDOW_HEIGHT);
+    }
+
+    /*
+     * Closes the game's window. JavaFX exits with the last window, so a game started
+     * from the launcher leaves the launcher running.
+     */
+    private void quit()
+    {
+        stage.close();
     }
 }
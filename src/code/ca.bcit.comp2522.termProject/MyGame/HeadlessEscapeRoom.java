@@ -0,0 +1,149 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import ca.bcit.comp2522.termProject.Common.GameResult;
+import ca.bcit.comp2522.termProject.Common.GameStatistics;
+import ca.bcit.comp2522.termProject.Common.HeadlessGame;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+
+/**
+ * Plays Escape the Room on a LevelStateMachine through the HeadlessGame interface.
+ *
+ * The prompt is the passcode of the current level, and each input is the player's answer.
+ * An answer given while the passcode would still be on screen is taken as given the moment
+ * input opens, and one given after the input deadline is a timeout. The score is the
+ * number of levels passed, and the game is won by passing the last level.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class HeadlessEscapeRoom implements HeadlessGame
+{
+    private final LevelStateMachine machine;
+    private int                     steps;
+
+    /**
+     * Constructs a HeadlessEscapeRoom that plays the ten normal levels with the default times.
+     */
+    public HeadlessEscapeRoom()
+    {
+        this(new LevelStateMachine(new GameEngine()));
+    }
+
+    /**
+     * Constructs a HeadlessEscapeRoom on a state machine, for other times or endless mode.
+     *
+     * @param machine the state machine, whose engine is reset by every init
+     */
+    public HeadlessEscapeRoom(final LevelStateMachine machine)
+    {
+        this.machine = machine;
+    }
+
+    /**
+     * Gets which game this is.
+     *
+     * @return ReplayLog.ESCAPE_ROOM
+     */
+    @Override
+    public int getGameType()
+    {
+        return ReplayLog.ESCAPE_ROOM;
+    }
+
+    /**
+     * Gets the name of the game, for reports.
+     *
+     * @return the name
+     */
+    @Override
+    public String getName()
+    {
+        return "EscapeRoom";
+    }
+
+    /**
+     * Gets the GameStatistics metric a finished game's score is recorded under.
+     *
+     * @return GameStatistics.ESCAPE_ROOM_SCORE
+     */
+    @Override
+    public String getStatistic()
+    {
+        return GameStatistics.ESCAPE_ROOM_SCORE;
+    }
+
+    /**
+     * Starts a new game and shows the first level's passcode.
+     *
+     * @param seed the seed the passcodes are drawn from
+     * @param now  the current time in milliseconds
+     */
+    @Override
+    public void init(final long seed,
+                     final long now)
+    {
+        machine.reset(seed);
+        machine.startLevel(now);
+        steps = 0;
+    }
+
+    /**
+     * Gets the passcode of the current level.
+     *
+     * @return the passcode
+     */
+    @Override
+    public String prompt()
+    {
+        return machine.getEngine().getSequenceText();
+    }
+
+    /**
+     * Answers the current level, and starts the next one if the answer was right.
+     *
+     * @param input the passcode as the player typed it
+     * @param now   the current time in milliseconds
+     */
+    @Override
+    public void step(final String input,
+                     final long now)
+    {
+        final long answered;
+
+        if(machine.isOver())
+        {
+            return;
+        }
+
+        steps++;
+        answered = Math.max(now, machine.getInputStart());
+
+        if(machine.submit(input == null ? "" : input, answered) == LevelStateMachine.State.READY)
+        {
+            machine.startLevel(answered);
+        }
+    }
+
+    /**
+     * Checks if the game has ended.
+     *
+     * @return true if it was failed or completed
+     */
+    @Override
+    public boolean isOver()
+    {
+        return machine.isOver();
+    }
+
+    /**
+     * Gets the result: the levels passed so far and whether every level was passed.
+     *
+     * @return the result
+     */
+    @Override
+    public GameResult result()
+    {
+        return new GameResult(getName(), machine.getEngine().getSeed(), machine.getEngine().getScore(),
+                machine.getState() == LevelStateMachine.State.COMPLETED, steps);
+    }
+}
@@ -0,0 +1,123 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import javafx.animation.PauseTransition;
+import javafx.scene.control.ProgressBar;
+import javafx.util.Duration;
+
+/**
+ * Runs the timed phases of one Escape the Room level on the JavaFX application thread:
+ * the passcode is shown for a while, then hidden while the player types it against a
+ * countdown.
+ *
+ * One PauseTransition and one CountdownTimer are reused for every level, so no thread is
+ * ever created, and cancelling a level stops both so that no callback of an abandoned
+ * level can run after a restart.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class LevelPhaseScheduler
+{
+    /**
+     * The phase the current level is in.
+     */
+    public enum Phase
+    {
+        /** No level is running. */
+        IDLE,
+
+        /** The passcode is on screen. */
+        SHOWING_SEQUENCE,
+
+        /** The passcode is hidden and the countdown is running. */
+        ACCEPTING_INPUT
+    }
+
+    private final PauseTransition reveal;
+    private final CountdownTimer  countdown;
+    private final ProgressBar     progressBar;
+    private final Runnable        onAcceptInput;
+    private final Runnable        onTimeout;
+    private Duration              inputDuration;
+    private Phase                 phase;
+
+    /**
+     * Constructs a LevelPhaseScheduler.
+     *
+     * @param countdown     the countdown used while the player types
+     * @param progressBar   the progress bar showing the countdown
+     * @param onAcceptInput hides the passcode and lets the player type
+     * @param onTimeout     ends the game when the countdown runs out
+     */
+    public LevelPhaseScheduler(final CountdownTimer countdown,
+                               final ProgressBar progressBar,
+                               final Runnable onAcceptInput,
+                               final Runnable onTimeout)
+    {
+        this.reveal        = new PauseTransition();
+        this.countdown     = countdown;
+        this.progressBar   = progressBar;
+        this.onAcceptInput = onAcceptInput;
+        this.onTimeout     = onTimeout;
+        this.phase         = Phase.IDLE;
+
+        reveal.setOnFinished(event -> acceptInput());
+    }
+
+    /**
+     * Starts a level whose passcode the caller has just shown. Any level still running is
+     * cancelled first.
+     *
+     * @param displayDuration how long the passcode stays on screen
+     * @param inputDuration   how long the player has to type it
+     */
+    public void startLevel(final Duration displayDuration,
+                           final Duration inputDuration)
+    {
+        cancel();
+
+        this.inputDuration = inputDuration;
+        phase = Phase.SHOWING_SEQUENCE;
+        reveal.setDuration(displayDuration);
+        reveal.playFromStart();
+    }
+
+    /**
+     * Stops the current level, whatever phase it is in. No further callbacks are run for it.
+     */
+    public void cancel()
+    {
+        reveal.stop();
+        countdown.stopCountdown();
+        phase = Phase.IDLE;
+    }
+
+    /**
+     * Retrieves the phase of the current level.
+     *
+     * @return the current phase
+     */
+    public Phase getPhase()
+    {
+        return phase;
+    }
+
+    /*
+     * Hides the passcode and starts the countdown.
+     */
+    private void acceptInput()
+    {
+        phase = Phase.ACCEPTING_INPUT;
+        onAcceptInput.run();
+        countdown.startCountdown(progressBar, this::timeOut, inputDuration);
+    }
+
+    /*
+     * Ends the level when the countdown runs out.
+     */
+    private void timeOut()
+    {
+        phase = Phase.IDLE;
+        onTimeout.run();
+    }
+}
@@ -0,0 +1,282 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+/**
+ * The level flow of Escape the Room, without any user interface or real clock.
+ *
+ * A level shows its passcode for a display time, then accepts input until an input
+ * deadline. A right answer moves on to the next level, and a wrong answer or a missed
+ * deadline ends the game. Every method takes the current time in milliseconds on whatever
+ * clock the caller uses, so GameUI drives it from the system clock while the simulator
+ * jumps a virtual clock straight from one event to the next.
+ *
+ * Display and input times grow with the sequence length, from the base times the
+ * machine is constructed with, so short sequences get exactly the base times.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class LevelStateMachine
+{
+    /** The display time GameUI uses for short sequences. */
+    public static final long DEFAULT_DISPLAY_MILLIS   = 5000L;
+
+    /** The input time GameUI uses for short sequences. */
+    public static final long DEFAULT_INPUT_MILLIS     = 15000L;
+
+    /** The display time added per token once a sequence is too long for the base time. */
+    public static final long DISPLAY_MILLIS_PER_TOKEN = 500L;
+
+    /** The input time added per token once a sequence is too long for the base time. */
+    public static final long INPUT_MILLIS_PER_TOKEN   = 1500L;
+
+    /**
+     * The state the game is in.
+     */
+    public enum State
+    {
+        /** No level has started, or the last one was passed and the next has not started. */
+        READY,
+
+        /** The passcode is on screen. */
+        SHOWING_SEQUENCE,
+
+        /** The passcode is hidden and the input deadline is running. */
+        ACCEPTING_INPUT,
+
+        /** A wrong answer was submitted. */
+        FAILED_WRONG,
+
+        /** The input deadline passed. */
+        FAILED_TIMEOUT,
+
+        /** The last level was passed. */
+        COMPLETED
+    }
+
+    private final GameEngine engine;
+    private final long       displayMillis;
+    private final long       inputMillis;
+    private State            state;
+    private long             inputStart;
+    private long             inputDeadline;
+
+    /**
+     * Constructs a LevelStateMachine with the default display and input times.
+     *
+     * @param engine the engine holding the level, score and sequence
+     */
+    public LevelStateMachine(final GameEngine engine)
+    {
+        this(engine, DEFAULT_DISPLAY_MILLIS, DEFAULT_INPUT_MILLIS);
+    }
+
+    /**
+     * Constructs a LevelStateMachine.
+     *
+     * @param engine        the engine holding the level, score and sequence
+     * @param displayMillis how long short passcodes are shown
+     * @param inputMillis   how long the player has to type short passcodes
+     */
+    public LevelStateMachine(final GameEngine engine,
+                             final long displayMillis,
+                             final long inputMillis)
+    {
+        if(displayMillis < 0 || inputMillis <= 0)
+        {
+            throw new IllegalArgumentException("Invalid times: display " + displayMillis +
+                    " ms, input " + inputMillis + " ms");
+        }
+
+        this.engine        = engine;
+        this.displayMillis = displayMillis;
+        this.inputMillis   = inputMillis;
+        this.state         = State.READY;
+    }
+
+    /**
+     * Starts the current level: generates its passcode and starts showing it.
+     *
+     * @param now the current time in milliseconds
+     */
+    public void startLevel(final long now)
+    {
+        engine.generateSequence();
+
+        state         = State.SHOWING_SEQUENCE;
+        inputStart    = now + getDisplayMillis();
+        inputDeadline = inputStart + getInputMillis();
+    }
+
+    /**
+     * Moves on to whatever state the time implies: from showing the passcode to accepting
+     * input, or from accepting input to a timeout.
+     *
+     * @param now the current time in milliseconds
+     * @return the state after advancing
+     */
+    public State advance(final long now)
+    {
+        if(state == State.SHOWING_SEQUENCE && now >= inputStart)
+        {
+            state = State.ACCEPTING_INPUT;
+        }
+        if(state == State.ACCEPTING_INPUT && now >= inputDeadline)
+        {
+            state = State.FAILED_TIMEOUT;
+        }
+        return state;
+    }
+
+    /**
+     * Submits an answer that has already been checked against the passcode. An answer is
+     * only accepted while input is being accepted; one that arrives after the deadline is a
+     * timeout. A right answer raises the score and either completes the game or makes the
+     * machine ready for the next level.
+     *
+     * @param correct true if the answer matched the passcode
+     * @param now     the current time in milliseconds
+     * @return the state after the answer
+     */
+    public State submit(final boolean correct,
+                        final long now)
+    {
+        if(advance(now) != State.ACCEPTING_INPUT)
+        {
+            return state;
+        }
+
+        if(!correct)
+        {
+            state = State.FAILED_WRONG;
+        }
+        else
+        {
+            engine.incrementScore();
+
+            if(engine.isLastLevel())
+            {
+                state = State.COMPLETED;
+            }
+            else
+            {
+                engine.incrementLevel();
+                state = State.READY;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Submits the text of an answer, checking it against the passcode first.
+     *
+     * @param input the text the player entered
+     * @param now   the current time in milliseconds
+     * @return the state after the answer
+     */
+    public State submit(final CharSequence input,
+                        final long now)
+    {
+        return submit(engine.validateInput(input), now);
+    }
+
+    /**
+     * Ends the current level because its input time ran out, whatever the clock says.
+     */
+    public void timeOut()
+    {
+        if(state == State.SHOWING_SEQUENCE || state == State.ACCEPTING_INPUT)
+        {
+            state = State.FAILED_TIMEOUT;
+        }
+    }
+
+    /**
+     * Abandons the game in progress and returns to level 1 with a new seed.
+     */
+    public void reset()
+    {
+        engine.resetGame();
+        state = State.READY;
+    }
+
+    /**
+     * Abandons the game in progress and returns to level 1, for a game played from a seed.
+     *
+     * @param seed the seed of the new game
+     */
+    public void reset(final long seed)
+    {
+        engine.resetGame(seed);
+        state = State.READY;
+    }
+
+    /**
+     * Gets the current state, as of the last call.
+     *
+     * @return the state
+     */
+    public State getState()
+    {
+        return state;
+    }
+
+    /**
+     * Checks if the game has ended, by failure or completion.
+     *
+     * @return true if no more levels will be played without a reset
+     */
+    public boolean isOver()
+    {
+        return state == State.FAILED_WRONG || state == State.FAILED_TIMEOUT || state == State.COMPLETED;
+    }
+
+    /**
+     * Gets how long the current passcode is shown for.
+     *
+     * @return the display time in milliseconds
+     */
+    public long getDisplayMillis()
+    {
+        return Math.max(displayMillis, engine.getSequenceLength() * DISPLAY_MILLIS_PER_TOKEN);
+    }
+
+    /**
+     * Gets how long the player has to type the current passcode.
+     *
+     * @return the input time in milliseconds
+     */
+    public long getInputMillis()
+    {
+        return Math.max(inputMillis, engine.getSequenceLength() * INPUT_MILLIS_PER_TOKEN);
+    }
+
+    /**
+     * Gets when the current level starts accepting input.
+     *
+     * @return the time in milliseconds
+     */
+    public long getInputStart()
+    {
+        return inputStart;
+    }
+
+    /**
+     * Gets the current level's input deadline.
+     *
+     * @return the time in milliseconds
+     */
+    public long getInputDeadline()
+    {
+        return inputDeadline;
+    }
+
+    /**
+     * Gets the engine the machine drives.
+     *
+     * @return the engine
+     */
+    public GameEngine getEngine()
+    {
+        return engine;
+    }
+}
@@ -0,0 +1,104 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A simulated Escape the Room player with a simple model of short-term memory.
+ *
+ * While the passcode is shown the bot reads it at a fixed rate, and any tokens it has not
+ * reached when the passcode is hidden are guessed. Each token it did read is recalled
+ * wrongly with the recall error probability, which grows in proportion once the passcode
+ * is longer than the bot's memory span. Typing takes a fixed time per character.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class MemoryModelBot
+{
+    private static final long NO_READING_TIME = 0L;
+
+    private final double recallError;
+    private final int    memorySpan;
+    private final long   readMillisPerToken;
+    private final long   typeMillisPerChar;
+
+    /**
+     * Constructs a MemoryModelBot.
+     *
+     * @param recallError        the chance of misremembering a token within the memory span, from 0 to 1
+     * @param memorySpan         how many tokens the bot holds before its recall error starts to grow
+     * @param readMillisPerToken how long it takes to read one token, or 0 to read instantly
+     * @param typeMillisPerChar  how long it takes to type one character, separators included
+     */
+    public MemoryModelBot(final double recallError,
+                          final int memorySpan,
+                          final long readMillisPerToken,
+                          final long typeMillisPerChar)
+    {
+        if(recallError < 0.0 || recallError > 1.0 || memorySpan <= 0 ||
+                readMillisPerToken < 0 || typeMillisPerChar < 0)
+        {
+            throw new IllegalArgumentException("Invalid bot: error " + recallError + ", span " + memorySpan +
+                    ", read " + readMillisPerToken + " ms, type " + typeMillisPerChar + " ms");
+        }
+
+        this.recallError        = recallError;
+        this.memorySpan         = memorySpan;
+        this.readMillisPerToken = readMillisPerToken;
+        this.typeMillisPerChar  = typeMillisPerChar;
+    }
+
+    /**
+     * Decides whether the bot types the engine's current passcode exactly right.
+     *
+     * @param engine        the engine holding the passcode
+     * @param displayMillis how long the passcode was shown
+     * @param random        the source of randomness
+     * @return true if every token is recalled correctly
+     */
+    public boolean recalls(final GameEngine engine,
+                           final long displayMillis,
+                           final RandomGenerator random)
+    {
+        final int length;
+        final long read;
+        final double tokenError;
+        final double guessRight;
+
+        length = engine.getSequenceLength();
+        read = readMillisPerToken == NO_READING_TIME ? length :
+                Math.min(length, displayMillis / readMillisPerToken);
+        tokenError = Math.min(1.0, recallError * Math.max(1.0, length / (double) memorySpan));
+        guessRight = 1.0 / engine.getVocabulary().size();
+
+        for(int i = 0; i < length; i++)
+        {
+            final double chanceRight;
+            chanceRight = i < read ? 1.0 - tokenError : guessRight;
+
+            if(random.nextDouble() >= chanceRight)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Works out how long the bot takes to type the engine's current passcode.
+     *
+     * @param engine the engine holding the passcode
+     * @return the typing time in milliseconds
+     */
+    public long typingMillis(final GameEngine engine)
+    {
+        long characters;
+        characters = 0;
+
+        for(int i = 0; i < engine.getSequenceLength(); i++)
+        {
+            characters += engine.tokenText(engine.getToken(i)).length() + 1; // One separator each
+        }
+        return characters * typeMillisPerChar;
+    }
+}
@@ -0,0 +1,24 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for generating one passcode sequence.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@Name("ca.bcit.comp2522.termProject.SequenceGenerated")
+@Label("Sequence Generated")
+@Category({"Games", "Escape the Room"})
+public final class SequenceGeneratedEvent extends Event
+{
+    @Label("Level")
+    int level;
+
+    @Label("Length")
+    int length;
+}
@@ -0,0 +1,199 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import java.util.Arrays;
+
+/**
+ * Checks the passcode as the player types it, against the GameEngine's current sequence.
+ *
+ * The tracker remembers the scan state after every character of the input: which token
+ * the character belongs to, how far into that token it is, and the first wrong token so
+ * far. When the text changes, only the characters from the start of the change onwards
+ * are scanned again, so typing or deleting at the end costs O(1) per keystroke no matter
+ * how long the sequence is, and the first wrong token is known as soon as it is typed.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class SequenceInputTracker
+{
+    /** Returned by {@link #getFirstWrongToken()} while every typed token is right so far. */
+    public static final int NO_ERROR = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int BETWEEN_TOKENS   = 0;
+
+    private final GameEngine engine;
+
+    // State after the first i characters: token index, characters into that token, first error
+    private int[] tokenIndex;
+    private int[] tokenOffset;
+    private int[] firstError;
+    private int   scannedLength;
+
+    /**
+     * Constructs a SequenceInputTracker for an engine's current sequence.
+     *
+     * @param engine the engine whose sequence the player is typing
+     */
+    public SequenceInputTracker(final GameEngine engine)
+    {
+        this.engine      = engine;
+        this.tokenIndex  = new int[INITIAL_CAPACITY];
+        this.tokenOffset = new int[INITIAL_CAPACITY];
+        this.firstError  = new int[INITIAL_CAPACITY];
+
+        // Before any input: at the first token, nothing wrong yet
+        firstError[0] = NO_ERROR;
+    }
+
+    /**
+     * Forgets the scanned input, for example after a new sequence has been generated.
+     */
+    public void reset()
+    {
+        tokenIndex[0]  = 0;
+        tokenOffset[0] = BETWEEN_TOKENS;
+        firstError[0]  = NO_ERROR;
+        scannedLength  = 0;
+    }
+
+    /**
+     * Updates the tracker after the input text changed. Characters before changeStart
+     * must be the same as in the text last passed in.
+     *
+     * @param text        the whole input text after the change
+     * @param changeStart the first character that may have changed
+     */
+    public void update(final CharSequence text,
+                       final int changeStart)
+    {
+        final int length;
+        int position;
+
+        length = text.length();
+        position = Math.max(0, Math.min(Math.min(changeStart, scannedLength), length));
+        ensureCapacity(length + 1);
+
+        while(position < length)
+        {
+            scan(text.charAt(position), position);
+            position++;
+        }
+        scannedLength = length;
+    }
+
+    /**
+     * Gets the first token the player has typed wrongly.
+     *
+     * @return the position of the token in the sequence, from 0, or NO_ERROR if none
+     */
+    public int getFirstWrongToken()
+    {
+        return firstError[scannedLength];
+    }
+
+    /**
+     * Gets the number of tokens typed correctly and finished with a separator.
+     *
+     * @return the number of completed tokens, or the position of the first error if there is one
+     */
+    public int getCompletedTokens()
+    {
+        return firstError[scannedLength] == NO_ERROR ? tokenIndex[scannedLength] :
+                firstError[scannedLength];
+    }
+
+    /**
+     * Checks if the input is the whole sequence with no mistakes, ignoring trailing separators.
+     *
+     * @return true if submitting now would pass
+     */
+    public boolean isComplete()
+    {
+        final int token;
+        final int offset;
+        final int sequenceLength;
+
+        token = tokenIndex[scannedLength];
+        offset = tokenOffset[scannedLength];
+        sequenceLength = engine.getSequenceLength();
+
+        if(firstError[scannedLength] != NO_ERROR)
+        {
+            return false;
+        }
+        return offset == BETWEEN_TOKENS ? token == sequenceLength :
+                token == sequenceLength - 1 &&
+                        offset == engine.tokenText(engine.getToken(token)).length();
+    }
+
+    /*
+     * Computes the state after the character at a position from the state before it.
+     */
+    private void scan(final char c,
+                      final int position)
+    {
+        int token;
+        int offset;
+        int error;
+
+        token = tokenIndex[position];
+        offset = tokenOffset[position];
+        error = firstError[position];
+
+        if(error == NO_ERROR)
+        {
+            if(GameEngine.isSeparator(c))
+            {
+                if(offset != BETWEEN_TOKENS)
+                {
+                    // A token just ended; it is wrong if it was cut short
+                    if(offset != engine.tokenText(engine.getToken(token)).length())
+                    {
+                        error = token;
+                    }
+                    token++;
+                    offset = BETWEEN_TOKENS;
+                }
+            }
+            else if(token >= engine.getSequenceLength())
+            {
+                error = token; // More tokens than the sequence has
+            }
+            else
+            {
+                final String expected;
+                expected = engine.tokenText(engine.getToken(token));
+
+                if(offset < expected.length() && expected.charAt(offset) == c)
+                {
+                    offset++;
+                }
+                else
+                {
+                    error = token;
+                }
+            }
+        }
+
+        tokenIndex[position + 1]  = token;
+        tokenOffset[position + 1] = offset;
+        firstError[position + 1]  = error;
+    }
+
+    /*
+     * Grows the state arrays to hold at least the specified number of states.
+     */
+    private void ensureCapacity(final int capacity)
+    {
+        if(capacity > tokenIndex.length)
+        {
+            final int newCapacity;
+            newCapacity = Math.max(capacity, tokenIndex.length * 2);
+
+            tokenIndex  = Arrays.copyOf(tokenIndex, newCapacity);
+            tokenOffset = Arrays.copyOf(tokenOffset, newCapacity);
+            firstError  = Arrays.copyOf(firstError, newCapacity);
+        }
+    }
+}
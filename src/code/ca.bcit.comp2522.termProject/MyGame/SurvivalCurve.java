@@ -0,0 +1,130 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+/**
+ * Counts how far simulated Escape the Room games got: for every level, how many games
+ * reached it and how many ended there by a wrong answer or a timeout, and how many games
+ * completed every level or outlasted the simulation's level limit.
+ *
+ * A curve is filled by one thread and curves from several threads are merged afterwards.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class SurvivalCurve
+{
+    private static final int    FIRST_LEVEL = 1;
+    private static final double PERCENT     = 100.0;
+
+    private final long[] reached;
+    private final long[] failedWrong;
+    private final long[] failedTimeout;
+    private long         games;
+    private long         survived;
+
+    /**
+     * Constructs an empty SurvivalCurve.
+     *
+     * @param maxLevel the highest level a game can reach
+     */
+    public SurvivalCurve(final int maxLevel)
+    {
+        this.reached       = new long[maxLevel + 1];
+        this.failedWrong   = new long[maxLevel + 1];
+        this.failedTimeout = new long[maxLevel + 1];
+    }
+
+    /**
+     * Records that a game reached a level.
+     *
+     * @param level the level
+     */
+    public void recordReached(final int level)
+    {
+        reached[level]++;
+    }
+
+    /**
+     * Records how a game ended.
+     *
+     * @param level the last level the game played
+     * @param state the state it ended in; anything but a failure counts as surviving
+     */
+    public void recordEnd(final int level,
+                          final LevelStateMachine.State state)
+    {
+        games++;
+
+        if(state == LevelStateMachine.State.FAILED_WRONG)
+        {
+            failedWrong[level]++;
+        }
+        else if(state == LevelStateMachine.State.FAILED_TIMEOUT)
+        {
+            failedTimeout[level]++;
+        }
+        else
+        {
+            survived++;
+        }
+    }
+
+    /**
+     * Adds another curve's counts to this one.
+     *
+     * @param other a curve with the same maximum level
+     */
+    public void merge(final SurvivalCurve other)
+    {
+        for(int level = 0; level < reached.length; level++)
+        {
+            reached[level]       += other.reached[level];
+            failedWrong[level]   += other.failedWrong[level];
+            failedTimeout[level] += other.failedTimeout[level];
+        }
+        games    += other.games;
+        survived += other.survived;
+    }
+
+    /**
+     * Gets the number of games recorded.
+     *
+     * @return the number of games
+     */
+    public long getGames()
+    {
+        return games;
+    }
+
+    /**
+     * Gets the share of games that reached a level.
+     *
+     * @param level the level
+     * @return the survival rate, from 0.0 to 1.0
+     */
+    public double getSurvival(final int level)
+    {
+        return games == 0 ? 0.0 : reached[level] / (double) games;
+    }
+
+    /**
+     * Formats the curve as a table with one row per level that any game reached.
+     *
+     * @return the table
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder text;
+        text = new StringBuilder();
+
+        text.append(String.format("%5s %12s %9s %12s %12s%n", "level", "reached", "survival", "wrong", "timeout"));
+        for(int level = FIRST_LEVEL; level < reached.length && reached[level] > 0; level++)
+        {
+            text.append(String.format("%5d %12d %8.3f%% %12d %12d%n", level, reached[level],
+                    getSurvival(level) * PERCENT, failedWrong[level], failedTimeout[level]));
+        }
+        text.append(String.format("games %d, survived every level %d (%.3f%%)", games, survived,
+                games == 0 ? 0.0 : survived * PERCENT / games));
+        return text.toString();
+    }
+}
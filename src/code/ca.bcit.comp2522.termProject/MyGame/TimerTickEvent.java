@@ -0,0 +1,35 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a countdown passing a whole second, or ending, on the JavaFX pulse.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@Name("ca.bcit.comp2522.termProject.TimerTick")
+@Label("Timer Tick")
+@Category({"Games", "Escape the Room"})
+@Description("A countdown passing a whole second, or reaching zero")
+public final class TimerTickEvent extends Event
+{
+    @Label("Seconds Left")
+    int secondsLeft;
+
+    @Label("Countdown Seconds")
+    int durationSeconds;
+
+    @Label("Delivery Lag")
+    @Description("Time between the second passing and the JavaFX pulse that noticed it")
+    @Timespan(Timespan.NANOSECONDS)
+    long lag;
+
+    @Label("Timed Out")
+    boolean timedOut;
+}
@@ -0,0 +1,553 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import java.util.Arrays;
+
+/**
+ * Compares an entered passcode with the expected one by token-level edit distance, so a
+ * nearly right answer can earn partial credit, and finds which expected tokens were wrong.
+ *
+ * The distance is computed with Myers' bit-parallel algorithm in Hyyrö's block form: each
+ * column of the edit distance table is held as bit vectors of +1 and -1 vertical
+ * differences, 64 rows to a long, so comparing m expected tokens with n entered ones costs
+ * O(n * m / 64) rather than O(n * m). Any cell of the table can be recovered from a
+ * column's vectors with bit counts, which is how the traceback finds the wrong positions.
+ *
+ * The traceback keeps the vectors of every column, so it only runs on comparisons whose
+ * columns fit in HISTORY_LIMIT vectors. A larger one is split at its middle entered token,
+ * at the expected row where the distances computed from the front and from the back add
+ * up to the least, as in Hirschberg's algorithm, until every part fits. The memory taken
+ * is then linear in the length of the answers, at about twice the time.
+ *
+ * Each distinct expected token is given a row of match vectors through an int array indexed
+ * by token id, so it is sized to the vocabulary and no lookup boxes. An instance reuses its
+ * buffers between comparisons and is not thread-safe.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.1
+ */
+public class TokenEditDistance
+{
+    private static final int  WORD_BITS     = Long.SIZE;
+    private static final long ALL_ONES      = -1L;
+    private static final long HIGH_BIT      = Long.MIN_VALUE;
+    private static final int  NO_SYMBOL     = -1;
+    private static final int  HISTORY_LIMIT = 1 << 16;
+
+    private int[]  expected;
+    private int[]  entered;
+    private int    expectedLength;
+    private int    enteredLength;
+    private int    blocks;
+    private int    distance;
+
+    // The part being compared, read forwards or backwards from expected and entered
+    private int[]  rowTokens       = new int[0];
+    private int[]  columnTokens    = new int[0];
+    private int[]  forwardColumn   = new int[1];
+    private int[]  reverseColumn   = new int[1];
+
+    // Vertical difference vectors of the last column, and block b of column j at [(j - 1) * blocks + b]
+    private long[] positive        = new long[0];
+    private long[] negative        = new long[0];
+    private long[] positiveHistory = new long[0];
+    private long[] negativeHistory = new long[0];
+    private long[] matchVectors    = new long[0];
+    private int[]  symbolOf        = new int[0];
+    private int[]  wrongPositions  = new int[0];
+    private int    wrongCount;
+    private int    extraCount;
+
+    /**
+     * Compares the entered tokens with the expected ones.
+     *
+     * @param expected       the expected token ids; only the first expectedLength are used
+     * @param expectedLength the number of expected tokens
+     * @param entered        the entered token ids, with tokens that are not in the vocabulary
+     *                       as any id that cannot be expected, such as Vocabulary.NOT_FOUND
+     * @param enteredLength  the number of entered tokens
+     * @return the edit distance: the fewest tokens to insert, delete or replace
+     */
+    public int compare(final int[] expected,
+                       final int expectedLength,
+                       final int[] entered,
+                       final int enteredLength)
+    {
+        return compare(expected, expectedLength, entered, enteredLength, 0);
+    }
+
+    /**
+     * Compares the entered tokens with the expected ones, counting further tokens that were
+     * entered but not passed as extra. The distance is then an upper bound, exact when
+     * there are none; callers use it to cap the memory a very long answer can take.
+     *
+     * @param expected       the expected token ids; only the first expectedLength are used
+     * @param expectedLength the number of expected tokens
+     * @param entered        the entered token ids, with tokens that are not in the vocabulary
+     *                       as any id that cannot be expected, such as Vocabulary.NOT_FOUND
+     * @param enteredLength  the number of entered tokens
+     * @param droppedLength  the number of tokens entered after those passed
+     * @return the edit distance, plus the dropped tokens
+     */
+    public int compare(final int[] expected,
+                       final int expectedLength,
+                       final int[] entered,
+                       final int enteredLength,
+                       final int droppedLength)
+    {
+        this.expected       = expected;
+        this.entered        = entered;
+        this.expectedLength = expectedLength;
+        this.enteredLength  = enteredLength;
+
+        if(rowTokens.length < expectedLength)
+        {
+            rowTokens = new int[expectedLength];
+            wrongPositions = new int[expectedLength];
+            forwardColumn = new int[expectedLength + 1];
+            reverseColumn = new int[expectedLength + 1];
+        }
+        if(columnTokens.length < enteredLength)
+        {
+            columnTokens = new int[enteredLength];
+        }
+        wrongCount = 0;
+        extraCount = 0;
+
+        distance = align(0, expectedLength, 0, enteredLength);
+
+        distance += droppedLength;
+        extraCount += droppedLength;
+        return distance;
+    }
+
+    /**
+     * Gets the edit distance of the last comparison.
+     *
+     * @return the edit distance
+     */
+    public int getDistance()
+    {
+        return distance;
+    }
+
+    /**
+     * Gets the share of the expected tokens the last comparison gives credit for: one minus
+     * the edit distance over the expected length, and never below zero.
+     *
+     * @return the credit, from 0.0 to 1.0
+     */
+    public double getCredit()
+    {
+        if(expectedLength == 0)
+        {
+            return enteredLength == 0 ? 1.0 : 0.0;
+        }
+        return Math.max(0, expectedLength - distance) / (double) expectedLength;
+    }
+
+    /**
+     * Gets the number of expected tokens that were replaced or left out.
+     *
+     * @return the number of wrong positions
+     */
+    public int getWrongCount()
+    {
+        return wrongCount;
+    }
+
+    /**
+     * Gets an expected position that was replaced or left out.
+     *
+     * @param index which wrong position, from 0, in increasing order of position
+     * @return the position in the expected sequence, from 0
+     */
+    public int getWrongPosition(final int index)
+    {
+        if(index < 0 || index >= wrongCount)
+        {
+            throw new IndexOutOfBoundsException("Wrong position " + index + " out of " + wrongCount);
+        }
+        return wrongPositions[index];
+    }
+
+    /**
+     * Gets the number of entered tokens that were not expected at all.
+     *
+     * @return the number of extra tokens
+     */
+    public int getExtraCount()
+    {
+        return extraCount;
+    }
+
+    /*
+     * Aligns the expected tokens from rowStart with the entered tokens from columnStart,
+     * appending the wrong positions in increasing order, and returns their edit distance.
+     * A part whose columns fit in the history is traced back directly; a larger one is
+     * split in two at the row the middle column of its best alignment passes through.
+     */
+    private int align(final int rowStart,
+                      final int rowCount,
+                      final int columnStart,
+                      final int columnCount)
+    {
+        final int middle;
+        int split;
+        int best;
+
+        if(rowCount == 0)
+        {
+            extraCount += columnCount;
+            return columnCount;
+        }
+        if(columnCount == 0)
+        {
+            for(int i = 0; i < rowCount; i++)
+            {
+                wrongPositions[wrongCount++] = rowStart + i;
+            }
+            return rowCount;
+        }
+
+        if(columnCount == 1 || (long) blocksFor(rowCount) * columnCount <= HISTORY_LIMIT)
+        {
+            final int score;
+
+            copyTokens(expected, rowStart, rowCount, rowTokens, false);
+            copyTokens(entered, columnStart, columnCount, columnTokens, false);
+            score = computeColumns(rowCount, columnCount, true);
+            traceBack(rowStart, rowCount, columnCount, score);
+            return score;
+        }
+
+        middle = columnCount / 2;
+
+        copyTokens(expected, rowStart, rowCount, rowTokens, false);
+        copyTokens(entered, columnStart, middle, columnTokens, false);
+        computeColumns(rowCount, middle, false);
+        readLastColumn(forwardColumn, rowCount, middle);
+
+        copyTokens(expected, rowStart, rowCount, rowTokens, true);
+        copyTokens(entered, columnStart + middle, columnCount - middle, columnTokens, true);
+        computeColumns(rowCount, columnCount - middle, false);
+        readLastColumn(reverseColumn, rowCount, columnCount - middle);
+
+        split = 0;
+        best = forwardColumn[0] + reverseColumn[rowCount];
+        for(int i = 1; i <= rowCount; i++)
+        {
+            if(forwardColumn[i] + reverseColumn[rowCount - i] < best)
+            {
+                best = forwardColumn[i] + reverseColumn[rowCount - i];
+                split = i;
+            }
+        }
+
+        return align(rowStart, split, columnStart, middle) +
+                align(rowStart + split, rowCount - split, columnStart + middle, columnCount - middle);
+    }
+
+    /*
+     * Copies count tokens from start into the specified buffer, last first if reversed.
+     */
+    private static void copyTokens(final int[] source,
+                                   final int start,
+                                   final int count,
+                                   final int[] target,
+                                   final boolean reversed)
+    {
+        for(int i = 0; i < count; i++)
+        {
+            target[i] = source[reversed ? start + count - 1 - i : start + i];
+        }
+    }
+
+    /*
+     * Gets the number of longs a column of the specified number of rows takes.
+     */
+    private static int blocksFor(final int rows)
+    {
+        return (rows + WORD_BITS - 1) / WORD_BITS;
+    }
+
+    /*
+     * Runs the bit-parallel recurrence of rowTokens against columnTokens and returns the
+     * distance, leaving the last column's vectors in positive and negative, and every
+     * column's in the history if asked. Rows past the last one in the final block are
+     * never read.
+     */
+    private int computeColumns(final int rowCount,
+                               final int columnCount,
+                               final boolean keepHistory)
+    {
+        final long lastRowBit;
+        int score;
+
+        blocks = blocksFor(rowCount);
+        buildMatchVectors(rowCount);
+        lastRowBit = 1L << ((rowCount - 1) % WORD_BITS);
+
+        if(positive.length < blocks)
+        {
+            positive = new long[blocks];
+            negative = new long[blocks];
+        }
+        Arrays.fill(positive, 0, blocks, ALL_ONES); // Column 0 counts up by one per row
+        Arrays.fill(negative, 0, blocks, 0L);
+        if(keepHistory)
+        {
+            ensureHistory(columnCount * blocks);
+        }
+
+        score = rowCount;
+        for(int j = 0; j < columnCount; j++)
+        {
+            final int token;
+            final int symbol;
+            final int matchOffset;
+            int carry;
+
+            token = columnTokens[j];
+            symbol = token >= 0 && token < symbolOf.length ? symbolOf[token] : NO_SYMBOL;
+            matchOffset = symbol == NO_SYMBOL ? NO_SYMBOL : symbol * blocks;
+            carry = 1; // Row 0 counts up by one per column
+
+            for(int b = 0; b < blocks; b++)
+            {
+                final long pv;
+                final long mv;
+                final long xv;
+                final long xh;
+                final long highBit;
+                long eq;
+                long ph;
+                long mh;
+                int carryOut;
+
+                pv = positive[b];
+                mv = negative[b];
+                eq = matchOffset == NO_SYMBOL ? 0L : matchVectors[matchOffset + b];
+                xv = eq | mv;
+
+                if(carry < 0)
+                {
+                    eq |= 1L;
+                }
+
+                xh = (((eq & pv) + pv) ^ pv) | eq;
+                ph = mv | ~(xh | pv);
+                mh = pv & xh;
+
+                highBit = b == blocks - 1 ? lastRowBit : HIGH_BIT;
+                carryOut = (ph & highBit) != 0 ? 1 : (mh & highBit) != 0 ? -1 : 0;
+
+                ph <<= 1;
+                mh <<= 1;
+                if(carry < 0)
+                {
+                    mh |= 1L;
+                }
+                else if(carry > 0)
+                {
+                    ph |= 1L;
+                }
+
+                positive[b] = mh | ~(xv | ph);
+                negative[b] = ph & xv;
+                if(keepHistory)
+                {
+                    positiveHistory[j * blocks + b] = positive[b];
+                    negativeHistory[j * blocks + b] = negative[b];
+                }
+                carry = carryOut;
+            }
+            score += carry;
+        }
+
+        for(int i = 0; i < rowCount; i++)
+        {
+            symbolOf[rowTokens[i]] = NO_SYMBOL; // Ready for the next comparison
+        }
+        return score;
+    }
+
+    /*
+     * Sets the bit of every row a token appears in, one vector per distinct token, and
+     * records each distinct token's index into the vectors in symbolOf.
+     */
+    private void buildMatchVectors(final int rowCount)
+    {
+        int symbols;
+        int largest;
+
+        largest = NO_SYMBOL;
+        for(int i = 0; i < rowCount; i++)
+        {
+            largest = Math.max(largest, rowTokens[i]);
+        }
+        if(symbolOf.length <= largest)
+        {
+            symbolOf = new int[largest + 1]; // Token ids are below the vocabulary size
+            Arrays.fill(symbolOf, NO_SYMBOL);
+        }
+
+        symbols = 0;
+        for(int i = 0; i < rowCount; i++)
+        {
+            if(symbolOf[rowTokens[i]] == NO_SYMBOL)
+            {
+                symbolOf[rowTokens[i]] = symbols++;
+            }
+        }
+
+        if(matchVectors.length < symbols * blocks)
+        {
+            matchVectors = new long[symbols * blocks];
+        }
+        Arrays.fill(matchVectors, 0, symbols * blocks, 0L);
+
+        for(int i = 0; i < rowCount; i++)
+        {
+            matchVectors[symbolOf[rowTokens[i]] * blocks + i / WORD_BITS] |= 1L << (i % WORD_BITS);
+        }
+    }
+
+    /*
+     * Writes every cell of the last column computed, from row 0 down, into the target.
+     */
+    private void readLastColumn(final int[] target,
+                                final int rowCount,
+                                final int columnCount)
+    {
+        target[0] = columnCount;
+        for(int i = 1; i <= rowCount; i++)
+        {
+            final int block;
+            final int bit;
+
+            block = (i - 1) / WORD_BITS;
+            bit = (i - 1) % WORD_BITS;
+            target[i] = target[i - 1] + (int) ((positive[block] >>> bit) & 1L) -
+                    (int) ((negative[block] >>> bit) & 1L);
+        }
+    }
+
+    /*
+     * Walks back from the bottom-right cell of the part in the history, preferring matches
+     * and replacements, and appends the expected positions that were replaced or left out.
+     */
+    private void traceBack(final int rowStart,
+                           final int rowCount,
+                           final int columnCount,
+                           final int score)
+    {
+        final int first;
+        int i;
+        int j;
+        int cell;
+
+        first = wrongCount;
+        i = rowCount;
+        j = columnCount;
+        cell = score;
+
+        while(i > 0 || j > 0)
+        {
+            if(i > 0 && j > 0)
+            {
+                final int diagonal;
+                final boolean match;
+
+                diagonal = cell(i - 1, j - 1);
+                match = rowTokens[i - 1] == columnTokens[j - 1];
+
+                if(diagonal + (match ? 0 : 1) == cell)
+                {
+                    if(!match)
+                    {
+                        wrongPositions[wrongCount++] = rowStart + i - 1;
+                    }
+                    i--;
+                    j--;
+                    cell = diagonal;
+                    continue;
+                }
+            }
+
+            if(i > 0 && cell(i - 1, j) + 1 == cell)
+            {
+                wrongPositions[wrongCount++] = rowStart + i - 1; // Left out
+                i--;
+            }
+            else
+            {
+                extraCount++; // Typed but not expected
+                j--;
+            }
+            cell--;
+        }
+
+        // Found from the end backwards
+        for(int left = first, right = wrongCount - 1; left < right; left++, right--)
+        {
+            final int swap;
+            swap = wrongPositions[left];
+            wrongPositions[left] = wrongPositions[right];
+            wrongPositions[right] = swap;
+        }
+    }
+
+    /*
+     * Recovers one cell of the edit distance table: the top row and left column count up,
+     * and any other cell is its column's top plus the vertical differences above it.
+     */
+    private int cell(final int row,
+                     final int column)
+    {
+        if(row == 0)
+        {
+            return column;
+        }
+        if(column == 0)
+        {
+            return row;
+        }
+
+        final int base;
+        final int fullBlocks;
+        final int remainder;
+        int value;
+
+        base = (column - 1) * blocks;
+        fullBlocks = row / WORD_BITS;
+        remainder = row % WORD_BITS;
+        value = column;
+
+        for(int b = 0; b < fullBlocks; b++)
+        {
+            value += Long.bitCount(positiveHistory[base + b]) - Long.bitCount(negativeHistory[base + b]);
+        }
+
+        if(remainder > 0)
+        {
+            final long mask;
+            mask = (1L << remainder) - 1;
+
+            value += Long.bitCount(positiveHistory[base + fullBlocks] & mask) -
+                    Long.bitCount(negativeHistory[base + fullBlocks] & mask);
+        }
+        return value;
+    }
+
+    /*
+     * Grows the column history to hold at least the specified number of vectors.
+     */
+    private void ensureHistory(final int size)
+    {
+        if(positiveHistory.length < size)
+        {
+            positiveHistory = new long[size];
+            negativeHistory = new long[size];
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import ca.bcit.comp2522.termProject.Common.EventLog;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * The words and digits Escape the Room passcodes are made of, each with a weight and a
+ * difficulty tier.
+ *
+ * A vocabulary file has one entry per line: the word, then optionally its weight (default 1)
+ * and its tier (default 1), separated by whitespace. Blank lines and lines starting with #
+ * are ignored, and invalid or duplicate entries are logged and skipped.
+ *
+ * Sampling uses the alias method: for every tier, a table over all words of that tier or an
+ * easier one is built once when the vocabulary is loaded, after which each draw is one
+ * random index and one random comparison, whatever the size of the vocabulary. A vocabulary
+ * never changes once built, so one instance is shared by every GameEngine.
+ *
+ * Words are looked up in an open-addressing table of token ids, hashed like String, so a
+ * word can be found straight from a range of the player's input without copying it out.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public final class Vocabulary
+{
+    /** Returned by {@link #indexOf(String)} for text that is not in the vocabulary. */
+    public static final int NOT_FOUND = -1;
+
+    /** The system property naming a vocabulary file to use instead of the default one. */
+    public static final String FILE_PROPERTY = "escaperoom.vocabulary";
+
+    private static final String   SOURCE          = "Vocabulary";
+    private static final String   COMMENT_PREFIX  = "#";
+    private static final double   DEFAULT_WEIGHT  = 1.0;
+    private static final int      DEFAULT_TIER    = 1;
+    private static final int      MAX_FIELDS      = 3;
+    private static final int      HASH_MULTIPLIER = 31;
+
+    // Digits first, so a digit's token id is its value
+    private static final String[] DEFAULT_TOKENS = {
+            "0", "1", "2", "3", "4", "5", "6", "7", "8", "9",
+            "key", "lock", "door", "safe", "code", "clue", "trap", "exit", "map", "note"
+    };
+
+    private final String[]             words;
+
+    // Token ids by hash, NOT_FOUND where empty; the length is a power of two at least twice the size
+    private final int[]                slots;
+
+    // One alias table per tier; table t covers every word whose tier is t or easier
+    private final double[][]           probabilities;
+    private final int[][]              tokens;
+    private final int[][]              aliases;
+
+    /*
+     * Holds the vocabulary shared by every engine, loaded on first use.
+     */
+    private static final class Shared
+    {
+        private static final Vocabulary INSTANCE = loadShared();
+    }
+
+    /*
+     * Builds a vocabulary from parallel arrays of words, weights and tier numbers.
+     */
+    private Vocabulary(final String[] words,
+                       final double[] weights,
+                       final int[] tiers)
+    {
+        final int[] tierNumbers;
+
+        this.words = words;
+        this.slots = new int[Integer.highestOneBit(Math.max(1, words.length) * 2 - 1) << 1];
+
+        Arrays.fill(slots, NOT_FOUND);
+        for(int i = 0; i < words.length; i++)
+        {
+            int slot;
+
+            slot = spread(words[i].hashCode()) & (slots.length - 1);
+            while(slots[slot] != NOT_FOUND)
+            {
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            slots[slot] = i;
+        }
+
+        tierNumbers = Arrays.stream(tiers).distinct().sorted().toArray();
+
+        this.probabilities = new double[tierNumbers.length][];
+        this.tokens        = new int[tierNumbers.length][];
+        this.aliases       = new int[tierNumbers.length][];
+
+        for(int t = 0; t < tierNumbers.length; t++)
+        {
+            buildTable(t, tierNumbers[t], weights, tiers);
+        }
+    }
+
+    /**
+     * Gets the built-in vocabulary: the digits 0 to 9 and the ten original words, equally
+     * likely and all in one tier.
+     *
+     * @return the default vocabulary
+     */
+    public static Vocabulary getDefault()
+    {
+        final double[] weights;
+
+        weights = new double[DEFAULT_TOKENS.length];
+        Arrays.fill(weights, DEFAULT_WEIGHT);
+
+        return new Vocabulary(DEFAULT_TOKENS.clone(), weights, new int[DEFAULT_TOKENS.length]);
+    }
+
+    /**
+     * Gets the vocabulary shared by every engine: the file named by the escaperoom.vocabulary
+     * system property if it is set and can be loaded, otherwise the default vocabulary.
+     *
+     * @return the shared vocabulary
+     */
+    public static Vocabulary getShared()
+    {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Loads a vocabulary file.
+     *
+     * @param file the file to read
+     * @return the vocabulary
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file has no valid entries
+     */
+    public static Vocabulary load(final Path file) throws IOException
+    {
+        final List<String> words;
+        final List<Double> weights;
+        final List<Integer> tiers;
+        final Map<String, Integer> seen;
+
+        words = new ArrayList<>();
+        weights = new ArrayList<>();
+        tiers = new ArrayList<>();
+        seen = new HashMap<>();
+
+        try(final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            String line;
+            int lineNumber;
+
+            lineNumber = 0;
+            while((line = reader.readLine()) != null)
+            {
+                final String trimmed;
+
+                lineNumber++;
+                trimmed = line.trim();
+
+                if(trimmed.isEmpty() || trimmed.startsWith(COMMENT_PREFIX))
+                {
+                    continue;
+                }
+
+                try
+                {
+                    final String[] fields;
+                    final String word;
+                    final double weight;
+                    final int tier;
+
+                    fields = trimmed.split("\\s+");
+                    if(fields.length > MAX_FIELDS)
+                    {
+                        throw new IllegalArgumentException("Expected word, weight and tier");
+                    }
+
+                    word = fields[0];
+                    weight = fields.length > 1 ? Double.parseDouble(fields[1]) : DEFAULT_WEIGHT;
+                    tier = fields.length > 2 ? Integer.parseInt(fields[2]) : DEFAULT_TIER;
+
+                    if(!(weight > 0.0) || Double.isInfinite(weight))
+                    {
+                        throw new IllegalArgumentException("Weight must be positive: " + fields[1]);
+                    }
+                    if(tier < DEFAULT_TIER)
+                    {
+                        throw new IllegalArgumentException("Tier must be at least " + DEFAULT_TIER + ": " + tier);
+                    }
+                    if(seen.putIfAbsent(word, words.size()) != null)
+                    {
+                        throw new IllegalArgumentException("Duplicate word: " + word);
+                    }
+
+                    words.add(word);
+                    weights.add(weight);
+                    tiers.add(tier);
+                }
+                catch(final IllegalArgumentException e)
+                {
+                    EventLog.warn(SOURCE, "vocabulary.invalid_line", file, lineNumber, e.getMessage());
+                }
+            }
+        }
+
+        if(words.isEmpty())
+        {
+            throw new IllegalArgumentException("No valid words in " + file);
+        }
+
+        return new Vocabulary(words.toArray(new String[0]),
+                weights.stream().mapToDouble(Double::doubleValue).toArray(),
+                tiers.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Gets the number of words in the vocabulary.
+     *
+     * @return the vocabulary size
+     */
+    public int size()
+    {
+        return words.length;
+    }
+
+    /**
+     * Gets the number of difficulty tiers.
+     *
+     * @return the number of distinct tiers, at least 1
+     */
+    public int getTierCount()
+    {
+        return tokens.length;
+    }
+
+    /**
+     * Gets the text of a token.
+     *
+     * @param token the token id
+     * @return the word or digit
+     */
+    public String getText(final int token)
+    {
+        return words[token];
+    }
+
+    /**
+     * Looks up the token id of a word.
+     *
+     * @param text the word
+     * @return the token id, or NOT_FOUND
+     */
+    public int indexOf(final String text)
+    {
+        return indexOf(text, 0, text.length());
+    }
+
+    /**
+     * Looks up the token id of the word spelled by a range of text, without copying it.
+     *
+     * @param text  the text
+     * @param start the first character of the word
+     * @param end   one past the last character of the word
+     * @return the token id, or NOT_FOUND
+     */
+    public int indexOf(final CharSequence text,
+                       final int start,
+                       final int end)
+    {
+        int hash;
+        int slot;
+
+        hash = 0;
+        for(int i = start; i < end; i++)
+        {
+            hash = HASH_MULTIPLIER * hash + text.charAt(i); // The same hash as String.hashCode
+        }
+
+        slot = spread(hash) & (slots.length - 1);
+        while(slots[slot] != NOT_FOUND)
+        {
+            if(GameEngine.matchesToken(text, start, end, words[slots[slot]]))
+            {
+                return slots[slot];
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        return NOT_FOUND;
+    }
+
+    /*
+     * Mixes the high bits of a hash into the low bits the table is indexed by.
+     */
+    private static int spread(final int hash)
+    {
+        return hash ^ (hash >>> Short.SIZE);
+    }
+
+    /**
+     * Draws a random token from a tier and every easier tier, in proportion to the weights.
+     * Takes the same time whatever the size of the vocabulary.
+     *
+     * @param tier   the hardest tier to draw from, from 0; larger values mean the hardest tier
+     * @param random the source of randomness
+     * @return the token id
+     */
+    public int sample(final int tier,
+                      final RandomGenerator random)
+    {
+        final int table;
+        final int column;
+
+        table = Math.max(0, Math.min(tier, tokens.length - 1));
+        column = random.nextInt(tokens[table].length);
+
+        return random.nextDouble() < probabilities[table][column] ? tokens[table][column] :
+                aliases[table][column];
+    }
+
+    /*
+     * Builds the alias table for one tier with Vose's method.
+     */
+    private void buildTable(final int table,
+                            final int maxTier,
+                            final double[] weights,
+                            final int[] tiers)
+    {
+        final int[] members;
+        final double[] scaled;
+        final int[] alias;
+        final int[] small;
+        final int[] large;
+        double total;
+        int smallCount;
+        int largeCount;
+
+        members = IntStream.range(0, words.length).filter(i -> tiers[i] <= maxTier).toArray();
+        scaled = new double[members.length];
+        alias = new int[members.length];
+        small = new int[members.length];
+        large = new int[members.length];
+
+        total = 0.0;
+        for(final int member : members)
+        {
+            total += weights[member];
+        }
+
+        smallCount = 0;
+        largeCount = 0;
+        for(int i = 0; i < members.length; i++)
+        {
+            scaled[i] = weights[members[i]] * members.length / total;
+
+            if(scaled[i] < 1.0)
+            {
+                small[smallCount++] = i;
+            }
+            else
+            {
+                large[largeCount++] = i;
+            }
+        }
+
+        // Pair each under-full column with an over-full one that tops it up
+        while(smallCount > 0 && largeCount > 0)
+        {
+            final int less;
+            final int more;
+
+            less = small[--smallCount];
+            more = large[--largeCount];
+
+            alias[less] = members[more];
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+
+            if(scaled[more] < 1.0)
+            {
+                small[smallCount++] = more;
+            }
+            else
+            {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever is left is full, up to rounding error
+        while(largeCount > 0)
+        {
+            final int full;
+            full = large[--largeCount];
+
+            scaled[full] = 1.0;
+            alias[full] = members[full];
+        }
+        while(smallCount > 0)
+        {
+            final int full;
+            full = small[--smallCount];
+
+            scaled[full] = 1.0;
+            alias[full] = members[full];
+        }
+
+        probabilities[table] = scaled;
+        tokens[table] = members;
+        aliases[table] = alias;
+    }
+
+    /*
+     * Loads the shared vocabulary, falling back to the default one if the configured file
+     * cannot be used.
+     */
+    private static Vocabulary loadShared()
+    {
+        final String file;
+        file = System.getProperty(FILE_PROPERTY);
+
+        if(file == null || file.isBlank())
+        {
+            return getDefault();
+        }
+
+        try
+        {
+            final Vocabulary vocabulary;
+            vocabulary = load(Path.of(file));
+
+            EventLog.info(SOURCE, "vocabulary.loaded", file);
+            return vocabulary;
+        }
+        catch(final IOException | IllegalArgumentException e)
+        {
+            EventLog.error(SOURCE, "vocabulary.load_failed", file, e.getMessage());
+            return getDefault();
+        }
+    }
+}
@@ -1,34 +1,29 @@
 package ca.bcit.comp2522.termProject.NumberGame;
 
 import javafx.scene.control.Button;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * Abstract base class for the Number Game.
  * Provides common functionality and shared data structures
  * for managing the game grid and tracking game progress.
- * Subclasses must implement the specific game logic.
+ * The numbers and rules live in a NumberBoard, which works without JavaFX;
+ * this class adds the grid of buttons that shows it.
  *
  * @author Pranjal Sharma [A01396406]
- * @version 2.0
+ * @version 3.0
  */
 public abstract class BaseNumberGame implements NumberGameRules
 {
-    protected static final int   GRID_ROWS        = 4;
-    protected static final int   GRID_COLS        = 5;
-    protected static final int   EMPTY_CELL_VALUE = 0;
+    protected static final int   GRID_ROWS        = NumberBoard.ROWS;
+    protected static final int   GRID_COLS        = NumberBoard.COLS;
     protected static final int   FIRST_INDEX_ROW  = 0;
     protected static final int   FIRST_INDEX_COL  = 0;
     protected final Button[][]   gridButtons      = new Button[GRID_ROWS][GRID_COLS];
-    protected final int[][]      gridValues       = new int[GRID_ROWS][GRID_COLS];
-    protected final Set<Integer> usedNumbers      = new HashSet<>();
-    protected int                successfulPlacements;
-    protected static int         currentNumber;
+    protected final NumberBoard  board            = new NumberBoard();
 
     /**
-     * Resets the game grid to its initial state for a new game.
-     * Clears all cell values, resets UI buttons, and clears the set of used numbers.
+     * Resets the grid buttons to their initial state for a new game.
+     * The board itself is reset when the new game's seed is chosen.
      */
     public void resetGrid()
     {
@@ -38,11 +33,8 @@ public abstract class BaseNumberGame implements NumberGameRules
             {
                 gridButtons[row][col].setText("[ ]");
                 gridButtons[row][col].setDisable(false);
-                gridValues[row][col] = EMPTY_CELL_VALUE;
             }
         }
-        usedNumbers.clear();
-        successfulPlacements = EMPTY_CELL_VALUE;
     }
 
     /**
@@ -52,17 +44,32 @@ public abstract class BaseNumberGame implements NumberGameRules
      */
     public boolean isGridFull()
     {
-        for(int row = FIRST_INDEX_ROW; row < GRID_ROWS; row++)
-        {
-            for(int col = FIRST_INDEX_COL; col < GRID_COLS; col++)
-            {
-                if(gridValues[row][col] == EMPTY_CELL_VALUE)
-                {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return board.isGridFull();
+    }
+
+    /**
+     * Validates if the current number can be placed in the specified grid cell.
+     *
+     * @param row the row of the grid
+     * @param col the column of the grid
+     * @return true if placement is valid, false otherwise
+     */
+    @Override
+    public boolean isValidPlacement(final int row,
+                                    final int col)
+    {
+        return board.isValidPlacement(row, col);
+    }
+
+    /**
+     * Checks if there are valid moves remaining on the grid.
+     *
+     * @return true if valid moves exist, false otherwise
+     */
+    @Override
+    public boolean hasValidMoves()
+    {
+        return board.hasValidMoves();
     }
 
     /**
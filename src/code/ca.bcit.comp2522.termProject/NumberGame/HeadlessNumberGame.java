@@ -0,0 +1,158 @@
+package ca.bcit.comp2522.termProject.NumberGame;
+
+import ca.bcit.comp2522.termProject.Common.GameResult;
+import ca.bcit.comp2522.termProject.Common.GameStatistics;
+import ca.bcit.comp2522.termProject.Common.HeadlessGame;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+
+/**
+ * Plays the Number Game on a NumberBoard through the HeadlessGame interface.
+ *
+ * Each input is a cell, numbered from 0 to 19 in row order. Input that is not a cell ends
+ * the game like an invalid placement would. The score is the number of valid placements,
+ * and the game is won by filling the grid.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class HeadlessNumberGame implements HeadlessGame
+{
+    private static final int CELLS = NumberBoard.ROWS * NumberBoard.COLS;
+
+    private final NumberBoard board;
+    private int               steps;
+
+    /**
+     * Constructs a HeadlessNumberGame.
+     */
+    public HeadlessNumberGame()
+    {
+        this.board = new NumberBoard();
+    }
+
+    /**
+     * Gets which game this is.
+     *
+     * @return ReplayLog.NUMBER_GAME
+     */
+    @Override
+    public int getGameType()
+    {
+        return ReplayLog.NUMBER_GAME;
+    }
+
+    /**
+     * Gets the name of the game, for reports.
+     *
+     * @return the name
+     */
+    @Override
+    public String getName()
+    {
+        return "NumberGame";
+    }
+
+    /**
+     * Gets the GameStatistics metric a finished game's score is recorded under.
+     *
+     * @return GameStatistics.NUMBER_GAME_PLACEMENTS
+     */
+    @Override
+    public String getStatistic()
+    {
+        return GameStatistics.NUMBER_GAME_PLACEMENTS;
+    }
+
+    /**
+     * Starts a new game and draws its first number.
+     *
+     * @param seed the seed the game's numbers are drawn from
+     * @param now  the current time in milliseconds; the Number Game has no time limit
+     */
+    @Override
+    public void init(final long seed,
+                     final long now)
+    {
+        board.reset(seed);
+        steps = 0;
+    }
+
+    /**
+     * Gets the number to place next.
+     *
+     * @return the prompt
+     */
+    @Override
+    public String prompt()
+    {
+        return "Next number: " + board.getCurrentNumber() + " - Select a slot from 0 to " + (CELLS - 1) + ".";
+    }
+
+    /**
+     * Places the current number in a cell.
+     *
+     * @param input the cell, from 0 to 19 in row order
+     * @param now   the current time in milliseconds
+     */
+    @Override
+    public void step(final String input,
+                     final long now)
+    {
+        final int cell;
+
+        if(board.isOver())
+        {
+            return;
+        }
+
+        steps++;
+        try
+        {
+            cell = Integer.parseInt(input == null ? "" : input.trim());
+        }
+        catch(final NumberFormatException e)
+        {
+            board.forfeit();
+            return;
+        }
+
+        if(cell < 0 || cell >= CELLS)
+        {
+            board.forfeit();
+            return;
+        }
+        board.place(cell / NumberBoard.COLS, cell % NumberBoard.COLS);
+    }
+
+    /**
+     * Checks if the game has ended.
+     *
+     * @return true if it was won or lost
+     */
+    @Override
+    public boolean isOver()
+    {
+        return board.isOver();
+    }
+
+    /**
+     * Gets the result: the placements so far and whether the grid was filled.
+     *
+     * @return the result
+     */
+    @Override
+    public GameResult result()
+    {
+        return new GameResult(getName(), board.getSeed(), board.getSuccessfulPlacements(), board.isWon(), steps);
+    }
+
+    /**
+     * Gets the board the game is played on.
+     *
+     * @return the board
+     */
+    public NumberBoard getBoard()
+    {
+        return board;
+    }
+}
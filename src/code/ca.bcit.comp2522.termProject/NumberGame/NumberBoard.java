@@ -0,0 +1,336 @@
+package ca.bcit.comp2522.termProject.NumberGame;
+
+import ca.bcit.comp2522.termProject.Common.Metrics;
+import ca.bcit.comp2522.termProject.Common.Seeds;
+import ca.bcit.comp2522.termProject.Common.Timer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * The state and rules of one Number Game, without any user interface.
+ *
+ * Numbers from 1 to 1000 are drawn one at a time from the game's seed, and each must be
+ * placed in an empty cell so that the filled cells stay in ascending order, read row by
+ * row. The game is lost when a number is placed out of order or fits nowhere, and won
+ * when the grid is full. NumberGame shows a board on screen, and NumberGameReplay replays
+ * recorded games on one headlessly.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class NumberBoard implements NumberGameRules
+{
+    /** The number of rows of the grid. */
+    public static final int ROWS       = 4;
+
+    /** The number of columns of the grid. */
+    public static final int COLS       = 5;
+
+    /** The value of a cell no number has been placed in. */
+    public static final int EMPTY_CELL = 0;
+
+    private static final int   NUMBER_LIMIT          = 1000;
+    private static final int   NUMBER_MIN            = 1;
+    private static final Timer NEXT_NUMBER_TIMER     = Metrics.timer("numbergame.next_number");
+    private static final Timer PLACEMENT_CHECK_TIMER = Metrics.timer("numbergame.placement_check");
+
+    private final int[][]      values;
+    private final Set<Integer> usedNumbers;
+    private RandomGenerator    random;
+    private long               seed;
+    private int                currentNumber;
+    private int                successfulPlacements;
+    private boolean            over;
+    private boolean            won;
+
+    /**
+     * Constructs an empty NumberBoard. Call reset to start a game on it.
+     */
+    public NumberBoard()
+    {
+        this.values      = new int[ROWS][COLS];
+        this.usedNumbers = new HashSet<>();
+    }
+
+    /**
+     * Starts a new game played from a seed and draws its first number.
+     *
+     * @param seed the seed the game's numbers are drawn from
+     */
+    public void reset(final long seed)
+    {
+        for(final int[] row : values)
+        {
+            Arrays.fill(row, EMPTY_CELL);
+        }
+        usedNumbers.clear();
+
+        this.seed            = seed;
+        random               = Seeds.random(seed);
+        successfulPlacements = 0;
+        over                 = false;
+        won                  = false;
+        generateNextNumber();
+    }
+
+    /**
+     * Draws the next number to be placed, never one already drawn this game.
+     * Ends the game if it cannot be placed anywhere.
+     */
+    @Override
+    public void generateNextNumber()
+    {
+        final long start;
+        start = NEXT_NUMBER_TIMER.start();
+
+        try
+        {
+            do
+            {
+                currentNumber = random.nextInt(NUMBER_LIMIT) + NUMBER_MIN;
+            }
+            while(usedNumbers.contains(currentNumber)); // Ensure no duplicates
+
+            usedNumbers.add(currentNumber);
+        }
+        finally
+        {
+            NEXT_NUMBER_TIMER.stop(start);
+        }
+
+        if(!hasValidMoves())
+        {
+            over = true;
+        }
+    }
+
+    /**
+     * Places the current number in a cell. A valid placement draws the next number or, if
+     * the grid is now full, wins the game; an invalid one loses it.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return true if the placement was valid
+     */
+    public boolean place(final int row,
+                         final int col)
+    {
+        if(over)
+        {
+            throw new IllegalStateException("The game is over");
+        }
+
+        if(!isValidPlacement(row, col))
+        {
+            over = true;
+            return false;
+        }
+
+        values[row][col] = currentNumber;
+        successfulPlacements++;
+
+        if(isGridFull())
+        {
+            over = true;
+            won  = true;
+        }
+        else
+        {
+            generateNextNumber();
+        }
+        return true;
+    }
+
+    /**
+     * Ends the game as lost, as an invalid placement does.
+     */
+    public void forfeit()
+    {
+        over = true;
+    }
+
+    /**
+     * Validates if the current number can be placed in the specified cell.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return true if placement is valid, false otherwise
+     */
+    @Override
+    public boolean isValidPlacement(final int row,
+                                    final int col)
+    {
+        final long start;
+        start = PLACEMENT_CHECK_TIMER.start();
+
+        try
+        {
+            return checkPlacement(row, col);
+        }
+        finally
+        {
+            PLACEMENT_CHECK_TIMER.stop(start);
+        }
+    }
+
+    /*
+     * Checks if the current number keeps the grid in ascending order when placed in a cell.
+     * Walks the cells in row order as if the number were already there, so replays can
+     * check thousands of placements without allocating.
+     */
+    private boolean checkPlacement(final int row,
+                                   final int col)
+    {
+        if(values[row][col] != EMPTY_CELL)
+        {
+            return false; // when the slot is already filled
+        }
+
+        int previous;
+        previous = EMPTY_CELL;
+
+        for(int r = 0; r < ROWS; r++)
+        {
+            for(int c = 0; c < COLS; c++)
+            {
+                final int value;
+                value = r == row && c == col ? currentNumber : values[r][c];
+
+                if(value == EMPTY_CELL)
+                {
+                    continue; // Empty slots do not have to be in order
+                }
+                if(value < previous)
+                {
+                    return false; // Not in ascending order
+                }
+                previous = value;
+            }
+        }
+        return true; // Placement is valid
+    }
+
+    /**
+     * Checks if the current number fits in any empty cell.
+     *
+     * @return true if valid moves exist, false otherwise
+     */
+    @Override
+    public boolean hasValidMoves()
+    {
+        for(int row = 0; row < ROWS; row++)
+        {
+            for(int col = 0; col < COLS; col++)
+            {
+                if(values[row][col] == EMPTY_CELL && isValidPlacement(row, col))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if every cell has a number in it.
+     *
+     * @return true if all cells are filled, false otherwise
+     */
+    public boolean isGridFull()
+    {
+        for(int row = 0; row < ROWS; row++)
+        {
+            for(int col = 0; col < COLS; col++)
+            {
+                if(values[row][col] == EMPTY_CELL)
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number placed in a cell.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the number, or EMPTY_CELL
+     */
+    public int getValue(final int row,
+                        final int col)
+    {
+        return values[row][col];
+    }
+
+    /**
+     * Gets the number waiting to be placed.
+     *
+     * @return the current number
+     */
+    public int getCurrentNumber()
+    {
+        return currentNumber;
+    }
+
+    /**
+     * Gets the number of valid placements made this game.
+     *
+     * @return the placement count
+     */
+    public int getSuccessfulPlacements()
+    {
+        return successfulPlacements;
+    }
+
+    /**
+     * Gets the seed the current game's numbers are drawn from.
+     *
+     * @return the seed
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Checks if the game has ended.
+     *
+     * @return true if it was won or lost
+     */
+    public boolean isOver()
+    {
+        return over;
+    }
+
+    /**
+     * Checks if the game was won by filling the grid.
+     *
+     * @return true if the grid was filled
+     */
+    public boolean isWon()
+    {
+        return won;
+    }
+
+    /*
+     * Sets a cell directly, for setting up boards in benchmarks.
+     */
+    void setValue(final int row,
+                  final int col,
+                  final int value)
+    {
+        values[row][col] = value;
+    }
+
+    /*
+     * Sets the number waiting to be placed directly, for benchmarks.
+     */
+    void setCurrentNumber(final int number)
+    {
+        currentNumber = number;
+    }
+}
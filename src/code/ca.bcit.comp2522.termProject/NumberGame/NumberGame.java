@@ -1,44 +1,45 @@
 package ca.bcit.comp2522.termProject.NumberGame;
 
+import ca.bcit.comp2522.termProject.Common.Assets;
+import ca.bcit.comp2522.termProject.Common.GameStatistics;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+import ca.bcit.comp2522.termProject.Common.ReplayWriter;
+import ca.bcit.comp2522.termProject.Common.Seeds;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 /**
  * Concrete implementation of the Number Game.
  * Handles the game logic, UI components, and scoring for a number placement game.
+ * Each game draws its numbers from its own seed, so it can be replayed exactly,
+ * and every placement is recorded to the replay log for NumberGameReplay.
  *
  * @author Pranjal Sharma [A01396406]
- * @version 3.0
+ * @version 4.0
  */
 public class NumberGame extends BaseNumberGame
 {
     private static final int    BUTTON_SIZE               = 80;
     private static final int    IMAGE_SIZE                = 60;
     private static final double SCORE_INCREMENT           = 0.5;
-    private static final int    RANDOM_NUMBER_LIMIT       = 1000;
     private static final int    LAYOUT_SPACING            = 10;
     private static final int    LAYOUT_PADDING            = 20;
     private static final int    GRID_HGAP                 = 5;
     private static final int    GRID_VGAP                 = 5;
     private static final double DEFAULT_AVERAGE           = 0.0;
     private static final int    NO_GAMES_PLAYED           = 0;
-    private static final int    PREVIOUS_INDEX_OFFSET     = 1;
-    private static final int    FIRST_COMPARISON_INDEX    = 1;
-    private static final int    RANDOM_NUMBER_MIN         = 1;
     private static final int    CONTROL_BUTTON_SPACING    = 10;
+    private static final String WAND_IMAGE                = "/wand.png";
     private int                 gamesWon                  = 0;
     private int                 gamesLost                 = 0;
     private int                 totalSuccessfulPlacements = 0;
@@ -46,6 +47,7 @@ public class NumberGame extends BaseNumberGame
     private double              currentScore;
     private int                 sessionGamesPlayed;
     private Stage               primaryStage;
+    private ReplayWriter        recording;
 
     /**
      * Initializes the game layout and sets up the primary stage.
@@ -73,7 +75,8 @@ public class NumberGame extends BaseNumberGame
 
         layout.getChildren().addAll(gameStatus, gridPane, controlButtons);
         resetGrid();
-        generateNextNumber();
+        startNewGame(Seeds.newSeed());
+        showNextNumber();
     }
 
     /**
@@ -102,7 +105,7 @@ public class NumberGame extends BaseNumberGame
 
                 final ImageView placeholderImage;
 
-                placeholderImage = new ImageView(new Image(getClass().getResource("/wand.png").toExternalForm()));
+                placeholderImage = new ImageView(Assets.image(WAND_IMAGE, IMAGE_SIZE, IMAGE_SIZE));
                 placeholderImage.setFitWidth(IMAGE_SIZE);
                 placeholderImage.setFitHeight(IMAGE_SIZE);
                 button.setGraphic(placeholderImage);
@@ -139,108 +142,64 @@ public class NumberGame extends BaseNumberGame
     }
 
     /**
-     * Generates the next number to be placed on the grid.
+     * Draws the next number to be placed on the grid.
      * Ensures no duplicate numbers are generated.
      */
     @Override
     public void generateNextNumber()
     {
-        do
-        {
-            currentNumber = (int) (Math.random() * RANDOM_NUMBER_LIMIT) + RANDOM_NUMBER_MIN;
-        }
-        while(usedNumbers.contains(currentNumber)); // Ensure no duplicates
-
-        usedNumbers.add(currentNumber);
+        board.generateNextNumber();
+        showNextNumber();
+    }
 
-        // Check if there are valid moves left
-        if(!hasValidMoves())
+    /*
+     * Shows the number to place next, or ends the game if it cannot be placed anywhere.
+     */
+    private void showNextNumber()
+    {
+        if(board.isOver())
         {
             final String message;
-            message = "Impossible to place the next number: " + currentNumber;
+            message = "Impossible to place the next number: " + board.getCurrentNumber();
 
             gameStatus.setText(message);
             disableAllButtons();
-            showGameOverDialogWithNumber(false, currentNumber);
+            showGameOverDialogWithNumber(false, board.getCurrentNumber());
             return;
         }
-        gameStatus.setText("Next number: " + currentNumber + " - Select a slot.");
+        gameStatus.setText("Next number: " + board.getCurrentNumber() + " - Select a slot.");
     }
 
     /**
-     * Validates if the current number can be placed in the specified grid cell.
+     * Gets the seed the current game's numbers are drawn from.
      *
-     * @param row the row of the grid
-     * @param col the column of the grid
-     * @return true if placement is valid, false otherwise
+     * @return the seed
      */
-    @Override
-    public boolean isValidPlacement(final int row,
-                                    final int col)
+    public long getGameSeed()
     {
-        if(gridValues[row][col] != EMPTY_CELL_VALUE)
-        {
-            return false; // when the slot is already filled
-        }
-
-        final List<Integer> numbers;
-        numbers = new ArrayList<>();
-
-        for(int r = FIRST_INDEX_ROW; r < GRID_ROWS; r++)
-        {
-            for(int c = FIRST_INDEX_COL; c < GRID_COLS; c++)
-            {
-                numbers.add(gridValues[r][c]);
-            }
-        }
-
-        // Place the current number into the temporary list
-        final int index;
-        index = row * GRID_COLS + col;
-        numbers.set(index, currentNumber);
-
-        // Remove all zeroes (empty slots) and check if the list is sorted
-        final List<Integer> nonZeroNumbers;
-        nonZeroNumbers = new ArrayList<>();
-
-        for(final int num : numbers)
-        {
-            if(num != EMPTY_CELL_VALUE)
-            {
-                nonZeroNumbers.add(num);
-            }
-        }
+        return board.getSeed();
+    }
 
-        // Check if the non-zero numbers are sorted
-        for(int i = FIRST_COMPARISON_INDEX; i < nonZeroNumbers.size(); i++)
-        {
-            if(nonZeroNumbers.get(i) < nonZeroNumbers.get(i - PREVIOUS_INDEX_OFFSET))
-            {
-                return false; // Not in ascending order
-            }
-        }
-        return true; // Placement is valid
+    /*
+     * Starts a new game from a seed and starts recording it. A game abandoned by a
+     * restart is not saved.
+     */
+    private void startNewGame(final long seed)
+    {
+        board.reset(seed);
+        recording = NumberGameReplay.record(board, System.currentTimeMillis());
     }
 
-    /**
-     * Checks if there are valid moves remaining on the grid.
-     *
-     * @return true if valid moves exist, false otherwise
+    /*
+     * Ends the recording of the game with its outcome and saves it to the replay log.
      */
-    @Override
-    public boolean hasValidMoves()
+    private void finishRecording()
     {
-        for(int row = FIRST_INDEX_ROW; row < GRID_ROWS; row++)
+        if(recording != null)
         {
-            for(int col = FIRST_INDEX_COL; col < GRID_COLS; col++)
-            {
-                if(gridValues[row][col] == EMPTY_CELL_VALUE && isValidPlacement(row, col))
-                {
-                    return true;
-                }
-            }
+            ReplayLog.getDefault().append(NumberGameReplay.finish(recording, board));
+            recording = null;
         }
-        return false;
     }
 
     /**
@@ -255,19 +214,55 @@ public class NumberGame extends BaseNumberGame
                                   final int col,
                                   final Button button) 
     {
-        if(!isValidPlacement(row, col)) 
+        final NumberPlacedEvent event;
+        final int number;
+        final boolean valid;
+
+        event = new NumberPlacedEvent();
+        event.begin();
+        number = board.getCurrentNumber(); // Picking the next number replaces it
+
+        if(recording != null)
+        {
+            recording.event(NumberGameReplay.PLACE, System.currentTimeMillis())
+                    .writeUnsigned(NumberGameReplay.cellOf(row, col));
+        }
+        valid = placeNumber(row, col, button);
+
+        event.end();
+        if(event.shouldCommit())
+        {
+            event.number     = number;
+            event.row        = row;
+            event.column     = col;
+            event.valid      = valid;
+            event.placements = board.getSuccessfulPlacements();
+            event.commit();
+        }
+    }
+
+    /*
+     * Places the current number in the clicked cell and moves the game on.
+     * Returns false if the placement was invalid and ended the game.
+     */
+    private boolean placeNumber(final int row,
+                                final int col,
+                                final Button button)
+    {
+        final int number;
+        number = board.getCurrentNumber();
+
+        // Place the number in the grid, which draws the next one
+        if(!board.place(row, col))
         {
             gameStatus.setText("Invalid move! Game over.");
             disableAllButtons();
-            showGameOverDialogWithNumber(false, currentNumber);
-            return;
+            showGameOverDialogWithNumber(false, number);
+            return false;
         }
 
-        // Place the number in the grid
-        gridValues[row][col] = currentNumber;
-
         // Display the number on the button
-        button.setText(String.valueOf(currentNumber));
+        button.setText(String.valueOf(number));
         button.setGraphic(null); // Remove the wand image after placing the number
         button.setStyle("-fx-font-size: 18px; " +
                 "-fx-font-weight: bold; " +
@@ -279,16 +274,16 @@ public class NumberGame extends BaseNumberGame
 
         button.setDisable(true);
         currentScore += SCORE_INCREMENT; // Increment the score for a valid placement
-        successfulPlacements++;
 
-        if(isGridFull()) 
+        if(board.isWon())
         {
-            showGameOverDialogWithNumber(true, currentNumber);
+            showGameOverDialogWithNumber(true, number);
         } 
         else 
         {
-            generateNextNumber();
+            showNextNumber();
         }
+        return true;
     }
 
     /*
@@ -297,8 +292,10 @@ public class NumberGame extends BaseNumberGame
     private void showGameOverDialogWithNumber(final boolean success,
                                               final int nextNumber)
     {
+        finishRecording();
         sessionGamesPlayed++;
-        totalSuccessfulPlacements += successfulPlacements;
+        totalSuccessfulPlacements += board.getSuccessfulPlacements();
+        GameStatistics.getDefault().record(GameStatistics.NUMBER_GAME_PLACEMENTS, board.getSuccessfulPlacements());
 
         if(success) 
         {
@@ -335,7 +332,9 @@ public class NumberGame extends BaseNumberGame
                 "Games Won: " + String.format("%02d", gamesWon) + "\n" +
                 "Games Lost: " + String.format("%02d", gamesLost) + "\n" +
                 "Total Successful Placements: " + String.format("%02d", totalSuccessfulPlacements) + "\n" +
-                "Average Placements Per Game: " + String.format("%.2f", averagePlacements));
+                "Average Placements Per Game: " + String.format("%.2f", averagePlacements) + "\n" +
+                "Placements Per Game, All Players: " +
+                GameStatistics.getDefault().report(GameStatistics.NUMBER_GAME_PLACEMENTS));
 
         playAgain = new ButtonType("Try Again");
         quit = new ButtonType("Quit");
@@ -370,7 +369,9 @@ public class NumberGame extends BaseNumberGame
                 "Games Won: " + String.format("%02d", gamesWon) + "\n" +
                 "Games Lost: " + String.format("%02d", gamesLost) + "\n" +
                 "Total Successful Placements: " + String.format("%02d", totalSuccessfulPlacements) + "\n" +
-                "Average Placements Per Game: " + String.format("%.2f", averagePlacements));
+                "Average Placements Per Game: " + String.format("%.2f", averagePlacements) + "\n" +
+                "Placements Per Game, All Players: " +
+                GameStatistics.getDefault().report(GameStatistics.NUMBER_GAME_PLACEMENTS));
 
         alert.showAndWait();
 
@@ -396,8 +397,7 @@ public class NumberGame extends BaseNumberGame
                 button.setText(""); // Clear text
 
                 // Reset to placeholder image with proper size
-                final ImageView placeholderImage = new ImageView(new Image
-                        (getClass().getResource("/wand.png").toExternalForm()));
+                final ImageView placeholderImage = new ImageView(Assets.image(WAND_IMAGE, IMAGE_SIZE, IMAGE_SIZE));
 
                 placeholderImage.setFitWidth(IMAGE_SIZE);
                 placeholderImage.setFitHeight(IMAGE_SIZE);
@@ -413,10 +413,18 @@ public class NumberGame extends BaseNumberGame
 
         // Reset game variables
         currentScore = 0;
-        successfulPlacements = 0;
-        generateNextNumber();
-        gameStatus.setText("Game restarted! Next number: " + currentNumber);
+        startNewGame(Seeds.newSeed());
+        gameStatus.setText("Game restarted! Next number: " + board.getCurrentNumber());
     }
 
 
-}
\ No newline at end of file
+
+    /*
+     * Starts decoding the grid's image at the size it is shown at, so the grid
+     * finds it cached.
+     */
+    static void preloadAssets()
+    {
+        Assets.image(WAND_IMAGE, IMAGE_SIZE, IMAGE_SIZE);
+    }
+}
@@ -1,5 +1,6 @@
 package ca.bcit.comp2522.termProject.NumberGame;
 
+import ca.bcit.comp2522.termProject.Common.Assets;
 import javafx.animation.FadeTransition;
 import javafx.application.Application;
 import javafx.geometry.Pos;
@@ -24,6 +25,8 @@ public class NumberGameApp extends Application
     private static final int    SCENE_HEIGHT          = 600;
     private static final int    OVERLAY_SPACING       = 20;
     private static final double FADE_DURATION_SECONDS = 1.0;
+    private static final String STYLESHEET            = "/styles.css";
+    private static final String BACKGROUND_IMAGE      = "/img.jpeg";
 
     /**
      * The main entry point for the JavaFX application.
@@ -37,6 +40,16 @@ public class NumberGameApp extends Application
         showWelcomeStage(primaryStage);
     }
 
+    /**
+     * Starts decoding the game's images at the sizes they are shown at, so the game
+     * finds them cached. Can be called from any thread once JavaFX has started.
+     */
+    public static void preloadAssets()
+    {
+        Assets.image(BACKGROUND_IMAGE, SCENE_WIDTH, SCENE_HEIGHT);
+        NumberGame.preloadAssets();
+    }
+
     /*
      * Displays the welcome stage with a background, title, and buttons.
      */
@@ -44,9 +57,7 @@ public class NumberGameApp extends Application
     {
         final StackPane welcomeLayout;
         welcomeLayout = new StackPane();
-        welcomeLayout.setStyle("-fx-background-image: url('img.jpeg'); " +
-                "-fx-background-size: cover; " +
-                "-fx-background-position: center;");
+        Assets.setBackground(welcomeLayout, BACKGROUND_IMAGE, SCENE_WIDTH, SCENE_HEIGHT);
 
         final VBox overlay;
         overlay = new VBox();
@@ -74,7 +85,7 @@ public class NumberGameApp extends Application
 
         final Scene welcomeScene;
         welcomeScene = new Scene(welcomeLayout, SCENE_WIDTH, SCENE_HEIGHT);
-        welcomeScene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+        addStylesheet(welcomeScene);
         primaryStage.setScene(welcomeScene);
         primaryStage.setTitle("Magical Number Challenge");
         primaryStage.show();
@@ -91,11 +102,12 @@ public class NumberGameApp extends Application
         mainLayout.setAlignment(Pos.CENTER);
         mainLayout.setSpacing(OVERLAY_SPACING);
         mainLayout.getStyleClass().add("root");
+        Assets.setBackground(mainLayout, BACKGROUND_IMAGE, SCENE_WIDTH, SCENE_HEIGHT);
 
         numberGame.initializeGame(primaryStage, mainLayout);
 
         Scene gameScene = new Scene(mainLayout, SCENE_WIDTH, SCENE_HEIGHT);
-        gameScene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+        addStylesheet(gameScene);
 
         // Smooth transition to the game scene
         FadeTransition fadeOut = new FadeTransition(Duration.seconds(FADE_DURATION_SECONDS),
@@ -103,4 +115,18 @@ public class NumberGameApp extends Application
         fadeOut.setOnFinished(event -> primaryStage.setScene(gameScene));
         fadeOut.play();
     }
+
+    /*
+     * Styles a scene with the game's stylesheet, if it is on the classpath.
+     */
+    private static void addStylesheet(final Scene scene)
+    {
+        final String stylesheet;
+        stylesheet = Assets.stylesheet(STYLESHEET);
+
+        if(stylesheet != null)
+        {
+            scene.getStylesheets().add(stylesheet);
+        }
+    }
 }
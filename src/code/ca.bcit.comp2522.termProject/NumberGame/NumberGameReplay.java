@@ -0,0 +1,145 @@
+package ca.bcit.comp2522.termProject.NumberGame;
+
+import ca.bcit.comp2522.termProject.Common.ReplayHandler;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+import ca.bcit.comp2522.termProject.Common.ReplayReader;
+import ca.bcit.comp2522.termProject.Common.ReplayWriter;
+import java.io.IOException;
+
+/**
+ * Replays recorded Number Games on a NumberBoard.
+ *
+ * NumberGame records the seed and one event per click, holding the cell as a single
+ * number from 0 to 19 in row order. The outcome is the number of valid placements,
+ * whether the grid was filled, and the number waiting to be placed when the game ended,
+ * which also checks that the numbers are still drawn the same way from the seed.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class NumberGameReplay implements ReplayHandler
+{
+    /** A number was placed; the payload is the cell. */
+    public static final int PLACE = 1;
+
+    private static final long WON  = 1L;
+    private static final long LOST = 0L;
+
+    private final NumberBoard board;
+
+    /**
+     * Constructs a NumberGameReplay.
+     */
+    public NumberGameReplay()
+    {
+        this.board = new NumberBoard();
+    }
+
+    /**
+     * Numbers a cell for recording, in row order.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the cell number
+     */
+    public static int cellOf(final int row,
+                             final int col)
+    {
+        return row * NumberBoard.COLS + col;
+    }
+
+    /**
+     * Starts a recording of a game that has just been reset.
+     *
+     * @param board the board of the game
+     * @param now   the current time in epoch milliseconds
+     * @return the recording
+     */
+    public static ReplayWriter record(final NumberBoard board,
+                                      final long now)
+    {
+        return new ReplayWriter(ReplayLog.NUMBER_GAME, board.getSeed(), now);
+    }
+
+    /**
+     * Ends a recording with the game's outcome.
+     *
+     * @param recording the recording
+     * @param board     the board of the finished game
+     * @return the encoded recording
+     */
+    public static byte[] finish(final ReplayWriter recording,
+                                final NumberBoard board)
+    {
+        return recording.finish(outcome(board));
+    }
+
+    /**
+     * Gets the type of game this handler replays.
+     *
+     * @return ReplayLog.NUMBER_GAME
+     */
+    @Override
+    public int getGameType()
+    {
+        return ReplayLog.NUMBER_GAME;
+    }
+
+    /**
+     * Gets the name of the game, for reports.
+     *
+     * @return the name
+     */
+    @Override
+    public String getName()
+    {
+        return "NumberGame";
+    }
+
+    /**
+     * Replays a recording and compares its placements, result and last number.
+     *
+     * @param recording the recording, positioned at its first event
+     * @return true if the replayed game ended with the recorded outcome
+     * @throws IOException if the recording is malformed
+     */
+    @Override
+    public boolean replay(final ReplayReader recording) throws IOException
+    {
+        int event;
+
+        board.reset(recording.getSeed());
+
+        while((event = recording.nextEvent()) != ReplayWriter.END_EVENT)
+        {
+            final long cell;
+
+            if(event != PLACE)
+            {
+                throw new IOException("Unknown Number Game event " + event);
+            }
+
+            cell = recording.readUnsigned();
+            if(cell >= NumberBoard.ROWS * NumberBoard.COLS)
+            {
+                throw new IOException("No such cell: " + cell);
+            }
+
+            if(board.isOver())
+            {
+                return false; // The recorded game went on after the replayed one ended
+            }
+            board.place((int) cell / NumberBoard.COLS, (int) cell % NumberBoard.COLS);
+        }
+        return recording.outcomeMatches(outcome(board));
+    }
+
+    /*
+     * Describes how a game ended: its placements, whether it was won, and its last number.
+     */
+    private static long[] outcome(final NumberBoard board)
+    {
+        return new long[] {board.getSuccessfulPlacements(), board.isWon() ? WON : LOST,
+                board.getCurrentNumber()};
+    }
+}
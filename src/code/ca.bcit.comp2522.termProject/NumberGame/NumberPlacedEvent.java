@@ -0,0 +1,36 @@
+package ca.bcit.comp2522.termProject.NumberGame;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one click on the Number Game grid.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@Name("ca.bcit.comp2522.termProject.NumberPlaced")
+@Label("Number Placed")
+@Category({"Games", "Number Game"})
+@Description("Validating and placing the current number, up to picking the next one")
+public final class NumberPlacedEvent extends Event
+{
+    @Label("Number")
+    int number;
+
+    @Label("Row")
+    int row;
+
+    @Label("Column")
+    int column;
+
+    @Label("Valid")
+    boolean valid;
+
+    @Label("Placements")
+    @Description("Successful placements in this game so far")
+    int placements;
+}
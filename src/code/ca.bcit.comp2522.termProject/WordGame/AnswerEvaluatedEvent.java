@@ -0,0 +1,30 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one answer, from waiting for the player's input to the verdict.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@Name("ca.bcit.comp2522.termProject.AnswerEvaluated")
+@Label("Answer Evaluated")
+@Category({"Games", "Word Game"})
+@Description("Reading one answer and checking it; the duration includes the player's think time")
+public final class AnswerEvaluatedEvent extends Event
+{
+    @Label("Expected Answer")
+    String expectedAnswer;
+
+    @Label("Correct")
+    boolean correct;
+
+    @Label("Input Ended")
+    @Description("True if the player disconnected instead of answering")
+    boolean inputEnded;
+}
@@ -0,0 +1,70 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * A quiz session that talks to a player on the console.
+ * Output is buffered and flushed only when the game waits for an answer, instead of
+ * writing every line to standard output separately.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class ConsoleSession implements QuizSession
+{
+    private final Scanner     scanner;
+    private final PrintWriter writer;
+
+    /**
+     * Constructs a ConsoleSession reading answers from standard input.
+     */
+    public ConsoleSession()
+    {
+        this.scanner = new Scanner(System.in);
+        this.writer  = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)), false);
+    }
+
+    /**
+     * Queues a line of text for standard output.
+     *
+     * @param message the text to show
+     */
+    @Override
+    public void display(final String message)
+    {
+        writer.println(message);
+    }
+
+    /**
+     * Flushes pending output and reads the next line from standard input.
+     *
+     * @return the line read, or null if standard input is closed
+     */
+    @Override
+    public String readAnswer()
+    {
+        writer.flush();
+
+        try
+        {
+            return scanner.nextLine();
+        }
+        catch(final NoSuchElementException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Writes any queued output to standard output.
+     */
+    @Override
+    public void flush()
+    {
+        writer.flush();
+    }
+}
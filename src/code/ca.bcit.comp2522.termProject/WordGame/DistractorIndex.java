@@ -0,0 +1,234 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * Precomputed wrong-answer candidates for multiple-choice questions.
+ * For every country, the index keeps a short array of plausible distractors, and likewise
+ * for capitals, so sampling a distractor is a couple of array reads instead of a scan of
+ * the World.
+ *
+ * Each array is built once per World snapshot by sorting the other countries on how
+ * easily they could be mistaken for the country: those sharing its first letter come
+ * first, then those nearest in length, and among those the ones sharing the most letters
+ * at the start and end of the text, so that "Austria" is offered with "Australia" before
+ * "Armenia".
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 3.0
+ */
+public class DistractorIndex
+{
+    private static final int  MAX_CANDIDATES   = 16;
+    private static final int  INDEX_BITS       = 24;
+    private static final int  FIELD_BITS       = 16;
+    private static final int  AFFIX_SHIFT      = INDEX_BITS;
+    private static final int  LENGTH_SHIFT     = AFFIX_SHIFT + FIELD_BITS;
+    private static final int  INITIAL_SHIFT    = LENGTH_SHIFT + FIELD_BITS;
+    private static final int  MAX_FIELD        = (1 << FIELD_BITS) - 1;
+    private static final long INDEX_MASK       = (1L << INDEX_BITS) - 1;
+    private static final int  MAX_SAMPLE_TRIES = 32;
+    private static final int  MIN_COUNTRIES    = 2;
+    private final int         numCountries;
+    private final int[][]     nameCandidates;
+    private final int[][]     capitalCandidates;
+
+    /*
+     * Constructs a DistractorIndex from prebuilt candidate arrays.
+     */
+    private DistractorIndex(final int numCountries,
+                            final int[][] nameCandidates,
+                            final int[][] capitalCandidates)
+    {
+        this.numCountries      = numCountries;
+        this.nameCandidates    = nameCandidates;
+        this.capitalCandidates = capitalCandidates;
+    }
+
+    /**
+     * Builds the distractor index for a list of countries.
+     *
+     * @param countries the countries, in the order used for country indices
+     * @return the distractor index
+     */
+    public static DistractorIndex build(final List<Country> countries)
+    {
+        return new DistractorIndex(countries.size(),
+                candidates(countries, Country::getName),
+                candidates(countries, Country::getCapitalCityName));
+    }
+
+    /**
+     * Picks distinct countries whose names could be mistaken for the specified country's name.
+     *
+     * @param country the index of the correct country
+     * @param random  the random generator to sample with
+     * @param out     receives the indices of the distractors; its length is the number wanted
+     */
+    public void sampleNameDistractors(final int country,
+                                      final RandomGenerator random,
+                                      final int[] out)
+    {
+        sample(nameCandidates[country], country, random, out);
+    }
+
+    /**
+     * Picks distinct countries whose capitals could be mistaken for the specified country's capital.
+     *
+     * @param country the index of the correct country
+     * @param random  the random generator to sample with
+     * @param out     receives the indices of the distractors; its length is the number wanted
+     */
+    public void sampleCapitalDistractors(final int country,
+                                         final RandomGenerator random,
+                                         final int[] out)
+    {
+        sample(capitalCandidates[country], country, random, out);
+    }
+
+    /*
+     * Samples distinct distractors from a country's candidates, falling back to any
+     * other country when there are too few.
+     */
+    private void sample(final int[] candidates,
+                        final int country,
+                        final RandomGenerator random,
+                        final int[] out)
+    {
+        if(numCountries < out.length + 1 || numCountries < MIN_COUNTRIES)
+        {
+            throw new IllegalArgumentException("Not enough countries for " + out.length +
+                    " distractors");
+        }
+
+        for(int i = 0; i < out.length; i++)
+        {
+            int pick;
+            int tries;
+
+            tries = 0;
+            do
+            {
+                pick = candidates.length > 0 && tries < MAX_SAMPLE_TRIES ?
+                        candidates[random.nextInt(candidates.length)] :
+                        random.nextInt(numCountries);
+                tries++;
+            }
+            while(pick == country || contains(out, i, pick));
+
+            out[i] = pick;
+        }
+    }
+
+    /*
+     * Checks if a value is among the first entries of an array.
+     */
+    private static boolean contains(final int[] values,
+                                    final int length,
+                                    final int value)
+    {
+        for(int i = 0; i < length; i++)
+        {
+            if(values[i] == value)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Builds every country's candidate array for one text field: the other countries
+     * sorted by rankKey, cut to the best few.
+     */
+    private static int[][] candidates(final List<Country> countries,
+                                      final Function<Country, String> field)
+    {
+        final int count;
+        final String[] texts;
+        final long[] ranked;
+        final int[][] candidates;
+
+        count = countries.size();
+        texts = new String[count];
+        ranked = new long[Math.max(0, count - 1)];
+        candidates = new int[count][];
+
+        for(int i = 0; i < count; i++)
+        {
+            texts[i] = field.apply(countries.get(i)).toLowerCase();
+        }
+
+        for(int country = 0; country < count; country++)
+        {
+            int size;
+            size = 0;
+
+            for(int other = 0; other < count; other++)
+            {
+                if(other != country) // Never a distractor for itself
+                {
+                    ranked[size++] = rankKey(texts[country], texts[other], other);
+                }
+            }
+            Arrays.sort(ranked, 0, size);
+
+            candidates[country] = new int[Math.min(size, MAX_CANDIDATES)];
+            for(int k = 0; k < candidates[country].length; k++)
+            {
+                candidates[country][k] = (int) (ranked[k] & INDEX_MASK);
+            }
+        }
+        return candidates;
+    }
+
+    /*
+     * Packs a candidate into a key that sorts the likeliest mistakes first: same initial,
+     * then nearest in length, then most letters shared at both ends, then index.
+     */
+    private static long rankKey(final String text,
+                                final String candidate,
+                                final int index)
+    {
+        final long otherInitial;
+        final long lengthDifference;
+        final long affixMisses;
+
+        otherInitial = text.charAt(0) == candidate.charAt(0) ? 0L : 1L;
+        lengthDifference = Math.min(Math.abs(text.length() - candidate.length()), MAX_FIELD);
+        affixMisses = MAX_FIELD - Math.min(sharedAffixes(text, candidate), MAX_FIELD);
+
+        return otherInitial << INITIAL_SHIFT | lengthDifference << LENGTH_SHIFT |
+                affixMisses << AFFIX_SHIFT | index;
+    }
+
+    /*
+     * Counts the letters two texts share at the start plus those they share at the end,
+     * never counting a letter of the shorter text twice.
+     */
+    private static int sharedAffixes(final String first,
+                                     final String second)
+    {
+        final int shorter;
+        int prefix;
+        int suffix;
+
+        shorter = Math.min(first.length(), second.length());
+        prefix = 0;
+        suffix = 0;
+
+        while(prefix < shorter && first.charAt(prefix) == second.charAt(prefix))
+        {
+            prefix++;
+        }
+        while(suffix < shorter - prefix &&
+                first.charAt(first.length() - 1 - suffix) == second.charAt(second.length() - 1 - suffix))
+        {
+            suffix++;
+        }
+        return prefix + suffix;
+    }
+}
@@ -0,0 +1,164 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import ca.bcit.comp2522.termProject.Common.GameResult;
+import ca.bcit.comp2522.termProject.Common.GameStatistics;
+import ca.bcit.comp2522.termProject.Common.HeadlessGame;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+
+/**
+ * Plays one Word Game of ten questions at a time through the HeadlessGame interface.
+ *
+ * Each step hands the answer straight to a WordGameRound on the caller's thread, so a
+ * game costs no thread of its own and never waits. The prompt is everything the game
+ * displayed since the last answer, ending with the question. The score is the game's
+ * points, and the game is won by answering every question, on the first or the second
+ * attempt.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 2.0
+ */
+public class HeadlessWordGame implements HeadlessGame
+{
+    private static final int NO_INCORRECT_ANSWERS = 0;
+
+    private final WordGameRound round;
+    private final StringBuilder prompt;
+    private int                 steps;
+
+    /**
+     * Constructs a HeadlessWordGame that records nothing, for bots.
+     *
+     * @param worldSource the countries to ask about
+     */
+    public HeadlessWordGame(final WorldSource worldSource)
+    {
+        this(worldSource, null);
+    }
+
+    /**
+     * Constructs a HeadlessWordGame that records every finished game, for real players.
+     *
+     * @param worldSource the countries to ask about
+     * @param replayLog   the log finished games are recorded to, or null
+     */
+    public HeadlessWordGame(final WorldSource worldSource,
+                            final ReplayLog replayLog)
+    {
+        this.prompt = new StringBuilder();
+        this.round  = new WordGameRound(worldSource, this::display);
+        round.setReplayLog(replayLog);
+    }
+
+    /**
+     * Gets which game this is.
+     *
+     * @return ReplayLog.WORD_GAME
+     */
+    @Override
+    public int getGameType()
+    {
+        return ReplayLog.WORD_GAME;
+    }
+
+    /**
+     * Gets the name of the game, for reports.
+     *
+     * @return the name
+     */
+    @Override
+    public String getName()
+    {
+        return "WordGame";
+    }
+
+    /**
+     * Gets the GameStatistics metric a finished game's score is recorded under.
+     *
+     * @return GameStatistics.WORD_GAME_SCORE
+     */
+    @Override
+    public String getStatistic()
+    {
+        return GameStatistics.WORD_GAME_SCORE;
+    }
+
+    /**
+     * Starts a new game and asks its first question.
+     *
+     * @param seed the seed the questions are drawn from
+     * @param now  the current time in milliseconds; the Word Game has no time limit
+     */
+    @Override
+    public void init(final long seed,
+                     final long now)
+    {
+        prompt.setLength(0);
+        steps = 0;
+        round.start(seed);
+    }
+
+    /**
+     * Gets everything the game displayed since the last answer.
+     *
+     * @return the prompt
+     */
+    @Override
+    public String prompt()
+    {
+        return prompt.toString();
+    }
+
+    /**
+     * Answers the current question, which asks the next one or ends the game.
+     *
+     * @param input the answer
+     * @param now   the current time in milliseconds
+     */
+    @Override
+    public void step(final String input,
+                     final long now)
+    {
+        if(round.isOver())
+        {
+            return;
+        }
+
+        steps++;
+        prompt.setLength(0);
+        round.answer(input == null ? "" : input);
+    }
+
+    /**
+     * Checks if the game has ended.
+     *
+     * @return true once all ten questions have been answered
+     */
+    @Override
+    public boolean isOver()
+    {
+        return round.isOver();
+    }
+
+    /**
+     * Gets the result: the game's points, once it is over, and whether every question was answered.
+     *
+     * @return the result
+     */
+    @Override
+    public GameResult result()
+    {
+        final Score score;
+        score = round.getScore();
+
+        return new GameResult(getName(), round.getGameSeed(), score == null ? 0 : score.getScore(),
+                score != null && score.getNumIncorrectTwoAttempts() == NO_INCORRECT_ANSWERS, steps);
+    }
+
+    /*
+     * Collects what the game displays until the next answer.
+     */
+    private void display(final String message)
+    {
+        prompt.append(message).append(System.lineSeparator());
+    }
+}
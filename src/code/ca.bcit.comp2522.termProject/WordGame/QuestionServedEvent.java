@@ -0,0 +1,34 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for picking and displaying one question.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@Name("ca.bcit.comp2522.termProject.QuestionServed")
+@Label("Question Served")
+@Category({"Games", "Word Game"})
+@Description("Picking a question and displaying it, including any multiple-choice options")
+public final class QuestionServedEvent extends Event
+{
+    @Label("Country")
+    String country;
+
+    @Label("Question Type")
+    @Description("0 asks by capital, 1 asks for the capital, 2 asks by fact")
+    int questionType;
+
+    @Label("Scheduled")
+    @Description("True if the question came from the player's spaced-repetition schedule")
+    boolean scheduled;
+
+    @Label("Multiple Choice")
+    boolean multipleChoice;
+}
@@ -0,0 +1,450 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import ca.bcit.comp2522.termProject.Common.GameStatistics;
+import ca.bcit.comp2522.termProject.Common.LogHistogram;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives many simulated players through the quiz server and reports how it holds up.
+ * Each player connects over TCP and plays through the same session path as play(),
+ * answering correctly with a configurable probability after a random think time.
+ * The generator records answer round-trip latency (answer sent to next server line
+ * received), sessions per second and heap growth, and writes them as a JSON report.
+ *
+ * Options are given as key=value arguments: players, games (per session),
+ * accuracy (0.0 to 1.0), think-ms (mean think time), ramp-ms (spread of session
+ * start times), host and port (an existing server; by default an in-process server
+ * is started whose score history and statistics live in a temporary directory and
+ * whose games are not recorded for replay), resources (country data directory) and
+ * report (output file).
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class QuizLoadGenerator
+{
+    private static final int    DEFAULT_PLAYERS         = 1000;
+    private static final int    DEFAULT_GAMES           = 1;
+    private static final double DEFAULT_ACCURACY        = 0.7;
+    private static final long   DEFAULT_THINK_MILLIS    = 20L;
+    private static final long   DEFAULT_RAMP_MILLIS     = 1000L;
+    private static final String DEFAULT_REPORT          = "load-report.json";
+    private static final String DEFAULT_RESOURCES       = "src/resources";
+    private static final int    IN_PROCESS_PORT         = 0;
+    private static final String QUESTION_PREFIX         = "Ques: ";
+    private static final String BY_CAPITAL_PREFIX       = "Ques: What country has the capital ";
+    private static final String BY_COUNTRY_PREFIX       = "Ques: What is the capital of ";
+    private static final String BY_FACT_PREFIX          = "Ques: Which country has fact: ";
+    private static final String QUESTION_SUFFIX         = "?";
+    private static final String RETRY_PROMPT            = "Try again:";
+    private static final String PLAY_AGAIN_PROMPT       = "Do you want to play another game?";
+    private static final String NAME_PROMPT             = "Enter your name:";
+    private static final String PLAYER_NAME_PREFIX      = "player-";
+    private static final String WRONG_ANSWER            = "I do not know";
+    private static final String YES                     = "Y";
+    private static final String NO                      = "N";
+    private static final String OPTION_SEPARATOR        = "=";
+    private static final int    OPTION_PARTS            = 2;
+    private static final long   NANOS_PER_MICRO         = 1000L;
+    private static final long   NANOS_PER_MILLI         = 1_000_000L;
+    private static final double MILLIS_PER_SECOND       = 1000.0;
+    private static final long   HEAP_SAMPLE_MILLIS      = 100L;
+    private static final double P50                     = 50.0;
+    private static final double P90                     = 90.0;
+    private static final double P99                     = 99.0;
+    private final World               world;
+    private final Map<String, String> countryByCapital;
+    private final Map<String, String> countryByFact;
+    private final LogHistogram        latencyMicros;
+    private final AtomicInteger       sessionsCompleted;
+    private final AtomicInteger       sessionsFailed;
+    private final AtomicLong          answersSent;
+    private final AtomicLong          peakHeapBytes;
+
+    /**
+     * Constructs a QuizLoadGenerator whose players know the answers from the specified World.
+     *
+     * @param world the countries the server asks about
+     */
+    public QuizLoadGenerator(final World world)
+    {
+        this.world             = world;
+        this.countryByCapital  = new HashMap<>();
+        this.countryByFact     = new HashMap<>();
+        this.latencyMicros     = new LogHistogram();
+        this.sessionsCompleted = new AtomicInteger();
+        this.sessionsFailed    = new AtomicInteger();
+        this.answersSent       = new AtomicLong();
+        this.peakHeapBytes     = new AtomicLong();
+
+        for(final Country country : world.getCountries())
+        {
+            countryByCapital.put(country.getCapitalCityName(), country.getName());
+
+            for(final String fact : country.getFacts())
+            {
+                countryByFact.put(fact, country.getName());
+            }
+        }
+    }
+
+    /**
+     * Runs the configured number of simulated players against a server and writes the report.
+     *
+     * @param host            the server address
+     * @param port            the server port
+     * @param players         the number of concurrent players
+     * @param gamesPerSession the number of games each player plays before quitting
+     * @param accuracy        the probability that an answer is correct
+     * @param thinkMillis     the mean think time before each answer
+     * @param rampMillis      the period over which player start times are spread
+     * @param report          the file the JSON report is written to
+     * @throws IOException          if the report cannot be written
+     * @throws InterruptedException if interrupted while waiting for players
+     */
+    public void run(final InetAddress host,
+                    final int port,
+                    final int players,
+                    final int gamesPerSession,
+                    final double accuracy,
+                    final long thinkMillis,
+                    final long rampMillis,
+                    final Path report) throws IOException, InterruptedException
+    {
+        final MemoryMXBean memory;
+        final long heapBefore;
+        final long start;
+        final List<Thread> threads;
+        final Thread heapSampler;
+        final long elapsedNanos;
+        final long heapAfter;
+
+        memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        heapBefore = memory.getHeapMemoryUsage().getUsed();
+        peakHeapBytes.set(heapBefore);
+
+        heapSampler = Thread.ofVirtual().start(() -> sampleHeap(memory));
+        threads = new ArrayList<>(players);
+        start = System.nanoTime();
+
+        for(int i = 0; i < players; i++)
+        {
+            final long delayMillis;
+            delayMillis = players > 1 ? rampMillis * i / (players - 1) : 0L;
+
+            threads.add(Thread.ofVirtual().start(() -> playSession(host, port, gamesPerSession,
+                    accuracy, thinkMillis, delayMillis)));
+        }
+
+        for(final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        elapsedNanos = System.nanoTime() - start;
+        heapSampler.interrupt();
+        heapSampler.join();
+        memory.gc();
+        heapAfter = memory.getHeapMemoryUsage().getUsed();
+
+        Files.writeString(report, toJson(players, gamesPerSession, accuracy, thinkMillis,
+                elapsedNanos, heapBefore, heapAfter));
+    }
+
+    /*
+     * Plays one simulated session, answering every question and quitting after the
+     * configured number of games.
+     */
+    private void playSession(final InetAddress host,
+                             final int port,
+                             final int gamesPerSession,
+                             final double accuracy,
+                             final long thinkMillis,
+                             final long delayMillis)
+    {
+        try
+        {
+            Thread.sleep(delayMillis);
+        }
+        catch(final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try(final Socket socket = new Socket(host, port))
+        {
+            final BufferedReader reader;
+            final PrintWriter writer;
+            String line;
+            String expectedRetry;
+            int gamesPlayed;
+            long sentAt;
+
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            expectedRetry = WRONG_ANSWER;
+            gamesPlayed = 0;
+            sentAt = 0L;
+
+            while((line = reader.readLine()) != null)
+            {
+                if(sentAt != 0L)
+                {
+                    latencyMicros.record((System.nanoTime() - sentAt) / NANOS_PER_MICRO);
+                    sentAt = 0L;
+                }
+
+                if(line.startsWith(QUESTION_PREFIX))
+                {
+                    final String[] answers;
+                    answers = answersFor(line);
+                    expectedRetry = answers[1];
+                    sentAt = answer(writer, answers[0], accuracy, thinkMillis);
+                }
+                else if(line.equals(RETRY_PROMPT))
+                {
+                    sentAt = answer(writer, expectedRetry, accuracy, thinkMillis);
+                }
+                else if(line.equals(NAME_PROMPT))
+                {
+                    writer.println(PLAYER_NAME_PREFIX + Thread.currentThread().threadId());
+                }
+                else if(line.startsWith(PLAY_AGAIN_PROMPT))
+                {
+                    gamesPlayed++;
+                    writer.println(gamesPlayed < gamesPerSession ? YES : NO);
+                    sentAt = System.nanoTime();
+                }
+            }
+            sessionsCompleted.incrementAndGet();
+        }
+        catch(final IOException e)
+        {
+            sessionsFailed.incrementAndGet();
+        }
+        catch(final InterruptedException e)
+        {
+            sessionsFailed.incrementAndGet();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Waits for a random think time, then sends either the correct answer or a wrong one.
+     * Returns the time the answer was sent.
+     */
+    private long answer(final PrintWriter writer,
+                        final String correctAnswer,
+                        final double accuracy,
+                        final long thinkMillis) throws InterruptedException
+    {
+        final ThreadLocalRandom random;
+        random = ThreadLocalRandom.current();
+
+        if(thinkMillis > 0L)
+        {
+            Thread.sleep(random.nextLong(2 * thinkMillis + 1));
+        }
+
+        writer.println(correctAnswer != null && random.nextDouble() < accuracy ?
+                correctAnswer : WRONG_ANSWER);
+        answersSent.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /*
+     * Works out the answer to a question and the answer the server accepts on the retry,
+     * which is always the country name.
+     */
+    private String[] answersFor(final String question)
+    {
+        final String answer;
+        final String retry;
+
+        if(question.startsWith(BY_CAPITAL_PREFIX))
+        {
+            answer = countryByCapital.get(stripQuestion(question, BY_CAPITAL_PREFIX));
+            retry = answer;
+        }
+        else if(question.startsWith(BY_COUNTRY_PREFIX))
+        {
+            final String countryName;
+            final Country country;
+
+            countryName = stripQuestion(question, BY_COUNTRY_PREFIX);
+            country = world.getCountryByName(countryName);
+            answer = country == null ? null : country.getCapitalCityName();
+            retry = countryName;
+        }
+        else
+        {
+            answer = countryByFact.get(question.substring(BY_FACT_PREFIX.length()));
+            retry = answer;
+        }
+        return new String[] {answer, retry};
+    }
+
+    /*
+     * Removes the question prefix and the trailing question mark.
+     */
+    private static String stripQuestion(final String question,
+                                        final String prefix)
+    {
+        return question.substring(prefix.length(), question.length() - QUESTION_SUFFIX.length());
+    }
+
+    /*
+     * Records the highest heap usage seen until interrupted.
+     */
+    private void sampleHeap(final MemoryMXBean memory)
+    {
+        try
+        {
+            while(!Thread.currentThread().isInterrupted())
+            {
+                peakHeapBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                TimeUnit.MILLISECONDS.sleep(HEAP_SAMPLE_MILLIS);
+            }
+        }
+        catch(final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Formats the results as a JSON document.
+     */
+    private String toJson(final int players,
+                          final int gamesPerSession,
+                          final double accuracy,
+                          final long thinkMillis,
+                          final long elapsedNanos,
+                          final long heapBefore,
+                          final long heapAfter)
+    {
+        final double elapsedSeconds;
+        elapsedSeconds = elapsedNanos / (double) NANOS_PER_MILLI / MILLIS_PER_SECOND;
+
+        return String.format("{%n" +
+                        "  \"players\": %d,%n" +
+                        "  \"gamesPerSession\": %d,%n" +
+                        "  \"accuracy\": %.3f,%n" +
+                        "  \"thinkMillis\": %d,%n" +
+                        "  \"durationMillis\": %d,%n" +
+                        "  \"sessionsCompleted\": %d,%n" +
+                        "  \"sessionsFailed\": %d,%n" +
+                        "  \"sessionsPerSecond\": %.2f,%n" +
+                        "  \"answers\": %d,%n" +
+                        "  \"latencyMicros\": {\"p50\": %d, \"p90\": %d, \"p99\": %d, " +
+                        "\"max\": %d, \"mean\": %.1f},%n" +
+                        "  \"heapBytes\": {\"before\": %d, \"after\": %d, \"peak\": %d, " +
+                        "\"growth\": %d}%n" +
+                        "}%n",
+                players, gamesPerSession, accuracy, thinkMillis,
+                elapsedNanos / NANOS_PER_MILLI,
+                sessionsCompleted.get(), sessionsFailed.get(),
+                sessionsCompleted.get() / elapsedSeconds,
+                answersSent.get(),
+                latencyMicros.getValueAtPercentile(P50),
+                latencyMicros.getValueAtPercentile(P90),
+                latencyMicros.getValueAtPercentile(P99),
+                latencyMicros.getMaxValue(),
+                latencyMicros.getMean(),
+                heapBefore, heapAfter, peakHeapBytes.get(), heapAfter - heapBefore);
+    }
+
+    /**
+     * Runs a load test. See the class description for the options.
+     *
+     * @param args key=value options
+     * @throws IOException          if the server cannot start or the report cannot be written
+     * @throws InterruptedException if interrupted while waiting for players
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException
+    {
+        final Map<String, String> options;
+        final World world;
+        final QuizLoadGenerator generator;
+        final Path report;
+        final int players;
+        final int games;
+        final double accuracy;
+        final long thinkMillis;
+        final long rampMillis;
+
+        options = new HashMap<>();
+        for(final String arg : args)
+        {
+            final String[] parts;
+            parts = arg.split(OPTION_SEPARATOR, OPTION_PARTS);
+
+            if(parts.length != OPTION_PARTS)
+            {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            options.put(parts[0], parts[1]);
+        }
+
+        world = new World(Path.of(options.getOrDefault("resources", DEFAULT_RESOURCES)));
+        generator = new QuizLoadGenerator(world);
+        report = Path.of(options.getOrDefault("report", DEFAULT_REPORT));
+        players = Integer.parseInt(options.getOrDefault("players", String.valueOf(DEFAULT_PLAYERS)));
+        games = Integer.parseInt(options.getOrDefault("games", String.valueOf(DEFAULT_GAMES)));
+        accuracy = Double.parseDouble(options.getOrDefault("accuracy",
+                String.valueOf(DEFAULT_ACCURACY)));
+        thinkMillis = Long.parseLong(options.getOrDefault("think-ms",
+                String.valueOf(DEFAULT_THINK_MILLIS)));
+        rampMillis = Long.parseLong(options.getOrDefault("ramp-ms",
+                String.valueOf(DEFAULT_RAMP_MILLIS)));
+
+        if(options.containsKey("port"))
+        {
+            generator.run(InetAddress.getByName(options.getOrDefault("host", "localhost")),
+                    Integer.parseInt(options.get("port")), players, games, accuracy,
+                    thinkMillis, rampMillis, report);
+        }
+        else
+        {
+            final Path scoreDirectory;
+            final ScoreHistory scoreHistory;
+
+            scoreDirectory = Files.createTempDirectory("quiz-load");
+            scoreHistory = new ScoreHistory(scoreDirectory.resolve("score-history"),
+                    scoreDirectory.resolve("score.txt"));
+
+            // Synthetic games must never reach the real percentiles or replay log
+            try(final QuizServer server = new QuizServer(world, scoreHistory,
+                    new GameStatistics(scoreDirectory.resolve("stats")), null, IN_PROCESS_PORT,
+                    InetAddress.getLoopbackAddress()))
+            {
+                server.start();
+                generator.run(InetAddress.getLoopbackAddress(), server.getPort(), players, games,
+                        accuracy, thinkMillis, rampMillis, report);
+            }
+        }
+
+        System.out.print(Files.readString(report));
+    }
+}
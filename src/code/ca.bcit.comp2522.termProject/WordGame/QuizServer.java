@@ -0,0 +1,376 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import ca.bcit.comp2522.termProject.Common.EventLog;
+import ca.bcit.comp2522.termProject.Common.GameStatistics;
+import ca.bcit.comp2522.termProject.Common.Metrics;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A TCP server that runs one Word Game session per connection.
+ * Every session runs on its own virtual thread, so thousands of players can wait on
+ * their answers without holding a platform thread each. All sessions share one
+ * WorldSource, and each game reads one immutable World snapshot from it; everything
+ * else, including the session scores, belongs to the WordGame instance of each connection.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class QuizServer implements AutoCloseable
+{
+    private static final String   SOURCE             = "QuizServer";
+    private static final int      DEFAULT_PORT       = 5000;
+    private static final int      CONNECTION_BACKLOG = 4096;
+    private static final int      PORT_ARG_INDEX     = 0;
+    private static final String   NAME_PROMPT        = "Enter your name:";
+    private static final Path     SCHEDULE_FILE      = Path.of("question-schedule.bin");
+    private static final long     SCHEDULE_SAVE_SECONDS = 60L;
+    private static final AtomicInteger ALL_ACTIVE_SESSIONS = new AtomicInteger();
+    private final WorldSource     worldSource;
+    private final ScoreHistory    scoreHistory;
+    private final GameStatistics  statistics;
+    private final ReplayLog       replayLog;
+    private final ServerSocket    serverSocket;
+    private final ExecutorService sessions;
+    private final AtomicInteger   activeSessions;
+    private final AtomicInteger   completedSessions;
+    private volatile boolean      running;
+    private Thread                acceptThread;
+    private SpacedRepetitionScheduler scheduler;
+    private boolean               multipleChoice;
+
+    static
+    {
+        // One gauge over every server in the JVM, so no server is held on to by the registry
+        Metrics.gauge("quizserver.active_sessions", ALL_ACTIVE_SESSIONS::get);
+    }
+
+    /**
+     * Binds a QuizServer to the specified port on the loopback interface.
+     *
+     * @param worldSource the countries shared by every session
+     * @param port        the port to listen on, or 0 to pick a free port
+     * @throws IOException if the port cannot be bound
+     */
+    public QuizServer(final WorldSource worldSource,
+                      final int port) throws IOException
+    {
+        this(worldSource, null, port, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Binds a QuizServer to the specified port and address.
+     *
+     * @param worldSource  the countries shared by every session
+     * @param scoreHistory the history session scores are appended to, or null for the default
+     * @param port         the port to listen on, or 0 to pick a free port
+     * @param address      the local address to bind to
+     * @throws IOException if the port cannot be bound
+     */
+    public QuizServer(final WorldSource worldSource,
+                      final ScoreHistory scoreHistory,
+                      final int port,
+                      final InetAddress address) throws IOException
+    {
+        this(worldSource, scoreHistory, GameStatistics.getDefault(), ReplayLog.getDefault(), port, address);
+    }
+
+    /**
+     * Binds a QuizServer whose games keep their results apart from the default ones,
+     * such as a server under synthetic load.
+     *
+     * @param worldSource  the countries shared by every session
+     * @param scoreHistory the history session scores are appended to, or null for the default
+     * @param statistics   the statistics every game's points are recorded in, or null for none
+     * @param replayLog    the log every finished game is recorded to, or null for none
+     * @param port         the port to listen on, or 0 to pick a free port
+     * @param address      the local address to bind to
+     * @throws IOException if the port cannot be bound
+     */
+    public QuizServer(final WorldSource worldSource,
+                      final ScoreHistory scoreHistory,
+                      final GameStatistics statistics,
+                      final ReplayLog replayLog,
+                      final int port,
+                      final InetAddress address) throws IOException
+    {
+        if(worldSource == null)
+        {
+            throw new IllegalArgumentException("World source must not be null");
+        }
+
+        this.worldSource       = worldSource;
+        this.scoreHistory      = scoreHistory;
+        this.statistics        = statistics;
+        this.replayLog         = replayLog;
+        this.serverSocket      = new ServerSocket(port, CONNECTION_BACKLOG, address);
+        this.sessions          = Executors.newVirtualThreadPerTaskExecutor();
+        this.activeSessions    = new AtomicInteger();
+        this.completedSessions = new AtomicInteger();
+        this.running           = false;
+    }
+
+    /**
+     * Makes every session ask for the player's name and pick questions from that player's
+     * spaced-repetition schedule. Must be called before start.
+     *
+     * @param scheduler the schedule shared by all players
+     */
+    public void setQuestionScheduler(final SpacedRepetitionScheduler scheduler)
+    {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Makes every session ask multiple-choice questions instead of expecting typed answers.
+     * Must be called before start.
+     *
+     * @param multipleChoice true to offer options with every question
+     */
+    public void setMultipleChoice(final boolean multipleChoice)
+    {
+        this.multipleChoice = multipleChoice;
+    }
+
+    /**
+     * Starts accepting connections on a background virtual thread.
+     */
+    public void start()
+    {
+        running = true;
+        acceptThread = Thread.ofVirtual().name("quiz-server-accept").start(this::acceptConnections);
+    }
+
+    /**
+     * Waits until the server stops accepting connections.
+     *
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public void awaitTermination() throws InterruptedException
+    {
+        if(acceptThread != null)
+        {
+            acceptThread.join();
+        }
+    }
+
+    /**
+     * Retrieves the port the server is listening on.
+     *
+     * @return the bound port
+     */
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Retrieves the number of sessions currently being played.
+     *
+     * @return the active session count
+     */
+    public int getActiveSessions()
+    {
+        return activeSessions.get();
+    }
+
+    /**
+     * Retrieves the number of sessions that have finished.
+     *
+     * @return the completed session count
+     */
+    public int getCompletedSessions()
+    {
+        return completedSessions.get();
+    }
+
+    /**
+     * Stops accepting connections and interrupts the sessions still running.
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        running = false;
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+
+    /*
+     * Accepts connections until the server is closed, handing each one to a new virtual thread.
+     */
+    private void acceptConnections()
+    {
+        while(running)
+        {
+            try
+            {
+                final Socket socket;
+                socket = serverSocket.accept();
+                sessions.execute(() -> runSession(socket));
+            }
+            catch(final SocketException e)
+            {
+                if(running)
+                {
+                    EventLog.error(SOURCE, "server.accept_failed", serverSocket.getLocalPort(), e.getMessage());
+                }
+            }
+            catch(final IOException e)
+            {
+                EventLog.error(SOURCE, "server.accept_failed", serverSocket.getLocalPort(), e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Plays one Word Game session over a connection, closing it when the session ends.
+     */
+    private void runSession(final Socket socket)
+    {
+        activeSessions.incrementAndGet();
+        ALL_ACTIVE_SESSIONS.incrementAndGet();
+
+        try(final SocketSession session = new SocketSession(socket))
+        {
+            final WordGame game;
+            game = scoreHistory == null ? new WordGame(worldSource, session) :
+                    new WordGame(worldSource, session, scoreHistory);
+            game.setStatistics(statistics);
+            game.setReplayLog(replayLog);
+            game.setMultipleChoice(multipleChoice);
+
+            if(scheduler != null)
+            {
+                final String playerName;
+
+                session.display(NAME_PROMPT);
+                playerName = session.readAnswer();
+
+                if(playerName == null || playerName.isBlank())
+                {
+                    return; // Disconnected before starting
+                }
+                game.setQuestionScheduler(scheduler, playerName.trim());
+            }
+            game.play();
+        }
+        catch(final IOException e)
+        {
+            EventLog.error(SOURCE, "server.session_failed", socket.getRemoteSocketAddress(), e.getMessage());
+        }
+        finally
+        {
+            activeSessions.decrementAndGet();
+            ALL_ACTIVE_SESSIONS.decrementAndGet();
+            completedSessions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Starts a QuizServer on the loopback interface that reloads country files as they change
+     * and keeps a spaced-repetition schedule per player. The schedule takes in the countries
+     * every reload adds, is saved every minute, and is saved once more when the JVM shuts down.
+     *
+     * @param args an optional port number, 5000 by default
+     * @throws IOException          if the port cannot be bound
+     * @throws InterruptedException if the main thread is interrupted while serving
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException
+    {
+        final int port;
+        final WorldReloader worldReloader;
+        final QuizServer server;
+
+        port = args.length > PORT_ARG_INDEX ? Integer.parseInt(args[PORT_ARG_INDEX]) : DEFAULT_PORT;
+        worldReloader = new WorldReloader(new World());
+        worldReloader.start();
+        server = new QuizServer(worldReloader, port);
+        server.setQuestionScheduler(loadSchedule(worldReloader));
+        server.start();
+
+        System.out.println("Word Game server listening on port " + server.getPort());
+        server.awaitTermination();
+    }
+
+    /*
+     * Loads the saved schedule, or starts a new one. The schedule is extended with the
+     * countries each reload adds, saved periodically on a daemon thread so a crash loses
+     * at most a minute of answers, and saved a last time at shutdown.
+     */
+    private static SpacedRepetitionScheduler loadSchedule(final WorldReloader worldReloader)
+            throws IOException
+    {
+        final List<String> countryNames;
+        final SpacedRepetitionScheduler scheduler;
+        final ScheduledExecutorService saver;
+
+        countryNames = countryNamesOf(worldReloader.current());
+        scheduler = Files.exists(SCHEDULE_FILE) ?
+                SpacedRepetitionScheduler.load(SCHEDULE_FILE, countryNames) :
+                new SpacedRepetitionScheduler(countryNames, WordGame.getNumQuestionTypes());
+
+        worldReloader.addListener(world -> scheduler.addCountries(countryNamesOf(world)));
+
+        saver = Executors.newSingleThreadScheduledExecutor(task ->
+        {
+            final Thread thread;
+            thread = new Thread(task, "schedule-saver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        saver.scheduleWithFixedDelay(() -> saveSchedule(scheduler), SCHEDULE_SAVE_SECONDS,
+                SCHEDULE_SAVE_SECONDS, TimeUnit.SECONDS);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            saver.shutdown();
+            saveSchedule(scheduler);
+        }, "schedule-flush"));
+        return scheduler;
+    }
+
+    /*
+     * Saves the schedule, which writes a temporary file and moves it into place, logging
+     * a failure so the next save can try again.
+     */
+    private static void saveSchedule(final SpacedRepetitionScheduler scheduler)
+    {
+        try
+        {
+            scheduler.save(SCHEDULE_FILE);
+        }
+        catch(final IOException e)
+        {
+            EventLog.error(SOURCE, "server.schedule_save_failed", SCHEDULE_FILE, e.getMessage());
+        }
+    }
+
+    /*
+     * Lists the names of a snapshot's countries, the catalog of the schedule.
+     */
+    private static List<String> countryNamesOf(final World world)
+    {
+        final List<String> countryNames;
+        countryNames = new ArrayList<>();
+
+        for(final Country country : world.getCountries())
+        {
+            countryNames.add(country.getName());
+        }
+        return countryNames;
+    }
+}
@@ -0,0 +1,33 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+/**
+ * Represents the question and answer channel between a Word Game and one player.
+ * Implementations decide where questions are shown and where answers come from,
+ * so the same game logic can serve a console player or a network client.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public interface QuizSession
+{
+    /**
+     * Shows a line of text to the player.
+     *
+     * @param message the text to show
+     */
+    void display(final String message);
+
+    /**
+     * Waits for the player's next answer.
+     *
+     * @return the answer, or null if the player has no more input
+     */
+    String readAnswer();
+
+    /**
+     * Sends any output still buffered by the session.
+     */
+    default void flush()
+    {
+    }
+}
@@ -1,5 +1,8 @@
 package ca.bcit.comp2522.termProject.WordGame;
 
+import ca.bcit.comp2522.termProject.Common.EventLog;
+import ca.bcit.comp2522.termProject.Common.Metrics;
+import ca.bcit.comp2522.termProject.Common.Timer;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -19,6 +22,10 @@ import java.util.List;
  */
 public class Score
 {
+    private static final String             SOURCE                           = "Score";
+    private static final Timer              APPEND_TIMER                     = Metrics.timer("score.append");
+    private static final Timer              READ_TIMER                       = Metrics.timer("score.read");
+    private static final int                SINGLE_SCORE                     = 1;
     private static final int                FIRST_ATTEMPT_POINTS             = 2;
     private static final double             DEFAULT_AVERAGE_SCORE            = 0.0;
     private static final int                DEFAULT_ZERO_COUNT               = 0;
@@ -28,6 +35,7 @@ public class Score
     private static final int                INDEX_NUM_CORRECT_FIRST_ATTEMPT  = 2;
     private static final int                INDEX_NUM_CORRECT_SECOND_ATTEMPT = 3;
     private static final int                INDEX_NUM_INCORRECT_TWO_ATTEMPTS = 4;
+    private static final String             COMMENT_PREFIX                   = "#";
     private final LocalDateTime             dateTimePlayed;
     private final int                       numGamesPlayed;
     private final int                       numCorrectFirstAttempt;
@@ -78,6 +86,56 @@ public class Score
         );
     }
 
+    /**
+     * Retrieves the date and time the session was played.
+     *
+     * @return the date and time played
+     */
+    public LocalDateTime getDateTimePlayed()
+    {
+        return dateTimePlayed;
+    }
+
+    /**
+     * Retrieves the number of games played in the session.
+     *
+     * @return the number of games played
+     */
+    public int getNumGamesPlayed()
+    {
+        return numGamesPlayed;
+    }
+
+    /**
+     * Retrieves the number of questions answered correctly on the first attempt.
+     *
+     * @return the number of correct first attempts
+     */
+    public int getNumCorrectFirstAttempt()
+    {
+        return numCorrectFirstAttempt;
+    }
+
+    /**
+     * Retrieves the number of questions answered correctly on the second attempt.
+     *
+     * @return the number of correct second attempts
+     */
+    public int getNumCorrectSecondAttempt()
+    {
+        return numCorrectSecondAttempt;
+    }
+
+    /**
+     * Retrieves the number of questions answered incorrectly after two attempts.
+     *
+     * @return the number of incorrect answers
+     */
+    public int getNumIncorrectTwoAttempts()
+    {
+        return numIncorrectTwoAttempts;
+    }
+
     /**
      * Calculates the total points based on the number of correct answers.
      *
@@ -98,6 +156,9 @@ public class Score
                                          final String filePath)
     {
         final Path path = Path.of(filePath);
+        final long start = APPEND_TIMER.start();
+        final ScoreFileEvent event = new ScoreFileEvent();
+        event.begin();
 
         try
         {
@@ -105,15 +166,22 @@ public class Score
             formattedScore = score.toString() + System.lineSeparator();
             Files.writeString(path, formattedScore, StandardOpenOption.CREATE,
                     StandardOpenOption.APPEND);
+            event.succeeded = true;
         }
         catch(final IOException e)
         {
-            System.err.println("Error writing to score file: " + e.getMessage());
+            EventLog.error(SOURCE, "score.write_failed", filePath, e.getMessage());
+        }
+        finally
+        {
+            APPEND_TIMER.stop(start);
+            commitFileEvent(event, filePath, "append", SINGLE_SCORE);
         }
     }
 
     /**
-     * Reads all scores from the specified file.
+     * Reads all scores from the specified file. Lines starting with '#' are comments
+     * and are skipped.
      *
      * @param filePath the file path to read scores from
      * @return a list of scores
@@ -127,6 +195,9 @@ public class Score
 
         scores = new ArrayList<>();
         path = Path.of(filePath);
+        final long start = READ_TIMER.start();
+        final ScoreFileEvent event = new ScoreFileEvent();
+        event.begin();
 
         try
         {
@@ -135,6 +206,11 @@ public class Score
 
             for(final String line : lines)
             {
+                if(line.startsWith(COMMENT_PREFIX))
+                {
+                    continue;
+                }
+
                 if(line.trim().isEmpty())
                 {
                     if(!block.isEmpty())
@@ -151,14 +227,38 @@ public class Score
             if (!block.isEmpty()) {
                 scores.add(parseScore(block));
             }
+            event.succeeded = true;
         }
         catch(final IOException e)
         {
-            System.err.println("Error reading from score file: " + e.getMessage());
+            EventLog.error(SOURCE, "score.read_failed", filePath, e.getMessage());
+        }
+        finally
+        {
+            READ_TIMER.stop(start);
+            commitFileEvent(event, filePath, "read", scores.size());
         }
         return scores;
     }
 
+    /*
+     * Fills in and commits a score file event, but only if it is being recorded.
+     */
+    private static void commitFileEvent(final ScoreFileEvent event,
+                                        final String filePath,
+                                        final String operation,
+                                        final int scores)
+    {
+        event.end();
+        if(event.shouldCommit())
+        {
+            event.file      = filePath;
+            event.operation = operation;
+            event.scores    = scores;
+            event.commit();
+        }
+    }
+
     /*
      * Parses a formatted score block into a Score object.
      */
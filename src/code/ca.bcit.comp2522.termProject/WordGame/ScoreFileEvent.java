@@ -0,0 +1,34 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for appending a score to, or reading scores from, a score file.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@Name("ca.bcit.comp2522.termProject.ScoreFile")
+@Label("Score File")
+@Category({"Games", "Word Game"})
+@Description("Appending a score to a score file, or reading every score from it")
+public final class ScoreFileEvent extends Event
+{
+    @Label("File")
+    String file;
+
+    @Label("Operation")
+    @Description("\"append\" or \"read\"")
+    String operation;
+
+    @Label("Scores")
+    @Description("The number of scores appended or read")
+    int scores;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
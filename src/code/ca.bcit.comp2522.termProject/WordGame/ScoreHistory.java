@@ -0,0 +1,639 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import ca.bcit.comp2522.termProject.Common.EventLog;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the score history in time-partitioned segments.
+ * Each day gets its own segment file, and a small index keeps a summary of every
+ * segment so that queries over a date range read the summaries instead of parsing
+ * every Score. Day segments older than a month are compacted into one rollup
+ * segment per month. Ranges starting within the last month are therefore counted
+ * day by day, exactly; a range starting earlier counts only the rollups that fall
+ * wholly inside it, never scores from before its first date.
+ *
+ * A rollup is rewritten to a temporary file and moved into place, and it records every
+ * day merged into it in comment lines at its top. A day segment left behind by a crash
+ * after its merge is therefore recognized and deleted instead of being counted twice.
+ *
+ * One history is shared by every game on a server. It is guarded by a ReentrantLock
+ * rather than a monitor, so games on virtual threads waiting for it do not pin their
+ * carrier threads while another game's score is written.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class ScoreHistory
+{
+    private static final String  SOURCE                  = "ScoreHistory";
+    private static final String  INDEX_FILE_NAME         = "index.txt";
+    private static final String  INDEX_TEMP_FILE_NAME    = "index.tmp";
+    private static final String  SEGMENT_EXTENSION       = ".txt";
+    private static final String  SEGMENT_GLOB            = "*" + SEGMENT_EXTENSION;
+    private static final String  ROLLUP_TEMP_EXTENSION   = ".tmp";
+    private static final String  MERGED_PREFIX           = "# Merged: ";
+    private static final String  RECORD_SEPARATOR        = " ";
+    private static final int     DAYS_BEFORE_COMPACTION  = 31;
+    private static final int     NO_SCORE                = 0;
+    private static final double  DEFAULT_AVERAGE_SCORE   = 0.0;
+    private static final int     FIRST_DAY_OF_MONTH      = 1;
+    private final Path           directory;
+    private final Path           legacyFile;
+    private final Map<String, SegmentSummary> summaries;
+    private final ReentrantLock  lock;
+    private boolean              loaded;
+
+    /**
+     * Constructs a ScoreHistory stored in the specified directory.
+     * The legacy score file is imported into the segments the first time the history
+     * is opened, and is never written to; new scores go to the segments only.
+     *
+     * @param directory  the directory holding the segments and the index
+     * @param legacyFile the flat score file used before segments existed
+     */
+    public ScoreHistory(final Path directory,
+                        final Path legacyFile)
+    {
+        if(directory == null || legacyFile == null)
+        {
+            throw new IllegalArgumentException("Invalid score history location");
+        }
+
+        this.directory  = directory;
+        this.legacyFile = legacyFile;
+        this.summaries  = new TreeMap<>();
+        this.lock       = new ReentrantLock();
+        this.loaded     = false;
+    }
+
+    /**
+     * Appends a score to the segment of the day it was played, then compacts old day segments into monthly rollups. If the index cannot be loaded,
+     * the score is still stored and the index is rebuilt from the segments next time.
+     *
+     * @param score the score to append
+     */
+    public void append(final Score score)
+    {
+        lock.lock();
+        try
+        {
+            final boolean indexed;
+            indexed = ensureLoaded();
+
+            addToSegment(score);
+
+            if(indexed)
+            {
+                compact(LocalDate.now());
+                writeIndex();
+            }
+            else
+            {
+                invalidateIndex();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Calculates the mean average score per game of all sessions in segments within the
+     * range starting at the specified date.
+     * A monthly rollup that starts before the range is left out, so the range is rounded
+     * in, never out, to segment boundaries.
+     *
+     * @param from the first date of the range
+     * @return the mean average score, or 0.0 if no sessions were played
+     */
+    public double averageScoreSince(final LocalDate from)
+    {
+        int count;
+        double sumAverageScore;
+
+        count = NO_SCORE;
+        sumAverageScore = DEFAULT_AVERAGE_SCORE;
+
+        lock.lock();
+        try
+        {
+            ensureLoaded();
+
+            for(final SegmentSummary summary : summaries.values())
+            {
+                if(isWithin(summary, from))
+                {
+                    count += summary.getCount();
+                    sumAverageScore += summary.getSumAverageScore();
+                }
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if(count == NO_SCORE)
+        {
+            return DEFAULT_AVERAGE_SCORE;
+        }
+        return sumAverageScore / count;
+    }
+
+    /**
+     * Finds the best session score in segments within the range starting at the
+     * specified date, rounded in to segment boundaries as averageScoreSince is.
+     *
+     * @param from the first date of the range
+     * @return the best session score, or 0 if no sessions were played
+     */
+    public int bestScoreSince(final LocalDate from)
+    {
+        int best;
+        best = NO_SCORE;
+
+        lock.lock();
+        try
+        {
+            ensureLoaded();
+
+            for(final SegmentSummary summary : summaries.values())
+            {
+                if(isWithin(summary, from) && summary.getCount() > NO_SCORE)
+                {
+                    best = Math.max(best, summary.getMaxScore());
+                }
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        return best;
+    }
+
+    /**
+     * Finds the best session score ever recorded.
+     *
+     * @return the best session score, or 0 if no sessions were played
+     */
+    public int bestScore()
+    {
+        return bestScoreSince(LocalDate.MIN);
+    }
+
+    /**
+     * Retrieves the summaries of all segments, ordered by segment name.
+     *
+     * @return a copy of the segment summaries
+     */
+    public List<SegmentSummary> getSummaries()
+    {
+        lock.lock();
+        try
+        {
+            ensureLoaded();
+            return new ArrayList<>(summaries.values());
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads all scores stored in the specified segment.
+     *
+     * @param summary the segment to read
+     * @return the scores in the segment
+     */
+    public List<Score> readSegment(final SegmentSummary summary)
+    {
+        return Score.readScoresFromFile(segmentPath(summary.getName()).toString());
+    }
+
+    /*
+     * Loads the index, rebuilding it from the segment files or importing the legacy
+     * score file when it does not exist yet. A failed load leaves no summaries behind
+     * and is tried again next time. Returns true if the summaries are loaded.
+     */
+    private boolean ensureLoaded()
+    {
+        if(loaded)
+        {
+            return true;
+        }
+
+        try
+        {
+            Files.createDirectories(directory);
+
+            final Path indexPath;
+            indexPath = directory.resolve(INDEX_FILE_NAME);
+
+            if(Files.exists(indexPath))
+            {
+                for(final String line : Files.readAllLines(indexPath))
+                {
+                    if(!line.isBlank())
+                    {
+                        final SegmentSummary summary;
+                        summary = SegmentSummary.fromIndexLine(line.trim());
+                        summaries.put(summary.getName(), summary);
+                    }
+                }
+                loaded = true;
+                return true;
+            }
+
+            if(!rebuildFromSegments() && Files.exists(legacyFile))
+            {
+                for(final Score score : Score.readScoresFromFile(legacyFile.toString()))
+                {
+                    addToSegment(score);
+                }
+            }
+            compact(LocalDate.now());
+            writeIndex();
+            loaded = true;
+            return true;
+        }
+        catch(final IOException | IllegalArgumentException | DateTimeParseException e)
+        {
+            summaries.clear();
+            EventLog.error(SOURCE, "history.load_failed", directory, e.getMessage());
+            return false;
+        }
+    }
+
+    /*
+     * Rebuilds the summaries by parsing every segment file. A day segment its month's
+     * rollup already records was merged before a crash kept it from being deleted; it is
+     * deleted now rather than counted twice.
+     * Returns true if any segment was found.
+     */
+    private boolean rebuildFromSegments() throws IOException
+    {
+        final List<String> names;
+        final Map<String, List<String>> mergedRecords;
+        boolean found;
+
+        names = new ArrayList<>();
+        mergedRecords = new TreeMap<>();
+        found = false;
+
+        try(final DirectoryStream<Path> segments = Files.newDirectoryStream(directory, SEGMENT_GLOB))
+        {
+            for(final Path segment : segments)
+            {
+                final String name;
+                name = stripExtension(segment.getFileName().toString());
+
+                if(!name.equals(stripExtension(INDEX_FILE_NAME)))
+                {
+                    names.add(name);
+                }
+            }
+        }
+        names.sort(null); // A month's rollup sorts before its days
+
+        for(final String name : names)
+        {
+            final Path segment;
+            SegmentSummary summary;
+
+            segment = segmentPath(name);
+            summary = emptySummary(name);
+
+            if(isDaySegment(summary))
+            {
+                final List<String> records;
+                records = mergedRecords.get(YearMonth.from(summary.getStart()).toString());
+
+                if(records != null && records.contains(mergedRecord(name, Files.readAllBytes(segment))))
+                {
+                    Files.delete(segment);
+                    continue;
+                }
+            }
+            else
+            {
+                final List<String> records;
+                records = new ArrayList<>();
+
+                readRollup(segment, records, new ArrayList<>());
+                mergedRecords.put(name, records);
+            }
+
+            for(final Score score : Score.readScoresFromFile(segment.toString()))
+            {
+                summary = summary.add(score);
+            }
+            summaries.put(name, summary);
+            found = true;
+        }
+        return found;
+    }
+
+    /*
+     * Appends a score to the segment of the day it was played and updates its summary.
+     */
+    private void addToSegment(final Score score)
+    {
+        final LocalDate day;
+        final String name;
+        final SegmentSummary summary;
+
+        day = score.getDateTimePlayed().toLocalDate();
+        name = day.toString();
+        summary = summaries.getOrDefault(name, emptySummary(name));
+
+        try
+        {
+            Files.writeString(segmentPath(name), score.toString() + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            summaries.put(name, summary.add(score));
+        }
+        catch(final IOException e)
+        {
+            EventLog.error(SOURCE, "history.segment_write_failed", name, e.getMessage());
+        }
+    }
+
+    /*
+     * Compacts day segments older than the retention window into monthly rollups.
+     */
+    private void compact(final LocalDate today)
+    {
+        final LocalDate cutoff;
+        final List<SegmentSummary> candidates;
+
+        cutoff = today.minusDays(DAYS_BEFORE_COMPACTION);
+        candidates = new ArrayList<>();
+
+        for(final SegmentSummary summary : summaries.values())
+        {
+            if(isDaySegment(summary) && summary.getStart().isBefore(cutoff))
+            {
+                candidates.add(summary);
+            }
+        }
+
+        for(final SegmentSummary day : candidates)
+        {
+            final YearMonth month;
+            final String rollupName;
+            final SegmentSummary rollup;
+
+            month = YearMonth.from(day.getStart());
+            rollupName = month.toString();
+            rollup = summaries.getOrDefault(rollupName, emptySummary(rollupName));
+
+            try
+            {
+                mergeIntoRollup(day.getName(), rollupName);
+                summaries.remove(day.getName());
+                summaries.put(rollupName, rollup.merge(day, rollupName, rollup.getStart(),
+                        rollup.getEnd()));
+            }
+            catch(final IOException e)
+            {
+                EventLog.error(SOURCE, "history.compaction_failed", day.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Moves a day segment into its month's rollup. The rollup is rewritten to a temporary
+     * file, with a record of the day's content added to the comment lines at its top, and
+     * moved into place atomically before the day segment is deleted. If a crash came
+     * between the two, the rollup already records the day, so the merge is not repeated:
+     * the day segment is only deleted, or found already gone.
+     */
+    private void mergeIntoRollup(final String dayName,
+                                 final String rollupName) throws IOException
+    {
+        final Path dayPath;
+        final Path rollupPath;
+        final List<String> records;
+        final List<String> lines;
+        final byte[] content;
+        final String record;
+
+        dayPath = segmentPath(dayName);
+        rollupPath = segmentPath(rollupName);
+        records = new ArrayList<>();
+        lines = new ArrayList<>();
+
+        readRollup(rollupPath, records, lines);
+
+        if(Files.notExists(dayPath))
+        {
+            if(!recordsDay(records, dayName))
+            {
+                throw new NoSuchFileException(dayPath.toString());
+            }
+            return; // Merged and deleted before the index was written
+        }
+
+        content = Files.readAllBytes(dayPath);
+        record = mergedRecord(dayName, content);
+
+        if(!records.contains(record))
+        {
+            final Path tempPath;
+            tempPath = directory.resolve(rollupName + ROLLUP_TEMP_EXTENSION);
+
+            if(!lines.isEmpty() && !lines.get(lines.size() - 1).isBlank())
+            {
+                lines.add(""); // Keeps the last score apart from the day's first
+            }
+            records.add(record);
+            records.addAll(lines);
+
+            Files.write(tempPath, records);
+            Files.write(tempPath, content, StandardOpenOption.APPEND);
+            Files.move(tempPath, rollupPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.delete(dayPath);
+    }
+
+    /*
+     * Splits a rollup file into its merge records and its score lines. A rollup that
+     * does not exist yet has neither.
+     */
+    private static void readRollup(final Path rollupPath,
+                                   final List<String> records,
+                                   final List<String> lines) throws IOException
+    {
+        if(Files.notExists(rollupPath))
+        {
+            return;
+        }
+
+        for(final String line : Files.readAllLines(rollupPath))
+        {
+            if(line.startsWith(MERGED_PREFIX))
+            {
+                records.add(line);
+            }
+            else
+            {
+                lines.add(line);
+            }
+        }
+    }
+
+    /*
+     * Formats the record of a day segment's content merged into a rollup: the day,
+     * the content's length and its CRC-32.
+     */
+    private static String mergedRecord(final String dayName,
+                                       final byte[] content)
+    {
+        final CRC32 checksum;
+        checksum = new CRC32();
+        checksum.update(content);
+
+        return MERGED_PREFIX + dayName + RECORD_SEPARATOR + content.length + RECORD_SEPARATOR +
+                Long.toHexString(checksum.getValue());
+    }
+
+    /*
+     * Checks if any of a rollup's merge records is for the specified day.
+     */
+    private static boolean recordsDay(final List<String> records,
+                                      final String dayName)
+    {
+        for(final String record : records)
+        {
+            if(record.startsWith(MERGED_PREFIX + dayName + RECORD_SEPARATOR))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Writes the index atomically so that readers never see a partial file.
+     */
+    private void writeIndex()
+    {
+        final List<String> lines;
+        final Path tempPath;
+
+        lines = new ArrayList<>();
+        tempPath = directory.resolve(INDEX_TEMP_FILE_NAME);
+
+        for(final SegmentSummary summary : summaries.values())
+        {
+            lines.add(summary.toIndexLine());
+        }
+
+        try
+        {
+            Files.write(tempPath, lines);
+            Files.move(tempPath, directory.resolve(INDEX_FILE_NAME),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch(final IOException e)
+        {
+            EventLog.error(SOURCE, "history.index_write_failed", directory, e.getMessage());
+        }
+    }
+
+    /*
+     * Deletes the index after a score was stored while the summaries could not be loaded,
+     * so that the next load rebuilds them from the segment files, which hold that score,
+     * instead of trusting an index that does not. The summaries are left empty.
+     */
+    private void invalidateIndex()
+    {
+        summaries.clear();
+
+        try
+        {
+            Files.deleteIfExists(directory.resolve(INDEX_FILE_NAME));
+        }
+        catch(final IOException e)
+        {
+            EventLog.error(SOURCE, "history.index_write_failed", directory, e.getMessage());
+        }
+    }
+
+    /*
+     * Creates an empty summary for a month rollup ("yyyy-MM") or a day segment
+     * ("yyyy-MM-dd"). A name that is neither throws DateTimeParseException.
+     */
+    private static SegmentSummary emptySummary(final String name)
+    {
+        LocalDate start;
+        LocalDate end;
+
+        try
+        {
+            start = YearMonth.parse(name).atDay(FIRST_DAY_OF_MONTH);
+            end = start.plusMonths(1);
+        }
+        catch(final DateTimeParseException notAMonth)
+        {
+            start = LocalDate.parse(name);
+            end = start.plusDays(1);
+        }
+        return SegmentSummary.empty(name, start, end);
+    }
+
+    /*
+     * Checks if a segment is counted in the range starting at a date. Day segments are
+     * kept for a month, longer than any range the games ask about, so only a rollup can
+     * start before the range while ending inside it; such a rollup may hold scores from
+     * before the range and is left out.
+     */
+    private static boolean isWithin(final SegmentSummary summary,
+                                    final LocalDate from)
+    {
+        return summary.endsAfter(from) && (isDaySegment(summary) || !summary.getStart().isBefore(from));
+    }
+
+    /*
+     * Checks if a segment covers a single day.
+     */
+    private static boolean isDaySegment(final SegmentSummary summary)
+    {
+        return summary.getStart().plusDays(1).equals(summary.getEnd());
+    }
+
+    /*
+     * Resolves the file of the segment with the specified name.
+     */
+    private Path segmentPath(final String name)
+    {
+        return directory.resolve(name + SEGMENT_EXTENSION);
+    }
+
+    /*
+     * Removes the extension from a file name.
+     */
+    private static String stripExtension(final String fileName)
+    {
+        return fileName.substring(0, fileName.lastIndexOf('.'));
+    }
+}
@@ -0,0 +1,97 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import ca.bcit.comp2522.termProject.Common.EventLog;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A quiz session that takes its answers from a script, one answer per line, and
+ * never prompts anyone. Questions and answers are written to an optional transcript.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class ScriptedSession implements QuizSession
+{
+    private static final String SOURCE        = "ScriptedSession";
+    private static final String ANSWER_PREFIX = "> ";
+    private final BufferedReader script;
+    private final Writer         transcript;
+
+    /**
+     * Constructs a ScriptedSession reading answers from the specified script.
+     *
+     * @param script     the answers, one per line
+     * @param transcript where questions and answers are written, or null for no transcript
+     */
+    public ScriptedSession(final BufferedReader script,
+                           final Writer transcript)
+    {
+        if(script == null)
+        {
+            throw new IllegalArgumentException("Script must not be null");
+        }
+
+        this.script     = script;
+        this.transcript = transcript;
+    }
+
+    /**
+     * Writes a line to the transcript, if there is one.
+     *
+     * @param message the text to show
+     */
+    @Override
+    public void display(final String message)
+    {
+        write(message);
+    }
+
+    /**
+     * Reads the next answer from the script.
+     *
+     * @return the answer, or null at the end of the script
+     */
+    @Override
+    public String readAnswer()
+    {
+        try
+        {
+            final String answer;
+            answer = script.readLine();
+
+            if(answer != null)
+            {
+                write(ANSWER_PREFIX + answer);
+            }
+            return answer;
+        }
+        catch(final IOException e)
+        {
+            EventLog.error(SOURCE, "script.read_failed", "answer script", e.getMessage());
+            return null;
+        }
+    }
+
+    /*
+     * Writes a line to the transcript, ignoring the call when there is none.
+     */
+    private void write(final String line)
+    {
+        if(transcript == null)
+        {
+            return;
+        }
+
+        try
+        {
+            transcript.write(line);
+            transcript.write(System.lineSeparator());
+        }
+        catch(final IOException e)
+        {
+            EventLog.error(SOURCE, "script.transcript_write_failed", "transcript", e.getMessage());
+        }
+    }
+}
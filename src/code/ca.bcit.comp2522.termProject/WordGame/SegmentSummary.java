@@ -0,0 +1,288 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import java.time.LocalDate;
+
+/**
+ * Summarizes the scores stored in one segment of the score history.
+ * A segment covers a half-open date range, either a single day or a whole month
+ * once old days have been compacted into a rollup.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class SegmentSummary
+{
+    private static final String FIELD_SEPARATOR = ",";
+    private static final int    NUM_FIELDS      = 8;
+    private static final int    INDEX_NAME      = 0;
+    private static final int    INDEX_START     = 1;
+    private static final int    INDEX_END       = 2;
+    private static final int    INDEX_COUNT     = 3;
+    private static final int    INDEX_TOTAL     = 4;
+    private static final int    INDEX_MAX_SCORE = 5;
+    private static final int    INDEX_MAX_AVG   = 6;
+    private static final int    INDEX_SUM_AVG   = 7;
+    private static final int    EMPTY_COUNT     = 0;
+    private static final double DEFAULT_AVERAGE = 0.0;
+    private final String        name;
+    private final LocalDate     start;
+    private final LocalDate     end;
+    private final int           count;
+    private final long          totalScore;
+    private final int           maxScore;
+    private final double        maxAverageScore;
+    private final double        sumAverageScore;
+
+    /**
+     * Constructs a SegmentSummary with the specified statistics.
+     *
+     * @param name            the segment name, which is also its file name without extension
+     * @param start           the first date covered by the segment
+     * @param end             the first date after the segment
+     * @param count           the number of scores in the segment
+     * @param totalScore      the sum of getScore() over the segment
+     * @param maxScore        the best getScore() in the segment
+     * @param maxAverageScore the best calculateAverageScore() in the segment
+     * @param sumAverageScore the sum of calculateAverageScore() over the segment
+     */
+    public SegmentSummary(final String name,
+                          final LocalDate start,
+                          final LocalDate end,
+                          final int count,
+                          final long totalScore,
+                          final int maxScore,
+                          final double maxAverageScore,
+                          final double sumAverageScore)
+    {
+        if(name == null || name.isBlank() || start == null || end == null || !start.isBefore(end))
+        {
+            throw new IllegalArgumentException("Invalid segment range");
+        }
+
+        this.name            = name;
+        this.start           = start;
+        this.end             = end;
+        this.count           = count;
+        this.totalScore      = totalScore;
+        this.maxScore        = maxScore;
+        this.maxAverageScore = maxAverageScore;
+        this.sumAverageScore = sumAverageScore;
+    }
+
+    /**
+     * Creates an empty summary for the specified segment.
+     *
+     * @param name  the segment name
+     * @param start the first date covered by the segment
+     * @param end   the first date after the segment
+     * @return an empty summary
+     */
+    public static SegmentSummary empty(final String name,
+                                       final LocalDate start,
+                                       final LocalDate end)
+    {
+        return new SegmentSummary(name, start, end, EMPTY_COUNT, EMPTY_COUNT, EMPTY_COUNT,
+                DEFAULT_AVERAGE, DEFAULT_AVERAGE);
+    }
+
+    /**
+     * Returns a new summary with the specified score added.
+     *
+     * @param score the score to add
+     * @return the updated summary
+     */
+    public SegmentSummary add(final Score score)
+    {
+        final double average;
+        average = score.calculateAverageScore();
+
+        return new SegmentSummary(name, start, end,
+                count + 1,
+                totalScore + score.getScore(),
+                count == EMPTY_COUNT ? score.getScore() : Math.max(maxScore, score.getScore()),
+                count == EMPTY_COUNT ? average : Math.max(maxAverageScore, average),
+                sumAverageScore + average);
+    }
+
+    /**
+     * Returns a new summary that combines this summary with another one into the
+     * specified segment. Used when day segments are compacted into a month rollup.
+     *
+     * @param other     the summary to merge in
+     * @param name      the name of the combined segment
+     * @param start     the first date of the combined segment
+     * @param end       the first date after the combined segment
+     * @return the merged summary
+     */
+    public SegmentSummary merge(final SegmentSummary other,
+                                final String name,
+                                final LocalDate start,
+                                final LocalDate end)
+    {
+        if(other.count == EMPTY_COUNT)
+        {
+            return new SegmentSummary(name, start, end, count, totalScore, maxScore,
+                    maxAverageScore, sumAverageScore);
+        }
+        if(count == EMPTY_COUNT)
+        {
+            return new SegmentSummary(name, start, end, other.count, other.totalScore,
+                    other.maxScore, other.maxAverageScore, other.sumAverageScore);
+        }
+        return new SegmentSummary(name, start, end,
+                count + other.count,
+                totalScore + other.totalScore,
+                Math.max(maxScore, other.maxScore),
+                Math.max(maxAverageScore, other.maxAverageScore),
+                sumAverageScore + other.sumAverageScore);
+    }
+
+    /**
+     * Checks if any part of this segment lies on or after the specified date.
+     *
+     * @param date the date to compare against
+     * @return true if the segment ends after the date, false otherwise
+     */
+    public boolean endsAfter(final LocalDate date)
+    {
+        return end.isAfter(date);
+    }
+
+    /**
+     * Retrieves the segment name.
+     *
+     * @return the segment name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Retrieves the first date covered by the segment.
+     *
+     * @return the start date
+     */
+    public LocalDate getStart()
+    {
+        return start;
+    }
+
+    /**
+     * Retrieves the first date after the segment.
+     *
+     * @return the end date, exclusive
+     */
+    public LocalDate getEnd()
+    {
+        return end;
+    }
+
+    /**
+     * Retrieves the number of scores in the segment.
+     *
+     * @return the score count
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Retrieves the sum of all session scores in the segment.
+     *
+     * @return the total score
+     */
+    public long getTotalScore()
+    {
+        return totalScore;
+    }
+
+    /**
+     * Retrieves the best session score in the segment.
+     *
+     * @return the best score
+     */
+    public int getMaxScore()
+    {
+        return maxScore;
+    }
+
+    /**
+     * Retrieves the best average score per game in the segment.
+     *
+     * @return the best average score
+     */
+    public double getMaxAverageScore()
+    {
+        return maxAverageScore;
+    }
+
+    /**
+     * Retrieves the sum of the average scores per game in the segment.
+     *
+     * @return the sum of average scores
+     */
+    public double getSumAverageScore()
+    {
+        return sumAverageScore;
+    }
+
+    /**
+     * Calculates the mean of the average scores per game in the segment.
+     *
+     * @return the mean average score
+     */
+    public double getAverageScore()
+    {
+        if(count == EMPTY_COUNT)
+        {
+            return DEFAULT_AVERAGE;
+        }
+        return sumAverageScore / count;
+    }
+
+    /**
+     * Formats the summary as a single line of the history index.
+     *
+     * @return the index line
+     */
+    public String toIndexLine()
+    {
+        return String.join(FIELD_SEPARATOR,
+                name,
+                start.toString(),
+                end.toString(),
+                Integer.toString(count),
+                Long.toString(totalScore),
+                Integer.toString(maxScore),
+                Double.toString(maxAverageScore),
+                Double.toString(sumAverageScore));
+    }
+
+    /**
+     * Parses a single line of the history index.
+     *
+     * @param line the index line
+     * @return the parsed summary
+     */
+    public static SegmentSummary fromIndexLine(final String line)
+    {
+        final String[] fields;
+        fields = line.split(FIELD_SEPARATOR);
+
+        if(fields.length != NUM_FIELDS)
+        {
+            throw new IllegalArgumentException("Invalid index line: " + line);
+        }
+
+        return new SegmentSummary(fields[INDEX_NAME],
+                LocalDate.parse(fields[INDEX_START]),
+                LocalDate.parse(fields[INDEX_END]),
+                Integer.parseInt(fields[INDEX_COUNT]),
+                Long.parseLong(fields[INDEX_TOTAL]),
+                Integer.parseInt(fields[INDEX_MAX_SCORE]),
+                Double.parseDouble(fields[INDEX_MAX_AVG]),
+                Double.parseDouble(fields[INDEX_SUM_AVG]));
+    }
+}
@@ -0,0 +1,92 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A quiz session that talks to a player over a TCP connection, one line per message.
+ * Output is buffered and flushed only when the game waits for an answer, so a
+ * question and its preceding feedback travel in one write.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class SocketSession implements QuizSession, AutoCloseable
+{
+    private final Socket         socket;
+    private final BufferedReader reader;
+    private final PrintWriter    writer;
+
+    /**
+     * Constructs a SocketSession over a connected socket.
+     *
+     * @param socket the connected socket
+     * @throws IOException if the socket streams cannot be opened
+     */
+    public SocketSession(final Socket socket) throws IOException
+    {
+        this.socket = socket;
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                StandardCharsets.UTF_8));
+        this.writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                socket.getOutputStream(), StandardCharsets.UTF_8)), false);
+    }
+
+    /**
+     * Queues a line of text for the client.
+     *
+     * @param message the text to show
+     */
+    @Override
+    public void display(final String message)
+    {
+        writer.println(message);
+    }
+
+    /**
+     * Flushes pending output and reads the client's next line.
+     *
+     * @return the line read, or null if the client disconnected
+     */
+    @Override
+    public String readAnswer()
+    {
+        writer.flush();
+
+        try
+        {
+            return reader.readLine();
+        }
+        catch(final IOException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Sends any queued output to the client.
+     */
+    @Override
+    public void flush()
+    {
+        writer.flush();
+    }
+
+    /**
+     * Flushes pending output and closes the connection.
+     *
+     * @throws IOException if the socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        writer.flush();
+        socket.close();
+    }
+}
@@ -0,0 +1,780 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Schedules questions per player with a spaced-repetition algorithm (SM-2).
+ * Every (player, country, question type) item keeps its due time, interval, ease and
+ * repetition count in flat primitive arrays, and each player has an indexed binary
+ * min-heap over their items keyed by due time. Picking the next item reads the top
+ * of the heap in O(1); recording an answer reschedules the item in O(log n).
+ *
+ * Time is counted in questions answered by the player, so an item answered wrongly
+ * comes back a question or two later while a well-known item moves further out
+ * every time. Unseen items are introduced in a per-player shuffled order, spaced
+ * apart so that due reviews can be asked in between.
+ *
+ * Each player's slice of the arrays is guarded by that player's own ReentrantLock, so
+ * sessions of different players never wait for each other, and sessions on virtual
+ * threads never pin their carrier threads. Only registering a new player, which may
+ * grow the arrays, extending the country catalog, which lays the arrays out again, and
+ * taking the snapshot that save writes hold every player back.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.1
+ */
+public class SpacedRepetitionScheduler
+{
+    /** Quality of an answer that was correct on the first attempt. */
+    public static final int QUALITY_FIRST_ATTEMPT  = 5;
+
+    /** Quality of an answer that was correct on the second attempt. */
+    public static final int QUALITY_SECOND_ATTEMPT = 3;
+
+    /** Quality of a question that was answered incorrectly twice. */
+    public static final int QUALITY_INCORRECT      = 1;
+
+    private static final int    FORMAT_MAGIC          = 0x53524331;
+    private static final int    INITIAL_PLAYERS       = 16;
+    private static final int    GROWTH_FACTOR         = 2;
+    private static final int    NEW_ITEM_SPACING      = 2;
+    private static final int    PASSING_QUALITY       = 3;
+    private static final int    MAX_QUALITY           = 5;
+    private static final short  INITIAL_EASE_PERCENT  = 250;
+    private static final short  MIN_EASE_PERCENT      = 130;
+    private static final int    EASE_STEP_PERCENT     = 10;
+    private static final int    MISS_PENALTY_PERCENT  = 8;
+    private static final int    MISS_PENALTY_GROWTH   = 2;
+    private static final int    FIRST_REPETITION      = 1;
+    private static final int    SECOND_REPETITION     = 2;
+    private static final int    FIRST_INTERVAL        = 1;
+    private static final int    SECOND_INTERVAL       = 6;
+    private static final double PERCENT               = 100.0;
+    private static final int    NOT_REGISTERED        = -1;
+    private static final int    ROOT                  = 0;
+    private final int                   numQuestionTypes;
+    private final Map<String, Integer>  playerSlots;
+    private final List<String>          playerNames;
+    private final ReentrantReadWriteLock arrayLock;
+    private final ReentrantLock         saveLock;
+    private volatile List<String>       countryNames; // Replaced, never changed, by addCountries
+    private int                         itemsPerPlayer;
+    private ReentrantLock[]             playerLocks;
+    private long[]                      due;
+    private int[]                       interval;
+    private short[]                     easePercent;
+    private byte[]                      repetitions;
+    private int[]                       heap;
+    private int[]                       heapPosition;
+    private long[]                      playerClock;
+    private int                         playerCapacity;
+
+    /**
+     * Constructs an empty SpacedRepetitionScheduler over a country catalog, which
+     * addCountries can extend later.
+     *
+     * @param countryNames     the names of the countries that can be asked about
+     * @param numQuestionTypes the number of question types per country
+     */
+    public SpacedRepetitionScheduler(final List<String> countryNames,
+                                     final int numQuestionTypes)
+    {
+        if(countryNames == null || countryNames.isEmpty() || numQuestionTypes <= 0)
+        {
+            throw new IllegalArgumentException("Scheduler needs countries and question types");
+        }
+
+        this.countryNames     = List.copyOf(countryNames);
+        this.numQuestionTypes = numQuestionTypes;
+        this.itemsPerPlayer   = countryNames.size() * numQuestionTypes;
+        this.playerSlots      = new ConcurrentHashMap<>();
+        this.playerNames      = new ArrayList<>();
+        this.arrayLock        = new ReentrantReadWriteLock();
+        this.saveLock         = new ReentrantLock();
+        allocate(INITIAL_PLAYERS);
+    }
+
+    /**
+     * Finds the slot of a player, registering the player on first use.
+     *
+     * @param playerName the player's name
+     * @return the player's slot
+     */
+    public int playerSlot(final String playerName)
+    {
+        final Integer existing;
+        existing = playerSlots.get(playerName);
+
+        if(existing != null)
+        {
+            return existing;
+        }
+
+        arrayLock.writeLock().lock();
+        try
+        {
+            final Integer registered;
+            final int slot;
+
+            registered = playerSlots.get(playerName);
+            if(registered != null)
+            {
+                return registered; // Registered while this thread waited
+            }
+
+            slot = playerNames.size();
+            if(slot == playerCapacity)
+            {
+                allocate(playerCapacity * GROWTH_FACTOR);
+            }
+
+            playerNames.add(playerName);
+            initializePlayer(slot, playerName);
+            playerSlots.put(playerName, slot);
+            return slot;
+        }
+        finally
+        {
+            arrayLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Picks the item the player should be asked next: the one with the earliest due time.
+     *
+     * @param player the player's slot
+     * @return the item, to be decoded with countryIndexOf and questionTypeOf
+     */
+    public int nextItem(final int player)
+    {
+        lockPlayer(player);
+        try
+        {
+            return heap[player * itemsPerPlayer + ROOT];
+        }
+        finally
+        {
+            unlockPlayer(player);
+        }
+    }
+
+    /**
+     * Records how well the player answered an item and reschedules it.
+     *
+     * @param player  the player's slot
+     * @param item    the item that was asked
+     * @param quality the answer quality, from 0 (forgotten) to 5 (perfect)
+     */
+    public void recordAnswer(final int player,
+                             final int item,
+                             final int quality)
+    {
+        lockPlayer(player);
+        try
+        {
+            if(item < 0 || item >= itemsPerPlayer || quality < 0 || quality > MAX_QUALITY)
+            {
+                throw new IllegalArgumentException("Invalid item or quality");
+            }
+            reschedule(player, item, quality);
+        }
+        finally
+        {
+            unlockPlayer(player);
+        }
+    }
+
+    /**
+     * Moves an item that cannot be asked right now, such as one whose country is missing
+     * from a reloaded World, back by as many questions as the player has items, without
+     * counting it as answered; an item postponed again moves further back each time.
+     * Without this the item would stay at the top of the heap and be picked for every
+     * question from then on.
+     *
+     * @param player the player's slot
+     * @param item   the item that could not be asked
+     */
+    public void postponeItem(final int player,
+                             final int item)
+    {
+        lockPlayer(player);
+        try
+        {
+            final int index;
+
+            if(item < 0 || item >= itemsPerPlayer)
+            {
+                throw new IllegalArgumentException("Invalid item");
+            }
+            index = player * itemsPerPlayer + item;
+
+            // Further back every time
+            due[index] = Math.max(due[index], playerClock[player]) + itemsPerPlayer;
+            siftDown(player, heapPosition[index]);
+        }
+        finally
+        {
+            unlockPlayer(player);
+        }
+    }
+
+    /**
+     * Finds the country index of an item.
+     *
+     * @param item the item
+     * @return the index into the country catalog
+     */
+    public int countryIndexOf(final int item)
+    {
+        return item / numQuestionTypes;
+    }
+
+    /**
+     * Finds the question type of an item.
+     *
+     * @param item the item
+     * @return the question type
+     */
+    public int questionTypeOf(final int item)
+    {
+        return item % numQuestionTypes;
+    }
+
+    /**
+     * Retrieves the name of a country in the catalog.
+     *
+     * @param countryIndex the index into the country catalog
+     * @return the country name
+     */
+    public String countryName(final int countryIndex)
+    {
+        return countryNames.get(countryIndex);
+    }
+
+    /**
+     * Extends the country catalog with the countries it does not have yet, such as those
+     * a reload of the country files added. Every player's items for a new country start
+     * unseen and fall due one after another from the player's current question on, behind
+     * any items already overdue and spaced apart like the items of a new player. Countries
+     * already in the catalog keep their items, including those no longer in the World.
+     *
+     * @param names the names of the countries that can be asked about now
+     * @return the number of countries added to the catalog
+     */
+    public int addCountries(final List<String> names)
+    {
+        arrayLock.writeLock().lock();
+        try
+        {
+            final Set<String> known;
+            final List<String> extended;
+            final int added;
+
+            known = new HashSet<>(countryNames);
+            extended = new ArrayList<>(countryNames);
+            for(final String name : names)
+            {
+                if(known.add(name))
+                {
+                    extended.add(name);
+                }
+            }
+
+            added = extended.size() - countryNames.size();
+            if(added > 0)
+            {
+                relayout(extended);
+            }
+            return added;
+        }
+        finally
+        {
+            arrayLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the whole schedule in a compact binary form, atomically replacing the file.
+     * The schedule is copied while every player is held back, and the copy is written
+     * afterwards, so no player waits on the file system.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(final Path file) throws IOException
+    {
+        final Path tempFile;
+        final int players;
+        final int used;
+        final List<String> catalog;
+        final List<String> names;
+        final long[] clocks;
+        final long[] dues;
+        final int[] intervals;
+        final short[] eases;
+        final byte[] repetitionCounts;
+
+        tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        saveLock.lock(); // One save at a time writes the temporary file
+        try
+        {
+            arrayLock.writeLock().lock();
+            try
+            {
+                players = playerNames.size();
+                used = players * itemsPerPlayer;
+
+                catalog = countryNames;
+                names = List.copyOf(playerNames);
+                clocks = Arrays.copyOf(playerClock, players);
+                dues = Arrays.copyOf(due, used);
+                intervals = Arrays.copyOf(interval, used);
+                eases = Arrays.copyOf(easePercent, used);
+                repetitionCounts = Arrays.copyOf(repetitions, used);
+            }
+            finally
+            {
+                arrayLock.writeLock().unlock();
+            }
+
+            try(final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tempFile))))
+            {
+                out.writeInt(FORMAT_MAGIC);
+                out.writeInt(numQuestionTypes);
+                out.writeInt(catalog.size());
+                for(final String name : catalog)
+                {
+                    out.writeUTF(name);
+                }
+
+                out.writeInt(players);
+                for(int player = 0; player < players; player++)
+                {
+                    out.writeUTF(names.get(player));
+                    out.writeLong(clocks[player]);
+                }
+
+                for(int i = 0; i < used; i++)
+                {
+                    out.writeLong(dues[i]);
+                    out.writeInt(intervals[i]);
+                    out.writeShort(eases[i]);
+                    out.writeByte(repetitionCounts[i]);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            saveLock.unlock();
+        }
+    }
+
+    /**
+     * Reads a schedule written by save. If the country catalog has changed since, items
+     * are matched by country name and countries new to the catalog start unseen.
+     *
+     * @param file         the file to read
+     * @param countryNames the current country catalog
+     * @return the loaded scheduler
+     * @throws IOException if the file cannot be read or is not a schedule
+     */
+    public static SpacedRepetitionScheduler load(final Path file,
+                                                 final List<String> countryNames) throws IOException
+    {
+        try(final DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(file))))
+        {
+            final int types;
+            final int storedCountries;
+            final List<String> storedNames;
+            final int[] remap;
+            final int players;
+            final SpacedRepetitionScheduler scheduler;
+
+            if(in.readInt() != FORMAT_MAGIC)
+            {
+                throw new IOException("Not a question schedule: " + file);
+            }
+
+            types = in.readInt();
+            storedCountries = in.readInt();
+            storedNames = new ArrayList<>(storedCountries);
+            for(int i = 0; i < storedCountries; i++)
+            {
+                storedNames.add(in.readUTF());
+            }
+
+            scheduler = new SpacedRepetitionScheduler(countryNames, types);
+            remap = new int[storedCountries];
+            for(int i = 0; i < storedCountries; i++)
+            {
+                remap[i] = scheduler.countryNames.indexOf(storedNames.get(i));
+            }
+
+            players = in.readInt();
+            for(int player = 0; player < players; player++)
+            {
+                final int slot;
+                slot = scheduler.playerSlot(in.readUTF());
+                scheduler.playerClock[slot] = in.readLong();
+            }
+
+            for(int player = 0; player < players; player++)
+            {
+                for(int country = 0; country < storedCountries; country++)
+                {
+                    for(int type = 0; type < types; type++)
+                    {
+                        final long itemDue;
+                        final int itemInterval;
+                        final short itemEase;
+                        final byte itemRepetitions;
+
+                        itemDue = in.readLong();
+                        itemInterval = in.readInt();
+                        itemEase = in.readShort();
+                        itemRepetitions = in.readByte();
+
+                        if(remap[country] != NOT_REGISTERED)
+                        {
+                            final int index;
+                            index = player * scheduler.itemsPerPlayer +
+                                    remap[country] * types + type;
+                            scheduler.due[index] = itemDue;
+                            scheduler.interval[index] = itemInterval;
+                            scheduler.easePercent[index] = itemEase;
+                            scheduler.repetitions[index] = itemRepetitions;
+                        }
+                    }
+                }
+                scheduler.heapify(player);
+            }
+            return scheduler;
+        }
+    }
+
+    /*
+     * Applies SM-2 to one answered item and moves it to its new place in the player's heap.
+     */
+    private void reschedule(final int player,
+                            final int item,
+                            final int quality)
+    {
+        final int index;
+        final int missed;
+        final int newEase;
+        final int newInterval;
+
+        index = player * itemsPerPlayer + item;
+        missed = MAX_QUALITY - quality;
+        newEase = easePercent[index] + EASE_STEP_PERCENT -
+                missed * (MISS_PENALTY_PERCENT + missed * MISS_PENALTY_GROWTH); // SM-2, in percent
+        easePercent[index] = (short) Math.max(MIN_EASE_PERCENT, newEase);
+
+        if(quality < PASSING_QUALITY)
+        {
+            repetitions[index] = 0;
+            newInterval = FIRST_INTERVAL;
+        }
+        else
+        {
+            repetitions[index] = (byte) Math.min(Byte.MAX_VALUE, repetitions[index] + 1);
+
+            if(repetitions[index] == FIRST_REPETITION)
+            {
+                newInterval = FIRST_INTERVAL;
+            }
+            else if(repetitions[index] == SECOND_REPETITION)
+            {
+                newInterval = SECOND_INTERVAL;
+            }
+            else
+            {
+                newInterval = (int) Math.min(Integer.MAX_VALUE,
+                        Math.round(interval[index] * (easePercent[index] / PERCENT)));
+            }
+        }
+
+        interval[index] = newInterval;
+        playerClock[player]++;
+        due[index] = playerClock[player] + newInterval;
+        siftDown(player, heapPosition[index]);
+        siftUp(player, heapPosition[index]);
+    }
+
+    /*
+     * Takes a player's lock. The array lock is held for reading first, so the arrays
+     * cannot be grown while any player is using them.
+     */
+    private void lockPlayer(final int player)
+    {
+        arrayLock.readLock().lock();
+        playerLocks[player].lock();
+    }
+
+    /*
+     * Releases the locks taken by lockPlayer.
+     */
+    private void unlockPlayer(final int player)
+    {
+        playerLocks[player].unlock();
+        arrayLock.readLock().unlock();
+    }
+
+    /*
+     * Grows every per-item array to hold the specified number of players.
+     */
+    private void allocate(final int players)
+    {
+        final int size;
+        size = Math.multiplyExact(players, itemsPerPlayer);
+
+        due            = due == null ? new long[size] : Arrays.copyOf(due, size);
+        interval       = interval == null ? new int[size] : Arrays.copyOf(interval, size);
+        easePercent    = easePercent == null ? new short[size] : Arrays.copyOf(easePercent, size);
+        repetitions    = repetitions == null ? new byte[size] : Arrays.copyOf(repetitions, size);
+        heap           = heap == null ? new int[size] : Arrays.copyOf(heap, size);
+        heapPosition   = heapPosition == null ? new int[size] : Arrays.copyOf(heapPosition, size);
+        playerClock    = playerClock == null ? new long[players] : Arrays.copyOf(playerClock, players);
+        playerLocks    = playerLocks == null ? new ReentrantLock[players] :
+                                                Arrays.copyOf(playerLocks, players);
+        playerCapacity = players;
+
+        for(int player = 0; player < players; player++)
+        {
+            if(playerLocks[player] == null)
+            {
+                playerLocks[player] = new ReentrantLock();
+            }
+        }
+    }
+
+    /*
+     * Lays every per-item array out again for a longer catalog, the caller holding the
+     * array lock for writing. The items of the countries already in the catalog keep
+     * their schedules; the new ones are due one after another from each player's clock.
+     */
+    private void relayout(final List<String> extended)
+    {
+        final int oldItems;
+        final int newItems;
+        final int size;
+        final long[] oldDue;
+        final int[] oldInterval;
+        final short[] oldEase;
+        final byte[] oldRepetitions;
+
+        oldItems = itemsPerPlayer;
+        newItems = Math.multiplyExact(extended.size(), numQuestionTypes);
+        size = Math.multiplyExact(playerCapacity, newItems);
+        oldDue = due;
+        oldInterval = interval;
+        oldEase = easePercent;
+        oldRepetitions = repetitions;
+
+        due            = new long[size];
+        interval       = new int[size];
+        easePercent    = new short[size];
+        repetitions    = new byte[size];
+        heap           = new int[size];
+        heapPosition   = new int[size];
+        itemsPerPlayer = newItems;
+        countryNames   = List.copyOf(extended);
+
+        for(int player = 0; player < playerNames.size(); player++)
+        {
+            final int oldBase;
+            final int newBase;
+
+            oldBase = player * oldItems;
+            newBase = player * newItems;
+            System.arraycopy(oldDue, oldBase, due, newBase, oldItems);
+            System.arraycopy(oldInterval, oldBase, interval, newBase, oldItems);
+            System.arraycopy(oldEase, oldBase, easePercent, newBase, oldItems);
+            System.arraycopy(oldRepetitions, oldBase, repetitions, newBase, oldItems);
+
+            for(int item = oldItems; item < newItems; item++)
+            {
+                due[newBase + item] = playerClock[player] + (long) (item - oldItems) * NEW_ITEM_SPACING;
+                easePercent[newBase + item] = INITIAL_EASE_PERCENT;
+            }
+            heapify(player);
+        }
+    }
+
+    /*
+     * Gives a new player every item unseen, due in a shuffled order seeded by the player's name.
+     */
+    private void initializePlayer(final int player,
+                                  final String playerName)
+    {
+        final int base;
+        final int[] order;
+        final Random random;
+
+        base = player * itemsPerPlayer;
+        order = new int[itemsPerPlayer];
+        random = new Random(playerName.hashCode());
+
+        for(int i = 0; i < itemsPerPlayer; i++)
+        {
+            order[i] = i;
+        }
+        for(int i = itemsPerPlayer - 1; i > 0; i--)
+        {
+            final int j;
+            final int swap;
+
+            j = random.nextInt(i + 1);
+            swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+
+        for(int rank = 0; rank < itemsPerPlayer; rank++)
+        {
+            final int index;
+            index = base + order[rank];
+
+            due[index] = (long) rank * NEW_ITEM_SPACING;
+            interval[index] = 0;
+            easePercent[index] = INITIAL_EASE_PERCENT;
+            repetitions[index] = 0;
+        }
+        playerClock[player] = 0L;
+        heapify(player);
+    }
+
+    /*
+     * Rebuilds a player's heap from the due times in O(n).
+     */
+    private void heapify(final int player)
+    {
+        final int base;
+        base = player * itemsPerPlayer;
+
+        for(int i = 0; i < itemsPerPlayer; i++)
+        {
+            heap[base + i] = i;
+            heapPosition[base + i] = i;
+        }
+        for(int i = itemsPerPlayer / 2 - 1; i >= 0; i--)
+        {
+            siftDown(player, i);
+        }
+    }
+
+    /*
+     * Moves the heap entry at a position towards the root while it is due earlier than its parent.
+     */
+    private void siftUp(final int player,
+                        final int position)
+    {
+        final int base;
+        int current;
+
+        base = player * itemsPerPlayer;
+        current = position;
+
+        while(current > ROOT)
+        {
+            final int parent;
+            parent = (current - 1) / 2;
+
+            if(dueAt(base, current) >= dueAt(base, parent))
+            {
+                return;
+            }
+            swap(base, current, parent);
+            current = parent;
+        }
+    }
+
+    /*
+     * Moves the heap entry at a position towards the leaves while a child is due earlier.
+     */
+    private void siftDown(final int player,
+                          final int position)
+    {
+        final int base;
+        int current;
+
+        base = player * itemsPerPlayer;
+        current = position;
+
+        while(true)
+        {
+            final int left;
+            final int right;
+            int smallest;
+
+            left = 2 * current + 1;
+            right = left + 1;
+            smallest = current;
+
+            if(left < itemsPerPlayer && dueAt(base, left) < dueAt(base, smallest))
+            {
+                smallest = left;
+            }
+            if(right < itemsPerPlayer && dueAt(base, right) < dueAt(base, smallest))
+            {
+                smallest = right;
+            }
+            if(smallest == current)
+            {
+                return;
+            }
+            swap(base, current, smallest);
+            current = smallest;
+        }
+    }
+
+    /*
+     * Reads the due time of the item at a heap position.
+     */
+    private long dueAt(final int base,
+                       final int position)
+    {
+        return due[base + heap[base + position]];
+    }
+
+    /*
+     * Swaps two heap positions and keeps the position index in step.
+     */
+    private void swap(final int base,
+                      final int first,
+                      final int second)
+    {
+        final int firstItem;
+        final int secondItem;
+
+        firstItem = heap[base + first];
+        secondItem = heap[base + second];
+
+        heap[base + first] = secondItem;
+        heap[base + second] = firstItem;
+        heapPosition[base + secondItem] = first;
+        heapPosition[base + firstItem] = second;
+    }
+}
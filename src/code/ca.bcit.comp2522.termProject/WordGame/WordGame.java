@@ -1,31 +1,39 @@
 package ca.bcit.comp2522.termProject.WordGame;
 
+import ca.bcit.comp2522.termProject.Common.GameStatistics;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+import ca.bcit.comp2522.termProject.Common.Seeds;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-import java.util.Scanner;
 
 /**
  * Implements the Word Game logic.
  * Groups scores for all games played in a single session and displays the highest score ever recorded.
+ * Each game is a WordGameRound, driven with the answers read from the session; the round
+ * asks the questions and records finished games to the replay log.
  *
  * @author Pranjal Sharma [A01396406]
- * @version 2.0
+ * @version 4.0
  */
 public class WordGame
 {
     // Constants for game configuration
-    private static final int NUM_QUESTIONS       = 10;
-    private static final int NUM_QUESTION_TYPES  = 3;
-    private static final int QUESTION_BY_CAPITAL = 0;
-    private static final int QUESTION_BY_COUNTRY = 1;
-    private static final int QUESTION_BY_FACT    = 2;
+    private static final int RECENT_DAYS     = 30;
+    private static final int NO_GAMES_PLAYED = 0;
+
+    // Default score history shared by every game in this JVM
+    private static final ScoreHistory DEFAULT_SCORE_HISTORY = new ScoreHistory(
+            Path.of("score-history"), Path.of("score.txt"));
 
     // Game state
-    private final World world;
-    private final Random random;
-    private List<Country> countries;
+    private final QuizSession session;
+    private final ScoreHistory scoreHistory;
+    private final WordGameRound round;
+    private final long seed;
+    private long gamesStarted;
+    private boolean inputEnded;
+    private GameStatistics statistics;
 
     // Session-level accumulators
     private int sessionGamesPlayed;
@@ -34,134 +42,231 @@ public class WordGame
     private int sessionIncorrectAnswers;
 
     /**
-     * Initializes a new instance of the WordGame.
+     * Initializes a new instance of the WordGame for a console player.
      */
     public WordGame()
     {
-        this.world                       = new World();
-        this.random                      = new Random();
+        this(new World(), new ConsoleSession());
+    }
+
+    /**
+     * Initializes a new instance of the WordGame for one player session.
+     * The World may be shared between concurrent games; all other state belongs to this game.
+     *
+     * @param worldSource the countries to ask about, read once at the start of each game
+     * @param session     the channel used to ask questions and read answers
+     */
+    public WordGame(final WorldSource worldSource,
+                    final QuizSession session)
+    {
+        this(worldSource, session, DEFAULT_SCORE_HISTORY);
+    }
+
+    /**
+     * Initializes a new instance of the WordGame for one player session that saves its
+     * score to the specified history.
+     *
+     * @param worldSource  the countries to ask about, read once at the start of each game
+     * @param session      the channel used to ask questions and read answers
+     * @param scoreHistory the history the session score is appended to
+     */
+    public WordGame(final WorldSource worldSource,
+                    final QuizSession session,
+                    final ScoreHistory scoreHistory)
+    {
+        this(worldSource, session, scoreHistory, Seeds.newSeed());
+    }
+
+    /**
+     * Initializes a new instance of the WordGame that draws its questions from a seed, so
+     * that a fixed seed always asks the same questions. Each game of the session is played
+     * from its own seed, derived from this one and the game's position in the session.
+     *
+     * @param worldSource  the countries to ask about, read once at the start of each game
+     * @param session      the channel used to ask questions and read answers
+     * @param scoreHistory the history the session score is appended to
+     * @param seed         the seed the session's game seeds are derived from
+     */
+    public WordGame(final WorldSource worldSource,
+                    final QuizSession session,
+                    final ScoreHistory scoreHistory,
+                    final long seed)
+    {
+        this.session                     = session;
+        this.scoreHistory                = scoreHistory;
+        this.round                       = new WordGameRound(worldSource, session::display);
+        this.seed                        = seed;
+        this.gamesStarted                = 0L;
+        this.statistics                  = GameStatistics.getDefault();
+        this.inputEnded                  = false;
         this.sessionGamesPlayed          = 0;
         this.sessionCorrectFirstAttempt  = 0;
         this.sessionCorrectSecondAttempt = 0;
         this.sessionIncorrectAnswers     = 0;
     }
 
+    /**
+     * Retrieves the number of question types, one per way of asking about a country.
+     *
+     * @return the number of question types
+     */
+    public static int getNumQuestionTypes()
+    {
+        return WordGameRound.getNumQuestionTypes();
+    }
+
+    /**
+     * Makes this game pick its questions from the player's spaced-repetition schedule
+     * instead of uniformly at random, and record every answer in that schedule.
+     *
+     * @param scheduler  the schedule shared by all players
+     * @param playerName the name of the player of this game
+     */
+    public void setQuestionScheduler(final SpacedRepetitionScheduler scheduler,
+                                     final String playerName)
+    {
+        round.setQuestionScheduler(scheduler, scheduler.playerSlot(playerName));
+    }
+
+    /**
+     * Sets where finished games are recorded.
+     *
+     * @param replayLog the log to append recordings to, or null to record nothing
+     */
+    public void setReplayLog(final ReplayLog replayLog)
+    {
+        round.setReplayLog(replayLog);
+    }
+
+    /**
+     * Sets where the points of every finished game are recorded.
+     *
+     * @param statistics the statistics to record to, or null to record nothing
+     */
+    public void setStatistics(final GameStatistics statistics)
+    {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Switches between typed answers and multiple-choice questions. In multiple-choice mode
+     * every question lists four options labelled A to D, and the player may answer with
+     * either the letter or the text of an option.
+     *
+     * @param multipleChoice true to offer options with every question
+     */
+    public void setMultipleChoice(final boolean multipleChoice)
+    {
+        round.setMultipleChoice(multipleChoice);
+    }
+
     /**
      * Starts the game by presenting questions to the player.
      * Groups scores for all games in a single session.
+     * If the player's input ends mid-game, that game is discarded and the session ends.
      */
     public void play()
     {
-        final Scanner scanner = new Scanner(System.in);
         boolean keepPlaying = true;
 
         while(keepPlaying)
         {
-            System.out.println("Starting a new game!");
+            final Score gameScore;
+            gameScore = playSingleGame();
 
-            // Per-game counters
-            int correctFirstAttempt = 0;
-            int correctSecondAttempt = 0;
-            int incorrectAnswers = 0;
-
-            countries = new ArrayList<>(world.getAllCountries().values());
-
-            for(int i = 0; i < NUM_QUESTIONS; i++)
+            if(gameScore == null)
             {
-                final Country country;
-                final int questionType;
-                boolean correct;
-
-                country = countries.get(random.nextInt(countries.size()));
-                questionType = random.nextInt(NUM_QUESTION_TYPES);
-                correct = false;
-
-                switch(questionType)
-                {
-                    case QUESTION_BY_CAPITAL:
-                        System.out.println("Ques: What country has the capital " +
-                                country.getCapitalCityName() + "?");
-                        correct = handleAnswer(scanner, country.getName());
-                        break;
-
-                    case QUESTION_BY_COUNTRY:
-                        System.out.println("Ques: What is the capital of " +
-                                country.getName() + "?");
-                        correct = handleAnswer(scanner, country.getCapitalCityName());
-                        break;
-
-                    case QUESTION_BY_FACT:
-                        String randomFact = country.getFacts()[random.nextInt(country.
-                                getFacts().length)];
-                        System.out.println("Ques: Which country has fact: " + randomFact);
-                        correct = handleAnswer(scanner, country.getName());
-                        break;
-                }
-
-                if(correct)
-                {
-                    System.out.println("CORRECT!");
-                    correctFirstAttempt++;
-                }
-                else
-                {
-                    System.out.println("Try again:");
-                    correct = handleAnswer(scanner, country.getName());
-
-                    if(correct)
-                    {
-                        System.out.println("CORRECT!");
-                        correctSecondAttempt++;
-                    }
-                    else
-                    {
-                        incorrectAnswers++;
-                        System.out.println("The correct answer was: " +
-                                (questionType == QUESTION_BY_COUNTRY ?
-                                        country.getCapitalCityName() : country.getName()));
-                    }
-                }
+                break; // The player left mid-game; keep only completed games
             }
 
             // Update session totals with per-game results
             sessionGamesPlayed++;
-            sessionCorrectFirstAttempt  += correctFirstAttempt;
-            sessionCorrectSecondAttempt += correctSecondAttempt;
-            sessionIncorrectAnswers     += incorrectAnswers;
+            sessionCorrectFirstAttempt  += gameScore.getNumCorrectFirstAttempt();
+            sessionCorrectSecondAttempt += gameScore.getNumCorrectSecondAttempt();
+            sessionIncorrectAnswers     += gameScore.getNumIncorrectTwoAttempts();
+            if(statistics != null)
+            {
+                statistics.record(GameStatistics.WORD_GAME_SCORE, gameScore.getScore());
+            }
 
-            System.out.println("Do you want to play another game? (Y/N)");
+            session.display("Do you want to play another game? (Y/N)");
 
             String response;
 
             while(true)
             {
-                response = scanner.nextLine().trim().toUpperCase();
+                final String line;
+                line = session.readAnswer();
+
+                if(line == null)
+                {
+                    response = "N"; // No more input, end the session
+                    break;
+                }
+
+                response = line.trim().toUpperCase();
                 if(response.equals("Y") || response.equals("N"))
                 {
                     break; // Valid input, exit the loop
                 }
                 else
                 {
-                    System.out.println("Invalid input. Please enter 'Y' for yes or 'N' for no:");
+                    session.display("Invalid input. Please enter 'Y' for yes or 'N' for no:");
                 }
             }
             keepPlaying = response.equals("Y");
         }
-        saveSessionScore();
+
+        if(sessionGamesPlayed > NO_GAMES_PLAYED)
+        {
+            saveSessionScore();
+        }
+        session.flush();
+    }
+
+    /**
+     * Retrieves the seed the current or last game was played from.
+     *
+     * @return the game seed
+     */
+    public long getGameSeed()
+    {
+        return round.getGameSeed();
+    }
+
+    /**
+     * Plays one game of ten questions without asking to play again or saving anything.
+     * The game is played from the next seed of the session.
+     *
+     * @return the score of the game, or null if the player's input ended before the game finished
+     */
+    public Score playSingleGame()
+    {
+        return playSingleGame(Seeds.derive(seed, gamesStarted++));
     }
 
     /**
-     * Handles the player's answer and checks if it matches the correct answer.
+     * Plays one game of ten questions from a specific seed, such as a recorded game's,
+     * without asking to play again or saving anything but the recording.
      *
-     * @param scanner       the scanner for user input
-     * @param correctAnswer the correct answer to the question
-     * @return true if the player's answer matches the correct answer, false otherwise
+     * @param gameSeed the seed the game's questions are drawn from
+     * @return the score of the game, or null if the player's input ended before the game finished
      */
-    private boolean handleAnswer(final Scanner scanner,
-                                 final String correctAnswer)
+    public Score playSingleGame(final long gameSeed)
     {
-        final String userAnswer = scanner.nextLine().trim(); // Trim extra spaces
-        return userAnswer.equalsIgnoreCase(correctAnswer.trim()); // Case-insensitive comparison
+        if(inputEnded)
+        {
+            return null; // The player already left
+        }
+
+        round.start(gameSeed);
+        while(!round.isOver())
+        {
+            round.answer(session.readAnswer());
+        }
+
+        inputEnded = round.isAbandoned();
+        return round.getScore();
     }
 
     /**
@@ -179,26 +284,29 @@ public class WordGame
                 sessionIncorrectAnswers
         );
 
-        final String scoreFile;
         final double sessionAverageScore;
-        final List<Score> scores;
         final int highScore;
 
-        scoreFile = "score.txt";
-
-        Score.appendScoreToFile(sessionScore, scoreFile);
+        scoreHistory.append(sessionScore);
 
         sessionAverageScore = sessionScore.calculateAverageScore();
-        System.out.println("Your average score for this session was: " +
+        session.display("Your average score for this session was: " +
                 sessionAverageScore);
+        session.display("Average score over the last " + RECENT_DAYS + " days: " +
+                String.format("%.2f", scoreHistory.averageScoreSince(
+                        LocalDate.now().minusDays(RECENT_DAYS))));
 
-        scores = Score.readScoresFromFile(scoreFile);
-        highScore = scores.stream().mapToInt(Score::getScore).max().orElse(0);
-        System.out.println("The highest score in this game is: " + highScore);
+        highScore = scoreHistory.bestScore();
+        session.display("The highest score in this game is: " + highScore);
+        if(statistics != null)
+        {
+            session.display("Points per game, all players: " +
+                    statistics.report(GameStatistics.WORD_GAME_SCORE));
+        }
 
         if(sessionScore.getScore() >= highScore)
         {
-            System.out.println("CONGRATULATIONS! You achieved the highest score with " +
+            session.display("CONGRATULATIONS! You achieved the highest score with " +
                     sessionScore.getScore() + " points!");
         }
     }
@@ -0,0 +1,213 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs Word Games non-interactively from answer scripts.
+ * Each script holds one answer per line and is played as many complete games back
+ * to back as it has answers for, starting from the same seed, so the same script
+ * always gets the same questions. One result line is written per game, followed by
+ * the combined Score of every game. Nothing is saved to the score history.
+ *
+ * Arguments are script files, or "-" for standard input (the default when no files
+ * are given), mixed with the options seed=N, resources=DIR, out=FILE,
+ * transcript=true to also write every question and answer, and choices=true to
+ * play multiple-choice questions.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public class WordGameBatch
+{
+    private static final long   DEFAULT_SEED      = 2522L;
+    private static final String DEFAULT_RESOURCES = "src/resources";
+    private static final String STANDARD_INPUT    = "-";
+    private static final String OPTION_SEPARATOR  = "=";
+    private static final int    OPTION_PARTS      = 2;
+    private static final String RESULT_FORMAT     = "%s\tgame=%d\tfirst=%d\tsecond=%d\tincorrect=%d\tpoints=%d";
+    private final World         world;
+    private final long          seed;
+    private final boolean       transcript;
+    private boolean             multipleChoice;
+    private final Writer        out;
+    private int                 gamesPlayed;
+    private int                 correctFirstAttempt;
+    private int                 correctSecondAttempt;
+    private int                 incorrectAnswers;
+
+    /**
+     * Constructs a WordGameBatch writing its results to the specified output.
+     *
+     * @param world      the countries to ask about
+     * @param seed       the seed every script starts from
+     * @param transcript true to also write every question and answer
+     * @param out        where results are written
+     */
+    public WordGameBatch(final World world,
+                         final long seed,
+                         final boolean transcript,
+                         final Writer out)
+    {
+        this.world      = world;
+        this.seed       = seed;
+        this.transcript = transcript;
+        this.out        = out;
+    }
+
+    /**
+     * Makes the following scripts play multiple-choice questions.
+     *
+     * @param multipleChoice true to offer options with every question
+     */
+    public void setMultipleChoice(final boolean multipleChoice)
+    {
+        this.multipleChoice = multipleChoice;
+    }
+
+    /**
+     * Plays every complete game the script has answers for and writes one line per game.
+     *
+     * @param name   the script name used in result lines
+     * @param script the answers, one per line
+     * @throws IOException if a result cannot be written
+     */
+    public void runScript(final String name,
+                          final BufferedReader script) throws IOException
+    {
+        final ScriptedSession session;
+        final WordGame game;
+        int gameNumber;
+
+        session = new ScriptedSession(script, transcript ? out : null);
+        game = new WordGame(world, session, null, seed); // Batch runs never save
+        game.setReplayLog(null);
+        game.setMultipleChoice(multipleChoice);
+        gameNumber = 0;
+
+        Score score;
+        while((score = game.playSingleGame()) != null)
+        {
+            gameNumber++;
+            gamesPlayed++;
+            correctFirstAttempt  += score.getNumCorrectFirstAttempt();
+            correctSecondAttempt += score.getNumCorrectSecondAttempt();
+            incorrectAnswers     += score.getNumIncorrectTwoAttempts();
+
+            out.write(String.format(RESULT_FORMAT, name, gameNumber,
+                    score.getNumCorrectFirstAttempt(), score.getNumCorrectSecondAttempt(),
+                    score.getNumIncorrectTwoAttempts(), score.getScore()));
+            out.write(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Combines the results of every game played so far into one Score.
+     *
+     * @return the combined score
+     */
+    public Score getTotalScore()
+    {
+        return new Score(LocalDateTime.now(), gamesPlayed, correctFirstAttempt,
+                correctSecondAttempt, incorrectAnswers);
+    }
+
+    /**
+     * Runs a batch. See the class description for the arguments.
+     *
+     * @param args scripts and key=value options
+     * @throws IOException if a script cannot be read or a result cannot be written
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        final List<String> scripts;
+        long seed;
+        boolean transcript;
+        boolean multipleChoice;
+        String resources;
+        String outFile;
+
+        scripts = new ArrayList<>();
+        seed = DEFAULT_SEED;
+        transcript = false;
+        multipleChoice = false;
+        resources = DEFAULT_RESOURCES;
+        outFile = null;
+
+        for(final String arg : args)
+        {
+            final String[] parts;
+            parts = arg.split(OPTION_SEPARATOR, OPTION_PARTS);
+
+            if(parts.length != OPTION_PARTS)
+            {
+                scripts.add(arg);
+                continue;
+            }
+
+            switch(parts[0])
+            {
+                case "seed":
+                    seed = Long.parseLong(parts[1]);
+                    break;
+                case "transcript":
+                    transcript = Boolean.parseBoolean(parts[1]);
+                    break;
+                case "choices":
+                    multipleChoice = Boolean.parseBoolean(parts[1]);
+                    break;
+                case "resources":
+                    resources = parts[1];
+                    break;
+                case "out":
+                    outFile = parts[1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + parts[0]);
+            }
+        }
+
+        if(scripts.isEmpty())
+        {
+            scripts.add(STANDARD_INPUT);
+        }
+
+        try(final Writer out = outFile == null ?
+                new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) :
+                Files.newBufferedWriter(Path.of(outFile), StandardCharsets.UTF_8))
+        {
+            final WordGameBatch batch;
+            batch = new WordGameBatch(new World(Path.of(resources)), seed, transcript, out);
+            batch.setMultipleChoice(multipleChoice);
+
+            for(final String script : scripts)
+            {
+                if(script.equals(STANDARD_INPUT))
+                {
+                    batch.runScript(script, new BufferedReader(new InputStreamReader(System.in,
+                            StandardCharsets.UTF_8)));
+                }
+                else
+                {
+                    try(final BufferedReader reader = Files.newBufferedReader(Path.of(script),
+                            StandardCharsets.UTF_8))
+                    {
+                        batch.runScript(script, reader);
+                    }
+                }
+            }
+
+            out.write(batch.getTotalScore().toString());
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import ca.bcit.comp2522.termProject.Common.ReplayHandler;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+import ca.bcit.comp2522.termProject.Common.ReplayReader;
+import ca.bcit.comp2522.termProject.Common.ReplayWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Replays recorded Word Games by answering their questions with the recorded answers.
+ *
+ * WordGameRound records the game's seed, whether it was multiple choice, one event per
+ * question holding the country, the question type, the expected answer and the position
+ * of the correct option, and one event per answer holding the text as typed. The outcome
+ * is the number of questions answered on the first attempt, on the second attempt and
+ * not at all. The replay asks the recorded questions rather than drawing them again, so
+ * it does not depend on the countries the game was played with, nor on whether its
+ * questions came from the seed or from the player's schedule.
+ *
+ * Recordings made before questions were recorded are replayed by drawing the questions
+ * from the seed again, so those must still be replayed against the same country files.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.1
+ */
+public class WordGameReplay implements ReplayHandler
+{
+    /** An answer was read; the payload is its text. */
+    public static final int ANSWER             = 1;
+
+    /** A question was asked; the payload is its country, type, answer and correct option. */
+    public static final int QUESTION           = 2;
+
+    /** The header parameter holding 1 for a multiple-choice game. */
+    public static final int MULTIPLE_CHOICE    = 0;
+
+    /** The header parameter holding 1 when the questions are recorded as events. */
+    public static final int RECORDED_QUESTIONS = 1;
+
+    private static final long MULTIPLE_CHOICE_GAME = 1L;
+    private static final long QUESTIONS_RECORDED   = 1L;
+
+    private final WordGameRound   round;
+    private final RecordedSession session;
+
+    /**
+     * Constructs a WordGameReplay.
+     *
+     * @param worldSource the countries the recorded games were played with
+     */
+    public WordGameReplay(final WorldSource worldSource)
+    {
+        this.session = new RecordedSession();
+        this.round   = new WordGameRound(worldSource, session::display);
+        round.setReplayLog(null);
+    }
+
+    /**
+     * Starts a recording of a game about to be played.
+     *
+     * @param gameSeed       the seed the game's questions are drawn from
+     * @param multipleChoice true if the game offers options with every question
+     * @param now            the current time in epoch milliseconds
+     * @return the recording
+     */
+    public static ReplayWriter record(final long gameSeed,
+                                      final boolean multipleChoice,
+                                      final long now)
+    {
+        return new ReplayWriter(ReplayLog.WORD_GAME, gameSeed, now,
+                multipleChoice ? MULTIPLE_CHOICE_GAME : 0L, QUESTIONS_RECORDED);
+    }
+
+    /**
+     * Ends a recording with the game's outcome.
+     *
+     * @param recording            the recording
+     * @param correctFirstAttempt  the questions answered on the first attempt
+     * @param correctSecondAttempt the questions answered on the second attempt
+     * @param incorrectAnswers     the questions not answered
+     * @return the encoded recording
+     */
+    public static byte[] finish(final ReplayWriter recording,
+                                final int correctFirstAttempt,
+                                final int correctSecondAttempt,
+                                final int incorrectAnswers)
+    {
+        return recording.finish(correctFirstAttempt, correctSecondAttempt, incorrectAnswers);
+    }
+
+    /**
+     * Gets the type of game this handler replays.
+     *
+     * @return ReplayLog.WORD_GAME
+     */
+    @Override
+    public int getGameType()
+    {
+        return ReplayLog.WORD_GAME;
+    }
+
+    /**
+     * Gets the name of the game, for reports.
+     *
+     * @return the name
+     */
+    @Override
+    public String getName()
+    {
+        return "WordGame";
+    }
+
+    /**
+     * Replays a recording and compares its score.
+     *
+     * @param recording the recording, positioned at its first event
+     * @return true if the replayed game ended with the recorded outcome
+     * @throws IOException if the recording is malformed
+     */
+    @Override
+    public boolean replay(final ReplayReader recording) throws IOException
+    {
+        final Score score;
+
+        round.setMultipleChoice(hasParameter(recording, MULTIPLE_CHOICE, MULTIPLE_CHOICE_GAME));
+        round.setRecordedQuestions(hasParameter(recording, RECORDED_QUESTIONS, QUESTIONS_RECORDED) ?
+                recording : null);
+        session.start(recording);
+
+        try
+        {
+            round.start(recording.getSeed());
+            while(!round.isOver())
+            {
+                round.answer(session.readAnswer());
+            }
+            score = round.getScore();
+        }
+        catch(final UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+
+        if(score == null || recording.nextEvent() != ReplayWriter.END_EVENT)
+        {
+            return false; // The replayed game asked fewer or more questions than the recorded one
+        }
+        return recording.outcomeMatches(score.getNumCorrectFirstAttempt(), score.getNumCorrectSecondAttempt(),
+                score.getNumIncorrectTwoAttempts());
+    }
+
+    /*
+     * Checks if a recording's header holds a parameter with the given value.
+     */
+    private static boolean hasParameter(final ReplayReader recording,
+                                        final int index,
+                                        final long value)
+    {
+        return recording.getParameterCount() > index && recording.getParameter(index) == value;
+    }
+
+    /*
+     * Answers a game's questions from a recording, showing nothing.
+     */
+    private static final class RecordedSession implements QuizSession
+    {
+        private ReplayReader recording;
+
+        /*
+         * Starts answering from a recording.
+         */
+        private void start(final ReplayReader recording)
+        {
+            this.recording = recording;
+        }
+
+        @Override
+        public void display(final String message)
+        {
+        }
+
+        @Override
+        public String readAnswer()
+        {
+            try
+            {
+                final int event;
+                event = recording.nextEvent();
+
+                if(event == ReplayWriter.END_EVENT)
+                {
+                    return null; // The recorded player ran out of answers
+                }
+                if(event != ANSWER)
+                {
+                    throw new IOException("Expected a Word Game answer, found event " + event);
+                }
+                return recording.readString();
+            }
+            catch(final IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import ca.bcit.comp2522.termProject.Common.Counter;
+import ca.bcit.comp2522.termProject.Common.Metrics;
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+import ca.bcit.comp2522.termProject.Common.ReplayReader;
+import ca.bcit.comp2522.termProject.Common.ReplayWriter;
+import ca.bcit.comp2522.termProject.Common.Seeds;
+import ca.bcit.comp2522.termProject.Common.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * One Word Game of ten questions, played one answer at a time.
+ *
+ * The round asks its first question when it starts and moves on with every answer it is
+ * given: a wrong first answer is given a second attempt, and the next question is asked
+ * once the current one is settled. It never waits for input, so WordGame drives it from
+ * its session on the console or the network, and HeadlessWordGame drives it straight from
+ * the host's steps. A null answer means the player's input ended, which abandons the game.
+ *
+ * Questions come from the round's own seed, or from the player's spaced-repetition
+ * schedule if it has one. Every finished game is recorded to the replay log, with each
+ * question as asked and each answer as typed, so that WordGameReplay can play it again
+ * without drawing the questions anew; a recording therefore still replays after the
+ * countries are edited or reloaded, and a game whose questions came from a schedule
+ * replays just like one whose questions came from its seed.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.1
+ */
+public class WordGameRound
+{
+    private static final int  NUM_QUESTIONS        = 10;
+    private static final int  NUM_QUESTION_TYPES   = 3;
+    private static final int  QUESTION_BY_CAPITAL  = 0;
+    private static final int  QUESTION_BY_COUNTRY  = 1;
+    private static final int  QUESTION_BY_FACT     = 2;
+    private static final int  SINGLE_GAME          = 1;
+    private static final int  NO_ITEM              = -1;
+    private static final int  NUM_OPTIONS          = 4;
+    private static final int  NO_OPTION            = -1;
+    private static final char FIRST_OPTION_LETTER  = 'A';
+
+    // Metrics shared by every game in this JVM
+    private static final Timer   ANSWER_TIMER      = Metrics.timer("wordgame.answer");
+    private static final Counter CORRECT_ANSWERS   = Metrics.counter("wordgame.answers.correct");
+    private static final Counter INCORRECT_ANSWERS = Metrics.counter("wordgame.answers.incorrect");
+
+    private final WorldSource         worldSource;
+    private final Consumer<String>    display;
+    private ReplayLog                 replayLog;
+    private SpacedRepetitionScheduler scheduler;
+    private int                       playerSlot;
+    private boolean                   multipleChoice;
+    private ReplayReader              recordedQuestions;
+
+    // Multiple-choice state, reused for every question
+    private final int[]               distractors;
+    private final String[]            options;
+    private int                       correctOption;
+
+    // State of the game in progress
+    private long                      gameSeed;
+    private RandomGenerator           random;
+    private World                     world;
+    private ReplayWriter              recording;
+    private int                       questionNumber;
+    private boolean                   secondAttempt;
+    private boolean                   over;
+    private boolean                   abandoned;
+    private int                       correctFirstAttempt;
+    private int                       correctSecondAttempt;
+    private int                       incorrectAnswers;
+
+    // The question being asked
+    private int                       item;
+    private Country                   scheduledCountry;
+    private String                    countryName;
+    private String                    expectedAnswer;
+
+    /**
+     * Constructs a WordGameRound that records to the default replay log. No game is in
+     * progress until it is started.
+     *
+     * @param worldSource the countries to ask about, read once at the start of each game
+     * @param display     shows a line of text to the player
+     */
+    public WordGameRound(final WorldSource worldSource,
+                         final Consumer<String> display)
+    {
+        this.worldSource    = worldSource;
+        this.display        = display;
+        this.replayLog      = ReplayLog.getDefault();
+        this.multipleChoice = false;
+        this.distractors    = new int[NUM_OPTIONS - 1];
+        this.options        = new String[NUM_OPTIONS];
+        this.correctOption  = NO_OPTION;
+        this.over           = true;
+    }
+
+    /**
+     * Retrieves the number of question types, one per way of asking about a country.
+     *
+     * @return the number of question types
+     */
+    public static int getNumQuestionTypes()
+    {
+        return NUM_QUESTION_TYPES;
+    }
+
+    /**
+     * Makes later games pick their questions from the player's spaced-repetition schedule
+     * instead of uniformly at random, and record every answer in that schedule.
+     *
+     * @param scheduler  the schedule shared by all players
+     * @param playerSlot the player's slot in the schedule
+     */
+    public void setQuestionScheduler(final SpacedRepetitionScheduler scheduler,
+                                     final int playerSlot)
+    {
+        this.scheduler  = scheduler;
+        this.playerSlot = playerSlot;
+    }
+
+    /**
+     * Sets where later games are recorded once they finish.
+     *
+     * @param replayLog the log to append recordings to, or null to record nothing
+     */
+    public void setReplayLog(final ReplayLog replayLog)
+    {
+        this.replayLog = replayLog;
+    }
+
+    /*
+     * Makes later games ask the questions recorded in a replay, in order, instead of
+     * drawing them, or draw them again if the recording is null. Used by WordGameReplay.
+     */
+    void setRecordedQuestions(final ReplayReader recordedQuestions)
+    {
+        this.recordedQuestions = recordedQuestions;
+    }
+
+    /**
+     * Switches later games between typed answers and multiple-choice questions. In
+     * multiple-choice mode every question lists four options labelled A to D, and the
+     * player may answer with either the letter or the text of an option.
+     *
+     * @param multipleChoice true to offer options with every question
+     */
+    public void setMultipleChoice(final boolean multipleChoice)
+    {
+        this.multipleChoice = multipleChoice;
+    }
+
+    /**
+     * Starts a new game from a seed, abandoning any game in progress, and asks its first
+     * question.
+     *
+     * @param gameSeed the seed the game's questions are drawn from
+     */
+    public void start(final long gameSeed)
+    {
+        this.gameSeed        = gameSeed;
+        random               = Seeds.random(gameSeed);
+        recording            = replayLog == null ? null :
+                WordGameReplay.record(gameSeed, multipleChoice, System.currentTimeMillis());
+        world                = worldSource.current(); // Keep one snapshot for the whole game
+        questionNumber       = 0;
+        secondAttempt        = false;
+        over                 = false;
+        abandoned            = false;
+        correctFirstAttempt  = 0;
+        correctSecondAttempt = 0;
+        incorrectAnswers     = 0;
+
+        display.accept("Starting a new game!");
+        askQuestion();
+    }
+
+    /**
+     * Answers the current question. A right answer, or a second wrong one, settles the
+     * question and asks the next; a first wrong one asks for a second attempt. Does
+     * nothing once the game is over.
+     *
+     * @param answer the answer as the player typed it, or null if the player's input ended
+     */
+    public void answer(final String answer)
+    {
+        final boolean correct;
+        final int quality;
+
+        if(over)
+        {
+            return;
+        }
+
+        // Typed answers have always been retried against the country name
+        correct = evaluate(answer, secondAttempt && !multipleChoice ? countryName : expectedAnswer);
+
+        if(answer == null)
+        {
+            if(secondAttempt)
+            {
+                display.accept("The correct answer was: " + expectedAnswer);
+            }
+            recording = null; // Unfinished games are not saved
+            abandoned = true;
+            over = true;
+            return;
+        }
+
+        if(correct)
+        {
+            display.accept("CORRECT!");
+            if(secondAttempt)
+            {
+                correctSecondAttempt++;
+                quality = SpacedRepetitionScheduler.QUALITY_SECOND_ATTEMPT;
+            }
+            else
+            {
+                correctFirstAttempt++;
+                quality = SpacedRepetitionScheduler.QUALITY_FIRST_ATTEMPT;
+            }
+        }
+        else if(!secondAttempt)
+        {
+            display.accept("Try again:");
+            secondAttempt = true;
+            return;
+        }
+        else
+        {
+            incorrectAnswers++;
+            display.accept("The correct answer was: " + expectedAnswer);
+            quality = SpacedRepetitionScheduler.QUALITY_INCORRECT;
+        }
+
+        if(scheduledCountry != null)
+        {
+            scheduler.recordAnswer(playerSlot, item, quality);
+        }
+
+        questionNumber++;
+        secondAttempt = false;
+        if(questionNumber < NUM_QUESTIONS)
+        {
+            askQuestion();
+        }
+        else
+        {
+            finish();
+        }
+    }
+
+    /**
+     * Checks if the game has ended, finished or abandoned.
+     *
+     * @return true if no more answers are accepted until the next start
+     */
+    public boolean isOver()
+    {
+        return over;
+    }
+
+    /**
+     * Checks if the game ended because the player's input ended.
+     *
+     * @return true if the game was abandoned
+     */
+    public boolean isAbandoned()
+    {
+        return abandoned;
+    }
+
+    /**
+     * Gets the score of the finished game.
+     *
+     * @return the score, or null if the game is still in progress or was abandoned
+     */
+    public Score getScore()
+    {
+        if(!over || abandoned)
+        {
+            return null;
+        }
+        return new Score(LocalDateTime.now(), SINGLE_GAME, correctFirstAttempt,
+                correctSecondAttempt, incorrectAnswers);
+    }
+
+    /**
+     * Retrieves the seed the current or last game was played from.
+     *
+     * @return the game seed
+     */
+    public long getGameSeed()
+    {
+        return gameSeed;
+    }
+
+    /*
+     * Picks the next question, from the recording being replayed if there is one, from
+     * the schedule if the player has one and its country still exists, otherwise at
+     * random, and shows it.
+     */
+    private void askQuestion()
+    {
+        final List<Country> countries;
+        final Country country;
+        final int countryIndex;
+        final int questionType;
+        final QuestionServedEvent served;
+
+        if(recordedQuestions != null)
+        {
+            askRecordedQuestion();
+            return;
+        }
+
+        served = new QuestionServedEvent();
+        served.begin();
+        countries = world.getCountries();
+        item = scheduler == null ? NO_ITEM : scheduler.nextItem(playerSlot);
+        scheduledCountry = item == NO_ITEM ? null : world.getCountryByName(
+                scheduler.countryName(scheduler.countryIndexOf(item)));
+
+        if(item != NO_ITEM && scheduledCountry == null)
+        {
+            scheduler.postponeItem(playerSlot, item); // Its country was removed by a reload
+        }
+
+        if(scheduledCountry != null)
+        {
+            country = scheduledCountry;
+            countryIndex = world.indexOfCountry(country.getName());
+            questionType = scheduler.questionTypeOf(item);
+        }
+        else
+        {
+            countryIndex = random.nextInt(countries.size());
+            country = countries.get(countryIndex);
+            questionType = random.nextInt(NUM_QUESTION_TYPES);
+        }
+        countryName = country.getName();
+        expectedAnswer = questionType == QUESTION_BY_COUNTRY ?
+                country.getCapitalCityName() : country.getName();
+
+        switch(questionType)
+        {
+            case QUESTION_BY_CAPITAL:
+                display.accept("Ques: What country has the capital " +
+                        country.getCapitalCityName() + "?");
+                break;
+
+            case QUESTION_BY_COUNTRY:
+                display.accept("Ques: What is the capital of " +
+                        country.getName() + "?");
+                break;
+
+            case QUESTION_BY_FACT:
+                String randomFact = country.getFacts()[random.nextInt(country.
+                        getFacts().length)];
+                display.accept("Ques: Which country has fact: " + randomFact);
+                break;
+        }
+
+        correctOption = multipleChoice ?
+                showOptions(countryIndex, questionType == QUESTION_BY_COUNTRY) :
+                NO_OPTION;
+
+        if(recording != null)
+        {
+            recording.event(WordGameReplay.QUESTION, System.currentTimeMillis())
+                    .writeString(countryName)
+                    .writeUnsigned(questionType)
+                    .writeString(expectedAnswer)
+                    .writeSigned(correctOption);
+        }
+
+        served.end();
+        if(served.shouldCommit())
+        {
+            served.country        = countryName;
+            served.questionType   = questionType;
+            served.scheduled      = scheduledCountry != null;
+            served.multipleChoice = multipleChoice;
+            served.commit();
+        }
+    }
+
+    /*
+     * Takes the next question from the recording being replayed: the country, the question
+     * type, the expected answer and the position of the correct option. Shows nothing, and
+     * abandons the game if the recording has no more questions.
+     */
+    private void askRecordedQuestion()
+    {
+        try
+        {
+            final int event;
+            final long questionType;
+            event = recordedQuestions.nextEvent();
+
+            if(event == ReplayWriter.END_EVENT)
+            {
+                abandoned = true; // The recorded game asked fewer questions
+                over = true;
+                return;
+            }
+            if(event != WordGameReplay.QUESTION)
+            {
+                throw new IOException("Expected a Word Game question, found event " + event);
+            }
+
+            countryName = recordedQuestions.readString();
+            questionType = recordedQuestions.readUnsigned();
+            expectedAnswer = recordedQuestions.readString();
+            correctOption = (int) recordedQuestions.readSigned();
+
+            if(questionType >= NUM_QUESTION_TYPES || correctOption < NO_OPTION ||
+                    correctOption >= NUM_OPTIONS)
+            {
+                throw new IOException("Malformed Word Game question about " + countryName);
+            }
+        }
+        catch(final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * Displays the options for a multiple-choice question: the correct answer and three
+     * distractors taken from the World's precomputed candidates, in random order.
+     * Returns the position of the correct answer.
+     */
+    private int showOptions(final int countryIndex,
+                            final boolean capitals)
+    {
+        final List<Country> countries;
+        final int correctPosition;
+
+        countries = world.getCountries();
+        if(capitals)
+        {
+            world.getDistractors().sampleCapitalDistractors(countryIndex, random, distractors);
+        }
+        else
+        {
+            world.getDistractors().sampleNameDistractors(countryIndex, random, distractors);
+        }
+
+        correctPosition = random.nextInt(NUM_OPTIONS);
+        for(int option = 0, next = 0; option < NUM_OPTIONS; option++)
+        {
+            final Country optionCountry;
+            optionCountry = countries.get(option == correctPosition ? countryIndex :
+                    distractors[next++]);
+
+            options[option] = capitals ? optionCountry.getCapitalCityName() :
+                    optionCountry.getName();
+            display.accept((char) (FIRST_OPTION_LETTER + option) + ") " + options[option]);
+        }
+        return correctPosition;
+    }
+
+    /*
+     * Records and checks an answer that has already been read, so the timer and event
+     * measure the check alone, not the player's thinking or the network.
+     */
+    private boolean evaluate(final String answer,
+                             final String correctAnswer)
+    {
+        final long start;
+        final AnswerEvaluatedEvent event;
+        final boolean correct;
+
+        if(recording != null && answer != null)
+        {
+            recording.event(WordGameReplay.ANSWER, System.currentTimeMillis()).writeString(answer);
+        }
+
+        start = ANSWER_TIMER.start();
+        event = new AnswerEvaluatedEvent();
+        event.begin();
+        correct = answer != null && checkAnswer(answer, correctAnswer);
+        ANSWER_TIMER.stop(start);
+
+        event.end();
+        if(event.shouldCommit())
+        {
+            event.expectedAnswer = correctAnswer;
+            event.correct        = correct;
+            event.inputEnded     = answer == null;
+            event.commit();
+        }
+
+        if(answer != null)
+        {
+            (correct ? CORRECT_ANSWERS : INCORRECT_ANSWERS).increment();
+        }
+        return correct;
+    }
+
+    /*
+     * Compares the player's answer with the correct answer.
+     * For a multiple-choice question, the letter of the correct option is also accepted.
+     */
+    private boolean checkAnswer(final String answer,
+                                final String correctAnswer)
+    {
+        final String userAnswer = answer.trim(); // Trim extra spaces
+
+        if(correctOption != NO_OPTION && userAnswer.length() == 1)
+        {
+            return Character.toUpperCase(userAnswer.charAt(0)) ==
+                    FIRST_OPTION_LETTER + correctOption;
+        }
+        return userAnswer.equalsIgnoreCase(correctAnswer.trim()); // Case-insensitive comparison
+    }
+
+    /*
+     * Ends the game once its last question is settled, recording it if it is recorded.
+     */
+    private void finish()
+    {
+        over = true;
+        if(recording != null)
+        {
+            replayLog.append(WordGameReplay.finish(recording, correctFirstAttempt, correctSecondAttempt,
+                    incorrectAnswers));
+            recording = null;
+        }
+    }
+}
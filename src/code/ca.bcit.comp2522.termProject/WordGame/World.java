@@ -1,5 +1,9 @@
 package ca.bcit.comp2522.termProject.WordGame;
 
+import ca.bcit.comp2522.termProject.Common.Counter;
+import ca.bcit.comp2522.termProject.Common.EventLog;
+import ca.bcit.comp2522.termProject.Common.Metrics;
+import ca.bcit.comp2522.termProject.Common.Timer;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -12,92 +16,326 @@ import java.util.*;
  * Each file is named after a letter of the alphabet and contains data about
  * one or more countries.
  *
+ * A World is an immutable snapshot: updating one shard creates a new World that
+ * shares the other shards, so games reading the old snapshot are never affected.
+ *
  * @author Pranjal Sharma [A01396406]
- * @version 2.0
+ * @version 3.0
  */
-public class World
+public class World implements WorldSource
 {
-    private static final char          FIRST_ALPHABET         = 'a';
-    private static final char          LAST_ALPHABET          = 'z';
-    private static final int           MIN_REQUIRED_LINES     = 2;
-    private static final int           NAME_AND_CAPITAL_INDEX = 0;
-    private static final int           NAME_AND_CAPITAL_PARTS = 2;
-    private static final int           NAME_INDEX             = 0;
-    private static final int           CAPITAL_INDEX          = 1;
-    private static final int           FACTS_START_INDEX      = 1;
-    private final Map<String, Country> countries;
-    private static Path                filePath;
+    private static final String                 SOURCE                 = "World";
+    private static final char                   FIRST_ALPHABET         = 'a';
+    private static final char                   LAST_ALPHABET          = 'z';
+    private static final int                    MIN_REQUIRED_LINES     = 2;
+    private static final int                    NAME_AND_CAPITAL_INDEX = 0;
+    private static final int                    NAME_AND_CAPITAL_PARTS = 2;
+    private static final int                    NAME_INDEX             = 0;
+    private static final int                    CAPITAL_INDEX          = 1;
+    private static final int                    FACTS_START_INDEX      = 1;
+    private static final int                    NOT_FOUND              = -1;
+    private static final String                 SHARD_EXTENSION        = ".txt";
+    private static final Path                   DEFAULT_RESOURCES      = Paths.get("src/resources");
+    private static final Timer                  LOAD_TIMER             = Metrics.timer("world.load");
+    private static final Counter                SHARDS_LOADED          = Metrics.counter("world.shards_loaded");
+    private static final Counter                INVALID_COUNTRIES      = Metrics.counter("world.invalid_countries");
+    private final Path                          resourceDirectory;
+    private final Map<Character, List<Country>> shards;
+    private final Map<String, Country>          countries;
+    private final List<Country>                 countryList;
+    private final Map<String, Integer>          countryIndices;
+    private final DistractorIndex               distractors;
 
     /**
      * Initializes a new World instance and loads country data from resources.
      */
     public World()
     {
-        countries = new HashMap<>();
-        loadCountries();
+        this(DEFAULT_RESOURCES);
+    }
+
+    /**
+     * Initializes a new World instance and loads country data from the specified directory.
+     * The loaded data never changes afterwards, so one World can be shared by any number
+     * of concurrent games.
+     *
+     * @param resourceDirectory the directory holding the a.txt to z.txt country files
+     */
+    public World(final Path resourceDirectory)
+    {
+        this(resourceDirectory, loadShards(resourceDirectory));
+    }
+
+    /*
+     * Builds a snapshot from already loaded shards.
+     */
+    private World(final Path resourceDirectory,
+                  final Map<Character, List<Country>> shards)
+    {
+        final Map<String, Country> byName;
+        final List<Country> sorted;
+        final Map<String, Integer> indices;
+
+        byName = new HashMap<>();
+        for(final List<Country> shard : shards.values())
+        {
+            for(final Country country : shard)
+            {
+                byName.put(country.getName().toLowerCase(), country);
+            }
+        }
+
+        sorted = new ArrayList<>(byName.values());
+        sorted.sort(Comparator.comparing(Country::getName));
+
+        indices = new HashMap<>();
+        for(int i = 0; i < sorted.size(); i++)
+        {
+            indices.put(sorted.get(i).getName().toLowerCase(), i);
+        }
+
+        this.resourceDirectory = resourceDirectory;
+        this.shards            = Collections.unmodifiableMap(shards);
+        this.countries         = Collections.unmodifiableMap(byName);
+        this.countryList       = Collections.unmodifiableList(sorted);
+        this.countryIndices    = indices;
+        this.distractors       = DistractorIndex.build(sorted);
+    }
+
+    /**
+     * Creates a new snapshot in which the shard for the specified letter is replaced.
+     * This World is left unchanged.
+     *
+     * @param letter    the shard letter, from 'a' to 'z'
+     * @param countries the countries of the new shard
+     * @return the new snapshot
+     */
+    public World withShard(final char letter,
+                           final List<Country> countries)
+    {
+        if(!isShardLetter(letter))
+        {
+            throw new IllegalArgumentException("Invalid shard letter: " + letter);
+        }
+
+        final Map<Character, List<Country>> updated;
+        updated = new TreeMap<>(shards);
+        updated.put(letter, List.copyOf(countries));
+
+        return new World(resourceDirectory, updated);
+    }
+
+    /**
+     * Returns this snapshot, which never changes.
+     *
+     * @return this World
+     */
+    @Override
+    public World current()
+    {
+        return this;
+    }
+
+    /**
+     * Retrieves the directory the country files were loaded from.
+     *
+     * @return the resource directory
+     */
+    public Path getResourceDirectory()
+    {
+        return resourceDirectory;
+    }
+
+    /**
+     * Finds the shard letter of a country file such as "a.txt".
+     *
+     * @param fileName the file name
+     * @return the shard letter, or the null character if the name is not a shard file
+     */
+    public static char shardLetterOf(final String fileName)
+    {
+        if(fileName.length() != SHARD_EXTENSION.length() + 1 || !fileName.endsWith(SHARD_EXTENSION))
+        {
+            return Character.MIN_VALUE;
+        }
+
+        final char letter;
+        letter = fileName.charAt(0);
+
+        return isShardLetter(letter) ? letter : Character.MIN_VALUE;
+    }
+
+    /**
+     * Loads one country file strictly: any unreadable or invalid country block fails the
+     * whole shard instead of being skipped, so a half-written file is never published.
+     *
+     * @param file the country file
+     * @return the countries in the file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if any country block is invalid
+     */
+    public static List<Country> loadShardStrictly(final Path file) throws IOException
+    {
+        final WorldShardLoadEvent event;
+        final List<Country> shard;
+
+        event = new WorldShardLoadEvent();
+        event.begin();
+        shard = new ArrayList<>();
+
+        try
+        {
+            for(final List<String> block : readBlocks(file))
+            {
+                final Country country;
+                country = parseCountry(block);
+
+                if(country == null)
+                {
+                    event.invalidCountries++;
+                    throw new IllegalArgumentException("Invalid country block: " + block.get(0));
+                }
+                shard.add(country);
+            }
+            return shard;
+        }
+        finally
+        {
+            event.end();
+            if(event.shouldCommit())
+            {
+                event.file      = file.toString();
+                event.countries = shard.size();
+                event.strict    = true;
+                event.commit();
+            }
+        }
     }
 
     /*
      * Loads country data from text files.
      * Each file corresponds to a letter of the alphabet and contains data about countries.
      */
-    private void loadCountries()
+    private static Map<Character, List<Country>> loadShards(final Path resourceDirectory)
     {
+        final long start;
+        final Map<Character, List<Country>> shards;
+
+        start = LOAD_TIMER.start();
+        shards = new TreeMap<>();
+
         for(char alphabet = FIRST_ALPHABET; alphabet <= LAST_ALPHABET; alphabet++)
         {
-            filePath = Paths.get("src/resources/" + alphabet + ".txt");
+            final Path filePath;
+            filePath = resourceDirectory.resolve(alphabet + SHARD_EXTENSION);
 
             if(Files.exists(filePath))
             {
+                final WorldShardLoadEvent event;
+                event = new WorldShardLoadEvent();
+                event.begin();
+
                 try
                 {
-                    final List<String> lines;
-                    final List<String> currentCountryData;
+                    final List<List<String>> blocks;
+                    final List<Country> shard;
 
-                    lines = Files.readAllLines(filePath);
-                    currentCountryData = new ArrayList<>();
+                    blocks = readBlocks(filePath);
+                    shard = new ArrayList<>();
 
-                    for(String line : lines)
+                    for(final List<String> block : blocks)
                     {
-                        line = line.trim();
-
-                        if(line.isEmpty())
-                        {
-                            // Process the accumulated data for one country
-                            if(!currentCountryData.isEmpty())
-                            {
-                                addCountryFromData(currentCountryData);
-                                currentCountryData.clear();
-                            }
-                        }
-                        else
-                        {
-                            currentCountryData.add(line);
-                        }
+                        addCountryFromData(block, shard);
                     }
-                    // Add the last country if there's no trailing blank line
-                    if(!currentCountryData.isEmpty())
+                    shards.put(alphabet, List.copyOf(shard));
+                    SHARDS_LOADED.increment();
+
+                    event.end();
+                    if(event.shouldCommit())
                     {
-                        addCountryFromData(currentCountryData);
+                        event.file             = filePath.toString();
+                        event.countries        = shard.size();
+                        event.invalidCountries = blocks.size() - shard.size();
+                        event.commit();
                     }
                 }
                 catch(final IOException e)
                 {
-                    System.out.println("Error reading file " + filePath +
-                            ": " + e.getMessage());
+                    EventLog.error(SOURCE, "world.file_unreadable", filePath, e.getMessage());
                 }
             }
         }
+
+        LOAD_TIMER.stop(start);
+        return shards;
+    }
+
+    /*
+     * Splits a country file into blocks of non-empty lines separated by blank lines.
+     */
+    private static List<List<String>> readBlocks(final Path filePath) throws IOException
+    {
+        final List<String> lines;
+        final List<List<String>> blocks;
+        List<String> currentCountryData;
+
+        lines = Files.readAllLines(filePath);
+        blocks = new ArrayList<>();
+        currentCountryData = new ArrayList<>();
+
+        for(String line : lines)
+        {
+            line = line.trim();
+
+            if(line.isEmpty())
+            {
+                // Close the accumulated data for one country
+                if(!currentCountryData.isEmpty())
+                {
+                    blocks.add(currentCountryData);
+                    currentCountryData = new ArrayList<>();
+                }
+            }
+            else
+            {
+                currentCountryData.add(line);
+            }
+        }
+        // Add the last country if there's no trailing blank line
+        if(!currentCountryData.isEmpty())
+        {
+            blocks.add(currentCountryData);
+        }
+        return blocks;
+    }
+
+    /*
+     * Parses and adds a country's data to the shard, skipping invalid data.
+     */
+    private static void addCountryFromData(final List<String> data,
+                                           final List<Country> shard)
+    {
+        final Country country;
+        country = parseCountry(data);
+
+        if(country != null)
+        {
+            shard.add(country);
+        }
+        else
+        {
+            INVALID_COUNTRIES.increment();
+        }
     }
 
     /*
-     * Parses and adds a country's data to the collection.
+     * Parses a country's data, returning null if the data is invalid.
      */
-    private void addCountryFromData(final List<String> data)
+    private static Country parseCountry(final List<String> data)
     {
         if(data.size() < MIN_REQUIRED_LINES)
         {
-            return; // Ensure there's enough data
+            return null; // Ensure there's enough data
         }
 
         final String[] nameAndCapital;
@@ -109,7 +347,7 @@ public class World
 
         if(nameAndCapital.length != NAME_AND_CAPITAL_PARTS)
         {
-            return; // Validate format
+            return null; // Validate format
         }
 
         name    = nameAndCapital[NAME_INDEX].trim();
@@ -123,18 +361,24 @@ public class World
 
         try
         {
-            final Country country;
-            country = new Country(name, capital, facts);
-            countries.put(name.toLowerCase(), country);
+            return new Country(name, capital, facts);
         }
 
         catch(final IllegalArgumentException e)
         {
-            System.out.println("Invalid country data for " + name +
-                    ": " + e.getMessage());
+            EventLog.warn(SOURCE, "world.invalid_country", name, e.getMessage());
+            return null;
         }
     }
 
+    /*
+     * Checks if a character names a shard.
+     */
+    private static boolean isShardLetter(final char letter)
+    {
+        return letter >= FIRST_ALPHABET && letter <= LAST_ALPHABET;
+    }
+
     /**
      * Retrieves a country by its name.
      *
@@ -149,10 +393,41 @@ public class World
     /**
      * Retrieves all countries in the collection.
      *
-     * @return a map of country names to Country objects
+     * @return an unmodifiable map of lowercase country names to Country objects
      */
     public Map<String, Country> getAllCountries()
     {
         return countries;
     }
+
+    /**
+     * Retrieves all countries sorted by name.
+     *
+     * @return an unmodifiable list of all countries
+     */
+    public List<Country> getCountries()
+    {
+        return countryList;
+    }
+
+    /**
+     * Finds the position of a country in the sorted country list.
+     *
+     * @param name the name of the country
+     * @return the index of the country in getCountries(), or -1 if the country does not exist
+     */
+    public int indexOfCountry(final String name)
+    {
+        return countryIndices.getOrDefault(name.toLowerCase(), NOT_FOUND);
+    }
+
+    /**
+     * Retrieves the wrong-answer candidates precomputed for this snapshot.
+     *
+     * @return the distractor index, using the indices of getCountries()
+     */
+    public DistractorIndex getDistractors()
+    {
+        return distractors;
+    }
 }
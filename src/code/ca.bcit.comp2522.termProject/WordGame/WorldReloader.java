@@ -0,0 +1,239 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import ca.bcit.comp2522.termProject.Common.EventLog;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a World up to date with its country files without a restart.
+ * A background thread watches the resource directory; when a country file changes,
+ * it parses and validates just that shard and publishes a new World snapshot with a
+ * single volatile write. Readers never lock: they read whichever snapshot is current,
+ * and games already in progress keep the snapshot they started with. A shard that
+ * fails validation, or an update that would leave no countries to ask about, is
+ * rejected and the previous snapshot stays in place. Listeners are told of every
+ * snapshot published, on the thread that published it.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.1
+ */
+public class WorldReloader implements WorldSource, AutoCloseable
+{
+    private static final String          SOURCE        = "WorldReloader";
+    private static final long            SETTLE_MILLIS = 200L;
+    private static final char            NO_SHARD      = Character.MIN_VALUE;
+    private final Path                   directory;
+    private final WatchService           watchService;
+    private final AtomicInteger          reloads;
+    private final AtomicInteger          rejections;
+    private final List<Consumer<World>>  listeners;
+    private volatile World               current;
+    private Thread                       watcher;
+
+    /**
+     * Constructs a WorldReloader starting from the specified snapshot.
+     *
+     * @param initial the World to publish first; its resource directory is watched
+     * @throws IOException if the directory cannot be watched
+     */
+    public WorldReloader(final World initial) throws IOException
+    {
+        if(initial == null)
+        {
+            throw new IllegalArgumentException("Initial World must not be null");
+        }
+
+        this.directory    = initial.getResourceDirectory();
+        this.watchService = directory.getFileSystem().newWatchService();
+        this.reloads      = new AtomicInteger();
+        this.rejections   = new AtomicInteger();
+        this.listeners    = new CopyOnWriteArrayList<>();
+        this.current      = initial;
+
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Starts watching for changes on a background daemon thread.
+     */
+    public void start()
+    {
+        watcher = new Thread(this::watch, "world-reloader");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Registers a listener told of every snapshot published from now on, such as one
+     * that extends a catalog with the countries a reload added. A listener that throws
+     * is logged and the others are still told.
+     *
+     * @param listener receives each new snapshot
+     */
+    public void addListener(final Consumer<World> listener)
+    {
+        listeners.add(listener);
+    }
+
+    /**
+     * Retrieves the latest published snapshot.
+     *
+     * @return the current World
+     */
+    @Override
+    public World current()
+    {
+        return current;
+    }
+
+    /**
+     * Retrieves the number of shard updates that have been published.
+     *
+     * @return the reload count
+     */
+    public int getReloadCount()
+    {
+        return reloads.get();
+    }
+
+    /**
+     * Retrieves the number of shard updates rejected by validation.
+     *
+     * @return the rejection count
+     */
+    public int getRejectionCount()
+    {
+        return rejections.get();
+    }
+
+    /**
+     * Reloads one shard from disk and publishes the result if it is valid.
+     * A shard whose file no longer exists becomes empty, unless that would leave the
+     * World with no countries at all, in which case the previous snapshot is kept.
+     *
+     * @param letter the shard letter
+     * @return true if a new snapshot was published, false if the shard was rejected
+     */
+    public boolean reloadShard(final char letter)
+    {
+        final Path file;
+        final List<Country> shard;
+        final World updated;
+
+        file = directory.resolve(letter + ".txt");
+
+        try
+        {
+            shard = Files.exists(file) ? World.loadShardStrictly(file) : List.of();
+        }
+        catch(final IOException | IllegalArgumentException e)
+        {
+            rejections.incrementAndGet();
+            EventLog.warn(SOURCE, "world.reload_rejected", file, e.getMessage());
+            return false;
+        }
+
+        synchronized(this)
+        {
+            updated = current.withShard(letter, shard);
+
+            if(updated.getCountries().isEmpty())
+            {
+                rejections.incrementAndGet();
+                EventLog.error(SOURCE, "world.reload_empty", file, "Update would leave no countries");
+                return false;
+            }
+            current = updated;
+        }
+        reloads.incrementAndGet();
+
+        for(final Consumer<World> listener : listeners)
+        {
+            try
+            {
+                listener.accept(updated);
+            }
+            catch(final RuntimeException e)
+            {
+                EventLog.error(SOURCE, "world.listener_failed", file, e.toString());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops watching for changes. The current snapshot stays available.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        watchService.close();
+    }
+
+    /*
+     * Collects changed shards until closed. Events are gathered for a short settle
+     * period so that a file written in several steps is parsed once, when complete.
+     */
+    private void watch()
+    {
+        try
+        {
+            while(true)
+            {
+                final Set<Character> changed;
+                WatchKey key;
+
+                changed = new TreeSet<>();
+                key = watchService.take();
+
+                while(key != null)
+                {
+                    for(final WatchEvent<?> event : key.pollEvents())
+                    {
+                        if(event.context() instanceof Path)
+                        {
+                            final char letter;
+                            letter = World.shardLetterOf(((Path) event.context()).toString());
+
+                            if(letter != NO_SHARD)
+                            {
+                                changed.add(letter);
+                            }
+                        }
+                    }
+                    key.reset();
+                    key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+
+                for(final char letter : changed)
+                {
+                    reloadShard(letter);
+                }
+            }
+        }
+        catch(final ClosedWatchServiceException e)
+        {
+            // Closed by close(); stop watching
+        }
+        catch(final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for reading one country file, at startup or on reload.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+@Name("ca.bcit.comp2522.termProject.WorldShardLoad")
+@Label("World Shard Load")
+@Category({"Games", "Word Game"})
+@Description("Reading and parsing one country file")
+public final class WorldShardLoadEvent extends Event
+{
+    @Label("File")
+    String file;
+
+    @Label("Countries")
+    int countries;
+
+    @Label("Invalid Countries")
+    @Description("Country blocks skipped because they could not be parsed")
+    int invalidCountries;
+
+    @Label("Strict")
+    @Description("True for reloads, which reject the whole file on any invalid block")
+    boolean strict;
+}
@@ -0,0 +1,19 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+/**
+ * Supplies the World snapshot a game should read from.
+ * A game asks for the current snapshot once per game and keeps using it, so a
+ * snapshot published mid-game only affects the games that start afterwards.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+public interface WorldSource
+{
+    /**
+     * Retrieves the latest World snapshot.
+     *
+     * @return the current World
+     */
+    World current();
+}
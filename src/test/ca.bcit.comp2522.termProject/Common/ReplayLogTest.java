@@ -0,0 +1,229 @@
+package ca.bcit.comp2522.termProject.Common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that recordings written by ReplayWriter read back unchanged through ReplayReader,
+ * and that a ReplayLog stores and returns them in order.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+class ReplayLogTest
+{
+    private static final long SEED       = 0x5EED_2522_CAFEL;
+    private static final long START      = 1_700_000_000_000L;
+    private static final int  ANSWER     = 1;
+    private static final int  PLACE      = 2;
+    private static final int  THREADS    = 8;
+    private static final int  PER_THREAD = 250;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordingReadsBackUnchanged() throws IOException
+    {
+        final byte[] recording;
+        final ReplayReader reader;
+        final LogHistogram delays;
+
+        recording = new ReplayWriter(ReplayLog.WORD_GAME, SEED, START, 1L, -7L)
+                .event(ANSWER, START + 1_200).writeString("Ottawa")
+                .event(PLACE, START + 1_250).writeUnsigned(19).writeSigned(-300)
+                .event(ANSWER, START + 4_000).writeString("Zürich, 東京")
+                .event(ANSWER, START + 4_000).writeString(null)
+                .finish(3L, -1L, 0L);
+
+        reader = new ReplayReader(recording);
+        delays = new LogHistogram();
+        reader.recordDelays(delays);
+
+        assertEquals(ReplayLog.WORD_GAME, reader.getGameType());
+        assertEquals(SEED, reader.getSeed());
+        assertEquals(START, reader.getStartMillis());
+        assertEquals(2, reader.getParameterCount());
+        assertEquals(1L, reader.getParameter(0));
+        assertEquals(-7L, reader.getParameter(1));
+
+        assertEquals(ANSWER, reader.nextEvent());
+        assertEquals(START + 1_200, reader.getEventTime());
+        assertEquals("Ottawa", reader.readString());
+
+        assertEquals(PLACE, reader.nextEvent());
+        assertEquals(19L, reader.readUnsigned());
+        assertEquals(-300L, reader.readSigned());
+
+        assertEquals(ANSWER, reader.nextEvent());
+        assertEquals("Zürich, 東京", reader.readString());
+
+        assertEquals(ANSWER, reader.nextEvent());
+        assertEquals(START + 4_000, reader.getEventTime());
+        assertEquals("", reader.readString());
+
+        assertEquals(ReplayWriter.END_EVENT, reader.nextEvent());
+        assertEquals(ReplayWriter.END_EVENT, reader.nextEvent());
+        assertEquals(4, reader.getEventCount());
+        assertEquals(4L, delays.getTotalCount());
+        assertEquals(3, reader.getOutcomeCount());
+        assertTrue(reader.outcomeMatches(3L, -1L, 0L));
+        assertFalse(reader.outcomeMatches(3L, -1L, 1L));
+        assertFalse(reader.outcomeMatches(3L, -1L));
+    }
+
+    @Test
+    void timeGoingBackwardsIsRecordedAsNoDelay() throws IOException
+    {
+        final ReplayReader reader;
+
+        reader = new ReplayReader(new ReplayWriter(ReplayLog.NUMBER_GAME, SEED, START)
+                .event(PLACE, START + 500)
+                .event(PLACE, START + 100)
+                .event(PLACE, START + 700)
+                .finish());
+
+        reader.nextEvent();
+        assertEquals(START + 500, reader.getEventTime());
+        reader.nextEvent();
+        assertEquals(START + 500, reader.getEventTime());
+        reader.nextEvent();
+        assertEquals(START + 700, reader.getEventTime());
+    }
+
+    @Test
+    void malformedRecordingsAreRejected()
+    {
+        final ReplayWriter writer;
+        final byte[] recording;
+
+        writer = new ReplayWriter(ReplayLog.ESCAPE_ROOM, SEED, START);
+        assertThrows(IllegalArgumentException.class, () -> writer.event(ReplayWriter.END_EVENT, START));
+
+        recording = writer.finish();
+        assertThrows(IllegalStateException.class, () -> writer.event(ANSWER, START));
+
+        recording[0] = (byte) (ReplayWriter.VERSION + 1);
+        assertThrows(IOException.class, () -> new ReplayReader(recording));
+        assertThrows(IOException.class, () -> new ReplayReader(new byte[] {ReplayWriter.VERSION, 1, 0}));
+    }
+
+    @Test
+    void logReturnsRecordingsInOrder() throws IOException
+    {
+        final ReplayLog log;
+        final List<byte[]> appended;
+        final List<byte[]> read;
+
+        log = new ReplayLog(directory.resolve("replays").resolve("games.replay"));
+        appended = new ArrayList<>();
+        for(int i = 0; i < PER_THREAD; i++)
+        {
+            appended.add(new ReplayWriter(ReplayLog.NUMBER_GAME, SEED + i, START + i)
+                    .event(PLACE, START + i).writeUnsigned(i % 20)
+                    .finish(i));
+            log.append(appended.get(i));
+        }
+
+        read = log.readAll();
+        assertEquals(PER_THREAD, log.getRecordingsWritten());
+        assertEquals(appended.size(), read.size());
+        for(int i = 0; i < appended.size(); i++)
+        {
+            assertArrayEquals(appended.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    void missingLogReadsEmpty() throws IOException
+    {
+        assertTrue(new ReplayLog(directory.resolve("none.replay")).readAll().isEmpty());
+    }
+
+    @Test
+    void recordingCutShortIsSkipped() throws IOException
+    {
+        final Path path;
+        final ReplayLog log;
+        final byte[] recording;
+
+        path = directory.resolve("games.replay");
+        log = new ReplayLog(path);
+        recording = new ReplayWriter(ReplayLog.WORD_GAME, SEED, START).finish(1L);
+        log.append(recording);
+        log.append(recording);
+        log.flush();
+
+        // A length promising more bytes than a crash left behind
+        Files.write(path, new byte[] {100, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        assertEquals(2, new ReplayLog(path).readAll().size());
+    }
+
+    @Test
+    void failedWriteDoesNotStopTheWriter() throws IOException
+    {
+        final ReplayLog log;
+        final byte[] recording;
+
+        log = new ReplayLog(directory.resolve("games.replay"));
+        recording = new ReplayWriter(ReplayLog.WORD_GAME, SEED, START).finish(1L);
+
+        log.append(null); // Throws on the writer thread
+        log.append(recording);
+
+        assertTrue(log.flush());
+        assertEquals(1, log.readAll().size());
+    }
+
+    @Test
+    void appendsFromManyThreadsAreAllWritten() throws Exception
+    {
+        final ReplayLog log;
+        final List<Thread> threads;
+        final Set<Long> seeds;
+
+        log = new ReplayLog(directory.resolve("games.replay"));
+        threads = new ArrayList<>();
+        for(int t = 0; t < THREADS; t++)
+        {
+            final long base;
+            final Thread thread;
+
+            base = (long) t * PER_THREAD;
+            thread = new Thread(() -> {
+                for(int i = 0; i < PER_THREAD; i++)
+                {
+                    log.append(new ReplayWriter(ReplayLog.ESCAPE_ROOM, base + i, START).finish());
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for(final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        seeds = new HashSet<>();
+        for(final byte[] recording : log.readAll())
+        {
+            seeds.add(new ReplayReader(recording).getSeed());
+        }
+        assertEquals(THREADS * PER_THREAD, seeds.size());
+    }
+}
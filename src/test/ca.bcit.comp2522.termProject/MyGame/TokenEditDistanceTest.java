@@ -0,0 +1,246 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests TokenEditDistance against a plain edit distance table, including comparisons long
+ * enough to be split instead of traced back in one piece.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+class TokenEditDistanceTest
+{
+    private static final int  UNKNOWN       = Vocabulary.NOT_FOUND;
+    private static final long SEED          = 2522L;
+    private static final int  LONG_ANSWER   = 3_000;
+    private static final int  TOKENS        = 40;
+    private static final int  TYPO_ONE_IN   = 8;
+    private static final int  RANDOM_TRIALS = 2_000;
+
+    private final TokenEditDistance comparison = new TokenEditDistance();
+
+    @Test
+    void identicalAnswerHasNoErrors()
+    {
+        final int[] expected = {3, 1, 4, 1, 5};
+
+        assertEquals(0, comparison.compare(expected, expected.length, expected.clone(), expected.length));
+        assertEquals(0, comparison.getWrongCount());
+        assertEquals(0, comparison.getExtraCount());
+        assertEquals(1.0, comparison.getCredit());
+    }
+
+    @Test
+    void replacedTokenIsWrong()
+    {
+        final int[] expected = {3, 1, 4, 1, 5};
+        final int[] entered  = {3, 1, 9, 1, 5};
+
+        assertEquals(1, comparison.compare(expected, expected.length, entered, entered.length));
+        assertEquals(1, comparison.getWrongCount());
+        assertEquals(2, comparison.getWrongPosition(0));
+        assertEquals(0, comparison.getExtraCount());
+        assertEquals(0.8, comparison.getCredit(), 1e-9);
+    }
+
+    @Test
+    void leftOutTokenIsWrongAndExtraTokenIsCounted()
+    {
+        final int[] expected = {3, 1, 4, 1, 5};
+
+        assertEquals(1, comparison.compare(expected, expected.length, new int[] {3, 1, 1, 5}, 4));
+        assertEquals(1, comparison.getWrongCount());
+        assertEquals(2, comparison.getWrongPosition(0));
+
+        assertEquals(1, comparison.compare(expected, expected.length, new int[] {3, 1, 4, 7, 1, 5}, 6));
+        assertEquals(0, comparison.getWrongCount());
+        assertEquals(1, comparison.getExtraCount());
+    }
+
+    @Test
+    void unknownTokensNeverMatch()
+    {
+        final int[] expected = {3, 1, 4};
+        final int[] entered  = {UNKNOWN, UNKNOWN, UNKNOWN};
+
+        assertEquals(3, comparison.compare(expected, expected.length, entered, entered.length));
+        assertEquals(3, comparison.getWrongCount());
+        assertEquals(0.0, comparison.getCredit());
+    }
+
+    @Test
+    void droppedTokensCountAsExtra()
+    {
+        final int[] expected = {3, 1, 4};
+
+        assertEquals(2, comparison.compare(expected, expected.length, expected.clone(), expected.length, 2));
+        assertEquals(2, comparison.getExtraCount());
+        assertEquals(0, comparison.getWrongCount());
+    }
+
+    @Test
+    void emptyAnswers()
+    {
+        assertEquals(0, comparison.compare(new int[0], 0, new int[0], 0));
+        assertEquals(1.0, comparison.getCredit());
+
+        assertEquals(2, comparison.compare(new int[0], 0, new int[] {1, 2}, 2));
+        assertEquals(0.0, comparison.getCredit());
+
+        assertEquals(3, comparison.compare(new int[] {1, 2, 3}, 3, new int[0], 0));
+        assertEquals(3, comparison.getWrongCount());
+    }
+
+    @Test
+    void wrongPositionOutOfRangeIsRejected()
+    {
+        comparison.compare(new int[] {1, 2}, 2, new int[] {1, 3}, 2);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> comparison.getWrongPosition(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> comparison.getWrongPosition(-1));
+    }
+
+    @Test
+    void randomAnswersMatchTheTable()
+    {
+        final Random random = new Random(SEED);
+
+        for(int trial = 0; trial < RANDOM_TRIALS; trial++)
+        {
+            final int[] expected = randomTokens(random, random.nextInt(150), 6);
+            final int[] entered  = randomAnswer(random, random.nextInt(150), 8);
+
+            check(expected, entered);
+        }
+    }
+
+    @Test
+    void longAnswersAreSplitAndStillOptimal()
+    {
+        final Random random = new Random(SEED);
+        final int[] expected = randomTokens(random, LONG_ANSWER, TOKENS);
+        final int[] entered  = new int[LONG_ANSWER];
+
+        for(int i = 0; i < LONG_ANSWER; i++)
+        {
+            entered[i] = random.nextInt(TYPO_ONE_IN) == 0 ? random.nextInt(TOKENS) : expected[i];
+        }
+
+        check(expected, entered);
+        check(expected, randomAnswer(random, LONG_ANSWER / 2, TOKENS));
+    }
+
+    /*
+     * Checks the distance against the table, and that the wrong positions describe an
+     * alignment of that cost: the other expected tokens appear in order in the answer.
+     */
+    private void check(final int[] expected,
+                       final int[] entered)
+    {
+        final int distance;
+        final boolean[] wrong;
+        int previous;
+        int column;
+
+        distance = comparison.compare(expected, expected.length, entered, entered.length);
+        assertEquals(tableDistance(expected, entered), distance);
+        assertEquals(distance, comparison.getWrongCount() + comparison.getExtraCount());
+
+        wrong = new boolean[expected.length];
+        previous = -1;
+        for(int i = 0; i < comparison.getWrongCount(); i++)
+        {
+            assertTrue(comparison.getWrongPosition(i) > previous, "Wrong positions in increasing order");
+            previous = comparison.getWrongPosition(i);
+            wrong[previous] = true;
+        }
+
+        column = 0;
+        for(int i = 0; i < expected.length; i++)
+        {
+            if(!wrong[i])
+            {
+                while(column < entered.length && entered[column] != expected[i])
+                {
+                    column++;
+                }
+                assertTrue(column < entered.length, "Matched token " + i + " is in the answer");
+                column++;
+            }
+        }
+    }
+
+    /*
+     * Computes the edit distance with the full table, one row at a time.
+     */
+    private static int tableDistance(final int[] expected,
+                                     final int[] entered)
+    {
+        int[] previous;
+        int[] current;
+
+        previous = new int[entered.length + 1];
+        current = new int[entered.length + 1];
+        for(int j = 0; j <= entered.length; j++)
+        {
+            previous[j] = j;
+        }
+
+        for(int i = 1; i <= expected.length; i++)
+        {
+            final int[] swap;
+
+            current[0] = i;
+            for(int j = 1; j <= entered.length; j++)
+            {
+                current[j] = Math.min(Math.min(previous[j], current[j - 1]) + 1,
+                        previous[j - 1] + (expected[i - 1] == entered[j - 1] ? 0 : 1));
+            }
+            swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[entered.length];
+    }
+
+    /*
+     * Draws token ids below the specified number of tokens.
+     */
+    private static int[] randomTokens(final Random random,
+                                      final int length,
+                                      final int tokens)
+    {
+        final int[] result;
+        result = new int[length];
+
+        for(int i = 0; i < length; i++)
+        {
+            result[i] = random.nextInt(tokens);
+        }
+        return result;
+    }
+
+    /*
+     * Draws an answer of token ids below the specified number of tokens, with unknown
+     * tokens among them.
+     */
+    private static int[] randomAnswer(final Random random,
+                                      final int length,
+                                      final int tokens)
+    {
+        final int[] result;
+        result = new int[length];
+
+        for(int i = 0; i < length; i++)
+        {
+            result[i] = random.nextInt(tokens + 1) - 1;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,184 @@
+package ca.bcit.comp2522.termProject.MyGame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests loading, looking up and sampling the words of a Vocabulary.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+class VocabularyTest
+{
+    private static final long SEED      = 2522L;
+    private static final int  DRAWS     = 100_000;
+    private static final int  MANY      = 1_000;
+    private static final int  DIGITS    = 10;
+    private static final int  DEFAULTS  = 20;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void defaultDigitsHaveTheirValueAsId()
+    {
+        final Vocabulary vocabulary;
+        vocabulary = Vocabulary.getDefault();
+
+        assertEquals(DEFAULTS, vocabulary.size());
+        assertEquals(1, vocabulary.getTierCount());
+        for(int digit = 0; digit < DIGITS; digit++)
+        {
+            assertEquals(digit, vocabulary.indexOf(Integer.toString(digit)));
+            assertEquals(Integer.toString(digit), vocabulary.getText(digit));
+        }
+    }
+
+    @Test
+    void wordsAreFoundInsideLongerText()
+    {
+        final Vocabulary vocabulary;
+        final String text;
+
+        vocabulary = Vocabulary.getDefault();
+        text = "open the door now";
+
+        assertEquals(vocabulary.indexOf("door"), vocabulary.indexOf(text, 9, 13));
+        assertEquals(Vocabulary.NOT_FOUND, vocabulary.indexOf(text, 9, 12));
+        assertEquals(Vocabulary.NOT_FOUND, vocabulary.indexOf(text, 0, 4));
+    }
+
+    @Test
+    void lookupIsExact()
+    {
+        final Vocabulary vocabulary;
+        vocabulary = Vocabulary.getDefault();
+
+        assertEquals(Vocabulary.NOT_FOUND, vocabulary.indexOf("Door"));
+        assertEquals(Vocabulary.NOT_FOUND, vocabulary.indexOf("doors"));
+        assertEquals(Vocabulary.NOT_FOUND, vocabulary.indexOf("10"));
+        assertEquals(Vocabulary.NOT_FOUND, vocabulary.indexOf(""));
+    }
+
+    @Test
+    void invalidCommentedAndDuplicateLinesAreSkipped() throws IOException
+    {
+        final Vocabulary vocabulary;
+
+        vocabulary = Vocabulary.load(write("# Escape words",
+                                           "",
+                                           "key 2 1",
+                                           "lock",
+                                           "door -1",
+                                           "safe 1 0",
+                                           "clue 1 1 extra",
+                                           "key 5",
+                                           "  map  3  "));
+
+        assertEquals(3, vocabulary.size());
+        assertEquals("key", vocabulary.getText(0));
+        assertEquals("lock", vocabulary.getText(1));
+        assertEquals("map", vocabulary.getText(2));
+        assertEquals(Vocabulary.NOT_FOUND, vocabulary.indexOf("door"));
+    }
+
+    @Test
+    void fileWithoutWordsIsRejected() throws IOException
+    {
+        final Path file;
+        file = write("# Nothing here", "");
+
+        assertThrows(IllegalArgumentException.class, () -> Vocabulary.load(file));
+    }
+
+    @Test
+    void everyWordOfALargeFileIsFound() throws IOException
+    {
+        final List<String> lines;
+        final Vocabulary vocabulary;
+
+        lines = new ArrayList<>();
+        for(int i = 0; i < MANY; i++)
+        {
+            lines.add("word" + i);
+        }
+        vocabulary = Vocabulary.load(write(lines.toArray(new String[0])));
+
+        assertEquals(MANY, vocabulary.size());
+        for(int i = 0; i < MANY; i++)
+        {
+            assertEquals(i, vocabulary.indexOf("word" + i));
+        }
+    }
+
+    @Test
+    void samplingStaysWithinTheTier() throws IOException
+    {
+        final Vocabulary vocabulary;
+        final SplittableRandom random;
+        final int easy;
+        final int hard;
+        boolean drewHard;
+
+        vocabulary = Vocabulary.load(write("easy 1 1", "hard 1 2"));
+        random = new SplittableRandom(SEED);
+        easy = vocabulary.indexOf("easy");
+        hard = vocabulary.indexOf("hard");
+
+        assertEquals(2, vocabulary.getTierCount());
+
+        drewHard = false;
+        for(int i = 0; i < DRAWS / 100; i++)
+        {
+            assertEquals(easy, vocabulary.sample(0, random));
+            drewHard |= vocabulary.sample(1, random) == hard;
+            assertTrue(vocabulary.sample(Integer.MAX_VALUE, random) != Vocabulary.NOT_FOUND);
+        }
+        assertTrue(drewHard, "The hardest tier includes its own words");
+    }
+
+    @Test
+    void samplingFollowsTheWeights() throws IOException
+    {
+        final Vocabulary vocabulary;
+        final SplittableRandom random;
+        final int heavy;
+        int heavyDraws;
+
+        vocabulary = Vocabulary.load(write("heavy 3", "light 1"));
+        random = new SplittableRandom(SEED);
+        heavy = vocabulary.indexOf("heavy");
+
+        heavyDraws = 0;
+        for(int i = 0; i < DRAWS; i++)
+        {
+            heavyDraws += vocabulary.sample(0, random) == heavy ? 1 : 0;
+        }
+
+        assertEquals(0.75, heavyDraws / (double) DRAWS, 0.01);
+    }
+
+    /*
+     * Writes a vocabulary file with the specified lines.
+     */
+    private Path write(final String... lines) throws IOException
+    {
+        final Path file;
+        file = Files.createTempFile(directory, "vocabulary", ".txt");
+
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,250 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that ScoreHistory compacts old day segments into monthly rollups exactly once,
+ * even when a compaction was cut short by a crash.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+class ScoreHistoryTest
+{
+    private static final LocalTime PLAYED_AT   = LocalTime.of(10, 30);
+    private static final int       OLD_MONTHS  = 3;
+    private static final int       ONE_GAME    = 1;
+
+    @TempDir
+    Path directory;
+
+    private Path       legacyFile;
+    private YearMonth  oldMonth;
+    private Score      firstOld;
+    private Score      secondOld;
+    private Score      thirdOld;
+    private Score      recent;
+
+    @BeforeEach
+    void setUp()
+    {
+        legacyFile = directory.resolve("score.txt");
+        oldMonth = YearMonth.now().minusMonths(OLD_MONTHS);
+
+        firstOld = new Score(oldMonth.atDay(1).atTime(PLAYED_AT), ONE_GAME, 7, 1, 2);
+        secondOld = new Score(oldMonth.atDay(1).atTime(PLAYED_AT.plusHours(1)), ONE_GAME, 4, 3, 3);
+        thirdOld = new Score(oldMonth.atDay(2).atTime(PLAYED_AT), ONE_GAME, 9, 1, 0);
+        recent = new Score(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), ONE_GAME, 5, 2, 3);
+    }
+
+    @Test
+    void oldDaysAreCompactedIntoTheirMonth()
+    {
+        final ScoreHistory history;
+        final SegmentSummary rollup;
+
+        history = newHistory();
+        history.append(firstOld);
+        history.append(secondOld);
+        history.append(thirdOld);
+        history.append(recent);
+
+        rollup = summary(history, oldMonth.toString());
+        assertEquals(3, rollup.getCount());
+        assertEquals(firstOld.getScore() + secondOld.getScore() + thirdOld.getScore(), rollup.getTotalScore());
+        assertEquals(1, summary(history, LocalDate.now().toString()).getCount());
+        assertEquals(2, history.getSummaries().size());
+
+        assertFalse(Files.exists(segment(oldMonth.atDay(1).toString())));
+        assertFalse(Files.exists(segment(oldMonth.atDay(2).toString())));
+        assertEquals(3, history.readSegment(rollup).size(), "Merge records are not read as scores");
+        assertEquals(thirdOld.getScore(), history.bestScore());
+    }
+
+    @Test
+    void rollupStartingBeforeTheRangeIsLeftOut()
+    {
+        final ScoreHistory history;
+
+        history = newHistory();
+        history.append(thirdOld);
+        history.append(recent);
+
+        assertEquals(thirdOld.getScore(), history.bestScoreSince(oldMonth.atDay(1)));
+        assertEquals(recent.getScore(), history.bestScoreSince(oldMonth.atDay(2)));
+        assertEquals(recent.calculateAverageScore(), history.averageScoreSince(oldMonth.atDay(2)), 1e-9);
+    }
+
+    @Test
+    void historyReloadsTheSameSummaries() throws IOException
+    {
+        final List<String> written;
+
+        appendAll(newHistory());
+        written = indexLines(newHistory());
+
+        Files.delete(directory.resolve("history").resolve("index.txt"));
+        assertEquals(written, indexLines(newHistory()), "Rebuilt from the segments");
+        assertEquals(written, indexLines(newHistory()), "Read from the rebuilt index");
+    }
+
+    @Test
+    void dayLeftBehindAfterItsMergeIsNotCountedTwice() throws IOException
+    {
+        final ScoreHistory history;
+
+        appendAll(newHistory());
+
+        // A crash after the rollup was moved into place, before the day segment was deleted
+        Files.writeString(segment(oldMonth.atDay(2).toString()), thirdOld + System.lineSeparator());
+        Files.delete(directory.resolve("history").resolve("index.txt"));
+
+        history = newHistory();
+        assertEquals(3, summary(history, oldMonth.toString()).getCount());
+        assertFalse(Files.exists(segment(oldMonth.atDay(2).toString())));
+    }
+
+    @Test
+    void mergeInterruptedBeforeTheIndexIsFinishedOnce() throws IOException
+    {
+        final ScoreHistory history;
+        final String dayName;
+        final SegmentSummary day;
+        final SegmentSummary rollup;
+
+        newHistory().append(thirdOld);
+
+        // The index still lists the day, as it was before the crash
+        dayName = oldMonth.atDay(2).toString();
+        day = SegmentSummary.empty(dayName, oldMonth.atDay(2), oldMonth.atDay(3)).add(thirdOld);
+        Files.writeString(segment(dayName), thirdOld + System.lineSeparator());
+        Files.write(directory.resolve("history").resolve("index.txt"), List.of(day.toIndexLine()));
+
+        history = newHistory();
+        history.append(recent);
+
+        rollup = summary(history, oldMonth.toString());
+        assertEquals(1, rollup.getCount());
+        assertEquals(1, history.readSegment(rollup).size());
+        assertFalse(Files.exists(segment(dayName)));
+    }
+
+    @Test
+    void dayChangedSinceItsMergeIsMergedAgain() throws IOException
+    {
+        final ScoreHistory history;
+
+        newHistory().append(thirdOld);
+
+        // A day segment with other content than the one recorded is a different day's worth of scores
+        Files.writeString(segment(oldMonth.atDay(2).toString()), secondOld + System.lineSeparator());
+        Files.delete(directory.resolve("history").resolve("index.txt"));
+
+        history = newHistory();
+        history.append(recent);
+        assertEquals(2, summary(history, oldMonth.toString()).getCount());
+    }
+
+    @Test
+    void legacyScoresAreImported()
+    {
+        final ScoreHistory history;
+
+        Score.appendScoreToFile(firstOld, legacyFile.toString());
+        Score.appendScoreToFile(recent, legacyFile.toString());
+
+        history = newHistory();
+        assertEquals(1, summary(history, oldMonth.toString()).getCount());
+        assertEquals(1, summary(history, LocalDate.now().toString()).getCount());
+        assertTrue(Files.exists(directory.resolve("history").resolve("index.txt")));
+    }
+
+    @Test
+    void appendLeavesTheLegacyFileAlone() throws IOException
+    {
+        final ScoreHistory history;
+        final long legacySize;
+
+        Score.appendScoreToFile(firstOld, legacyFile.toString());
+        legacySize = Files.size(legacyFile);
+
+        history = newHistory();
+        history.append(recent);
+        assertEquals(legacySize, Files.size(legacyFile));
+        assertEquals(1, summary(history, LocalDate.now().toString()).getCount());
+    }
+
+    /*
+     * Opens the history in the test directory, as a new server would.
+     */
+    private ScoreHistory newHistory()
+    {
+        return new ScoreHistory(directory.resolve("history"), legacyFile);
+    }
+
+    /*
+     * Appends every test score, old ones first.
+     */
+    private void appendAll(final ScoreHistory history)
+    {
+        history.append(firstOld);
+        history.append(secondOld);
+        history.append(thirdOld);
+        history.append(recent);
+    }
+
+    /*
+     * Finds the summary of a segment, failing if it does not exist.
+     */
+    private static SegmentSummary summary(final ScoreHistory history,
+                                          final String name)
+    {
+        for(final SegmentSummary summary : history.getSummaries())
+        {
+            if(summary.getName().equals(name))
+            {
+                return summary;
+            }
+        }
+        throw new AssertionError("No segment " + name);
+    }
+
+    /*
+     * Formats every summary as the index stores it.
+     */
+    private static List<String> indexLines(final ScoreHistory history)
+    {
+        final List<String> lines;
+        lines = new ArrayList<>();
+
+        for(final SegmentSummary summary : history.getSummaries())
+        {
+            lines.add(summary.toIndexLine());
+        }
+        return lines;
+    }
+
+    /*
+     * Resolves the file of a segment.
+     */
+    private Path segment(final String name)
+    {
+        return directory.resolve("history").resolve(name + ".txt");
+    }
+}
@@ -0,0 +1,367 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the order SpacedRepetitionScheduler asks items in, and that a saved schedule
+ * loads back unchanged.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+class SpacedRepetitionSchedulerTest
+{
+    private static final List<String> COUNTRIES      = List.of("Canada", "Japan", "Kenya", "Peru", "Chile");
+    private static final int          QUESTION_TYPES = 3;
+    private static final int          ITEMS          = COUNTRIES.size() * QUESTION_TYPES;
+    private static final int          MANY_PLAYERS   = 40;
+    private static final int          THREADS        = 8;
+    private static final int          ANSWERS        = 2_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void playerSlotsAreStable()
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final int first;
+        final int item;
+
+        scheduler = newScheduler();
+        first = scheduler.playerSlot("ada");
+        scheduler.recordAnswer(first, scheduler.nextItem(first),
+                SpacedRepetitionScheduler.QUALITY_FIRST_ATTEMPT);
+        item = scheduler.nextItem(first);
+
+        for(int i = 0; i < MANY_PLAYERS; i++)
+        {
+            assertNotEquals(first, scheduler.playerSlot("player" + i));
+        }
+
+        assertEquals(first, scheduler.playerSlot("ada"));
+        assertEquals(item, scheduler.nextItem(first), "Growing the arrays keeps every schedule");
+    }
+
+    @Test
+    void itemsDecodeToCountryAndQuestionType()
+    {
+        final SpacedRepetitionScheduler scheduler;
+        scheduler = newScheduler();
+
+        for(int item = 0; item < ITEMS; item++)
+        {
+            assertEquals(item,
+                    scheduler.countryIndexOf(item) * QUESTION_TYPES + scheduler.questionTypeOf(item));
+            assertTrue(COUNTRIES.contains(scheduler.countryName(scheduler.countryIndexOf(item))));
+        }
+    }
+
+    @Test
+    void everyItemIsIntroduced()
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final int player;
+        final Set<Integer> asked;
+
+        scheduler = newScheduler();
+        player = scheduler.playerSlot("ada");
+        asked = new HashSet<>();
+
+        for(int i = 0; i < ITEMS * 3; i++)
+        {
+            final int item;
+            item = scheduler.nextItem(player);
+
+            asked.add(item);
+            scheduler.recordAnswer(player, item, SpacedRepetitionScheduler.QUALITY_FIRST_ATTEMPT);
+        }
+
+        assertEquals(ITEMS, asked.size());
+    }
+
+    @Test
+    void missedItemComesBackSoonerThanAKnownOne()
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final int player;
+        final int known;
+        final int missed;
+
+        scheduler = newScheduler();
+        player = scheduler.playerSlot("ada");
+
+        known = scheduler.nextItem(player);
+        for(int i = 0; i < 3; i++)
+        {
+            scheduler.recordAnswer(player, known, SpacedRepetitionScheduler.QUALITY_FIRST_ATTEMPT);
+        }
+
+        missed = scheduler.nextItem(player);
+        scheduler.recordAnswer(player, missed, SpacedRepetitionScheduler.QUALITY_INCORRECT);
+
+        assertTrue(questionsUntil(scheduler, player, missed) <= 2, "A missed item is asked again soon");
+        assertTrue(questionsUntil(scheduler, player, known) > 6, "A known item is spaced out");
+    }
+
+    @Test
+    void postponedItemIsNotAskedNext()
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final int player;
+        final int item;
+
+        scheduler = newScheduler();
+        player = scheduler.playerSlot("ada");
+        item = scheduler.nextItem(player);
+
+        scheduler.postponeItem(player, item);
+
+        assertNotEquals(item, scheduler.nextItem(player));
+        assertTrue(questionsUntil(scheduler, player, item) >= ITEMS - 1, "Postponed behind every other item");
+    }
+
+    @Test
+    void invalidAnswersAreRejected()
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final int player;
+
+        scheduler = newScheduler();
+        player = scheduler.playerSlot("ada");
+
+        assertThrows(IllegalArgumentException.class, () -> scheduler.recordAnswer(player, ITEMS, 0));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.recordAnswer(player, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.recordAnswer(player, 0, 6));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.postponeItem(player, ITEMS));
+        assertThrows(IllegalArgumentException.class, () -> new SpacedRepetitionScheduler(List.of(), 1));
+    }
+
+    @Test
+    void savedScheduleLoadsBackUnchanged() throws IOException
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final Path saved;
+        final Path resaved;
+
+        scheduler = newScheduler();
+        play(scheduler, "ada", 30);
+        play(scheduler, "grace", 12);
+
+        saved = directory.resolve("schedule.bin");
+        resaved = directory.resolve("reloaded.bin");
+        scheduler.save(saved);
+        SpacedRepetitionScheduler.load(saved, COUNTRIES).save(resaved);
+
+        assertArrayEquals(Files.readAllBytes(saved), Files.readAllBytes(resaved));
+        assertEquals(scheduler.playerSlot("grace"), SpacedRepetitionScheduler.load(saved, COUNTRIES)
+                .playerSlot("grace"));
+    }
+
+    @Test
+    void countryNewToTheCatalogStartsUnseen() throws IOException
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final SpacedRepetitionScheduler loaded;
+        final List<String> catalog;
+        final Path saved;
+        final int player;
+        boolean askedNew;
+
+        scheduler = newScheduler();
+        play(scheduler, "ada", ITEMS * 2);
+        saved = directory.resolve("schedule.bin");
+        scheduler.save(saved);
+
+        catalog = new ArrayList<>(COUNTRIES);
+        catalog.add(0, "Nepal");
+        loaded = SpacedRepetitionScheduler.load(saved, catalog);
+        player = loaded.playerSlot("ada");
+
+        askedNew = false;
+        for(int i = 0; i < ITEMS * 2 && !askedNew; i++)
+        {
+            final int item;
+            item = loaded.nextItem(player);
+
+            askedNew = loaded.countryName(loaded.countryIndexOf(item)).equals("Nepal");
+            loaded.recordAnswer(player, item, SpacedRepetitionScheduler.QUALITY_FIRST_ATTEMPT);
+        }
+        assertTrue(askedNew, "Nepal is introduced like any unseen country");
+    }
+
+    @Test
+    void addingCountriesKeepsEverySchedule() throws IOException
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final List<String> catalog;
+        final Path before;
+        final Path extended;
+        final Path trimmed;
+
+        scheduler = newScheduler();
+        play(scheduler, "ada", 30);
+        play(scheduler, "grace", 12);
+        before = directory.resolve("before.bin");
+        scheduler.save(before);
+
+        catalog = new ArrayList<>(COUNTRIES);
+        catalog.add(2, "Nepal");
+        assertEquals(1, scheduler.addCountries(catalog));
+        assertEquals(0, scheduler.addCountries(catalog), "Known countries are not added again");
+        assertEquals("Nepal", scheduler.countryName(COUNTRIES.size()));
+
+        extended = directory.resolve("extended.bin");
+        trimmed = directory.resolve("trimmed.bin");
+        scheduler.save(extended);
+        SpacedRepetitionScheduler.load(extended, COUNTRIES).save(trimmed);
+
+        assertArrayEquals(Files.readAllBytes(before), Files.readAllBytes(trimmed));
+    }
+
+    @Test
+    void addedCountryIsIntroduced()
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final int player;
+        final List<String> catalog;
+        boolean askedNew;
+
+        scheduler = newScheduler();
+        player = scheduler.playerSlot("ada");
+        play(scheduler, "ada", ITEMS * 2);
+
+        catalog = new ArrayList<>(COUNTRIES);
+        catalog.add("Nepal");
+        scheduler.addCountries(catalog);
+
+        askedNew = false;
+        for(int i = 0; i < ITEMS * 2 && !askedNew; i++)
+        {
+            final int item;
+            item = scheduler.nextItem(player);
+
+            askedNew = scheduler.countryName(scheduler.countryIndexOf(item)).equals("Nepal");
+            scheduler.recordAnswer(player, item, SpacedRepetitionScheduler.QUALITY_FIRST_ATTEMPT);
+        }
+        assertTrue(askedNew, "A country added by a reload is introduced like any unseen country");
+    }
+
+    @Test
+    void fileThatIsNotAScheduleIsRejected() throws IOException
+    {
+        final Path file;
+        file = Files.writeString(directory.resolve("schedule.bin"), "not a schedule");
+
+        assertThrows(IOException.class, () -> SpacedRepetitionScheduler.load(file, COUNTRIES));
+    }
+
+    @Test
+    void playersCanBeScheduledConcurrently() throws Exception
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final List<Future<?>> sessions;
+        final ExecutorService executor;
+
+        scheduler = newScheduler();
+        sessions = new ArrayList<>();
+        executor = Executors.newFixedThreadPool(THREADS);
+
+        try
+        {
+            for(int t = 0; t < THREADS; t++)
+            {
+                final String name;
+                name = "player" + t;
+                sessions.add(executor.submit(() -> play(scheduler, name, ANSWERS)));
+            }
+            sessions.add(executor.submit(() -> {
+                for(int i = 0; i < MANY_PLAYERS; i++)
+                {
+                    scheduler.playerSlot("late" + i); // Grows the arrays under the sessions
+                    scheduler.save(directory.resolve("schedule.bin"));
+                }
+                return null;
+            }));
+
+            for(final Future<?> session : sessions)
+            {
+                session.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        scheduler.save(directory.resolve("schedule.bin"));
+        assertEquals(THREADS + MANY_PLAYERS, SpacedRepetitionScheduler.load(directory.resolve("schedule.bin"),
+                COUNTRIES).playerSlot("someone new"));
+    }
+
+    /*
+     * Creates a scheduler over the test countries.
+     */
+    private static SpacedRepetitionScheduler newScheduler()
+    {
+        return new SpacedRepetitionScheduler(COUNTRIES, QUESTION_TYPES);
+    }
+
+    /*
+     * Answers a player's next items, missing every third one.
+     */
+    private static void play(final SpacedRepetitionScheduler scheduler,
+                             final String playerName,
+                             final int answers)
+    {
+        final int player;
+        player = scheduler.playerSlot(playerName);
+
+        for(int i = 0; i < answers; i++)
+        {
+            final int item;
+            item = scheduler.nextItem(player);
+
+            assertTrue(item >= 0 && item < ITEMS);
+            scheduler.recordAnswer(player, item, i % 3 == 0 ? SpacedRepetitionScheduler.QUALITY_INCORRECT :
+                    SpacedRepetitionScheduler.QUALITY_FIRST_ATTEMPT);
+        }
+    }
+
+    /*
+     * Answers the player's other items correctly until the specified one is asked, and
+     * returns how many questions that took.
+     */
+    private static int questionsUntil(final SpacedRepetitionScheduler scheduler,
+                                      final int player,
+                                      final int item)
+    {
+        int questions;
+        questions = 0;
+
+        while(scheduler.nextItem(player) != item)
+        {
+            scheduler.recordAnswer(player, scheduler.nextItem(player),
+                    SpacedRepetitionScheduler.QUALITY_FIRST_ATTEMPT);
+            questions++;
+        }
+        return questions;
+    }
+}
@@ -0,0 +1,179 @@
+package ca.bcit.comp2522.termProject.WordGame;
+
+import ca.bcit.comp2522.termProject.Common.ReplayLog;
+import ca.bcit.comp2522.termProject.Common.ReplayReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a recorded Word Game replays from its recorded questions, so it still
+ * replays after the countries change and when its questions came from a schedule.
+ *
+ * @author Pranjal Sharma [A01396406]
+ * @version 1.0
+ */
+class WordGameReplayTest
+{
+    private static final long   SEED            = 0x2522_0047L;
+    private static final int    QUESTIONS       = 10;
+    private static final String WRONG_ANSWER    = "Nowhere";
+    private static final String CAPITAL_PREFIX  = "Ques: What country has the capital ";
+    private static final String COUNTRY_PREFIX  = "Ques: What is the capital of ";
+    private static final String FACT_PREFIX     = "Ques: Which country has fact: ";
+
+    @TempDir
+    Path directory;
+
+    private World     played;
+    private World     edited;
+    private ReplayLog replayLog;
+    private String    correctAnswer;
+    private int       questionsAsked;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        final Path playedDirectory;
+        final Path editedDirectory;
+
+        playedDirectory = Files.createDirectories(directory.resolve("played"));
+        Files.writeString(playedDirectory.resolve("a.txt"),
+                country("Aland", "Ayton") + country("Arden", "Amble"));
+        Files.writeString(playedDirectory.resolve("b.txt"),
+                country("Brill", "Bexley") + country("Borth", "Bracken"));
+        Files.writeString(playedDirectory.resolve("c.txt"),
+                country("Corin", "Cady"));
+
+        editedDirectory = Files.createDirectories(directory.resolve("edited"));
+        Files.writeString(editedDirectory.resolve("d.txt"),
+                country("Dunmore", "Dale") + country("Drey", "Dover"));
+        Files.writeString(editedDirectory.resolve("e.txt"),
+                country("Elsey", "Eston") + country("Ember", "Ely"));
+
+        played = new World(playedDirectory);
+        edited = new World(editedDirectory);
+        replayLog = new ReplayLog(directory.resolve("games.replay"));
+    }
+
+    @Test
+    void gameReplaysAfterTheCountriesChange() throws IOException
+    {
+        final WordGameRound round;
+
+        round = newRound();
+        play(round);
+
+        assertOutcome(round);
+        assertTrue(replayOnly(edited), "The replay asks the recorded questions, not new ones");
+    }
+
+    @Test
+    void scheduledGameIsRecorded() throws IOException
+    {
+        final SpacedRepetitionScheduler scheduler;
+        final WordGameRound round;
+
+        scheduler = new SpacedRepetitionScheduler(played.getCountries().stream()
+                .map(Country::getName).toList(), WordGameRound.getNumQuestionTypes());
+        round = newRound();
+        round.setQuestionScheduler(scheduler, scheduler.playerSlot("ada"));
+        play(round);
+
+        assertOutcome(round);
+        assertTrue(replayOnly(edited));
+    }
+
+    /*
+     * Formats a country as a country file holds it, with three facts naming it.
+     */
+    private static String country(final String name,
+                                  final String capital)
+    {
+        return name + ":" + capital + "\n" +
+                name + " has a lake.\n" +
+                name + " has a forest.\n" +
+                name + " has a bridge.\n\n";
+    }
+
+    /*
+     * Creates a round over the played countries that records to the test log and
+     * remembers the answer to each question it shows.
+     */
+    private WordGameRound newRound()
+    {
+        final WordGameRound round;
+
+        round = new WordGameRound(played, this::show);
+        round.setReplayLog(replayLog);
+        return round;
+    }
+
+    /*
+     * Plays a game, answering every other question right and the rest wrong twice.
+     */
+    private void play(final WordGameRound round)
+    {
+        questionsAsked = 0;
+        round.start(SEED);
+        while(!round.isOver())
+        {
+            round.answer(questionsAsked % 2 == 1 ? correctAnswer : WRONG_ANSWER);
+        }
+    }
+
+    /*
+     * Checks the outcome of a game played by play.
+     */
+    private static void assertOutcome(final WordGameRound round)
+    {
+        final Score score;
+
+        score = round.getScore();
+        assertEquals(QUESTIONS / 2, score.getNumCorrectFirstAttempt());
+        assertEquals(0, score.getNumCorrectSecondAttempt());
+        assertEquals(QUESTIONS / 2, score.getNumIncorrectTwoAttempts());
+    }
+
+    /*
+     * Replays the only recording in the log against the specified countries.
+     */
+    private boolean replayOnly(final World world) throws IOException
+    {
+        final List<byte[]> recordings;
+
+        recordings = replayLog.readAll();
+        assertEquals(1, recordings.size());
+        return new WordGameReplay(world).replay(new ReplayReader(recordings.get(0)));
+    }
+
+    /*
+     * Receives a line the round shows and works out the answer if it is a question.
+     */
+    private void show(final String line)
+    {
+        for(final Country country : played.getCountries())
+        {
+            if(line.equals(CAPITAL_PREFIX + country.getCapitalCityName() + "?") ||
+                    line.startsWith(FACT_PREFIX) &&
+                    Arrays.asList(country.getFacts()).contains(line.substring(FACT_PREFIX.length())))
+            {
+                correctAnswer = country.getName();
+                questionsAsked++;
+            }
+            else if(line.equals(COUNTRY_PREFIX + country.getName() + "?"))
+            {
+                correctAnswer = country.getCapitalCityName();
+                questionsAsked++;
+            }
+        }
+    }
+}